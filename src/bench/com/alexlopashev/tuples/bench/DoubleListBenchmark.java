@@ -0,0 +1,493 @@
+package com.alexlopashev.tuples.bench;
+
+import com.alexlopashev.tuples.function.IntLongFunction;
+import com.alexlopashev.tuples.iterator.IntLongCursor;
+import com.alexlopashev.tuples.iterator.IntLongIterator;
+import com.alexlopashev.tuples.list.IntLongArrayList;
+import com.alexlopashev.tuples.list.IntLongList;
+import com.alexlopashev.tuples.procedure.IntLongProcedure;
+import com.alexlopashev.tuples.templates.function.DoubleFunction;
+import com.alexlopashev.tuples.templates.iterator.DoubleIterator;
+import com.alexlopashev.tuples.templates.list.DoubleArrayList;
+import com.alexlopashev.tuples.templates.list.DoubleList;
+import com.alexlopashev.tuples.templates.procedure.DoubleProcedure;
+import gnu.trove.function.TIntFunction;
+import gnu.trove.function.TLongFunction;
+import gnu.trove.iterator.TIntIterator;
+import gnu.trove.iterator.TLongIterator;
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.list.array.TLongArrayList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Pair lists: generated IntLongArrayList ("primitive"), generic DoubleArrayList of boxed
+ * values ("boxed"), two Trove columns ("trove") and ArrayList of pair objects ("arrayList").
+ */
+@State(Scope.Thread)
+public class DoubleListBenchmark {
+
+    private static final int PROBES = 16;
+    private static final int BATCH = 256;
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    int[] left;
+    long[] right;
+    Integer[] boxedLeft;
+    Long[] boxedRight;
+
+    IntLongArrayList primitive;
+    DoubleArrayList<Integer, Long> boxed;
+    TIntArrayList troveLeft;
+    TLongArrayList troveRight;
+    List<Pair> arrayList;
+
+    int[] probeLeft;
+    long[] probeRight;
+    Integer[] boxedProbeLeft;
+    Long[] boxedProbeRight;
+    Set<Pair> probePairs;
+
+    @Setup
+    public void setUp() {
+        left = new int[size];
+        right = new long[size];
+        boxedLeft = new Integer[size];
+        boxedRight = new Long[size];
+        for (int i = 0; i < size; i++) {
+            left[i] = i;
+            right[i] = i * 31L;
+            boxedLeft[i] = left[i];
+            boxedRight[i] = right[i];
+        }
+        primitive = new IntLongArrayList(left, right);
+        boxed = new DoubleArrayList<Integer, Long>(boxedLeft, boxedRight);
+        troveLeft = new TIntArrayList(left);
+        troveRight = new TLongArrayList(right);
+        arrayList = new ArrayList<Pair>(size);
+        for (int i = 0; i < size; i++)
+            arrayList.add(new Pair(left[i], right[i]));
+
+        probeLeft = new int[PROBES];
+        probeRight = new long[PROBES];
+        boxedProbeLeft = new Integer[PROBES];
+        boxedProbeRight = new Long[PROBES];
+        probePairs = new HashSet<Pair>();
+        for (int i = 0; i < PROBES; i++) {
+            int index = (int) ((long) size * i / PROBES);
+            probeLeft[i] = left[index];
+            probeRight[i] = right[index];
+            boxedProbeLeft[i] = boxedLeft[index];
+            boxedProbeRight[i] = boxedRight[index];
+            probePairs.add(new Pair(left[index], right[index]));
+        }
+    }
+
+    @Benchmark
+    public IntLongArrayList add_primitive() {
+        IntLongArrayList list = new IntLongArrayList();
+        for (int i = 0; i < size; i++)
+            list.add(left[i], right[i]);
+        return list;
+    }
+
+    @Benchmark
+    public DoubleArrayList<Integer, Long> add_boxed() {
+        DoubleArrayList<Integer, Long> list = new DoubleArrayList<Integer, Long>();
+        for (int i = 0; i < size; i++)
+            list.add(left[i], right[i]);
+        return list;
+    }
+
+    @Benchmark
+    public void add_trove(Blackhole blackhole) {
+        TIntArrayList listLeft = new TIntArrayList();
+        TLongArrayList listRight = new TLongArrayList();
+        for (int i = 0; i < size; i++) {
+            listLeft.add(left[i]);
+            listRight.add(right[i]);
+        }
+        blackhole.consume(listLeft);
+        blackhole.consume(listRight);
+    }
+
+    @Benchmark
+    public List<Pair> add_arrayList() {
+        List<Pair> list = new ArrayList<Pair>();
+        for (int i = 0; i < size; i++)
+            list.add(new Pair(left[i], right[i]));
+        return list;
+    }
+
+    @Benchmark
+    public IntLongArrayList addAll_primitive() {
+        IntLongArrayList list = new IntLongArrayList();
+        list.addAll(left, right);
+        return list;
+    }
+
+    @Benchmark
+    public DoubleArrayList<Integer, Long> addAll_boxed() {
+        DoubleArrayList<Integer, Long> list = new DoubleArrayList<Integer, Long>();
+        list.addAll(boxedLeft, boxedRight);
+        return list;
+    }
+
+    @Benchmark
+    public void addAll_trove(Blackhole blackhole) {
+        TIntArrayList listLeft = new TIntArrayList();
+        TLongArrayList listRight = new TLongArrayList();
+        listLeft.addAll(left);
+        listRight.addAll(right);
+        blackhole.consume(listLeft);
+        blackhole.consume(listRight);
+    }
+
+    @Benchmark
+    public List<Pair> addAll_arrayList() {
+        List<Pair> list = new ArrayList<Pair>();
+        list.addAll(arrayList);
+        return list;
+    }
+
+    @Benchmark
+    public void contains_primitive(Blackhole blackhole) {
+        for (int i = 0; i < PROBES; i++)
+            blackhole.consume(primitive.contains(probeLeft[i], probeRight[i] + 1));
+    }
+
+    @Benchmark
+    public void contains_boxed(Blackhole blackhole) {
+        for (int i = 0; i < PROBES; i++)
+            blackhole.consume(boxed.contains(boxedProbeLeft[i], boxedProbeRight[i] + 1));
+    }
+
+    @Benchmark
+    public void contains_trove(Blackhole blackhole) {
+        for (int i = 0; i < PROBES; i++)
+            blackhole.consume(troveIndexOf(probeLeft[i], probeRight[i] + 1) >= 0);
+    }
+
+    @Benchmark
+    public void contains_arrayList(Blackhole blackhole) {
+        for (int i = 0; i < PROBES; i++)
+            blackhole.consume(arrayList.contains(new Pair(probeLeft[i], probeRight[i] + 1)));
+    }
+
+    @Benchmark
+    public void indexOf_primitive(Blackhole blackhole) {
+        for (int i = 0; i < PROBES; i++)
+            blackhole.consume(primitive.indexOf(probeLeft[i], probeRight[i]));
+    }
+
+    @Benchmark
+    public void indexOf_boxed(Blackhole blackhole) {
+        for (int i = 0; i < PROBES; i++)
+            blackhole.consume(boxed.indexOf(boxedProbeLeft[i], boxedProbeRight[i]));
+    }
+
+    @Benchmark
+    public void indexOf_trove(Blackhole blackhole) {
+        for (int i = 0; i < PROBES; i++)
+            blackhole.consume(troveIndexOf(probeLeft[i], probeRight[i]));
+    }
+
+    @Benchmark
+    public void indexOf_arrayList(Blackhole blackhole) {
+        for (int i = 0; i < PROBES; i++)
+            blackhole.consume(arrayList.indexOf(new Pair(probeLeft[i], probeRight[i])));
+    }
+
+    @Benchmark
+    public long forEach_primitive() {
+        final long[] sum = new long[1];
+        primitive.forEach(new IntLongProcedure() {
+            @Override
+            public boolean execute(int left, long right) {
+                sum[0] += left + right;
+                return true;
+            }
+        });
+        return sum[0];
+    }
+
+    @Benchmark
+    public long forEach_boxed() {
+        final long[] sum = new long[1];
+        boxed.forEach(new DoubleProcedure<Integer, Long>() {
+            @Override
+            public boolean execute(Integer left, Long right) {
+                sum[0] += left + right;
+                return true;
+            }
+        });
+        return sum[0];
+    }
+
+    @Benchmark
+    public long forEach_trove() {
+        long sum = 0;
+        for (int i = 0; i < troveLeft.size(); i++)
+            sum += troveLeft.getQuick(i) + troveRight.getQuick(i);
+        return sum;
+    }
+
+    @Benchmark
+    public long forEach_arrayList() {
+        long sum = 0;
+        for (Pair pair : arrayList)
+            sum += pair.left + pair.right;
+        return sum;
+    }
+
+    @Benchmark
+    public long iterator_primitive() {
+        long sum = 0;
+        IntLongIterator it = primitive.iterator();
+        while (it.hasNext()) {
+            sum += it.nextLeft() + it.nextRight();
+            it.iterate();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long iterator_boxed() {
+        long sum = 0;
+        DoubleIterator<Integer, Long> it = boxed.iterator();
+        while (it.hasNext()) {
+            sum += it.nextLeft() + it.nextRight();
+            it.iterate();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long iterator_trove() {
+        long sum = 0;
+        TIntIterator itLeft = troveLeft.iterator();
+        TLongIterator itRight = troveRight.iterator();
+        while (itLeft.hasNext())
+            sum += itLeft.next() + itRight.next();
+        return sum;
+    }
+
+    @Benchmark
+    public long iterator_arrayList() {
+        long sum = 0;
+        Iterator<Pair> it = arrayList.iterator();
+        while (it.hasNext()) {
+            Pair pair = it.next();
+            sum += pair.left + pair.right;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long cursor_primitive() {
+        long sum = 0;
+        int[] batchLeft = new int[BATCH];
+        long[] batchRight = new long[BATCH];
+        IntLongCursor cursor = primitive.cursor();
+        int count;
+        while ((count = cursor.readBatch(batchLeft, batchRight, BATCH)) > 0)
+            for (int i = 0; i < count; i++)
+                sum += batchLeft[i] + batchRight[i];
+        return sum;
+    }
+
+    @Benchmark
+    public IntLongArrayList transformValues_primitive() {
+        primitive.transformValues(new IntLongFunction() {
+            @Override
+            public int executeLeft(int value) {
+                return -value;
+            }
+
+            @Override
+            public long executeRight(long value) {
+                return -value;
+            }
+        });
+        return primitive;
+    }
+
+    @Benchmark
+    public DoubleArrayList<Integer, Long> transformValues_boxed() {
+        boxed.transformValues(new DoubleFunction<Integer, Long>() {
+            @Override
+            public Integer executeLeft(Integer value) {
+                return -value;
+            }
+
+            @Override
+            public Long executeRight(Long value) {
+                return -value;
+            }
+        });
+        return boxed;
+    }
+
+    @Benchmark
+    public void transformValues_trove(Blackhole blackhole) {
+        troveLeft.transformValues(new TIntFunction() {
+            @Override
+            public int execute(int value) {
+                return -value;
+            }
+        });
+        troveRight.transformValues(new TLongFunction() {
+            @Override
+            public long execute(long value) {
+                return -value;
+            }
+        });
+        blackhole.consume(troveLeft);
+        blackhole.consume(troveRight);
+    }
+
+    @Benchmark
+    public List<Pair> transformValues_arrayList() {
+        for (int i = 0; i < arrayList.size(); i++) {
+            Pair pair = arrayList.get(i);
+            arrayList.set(i, new Pair(-pair.left, -pair.right));
+        }
+        return arrayList;
+    }
+
+    @Benchmark
+    public IntLongArrayList remove_primitive(Copies copies) {
+        copies.primitive.removeAll(probeLeft, probeRight);
+        return copies.primitive;
+    }
+
+    @Benchmark
+    public DoubleArrayList<Integer, Long> remove_boxed(Copies copies) {
+        copies.boxed.removeAll(boxedProbeLeft, boxedProbeRight);
+        return copies.boxed;
+    }
+
+    @Benchmark
+    public void remove_trove(Copies copies, Blackhole blackhole) {
+        for (int i = 0; i < PROBES; i++) {
+            int index;
+            while ((index = indexOf(copies.troveLeft, copies.troveRight, probeLeft[i], probeRight[i])) >= 0) {
+                copies.troveLeft.removeAt(index);
+                copies.troveRight.removeAt(index);
+            }
+        }
+        blackhole.consume(copies.troveLeft);
+        blackhole.consume(copies.troveRight);
+    }
+
+    @Benchmark
+    public List<Pair> remove_arrayList(Copies copies) {
+        copies.arrayList.removeAll(probePairs);
+        return copies.arrayList;
+    }
+
+    /**
+     * subList of array lists is a view, the range is copied to compare with copying subLists of
+     * Trove and java.util lists, see subListView_* for the views alone.
+     */
+    @Benchmark
+    public IntLongArrayList subList_primitive() {
+        return primitive.subList(size >> 2, size - (size >> 2)).copy();
+    }
+
+    @Benchmark
+    public DoubleArrayList<Integer, Long> subList_boxed() {
+        return boxed.subList(size >> 2, size - (size >> 2)).copy();
+    }
+
+    @Benchmark
+    public IntLongList subListView_primitive() {
+        return primitive.subList(size >> 2, size - (size >> 2));
+    }
+
+    @Benchmark
+    public DoubleList<Integer, Long> subListView_boxed() {
+        return boxed.subList(size >> 2, size - (size >> 2));
+    }
+
+    @Benchmark
+    public void subList_trove(Blackhole blackhole) {
+        blackhole.consume(troveLeft.subList(size >> 2, size - (size >> 2)));
+        blackhole.consume(troveRight.subList(size >> 2, size - (size >> 2)));
+    }
+
+    @Benchmark
+    public List<Pair> subList_arrayList() {
+        return new ArrayList<Pair>(arrayList.subList(size >> 2, size - (size >> 2)));
+    }
+
+    private int troveIndexOf(int leftElement, long rightElement) {
+        return indexOf(troveLeft, troveRight, leftElement, rightElement);
+    }
+
+    private static int indexOf(TIntArrayList left, TLongArrayList right, int leftElement, long rightElement) {
+        for (int i = 0; i < left.size(); i++)
+            if (left.getQuick(i) == leftElement && right.getQuick(i) == rightElement)
+                return i;
+        return -1;
+    }
+
+    /**
+     * Fresh copies for destructive benchmarks.
+     */
+    @State(Scope.Thread)
+    public static class Copies {
+
+        IntLongArrayList primitive;
+        DoubleArrayList<Integer, Long> boxed;
+        TIntArrayList troveLeft;
+        TLongArrayList troveRight;
+        List<Pair> arrayList;
+
+        @Setup(Level.Invocation)
+        public void copy(DoubleListBenchmark data) {
+            primitive = new IntLongArrayList(data.left, data.right);
+            boxed = new DoubleArrayList<Integer, Long>(data.boxedLeft, data.boxedRight);
+            troveLeft = new TIntArrayList(data.left);
+            troveRight = new TLongArrayList(data.right);
+            arrayList = new ArrayList<Pair>(data.arrayList);
+        }
+    }
+
+    static final class Pair {
+
+        final int left;
+
+        final long right;
+
+        Pair(int left, long right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Pair)) return false;
+            Pair pair = (Pair) o;
+            return left == pair.left && right == pair.right;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * left + (int) (right ^ (right >>> 32));
+        }
+    }
+}
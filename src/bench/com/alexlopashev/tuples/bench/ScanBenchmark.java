@@ -0,0 +1,94 @@
+package com.alexlopashev.tuples.bench;
+
+import com.alexlopashev.tuples.list.DoubleDoubleArrayList;
+import com.alexlopashev.tuples.list.IntLongArrayList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Column scans: block mask kernels of generated lists ("primitive") against a row by row loop
+ * over the same columns ("scalar"). Left values repeat, so the right column decides most rows.
+ */
+@State(Scope.Thread)
+public class ScanBenchmark {
+
+    private static final int DISTINCT = 16;
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    int[] left;
+    long[] right;
+    double[] doubleLeft;
+    double[] doubleRight;
+
+    IntLongArrayList primitive;
+    DoubleDoubleArrayList primitiveDouble;
+
+    @Setup
+    public void setUp() {
+        left = new int[size];
+        right = new long[size];
+        doubleLeft = new double[size];
+        doubleRight = new double[size];
+        for (int i = 0; i < size; i++) {
+            left[i] = i % DISTINCT;
+            right[i] = i / DISTINCT;
+            doubleLeft[i] = left[i];
+            doubleRight[i] = right[i];
+        }
+        primitive = new IntLongArrayList(left, right);
+        primitiveDouble = new DoubleDoubleArrayList(doubleLeft, doubleRight);
+    }
+
+    @Benchmark
+    public int indexOf_primitive() {
+        return primitive.indexOf(DISTINCT - 1, size / DISTINCT - 1);
+    }
+
+    @Benchmark
+    public int indexOf_scalar() {
+        int leftElement = DISTINCT - 1;
+        long rightElement = size / DISTINCT - 1;
+        for (int i = 0; i < size; i++)
+            if (left[i] == leftElement && right[i] == rightElement)
+                return i;
+        return -1;
+    }
+
+    @Benchmark
+    public int count_primitive() {
+        return primitive.count(1, size / DISTINCT >> 1);
+    }
+
+    @Benchmark
+    public int count_scalar() {
+        int leftElement = 1;
+        long rightElement = size / DISTINCT >> 1;
+        int count = 0;
+        for (int i = 0; i < size; i++)
+            if (left[i] == leftElement && right[i] == rightElement)
+                count++;
+        return count;
+    }
+
+    @Benchmark
+    public int countDouble_primitive() {
+        return primitiveDouble.count(1, size / DISTINCT >> 1);
+    }
+
+    @Benchmark
+    public int countDouble_scalar() {
+        double leftElement = 1;
+        double rightElement = size / DISTINCT >> 1;
+        int count = 0;
+        for (int i = 0; i < size; i++)
+            if (Double.doubleToLongBits(doubleLeft[i]) == Double.doubleToLongBits(leftElement)
+                    && Double.doubleToLongBits(doubleRight[i]) == Double.doubleToLongBits(rightElement))
+                count++;
+        return count;
+    }
+}
@@ -0,0 +1,532 @@
+package com.alexlopashev.tuples.bench;
+
+import com.alexlopashev.tuples.function.IntLongDoubleFunction;
+import com.alexlopashev.tuples.iterator.IntLongDoubleIterator;
+import com.alexlopashev.tuples.list.IntLongDoubleArrayList;
+import com.alexlopashev.tuples.list.IntLongDoubleList;
+import com.alexlopashev.tuples.procedure.IntLongDoubleProcedure;
+import com.alexlopashev.tuples.templates.function.TripleFunction;
+import com.alexlopashev.tuples.templates.iterator.TripleIterator;
+import com.alexlopashev.tuples.templates.list.TripleArrayList;
+import com.alexlopashev.tuples.templates.list.TripleList;
+import com.alexlopashev.tuples.templates.procedure.TripleProcedure;
+import gnu.trove.function.TDoubleFunction;
+import gnu.trove.function.TIntFunction;
+import gnu.trove.function.TLongFunction;
+import gnu.trove.iterator.TDoubleIterator;
+import gnu.trove.iterator.TIntIterator;
+import gnu.trove.iterator.TLongIterator;
+import gnu.trove.list.array.TDoubleArrayList;
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.list.array.TLongArrayList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Triple lists: generated IntLongDoubleArrayList ("primitive"), generic TripleArrayList of boxed
+ * values ("boxed"), three Trove columns ("trove") and ArrayList of triple objects ("arrayList").
+ */
+@State(Scope.Thread)
+public class TripleListBenchmark {
+
+    private static final int PROBES = 16;
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    int[] left;
+    long[] middle;
+    double[] right;
+    Integer[] boxedLeft;
+    Long[] boxedMiddle;
+    Double[] boxedRight;
+
+    IntLongDoubleArrayList primitive;
+    TripleArrayList<Integer, Long, Double> boxed;
+    TIntArrayList troveLeft;
+    TLongArrayList troveMiddle;
+    TDoubleArrayList troveRight;
+    List<Triple> arrayList;
+
+    int[] probeLeft;
+    long[] probeMiddle;
+    double[] probeRight;
+    Integer[] boxedProbeLeft;
+    Long[] boxedProbeMiddle;
+    Double[] boxedProbeRight;
+    Set<Triple> probeTriples;
+
+    @Setup
+    public void setUp() {
+        left = new int[size];
+        middle = new long[size];
+        right = new double[size];
+        boxedLeft = new Integer[size];
+        boxedMiddle = new Long[size];
+        boxedRight = new Double[size];
+        for (int i = 0; i < size; i++) {
+            left[i] = i;
+            middle[i] = i * 31L;
+            right[i] = i * 0.5;
+            boxedLeft[i] = left[i];
+            boxedMiddle[i] = middle[i];
+            boxedRight[i] = right[i];
+        }
+        primitive = new IntLongDoubleArrayList(left, middle, right);
+        boxed = new TripleArrayList<Integer, Long, Double>(boxedLeft, boxedMiddle, boxedRight);
+        troveLeft = new TIntArrayList(left);
+        troveMiddle = new TLongArrayList(middle);
+        troveRight = new TDoubleArrayList(right);
+        arrayList = new ArrayList<Triple>(size);
+        for (int i = 0; i < size; i++)
+            arrayList.add(new Triple(left[i], middle[i], right[i]));
+
+        probeLeft = new int[PROBES];
+        probeMiddle = new long[PROBES];
+        probeRight = new double[PROBES];
+        boxedProbeLeft = new Integer[PROBES];
+        boxedProbeMiddle = new Long[PROBES];
+        boxedProbeRight = new Double[PROBES];
+        probeTriples = new HashSet<Triple>();
+        for (int i = 0; i < PROBES; i++) {
+            int index = (int) ((long) size * i / PROBES);
+            probeLeft[i] = left[index];
+            probeMiddle[i] = middle[index];
+            probeRight[i] = right[index];
+            boxedProbeLeft[i] = boxedLeft[index];
+            boxedProbeMiddle[i] = boxedMiddle[index];
+            boxedProbeRight[i] = boxedRight[index];
+            probeTriples.add(new Triple(left[index], middle[index], right[index]));
+        }
+    }
+
+    @Benchmark
+    public IntLongDoubleArrayList add_primitive() {
+        IntLongDoubleArrayList list = new IntLongDoubleArrayList();
+        for (int i = 0; i < size; i++)
+            list.add(left[i], middle[i], right[i]);
+        return list;
+    }
+
+    @Benchmark
+    public TripleArrayList<Integer, Long, Double> add_boxed() {
+        TripleArrayList<Integer, Long, Double> list = new TripleArrayList<Integer, Long, Double>();
+        for (int i = 0; i < size; i++)
+            list.add(left[i], middle[i], right[i]);
+        return list;
+    }
+
+    @Benchmark
+    public void add_trove(Blackhole blackhole) {
+        TIntArrayList listLeft = new TIntArrayList();
+        TLongArrayList listMiddle = new TLongArrayList();
+        TDoubleArrayList listRight = new TDoubleArrayList();
+        for (int i = 0; i < size; i++) {
+            listLeft.add(left[i]);
+            listMiddle.add(middle[i]);
+            listRight.add(right[i]);
+        }
+        blackhole.consume(listLeft);
+        blackhole.consume(listMiddle);
+        blackhole.consume(listRight);
+    }
+
+    @Benchmark
+    public List<Triple> add_arrayList() {
+        List<Triple> list = new ArrayList<Triple>();
+        for (int i = 0; i < size; i++)
+            list.add(new Triple(left[i], middle[i], right[i]));
+        return list;
+    }
+
+    @Benchmark
+    public IntLongDoubleArrayList addAll_primitive() {
+        IntLongDoubleArrayList list = new IntLongDoubleArrayList();
+        list.addAll(left, middle, right);
+        return list;
+    }
+
+    @Benchmark
+    public TripleArrayList<Integer, Long, Double> addAll_boxed() {
+        TripleArrayList<Integer, Long, Double> list = new TripleArrayList<Integer, Long, Double>();
+        list.addAll(boxedLeft, boxedMiddle, boxedRight);
+        return list;
+    }
+
+    @Benchmark
+    public void addAll_trove(Blackhole blackhole) {
+        TIntArrayList listLeft = new TIntArrayList();
+        TLongArrayList listMiddle = new TLongArrayList();
+        TDoubleArrayList listRight = new TDoubleArrayList();
+        listLeft.addAll(left);
+        listMiddle.addAll(middle);
+        listRight.addAll(right);
+        blackhole.consume(listLeft);
+        blackhole.consume(listMiddle);
+        blackhole.consume(listRight);
+    }
+
+    @Benchmark
+    public List<Triple> addAll_arrayList() {
+        List<Triple> list = new ArrayList<Triple>();
+        list.addAll(arrayList);
+        return list;
+    }
+
+    @Benchmark
+    public void contains_primitive(Blackhole blackhole) {
+        for (int i = 0; i < PROBES; i++)
+            blackhole.consume(primitive.contains(probeLeft[i], probeMiddle[i], probeRight[i] + 1));
+    }
+
+    @Benchmark
+    public void contains_boxed(Blackhole blackhole) {
+        for (int i = 0; i < PROBES; i++)
+            blackhole.consume(boxed.contains(boxedProbeLeft[i], boxedProbeMiddle[i], boxedProbeRight[i] + 1));
+    }
+
+    @Benchmark
+    public void contains_trove(Blackhole blackhole) {
+        for (int i = 0; i < PROBES; i++)
+            blackhole.consume(troveIndexOf(probeLeft[i], probeMiddle[i], probeRight[i] + 1) >= 0);
+    }
+
+    @Benchmark
+    public void contains_arrayList(Blackhole blackhole) {
+        for (int i = 0; i < PROBES; i++)
+            blackhole.consume(arrayList.contains(new Triple(probeLeft[i], probeMiddle[i], probeRight[i] + 1)));
+    }
+
+    @Benchmark
+    public void indexOf_primitive(Blackhole blackhole) {
+        for (int i = 0; i < PROBES; i++)
+            blackhole.consume(primitive.indexOf(probeLeft[i], probeMiddle[i], probeRight[i]));
+    }
+
+    @Benchmark
+    public void indexOf_boxed(Blackhole blackhole) {
+        for (int i = 0; i < PROBES; i++)
+            blackhole.consume(boxed.indexOf(boxedProbeLeft[i], boxedProbeMiddle[i], boxedProbeRight[i]));
+    }
+
+    @Benchmark
+    public void indexOf_trove(Blackhole blackhole) {
+        for (int i = 0; i < PROBES; i++)
+            blackhole.consume(troveIndexOf(probeLeft[i], probeMiddle[i], probeRight[i]));
+    }
+
+    @Benchmark
+    public void indexOf_arrayList(Blackhole blackhole) {
+        for (int i = 0; i < PROBES; i++)
+            blackhole.consume(arrayList.indexOf(new Triple(probeLeft[i], probeMiddle[i], probeRight[i])));
+    }
+
+    @Benchmark
+    public double forEach_primitive() {
+        final double[] sum = new double[1];
+        primitive.forEach(new IntLongDoubleProcedure() {
+            @Override
+            public boolean execute(int left, long middle, double right) {
+                sum[0] += left + middle + right;
+                return true;
+            }
+        });
+        return sum[0];
+    }
+
+    @Benchmark
+    public double forEach_boxed() {
+        final double[] sum = new double[1];
+        boxed.forEach(new TripleProcedure<Integer, Long, Double>() {
+            @Override
+            public boolean execute(Integer left, Long middle, Double right) {
+                sum[0] += left + middle + right;
+                return true;
+            }
+        });
+        return sum[0];
+    }
+
+    @Benchmark
+    public double forEach_trove() {
+        double sum = 0;
+        for (int i = 0; i < troveLeft.size(); i++)
+            sum += troveLeft.getQuick(i) + troveMiddle.getQuick(i) + troveRight.getQuick(i);
+        return sum;
+    }
+
+    @Benchmark
+    public double forEach_arrayList() {
+        double sum = 0;
+        for (Triple triple : arrayList)
+            sum += triple.left + triple.middle + triple.right;
+        return sum;
+    }
+
+    @Benchmark
+    public double iterator_primitive() {
+        double sum = 0;
+        IntLongDoubleIterator it = primitive.iterator();
+        while (it.hasNext()) {
+            sum += it.nextLeft() + it.nextMiddle() + it.nextRight();
+            it.iterate();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double iterator_boxed() {
+        double sum = 0;
+        TripleIterator<Integer, Long, Double> it = boxed.iterator();
+        while (it.hasNext()) {
+            sum += it.nextLeft() + it.nextMiddle() + it.nextRight();
+            it.iterate();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double iterator_trove() {
+        double sum = 0;
+        TIntIterator itLeft = troveLeft.iterator();
+        TLongIterator itMiddle = troveMiddle.iterator();
+        TDoubleIterator itRight = troveRight.iterator();
+        while (itLeft.hasNext())
+            sum += itLeft.next() + itMiddle.next() + itRight.next();
+        return sum;
+    }
+
+    @Benchmark
+    public double iterator_arrayList() {
+        double sum = 0;
+        Iterator<Triple> it = arrayList.iterator();
+        while (it.hasNext()) {
+            Triple triple = it.next();
+            sum += triple.left + triple.middle + triple.right;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public IntLongDoubleArrayList transformValues_primitive() {
+        primitive.transformValues(new IntLongDoubleFunction() {
+            @Override
+            public int executeLeft(int value) {
+                return -value;
+            }
+
+            @Override
+            public long executeMiddle(long value) {
+                return -value;
+            }
+
+            @Override
+            public double executeRight(double value) {
+                return -value;
+            }
+        });
+        return primitive;
+    }
+
+    @Benchmark
+    public TripleArrayList<Integer, Long, Double> transformValues_boxed() {
+        boxed.transformValues(new TripleFunction<Integer, Long, Double>() {
+            @Override
+            public Integer executeLeft(Integer value) {
+                return -value;
+            }
+
+            @Override
+            public Long executeMiddle(Long value) {
+                return -value;
+            }
+
+            @Override
+            public Double executeRight(Double value) {
+                return -value;
+            }
+        });
+        return boxed;
+    }
+
+    @Benchmark
+    public void transformValues_trove(Blackhole blackhole) {
+        troveLeft.transformValues(new TIntFunction() {
+            @Override
+            public int execute(int value) {
+                return -value;
+            }
+        });
+        troveMiddle.transformValues(new TLongFunction() {
+            @Override
+            public long execute(long value) {
+                return -value;
+            }
+        });
+        troveRight.transformValues(new TDoubleFunction() {
+            @Override
+            public double execute(double value) {
+                return -value;
+            }
+        });
+        blackhole.consume(troveLeft);
+        blackhole.consume(troveMiddle);
+        blackhole.consume(troveRight);
+    }
+
+    @Benchmark
+    public List<Triple> transformValues_arrayList() {
+        for (int i = 0; i < arrayList.size(); i++) {
+            Triple triple = arrayList.get(i);
+            arrayList.set(i, new Triple(-triple.left, -triple.middle, -triple.right));
+        }
+        return arrayList;
+    }
+
+    @Benchmark
+    public IntLongDoubleArrayList remove_primitive(Copies copies) {
+        copies.primitive.removeAll(probeLeft, probeMiddle, probeRight);
+        return copies.primitive;
+    }
+
+    @Benchmark
+    public TripleArrayList<Integer, Long, Double> remove_boxed(Copies copies) {
+        copies.boxed.removeAll(boxedProbeLeft, boxedProbeMiddle, boxedProbeRight);
+        return copies.boxed;
+    }
+
+    @Benchmark
+    public void remove_trove(Copies copies, Blackhole blackhole) {
+        for (int i = 0; i < PROBES; i++) {
+            int index;
+            while ((index = indexOf(copies.troveLeft, copies.troveMiddle, copies.troveRight,
+                    probeLeft[i], probeMiddle[i], probeRight[i])) >= 0) {
+                copies.troveLeft.removeAt(index);
+                copies.troveMiddle.removeAt(index);
+                copies.troveRight.removeAt(index);
+            }
+        }
+        blackhole.consume(copies.troveLeft);
+        blackhole.consume(copies.troveMiddle);
+        blackhole.consume(copies.troveRight);
+    }
+
+    @Benchmark
+    public List<Triple> remove_arrayList(Copies copies) {
+        copies.arrayList.removeAll(probeTriples);
+        return copies.arrayList;
+    }
+
+    /**
+     * subList of array lists is a view, the range is copied to compare with copying subLists of
+     * Trove and java.util lists, see subListView_* for the views alone.
+     */
+    @Benchmark
+    public IntLongDoubleArrayList subList_primitive() {
+        return primitive.subList(size >> 2, size - (size >> 2)).copy();
+    }
+
+    @Benchmark
+    public TripleArrayList<Integer, Long, Double> subList_boxed() {
+        return boxed.subList(size >> 2, size - (size >> 2)).copy();
+    }
+
+    @Benchmark
+    public IntLongDoubleList subListView_primitive() {
+        return primitive.subList(size >> 2, size - (size >> 2));
+    }
+
+    @Benchmark
+    public TripleList<Integer, Long, Double> subListView_boxed() {
+        return boxed.subList(size >> 2, size - (size >> 2));
+    }
+
+    @Benchmark
+    public void subList_trove(Blackhole blackhole) {
+        blackhole.consume(troveLeft.subList(size >> 2, size - (size >> 2)));
+        blackhole.consume(troveMiddle.subList(size >> 2, size - (size >> 2)));
+        blackhole.consume(troveRight.subList(size >> 2, size - (size >> 2)));
+    }
+
+    @Benchmark
+    public List<Triple> subList_arrayList() {
+        return new ArrayList<Triple>(arrayList.subList(size >> 2, size - (size >> 2)));
+    }
+
+    private int troveIndexOf(int leftElement, long middleElement, double rightElement) {
+        return indexOf(troveLeft, troveMiddle, troveRight, leftElement, middleElement, rightElement);
+    }
+
+    private static int indexOf(TIntArrayList left, TLongArrayList middle, TDoubleArrayList right,
+                               int leftElement, long middleElement, double rightElement) {
+        for (int i = 0; i < left.size(); i++)
+            if (left.getQuick(i) == leftElement && middle.getQuick(i) == middleElement
+                    && right.getQuick(i) == rightElement)
+                return i;
+        return -1;
+    }
+
+    /**
+     * Fresh copies for destructive benchmarks.
+     */
+    @State(Scope.Thread)
+    public static class Copies {
+
+        IntLongDoubleArrayList primitive;
+        TripleArrayList<Integer, Long, Double> boxed;
+        TIntArrayList troveLeft;
+        TLongArrayList troveMiddle;
+        TDoubleArrayList troveRight;
+        List<Triple> arrayList;
+
+        @Setup(Level.Invocation)
+        public void copy(TripleListBenchmark data) {
+            primitive = new IntLongDoubleArrayList(data.left, data.middle, data.right);
+            boxed = new TripleArrayList<Integer, Long, Double>(data.boxedLeft, data.boxedMiddle, data.boxedRight);
+            troveLeft = new TIntArrayList(data.left);
+            troveMiddle = new TLongArrayList(data.middle);
+            troveRight = new TDoubleArrayList(data.right);
+            arrayList = new ArrayList<Triple>(data.arrayList);
+        }
+    }
+
+    static final class Triple {
+
+        final int left;
+
+        final long middle;
+
+        final double right;
+
+        Triple(int left, long middle, double right) {
+            this.left = left;
+            this.middle = middle;
+            this.right = right;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Triple)) return false;
+            Triple triple = (Triple) o;
+            return left == triple.left && middle == triple.middle
+                    && Double.compare(right, triple.right) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            long bits = Double.doubleToLongBits(right);
+            return 31 * (31 * left + (int) (middle ^ (middle >>> 32))) + (int) (bits ^ (bits >>> 32));
+        }
+    }
+}
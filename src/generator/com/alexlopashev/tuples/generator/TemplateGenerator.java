@@ -0,0 +1,293 @@
+package com.alexlopashev.tuples.generator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Expands generic templates from {@code com.alexlopashev.tuples.templates} into
+ * primitive specializations placed in {@code com.alexlopashev.tuples}, e.g.
+ * {@code DoubleArrayList<L, R>} becomes {@code IntLongArrayList} with {@code int[]}
+ * and {@code long[]} columns.
+ *
+ * Template is any type whose type parameters are single upper case letters. The
+ * rules applied for each combination of primitive types are:
+ * <ul>
+ *     <li>references to templates ({@code DoubleList<L, R>}, imports, bare names)
+ *     are replaced with the specialized names;</li>
+ *     <li>{@code (L[]) new Object[n]} becomes {@code new int[n]};</li>
+ *     <li>{@code (L) null} becomes {@code (int) 0};</li>
+ *     <li>every remaining type parameter letter becomes the primitive type.</li>
+ * </ul>
+ * Everything type-specific (equality, hashing, ...) must go through overloaded
+ * helpers like {@code Tuples.equal}. Types without parameters are copied as is.
+ *
+ * Usage: {@code TemplateGenerator <source root> <output root> [type ...]},
+ * it has to be run before compiling the module, e.g.
+ * {@code java TemplateGenerator src/main src/generated}.
+ */
+public class TemplateGenerator {
+
+    private static final String TEMPLATE_PACKAGE = "com.alexlopashev.tuples.templates";
+    private static final String TARGET_PACKAGE = "com.alexlopashev.tuples";
+    private static final Charset CHARSET = Charset.forName("UTF-8");
+
+    private static final String[] DEFAULT_TYPES = {"byte", "char", "short", "int", "long", "float", "double"};
+
+    private static final Pattern DECLARATION = Pattern.compile(
+            "^\\s*(?:(?:public|protected|private|abstract|final|static)\\s+)*(?:class|interface)\\s+(\\w+)\\s*(?:<([A-Z](?:\\s*,\\s*[A-Z])*)>)?",
+            Pattern.MULTILINE);
+    private static final Pattern ARRAY_CREATION = Pattern.compile("\\(([A-Z])((?:\\[\\])+)\\)\\s*new\\s+Object\\[");
+    private static final Pattern NULL_CAST = Pattern.compile("\\(([A-Z])\\)\\s*null\\b");
+    private static final Pattern TYPE_VARIABLE = Pattern.compile("\\b([A-Z])\\b");
+
+    private final File sourceRoot;
+
+    private final File outputRoot;
+
+    private final String[] types;
+
+    private final Map<String, Integer> templates = new HashMap<String, Integer>();
+
+    private Pattern templateReference;
+
+    private Pattern templateImport;
+
+    public TemplateGenerator(File sourceRoot, File outputRoot, String[] types) {
+        this.sourceRoot = sourceRoot;
+        this.outputRoot = outputRoot;
+        this.types = types;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: TemplateGenerator <source root> <output root> [type ...]");
+            System.exit(1);
+        }
+        String[] types = args.length > 2 ? Arrays.copyOfRange(args, 2, args.length) : DEFAULT_TYPES;
+        int generated = new TemplateGenerator(new File(args[0]), new File(args[1]), types).generate();
+        System.out.println("Generated " + generated + " files into " + args[1]);
+    }
+
+    public int generate() throws IOException {
+        File templateRoot = new File(sourceRoot, TEMPLATE_PACKAGE.replace('.', File.separatorChar));
+        if (!templateRoot.isDirectory())
+            throw new IOException("Templates are not found in " + templateRoot);
+        List<File> files = new ArrayList<File>();
+        collect(templateRoot, files);
+
+        Map<File, String> sources = new HashMap<File, String>();
+        for (File file : files) {
+            String source = read(file);
+            sources.put(file, source);
+            Matcher declaration = DECLARATION.matcher(source);
+            if (declaration.find() && declaration.group(2) != null)
+                templates.put(declaration.group(1), parameters(declaration.group(2)).size());
+        }
+        String names = join(templates.keySet(), "|");
+        templateReference = Pattern.compile("\\b(" + names + ")\\b(?:<([A-Z](?:\\s*,\\s*[A-Z])*)>)?");
+        templateImport = Pattern.compile("^import\\s+([\\w.]+)\\.(" + names + ")\\s*;", Pattern.MULTILINE);
+
+        int generated = 0;
+        for (File file : files) {
+            String source = sources.get(file);
+            Matcher declaration = DECLARATION.matcher(source);
+            if (!declaration.find())
+                continue;
+            String packageName = packageOf(file, templateRoot);
+            if (declaration.group(2) == null) {
+                write(packageName, declaration.group(1), source);
+                generated++;
+                continue;
+            }
+            List<String> parameters = parameters(declaration.group(2));
+            int combinations = (int) Math.pow(types.length, parameters.size());
+            for (int combination = 0; combination < combinations; combination++) {
+                Map<String, String> assignment = new HashMap<String, String>();
+                int rest = combination;
+                for (int i = parameters.size() - 1; i >= 0; i--) {
+                    assignment.put(parameters.get(i), types[rest % types.length]);
+                    rest /= types.length;
+                }
+                write(packageName, specializedName(declaration.group(1), parameters, assignment),
+                        specialize(source, declaration.group(1), parameters, assignment));
+                generated++;
+            }
+        }
+        return generated;
+    }
+
+    private String specialize(String source, String name, List<String> parameters, Map<String, String> assignment) {
+        // all specializations of every template referenced with type arguments
+        Map<String, Set<String>> references = new HashMap<String, Set<String>>();
+        Matcher reference = templateReference.matcher(source);
+        while (reference.find()) {
+            if (reference.group(2) == null)
+                continue;
+            Set<String> names = references.get(reference.group(1));
+            if (names == null)
+                references.put(reference.group(1), names = new LinkedHashSet<String>());
+            names.add(specializedName(reference.group(1), parameters(reference.group(2)), assignment));
+        }
+        String own = specializedName(name, parameters, assignment);
+
+        StringBuffer result = new StringBuffer();
+        Matcher imports = templateImport.matcher(source);
+        while (imports.find()) {
+            Set<String> names = references.get(imports.group(2));
+            StringBuilder replacement = new StringBuilder();
+            if (names != null)
+                for (String specialized : names) {
+                    if (replacement.length() > 0) replacement.append('\n');
+                    replacement.append("import ").append(imports.group(1)).append('.').append(specialized).append(';');
+                }
+            imports.appendReplacement(result, Matcher.quoteReplacement(replacement.toString()));
+        }
+        imports.appendTail(result);
+        source = result.toString();
+
+        result = new StringBuffer();
+        reference = templateReference.matcher(source);
+        while (reference.find()) {
+            String template = reference.group(1);
+            String replacement;
+            if (reference.group(2) != null) {
+                replacement = specializedName(template, parameters(reference.group(2)), assignment);
+            } else if (template.equals(name)) {
+                replacement = own;
+            } else if (references.containsKey(template)) {
+                replacement = references.get(template).iterator().next();
+            } else {
+                replacement = template;
+            }
+            reference.appendReplacement(result, Matcher.quoteReplacement(replacement));
+        }
+        reference.appendTail(result);
+        source = result.toString();
+
+        result = new StringBuffer();
+        Matcher arrays = ARRAY_CREATION.matcher(source);
+        while (arrays.find()) {
+            String type = assignment.get(arrays.group(1));
+            String replacement = type == null ? arrays.group() : "new " + type + "[";
+            arrays.appendReplacement(result, Matcher.quoteReplacement(replacement));
+        }
+        arrays.appendTail(result);
+        source = result.toString();
+
+        result = new StringBuffer();
+        Matcher nulls = NULL_CAST.matcher(source);
+        while (nulls.find()) {
+            String type = assignment.get(nulls.group(1));
+            String replacement = type == null ? nulls.group() : "(" + type + ") 0";
+            nulls.appendReplacement(result, Matcher.quoteReplacement(replacement));
+        }
+        nulls.appendTail(result);
+        source = result.toString();
+
+        result = new StringBuffer();
+        Matcher variables = TYPE_VARIABLE.matcher(source);
+        while (variables.find()) {
+            String type = assignment.get(variables.group(1));
+            variables.appendReplacement(result, Matcher.quoteReplacement(type == null ? variables.group() : type));
+        }
+        variables.appendTail(result);
+        return result.toString();
+    }
+
+    private String specializedName(String template, List<String> arguments, Map<String, String> assignment) {
+        StringBuilder name = new StringBuilder();
+        for (String argument : arguments) {
+            String type = assignment.get(argument);
+            if (type == null)
+                throw new IllegalStateException("Unknown type parameter " + argument + " in " + template);
+            name.append(Character.toUpperCase(type.charAt(0))).append(type.substring(1));
+        }
+        return name.append(stripArity(template)).toString();
+    }
+
+    private static String stripArity(String template) {
+        for (String arity : new String[]{"Double", "Triple"})
+            if (template.startsWith(arity) && template.length() > arity.length()
+                    && Character.isUpperCase(template.charAt(arity.length())))
+                return template.substring(arity.length());
+        return template;
+    }
+
+    private void write(String packageName, String name, String source) throws IOException {
+        String targetPackage = TARGET_PACKAGE + packageName;
+        source = "// Generated by TemplateGenerator, do not edit.\n"
+                + source.replace(TEMPLATE_PACKAGE, TARGET_PACKAGE);
+        File directory = new File(outputRoot, targetPackage.replace('.', File.separatorChar));
+        if (!directory.isDirectory() && !directory.mkdirs())
+            throw new IOException("Cannot create " + directory);
+        OutputStream out = new FileOutputStream(new File(directory, name + ".java"));
+        try {
+            out.write(source.getBytes(CHARSET));
+        } finally {
+            out.close();
+        }
+    }
+
+    private static String packageOf(File file, File templateRoot) {
+        String relative = file.getParentFile().getAbsolutePath().substring(templateRoot.getAbsolutePath().length());
+        return relative.replace(File.separatorChar, '.');
+    }
+
+    private static List<String> parameters(String declaration) {
+        List<String> parameters = new ArrayList<String>();
+        for (String parameter : declaration.split(","))
+            parameters.add(parameter.trim());
+        return parameters;
+    }
+
+    private static void collect(File directory, List<File> files) {
+        File[] children = directory.listFiles();
+        if (children == null) return;
+        Arrays.sort(children);
+        for (File child : children) {
+            if (child.isDirectory())
+                collect(child, files);
+            else if (child.getName().endsWith(".java"))
+                files.add(child);
+        }
+    }
+
+    private static String read(File file) throws IOException {
+        InputStream in = new FileInputStream(file);
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) > 0)
+                out.write(buffer, 0, read);
+            return new String(out.toByteArray(), CHARSET);
+        } finally {
+            in.close();
+        }
+    }
+
+    private static String join(Iterable<String> values, String separator) {
+        StringBuilder result = new StringBuilder();
+        for (String value : values) {
+            if (result.length() > 0) result.append(separator);
+            result.append(value);
+        }
+        return result.toString();
+    }
+
+}
@@ -0,0 +1,123 @@
+package com.alexlopashev.tuples.templates;
+
+/**
+ * Element helpers used by templates instead of {@code ==}/{@code equals}/{@code hashCode},
+ * so the same call compiles both for generic columns and for generated primitive ones
+ * (overload resolution picks the primitive version after generation).
+ */
+public final class Tuples {
+
+    private Tuples() {
+    }
+
+    public static boolean equal(byte a, byte b) {
+        return a == b;
+    }
+
+    public static boolean equal(char a, char b) {
+        return a == b;
+    }
+
+    public static boolean equal(short a, short b) {
+        return a == b;
+    }
+
+    public static boolean equal(int a, int b) {
+        return a == b;
+    }
+
+    public static boolean equal(long a, long b) {
+        return a == b;
+    }
+
+    public static boolean equal(float a, float b) {
+        return Float.floatToIntBits(a) == Float.floatToIntBits(b);
+    }
+
+    public static boolean equal(double a, double b) {
+        return Double.doubleToLongBits(a) == Double.doubleToLongBits(b);
+    }
+
+    public static boolean equal(Object a, Object b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    public static int hash(byte value) {
+        return value;
+    }
+
+    public static int hash(char value) {
+        return value;
+    }
+
+    public static int hash(short value) {
+        return value;
+    }
+
+    public static int hash(int value) {
+        return value;
+    }
+
+    public static int hash(long value) {
+        return (int) (value ^ (value >>> 32));
+    }
+
+    public static int hash(float value) {
+        return Float.floatToIntBits(value);
+    }
+
+    public static int hash(double value) {
+        return hash(Double.doubleToLongBits(value));
+    }
+
+    public static int hash(Object value) {
+        return value == null ? 0 : value.hashCode();
+    }
+
+    public static int compare(byte a, byte b) {
+        return a - b;
+    }
+
+    public static int compare(char a, char b) {
+        return a - b;
+    }
+
+    public static int compare(short a, short b) {
+        return a - b;
+    }
+
+    public static int compare(int a, int b) {
+        return a < b ? -1 : (a == b ? 0 : 1);
+    }
+
+    public static int compare(long a, long b) {
+        return a < b ? -1 : (a == b ? 0 : 1);
+    }
+
+    public static int compare(float a, float b) {
+        return Float.compare(a, b);
+    }
+
+    public static int compare(double a, double b) {
+        return Double.compare(a, b);
+    }
+
+    /**
+     * Natural order of generic elements, they have to be {@link Comparable}.
+     */
+    public static int compare(Object a, Object b) {
+        return ((Comparable<Object>) a).compareTo(b);
+    }
+
+    /**
+     * Spreads bits of combined tuple hash, open addressing tables take low bits of it.
+     */
+    public static int mix(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        return hash ^ (hash >>> 16);
+    }
+
+}
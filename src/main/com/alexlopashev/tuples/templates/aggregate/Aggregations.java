@@ -0,0 +1,177 @@
+package com.alexlopashev.tuples.templates.aggregate;
+
+import com.alexlopashev.tuples.templates.Tuples;
+
+/**
+ * Kinds of {@link StandardAggregator} and overloaded arithmetic it is built on, after generation
+ * overload resolution picks the primitive version, templates pass {@code (T) null} as witness.
+ *
+ * Sums overflow as the primitive type does. Minimum and maximum follow {@link Tuples#compare},
+ * boxed values have to be {@link Comparable}, they can't be summed or counted. Byte, char,
+ * short and float columns can't be counted either.
+ */
+public final class Aggregations {
+
+    /**
+     * Sum of values of a group.
+     */
+    public static final int SUM = 0;
+
+    /**
+     * Number of values of a group, in the type of the aggregated column. Byte, char and short
+     * counts would wrap and float ones lose exactness above 2^24, so such columns are rejected,
+     * double holds every count a list can reach exactly.
+     */
+    public static final int COUNT = 1;
+
+    /**
+     * The smallest value of a group.
+     */
+    public static final int MIN = 2;
+
+    /**
+     * The largest value of a group.
+     */
+    public static final int MAX = 3;
+
+    /**
+     * Value of the first row of a group.
+     */
+    public static final int FIRST = 4;
+
+    /**
+     * Value of the last row of a group.
+     */
+    public static final int LAST = 5;
+
+    private Aggregations() {
+    }
+
+    public static boolean numeric(byte witness) {
+        return true;
+    }
+
+    public static boolean numeric(char witness) {
+        return true;
+    }
+
+    public static boolean numeric(short witness) {
+        return true;
+    }
+
+    public static boolean numeric(int witness) {
+        return true;
+    }
+
+    public static boolean numeric(long witness) {
+        return true;
+    }
+
+    public static boolean numeric(float witness) {
+        return true;
+    }
+
+    public static boolean numeric(double witness) {
+        return true;
+    }
+
+    public static boolean numeric(Object witness) {
+        return false;
+    }
+
+    public static boolean countable(byte witness) {
+        return false;
+    }
+
+    public static boolean countable(char witness) {
+        return false;
+    }
+
+    public static boolean countable(short witness) {
+        return false;
+    }
+
+    public static boolean countable(int witness) {
+        return true;
+    }
+
+    public static boolean countable(long witness) {
+        return true;
+    }
+
+    public static boolean countable(float witness) {
+        return false;
+    }
+
+    public static boolean countable(double witness) {
+        return true;
+    }
+
+    public static boolean countable(Object witness) {
+        return false;
+    }
+
+    public static byte sum(byte a, byte b) {
+        return (byte) (a + b);
+    }
+
+    public static char sum(char a, char b) {
+        return (char) (a + b);
+    }
+
+    public static short sum(short a, short b) {
+        return (short) (a + b);
+    }
+
+    public static int sum(int a, int b) {
+        return a + b;
+    }
+
+    public static long sum(long a, long b) {
+        return a + b;
+    }
+
+    public static float sum(float a, float b) {
+        return a + b;
+    }
+
+    public static double sum(double a, double b) {
+        return a + b;
+    }
+
+    public static Object sum(Object a, Object b) {
+        throw new UnsupportedOperationException("Boxed values can't be summed");
+    }
+
+    public static byte one(byte witness) {
+        return 1;
+    }
+
+    public static char one(char witness) {
+        return 1;
+    }
+
+    public static short one(short witness) {
+        return 1;
+    }
+
+    public static int one(int witness) {
+        return 1;
+    }
+
+    public static long one(long witness) {
+        return 1;
+    }
+
+    public static float one(float witness) {
+        return 1;
+    }
+
+    public static double one(double witness) {
+        return 1;
+    }
+
+    public static Object one(Object witness) {
+        throw new UnsupportedOperationException("Boxed values can't be counted");
+    }
+}
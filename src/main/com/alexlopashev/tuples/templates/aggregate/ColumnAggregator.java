@@ -0,0 +1,23 @@
+package com.alexlopashev.tuples.templates.aggregate;
+
+/**
+ * Folds values of a group into an accumulator of the column type, see {@link DoubleGroupBy}.
+ * Groups never start empty, so no identity value is needed.
+ */
+public interface ColumnAggregator<T> {
+
+    /**
+     * @return accumulator of a group with the value of its first row
+     */
+    T first(T value);
+
+    /**
+     * @return accumulator with the value of a following row added
+     */
+    T add(T accumulator, T value);
+
+    /**
+     * Combines accumulators of partitions in parallel aggregation, rows of other follow rows of accumulator.
+     */
+    T merge(T accumulator, T other);
+}
@@ -0,0 +1,171 @@
+package com.alexlopashev.tuples.templates.aggregate;
+
+import com.alexlopashev.tuples.templates.DoubleCollection;
+import com.alexlopashev.tuples.templates.Tuples;
+import com.alexlopashev.tuples.templates.list.DoubleArrayList;
+import com.alexlopashev.tuples.templates.parallel.ParallelRanges;
+import com.alexlopashev.tuples.templates.parallel.RangeProcedure;
+import com.alexlopashev.tuples.templates.procedure.DoubleProcedure;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Groups pairs by left value and aggregates right values of each group, e.g. sum of right
+ * values per left one. Groups are kept in an open addressing table of key and accumulator
+ * columns, so nothing is boxed, and come out as a pair list of (left, aggregate) in order of
+ * first appearance of their left values.
+ *
+ * Parallel aggregation splits rows into consecutive partitions aggregated into own tables,
+ * which are merged in partition order, so the result is the same as of sequential one as far
+ * as the aggregator merges accumulators consistently with adding values.
+ */
+public class DoubleGroupBy<L, R> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int NONE = -1;
+
+    private final ColumnAggregator<R> aggregator;
+
+    public DoubleGroupBy(ColumnAggregator<R> aggregator) {
+        if (aggregator == null) throw new NullPointerException();
+        this.aggregator = aggregator;
+    }
+
+    /**
+     * @return list of left values and aggregates of right values of their pairs
+     */
+    public DoubleArrayList<L, R> aggregate(DoubleCollection<L, R> collection) {
+        final Table table = new Table();
+        collection.forEach(new DoubleProcedure<L, R>() {
+            @Override
+            public boolean execute(L leftElement, R rightElement) {
+                table.add(leftElement, rightElement);
+                return true;
+            }
+        });
+        return table.toList();
+    }
+
+    /**
+     * Aggregator must be thread safe, the standard ones are.
+     */
+    public DoubleArrayList<L, R> parallelAggregate(DoubleCollection<L, R> collection) {
+        return parallelAggregate(collection, ForkJoinPool.commonPool(), ParallelRanges.DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * @param threshold the smallest number of rows of a partition
+     */
+    public DoubleArrayList<L, R> parallelAggregate(DoubleCollection<L, R> collection, ForkJoinPool pool, int threshold) {
+        if (threshold < 1) throw new IllegalArgumentException("Threshold: " + threshold);
+        final L[] left = collection.getLeft();
+        final R[] right = collection.getRight();
+        final int size = left.length;
+        int partitions = Math.max(1, Math.min(size / threshold, pool.getParallelism() * 4));
+        final int length = (size + partitions - 1) / partitions;
+        final AtomicReferenceArray<Table> tables = new AtomicReferenceArray<Table>(partitions);
+        ParallelRanges.execute(partitions, new RangeProcedure() {
+            @Override
+            public int execute(int begin, int end) {
+                for (int partition = begin; partition < end; partition++) {
+                    Table table = new Table();
+                    int to = (int) Math.min(size, (long) (partition + 1) * length);
+                    for (int i = partition * length; i < to; i++)
+                        table.add(left[i], right[i]);
+                    tables.set(partition, table);
+                }
+                return -1;
+            }
+        }, pool, 1);
+        Table result = tables.get(0);
+        for (int partition = 1; partition < partitions; partition++)
+            result.merge(tables.get(partition));
+        return result.toList();
+    }
+
+    /**
+     * Open addressing table of group numbers, slots are found by key hash with linear probing.
+     */
+    private class Table {
+
+        private L[] keys = (L[]) new Object[DEFAULT_CAPACITY];
+
+        private R[] values = (R[]) new Object[DEFAULT_CAPACITY];
+
+        private int[] slots = newSlots(DEFAULT_CAPACITY << 1);
+
+        private int groups;
+
+        private void add(L key, R value) {
+            int mask = slots.length - 1;
+            int slot = Tuples.mix(Tuples.hash(key)) & mask;
+            for (; slots[slot] != NONE; slot = (slot + 1) & mask) {
+                int group = slots[slot];
+                if (Tuples.equal(keys[group], key)) {
+                    values[group] = aggregator.add(values[group], value);
+                    return;
+                }
+            }
+            insert(slot, key, aggregator.first(value));
+        }
+
+        private void merge(Table other) {
+            int mask = slots.length - 1;
+            for (int source = 0; source < other.groups; source++) {
+                L key = other.keys[source];
+                int slot = Tuples.mix(Tuples.hash(key)) & mask;
+                boolean found = false;
+                for (; slots[slot] != NONE; slot = (slot + 1) & mask) {
+                    int group = slots[slot];
+                    if (Tuples.equal(keys[group], key)) {
+                        values[group] = aggregator.merge(values[group], other.values[source]);
+                        found = true;
+                        break;
+                    }
+                }
+                if (!found) {
+                    insert(slot, key, other.values[source]);
+                    mask = slots.length - 1;
+                }
+            }
+        }
+
+        private void insert(int slot, L key, R value) {
+            if (groups == keys.length) {
+                L[] newKeys = (L[]) new Object[groups << 1];
+                R[] newValues = (R[]) new Object[groups << 1];
+                System.arraycopy(keys, 0, newKeys, 0, groups);
+                System.arraycopy(values, 0, newValues, 0, groups);
+                keys = newKeys;
+                values = newValues;
+            }
+            keys[groups] = key;
+            values[groups] = value;
+            slots[slot] = groups;
+            if (++groups << 1 > slots.length) rehash(slots.length << 1);
+        }
+
+        private void rehash(int capacity) {
+            slots = newSlots(capacity);
+            int mask = capacity - 1;
+            for (int group = 0; group < groups; group++) {
+                int slot = Tuples.mix(Tuples.hash(keys[group])) & mask;
+                while (slots[slot] != NONE)
+                    slot = (slot + 1) & mask;
+                slots[slot] = group;
+            }
+        }
+
+        private DoubleArrayList<L, R> toList() {
+            return new DoubleArrayList<L, R>(Arrays.copyOf(keys, groups), Arrays.copyOf(values, groups));
+        }
+    }
+
+    private static int[] newSlots(int capacity) {
+        int[] slots = new int[capacity];
+        Arrays.fill(slots, NONE);
+        return slots;
+    }
+}
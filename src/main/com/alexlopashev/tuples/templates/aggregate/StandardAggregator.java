@@ -0,0 +1,56 @@
+package com.alexlopashev.tuples.templates.aggregate;
+
+import com.alexlopashev.tuples.templates.Tuples;
+
+/**
+ * Aggregator of one of {@link Aggregations} kinds.
+ */
+public class StandardAggregator<T> implements ColumnAggregator<T> {
+
+    private final int kind;
+
+    /**
+     * @param kind one of {@link Aggregations#SUM}, {@link Aggregations#COUNT}, {@link Aggregations#MIN},
+     *             {@link Aggregations#MAX}, {@link Aggregations#FIRST}, {@link Aggregations#LAST}
+     */
+    public StandardAggregator(int kind) {
+        if (kind < Aggregations.SUM || kind > Aggregations.LAST) throw new IllegalArgumentException("Unknown aggregation: " + kind);
+        if (kind == Aggregations.SUM && !Aggregations.numeric((T) null))
+            throw new IllegalArgumentException("Boxed values can be aggregated by min, max, first or last only");
+        if (kind == Aggregations.COUNT && !Aggregations.countable((T) null))
+            throw new IllegalArgumentException("Byte, char, short, float and boxed columns can't hold counts");
+        this.kind = kind;
+    }
+
+    public int kind() {
+        return kind;
+    }
+
+    @Override
+    public T first(T value) {
+        return kind == Aggregations.COUNT ? (T) Aggregations.one((T) null) : value;
+    }
+
+    @Override
+    public T add(T accumulator, T value) {
+        switch (kind) {
+            case Aggregations.SUM:
+                return (T) Aggregations.sum(accumulator, value);
+            case Aggregations.COUNT:
+                return (T) Aggregations.sum(accumulator, Aggregations.one((T) null));
+            case Aggregations.MIN:
+                return Tuples.compare(value, accumulator) < 0 ? value : accumulator;
+            case Aggregations.MAX:
+                return Tuples.compare(value, accumulator) > 0 ? value : accumulator;
+            case Aggregations.FIRST:
+                return accumulator;
+            default:
+                return value;
+        }
+    }
+
+    @Override
+    public T merge(T accumulator, T other) {
+        return kind == Aggregations.COUNT ? (T) Aggregations.sum(accumulator, other) : add(accumulator, other);
+    }
+}
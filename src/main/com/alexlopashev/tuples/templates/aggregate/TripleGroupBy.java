@@ -0,0 +1,210 @@
+package com.alexlopashev.tuples.templates.aggregate;
+
+import com.alexlopashev.tuples.templates.TripleCollection;
+import com.alexlopashev.tuples.templates.Tuples;
+import com.alexlopashev.tuples.templates.list.TripleArrayList;
+import com.alexlopashev.tuples.templates.parallel.ParallelRanges;
+import com.alexlopashev.tuples.templates.parallel.RangeProcedure;
+import com.alexlopashev.tuples.templates.procedure.TripleProcedure;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Groups triples either by (left, middle) pair aggregating right values, or by left value
+ * aggregating middle and right values each with own aggregator. Results are triple lists of
+ * keys and aggregates in order of first appearance of keys, see {@link DoubleGroupBy} for the
+ * table and parallel aggregation.
+ */
+public class TripleGroupBy<L, M, R> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int NONE = -1;
+
+    /**
+     * Aggregator of middle values, null when triples are grouped by (left, middle).
+     */
+    private final ColumnAggregator<M> middleAggregator;
+
+    private final ColumnAggregator<R> rightAggregator;
+
+    /**
+     * Groups by (left, middle) pair.
+     */
+    public TripleGroupBy(ColumnAggregator<R> rightAggregator) {
+        if (rightAggregator == null) throw new NullPointerException();
+        this.middleAggregator = null;
+        this.rightAggregator = rightAggregator;
+    }
+
+    /**
+     * Groups by left value.
+     */
+    public TripleGroupBy(ColumnAggregator<M> middleAggregator, ColumnAggregator<R> rightAggregator) {
+        if (middleAggregator == null || rightAggregator == null) throw new NullPointerException();
+        this.middleAggregator = middleAggregator;
+        this.rightAggregator = rightAggregator;
+    }
+
+    /**
+     * @return list of keys and aggregates of their triples
+     */
+    public TripleArrayList<L, M, R> aggregate(TripleCollection<L, M, R> collection) {
+        final Table table = new Table();
+        collection.forEach(new TripleProcedure<L, M, R>() {
+            @Override
+            public boolean execute(L leftElement, M middleElement, R rightElement) {
+                table.add(leftElement, middleElement, rightElement);
+                return true;
+            }
+        });
+        return table.toList();
+    }
+
+    /**
+     * Aggregators must be thread safe, the standard ones are.
+     */
+    public TripleArrayList<L, M, R> parallelAggregate(TripleCollection<L, M, R> collection) {
+        return parallelAggregate(collection, ForkJoinPool.commonPool(), ParallelRanges.DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * @param threshold the smallest number of rows of a partition
+     */
+    public TripleArrayList<L, M, R> parallelAggregate(TripleCollection<L, M, R> collection, ForkJoinPool pool, int threshold) {
+        if (threshold < 1) throw new IllegalArgumentException("Threshold: " + threshold);
+        final L[] left = collection.getLeft();
+        final M[] middle = collection.getMiddle();
+        final R[] right = collection.getRight();
+        final int size = left.length;
+        int partitions = Math.max(1, Math.min(size / threshold, pool.getParallelism() * 4));
+        final int length = (size + partitions - 1) / partitions;
+        final AtomicReferenceArray<Table> tables = new AtomicReferenceArray<Table>(partitions);
+        ParallelRanges.execute(partitions, new RangeProcedure() {
+            @Override
+            public int execute(int begin, int end) {
+                for (int partition = begin; partition < end; partition++) {
+                    Table table = new Table();
+                    int to = (int) Math.min(size, (long) (partition + 1) * length);
+                    for (int i = partition * length; i < to; i++)
+                        table.add(left[i], middle[i], right[i]);
+                    tables.set(partition, table);
+                }
+                return -1;
+            }
+        }, pool, 1);
+        Table result = tables.get(0);
+        for (int partition = 1; partition < partitions; partition++)
+            result.merge(tables.get(partition));
+        return result.toList();
+    }
+
+    /**
+     * Open addressing table of group numbers, slots are found by key hash with linear probing.
+     * Middle column holds keys or accumulators depending on grouping.
+     */
+    private class Table {
+
+        private L[] lefts = (L[]) new Object[DEFAULT_CAPACITY];
+
+        private M[] middles = (M[]) new Object[DEFAULT_CAPACITY];
+
+        private R[] rights = (R[]) new Object[DEFAULT_CAPACITY];
+
+        private int[] slots = newSlots(DEFAULT_CAPACITY << 1);
+
+        private int groups;
+
+        private void add(L leftElement, M middleElement, R rightElement) {
+            int mask = slots.length - 1;
+            int slot = hash(leftElement, middleElement) & mask;
+            for (; slots[slot] != NONE; slot = (slot + 1) & mask) {
+                int group = slots[slot];
+                if (isKey(group, leftElement, middleElement)) {
+                    if (middleAggregator != null)
+                        middles[group] = middleAggregator.add(middles[group], middleElement);
+                    rights[group] = rightAggregator.add(rights[group], rightElement);
+                    return;
+                }
+            }
+            insert(slot, leftElement, middleAggregator == null ? middleElement : middleAggregator.first(middleElement),
+                    rightAggregator.first(rightElement));
+        }
+
+        private void merge(Table other) {
+            int mask = slots.length - 1;
+            for (int source = 0; source < other.groups; source++) {
+                L leftKey = other.lefts[source];
+                M middleValue = other.middles[source];
+                int slot = hash(leftKey, middleValue) & mask;
+                boolean found = false;
+                for (; slots[slot] != NONE; slot = (slot + 1) & mask) {
+                    int group = slots[slot];
+                    if (isKey(group, leftKey, middleValue)) {
+                        if (middleAggregator != null)
+                            middles[group] = middleAggregator.merge(middles[group], middleValue);
+                        rights[group] = rightAggregator.merge(rights[group], other.rights[source]);
+                        found = true;
+                        break;
+                    }
+                }
+                if (!found) {
+                    insert(slot, leftKey, middleValue, other.rights[source]);
+                    mask = slots.length - 1;
+                }
+            }
+        }
+
+        private boolean isKey(int group, L leftElement, M middleElement) {
+            return Tuples.equal(lefts[group], leftElement)
+                    && (middleAggregator != null || Tuples.equal(middles[group], middleElement));
+        }
+
+        private int hash(L leftElement, M middleElement) {
+            if (middleAggregator != null) return Tuples.mix(Tuples.hash(leftElement));
+            return Tuples.mix(31 * Tuples.hash(leftElement) + Tuples.hash(middleElement));
+        }
+
+        private void insert(int slot, L leftElement, M middleElement, R rightElement) {
+            if (groups == lefts.length) {
+                L[] newLefts = (L[]) new Object[groups << 1];
+                M[] newMiddles = (M[]) new Object[groups << 1];
+                R[] newRights = (R[]) new Object[groups << 1];
+                System.arraycopy(lefts, 0, newLefts, 0, groups);
+                System.arraycopy(middles, 0, newMiddles, 0, groups);
+                System.arraycopy(rights, 0, newRights, 0, groups);
+                lefts = newLefts;
+                middles = newMiddles;
+                rights = newRights;
+            }
+            lefts[groups] = leftElement;
+            middles[groups] = middleElement;
+            rights[groups] = rightElement;
+            slots[slot] = groups;
+            if (++groups << 1 > slots.length) rehash(slots.length << 1);
+        }
+
+        private void rehash(int capacity) {
+            slots = newSlots(capacity);
+            int mask = capacity - 1;
+            for (int group = 0; group < groups; group++) {
+                int slot = hash(lefts[group], middles[group]) & mask;
+                while (slots[slot] != NONE)
+                    slot = (slot + 1) & mask;
+                slots[slot] = group;
+            }
+        }
+
+        private TripleArrayList<L, M, R> toList() {
+            return new TripleArrayList<L, M, R>(Arrays.copyOf(lefts, groups), Arrays.copyOf(middles, groups),
+                    Arrays.copyOf(rights, groups));
+        }
+    }
+
+    private static int[] newSlots(int capacity) {
+        int[] slots = new int[capacity];
+        Arrays.fill(slots, NONE);
+        return slots;
+    }
+}
@@ -0,0 +1,460 @@
+package com.alexlopashev.tuples.templates.concurrent;
+
+import com.alexlopashev.tuples.templates.TripleCollection;
+import com.alexlopashev.tuples.templates.Tuples;
+import com.alexlopashev.tuples.templates.function.TripleFunction;
+import com.alexlopashev.tuples.templates.index.ColumnIndex;
+import com.alexlopashev.tuples.templates.index.TripleIndexes;
+import com.alexlopashev.tuples.templates.iterator.TripleIterator;
+import com.alexlopashev.tuples.templates.list.TripleArrayList;
+import com.alexlopashev.tuples.templates.list.TripleList;
+import com.alexlopashev.tuples.templates.procedure.TripleProcedure;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Append-only triple list for many concurrent producers. A producer reserves rows by CAS on
+ * the reserved counter (bulk addAll reserves its whole range at once), fills them without
+ * locking and marks the range ready. Published size is advanced over ready ranges in order,
+ * so readers see a gap-free prefix of completely written rows, {@link #size()} and all
+ * reads are limited to it.
+ *
+ * Columns are stored in segments of {@link #SEGMENT_SIZE} rows which are never copied,
+ * only the segment directory is replaced when the list grows. Removals, clearing and
+ * transformations are not supported. Column indexes are not maintained under concurrent
+ * appends, so they cannot be attached and lookups scan published rows.
+ */
+public class TripleConcurrentAppendList<L, M, R> implements TripleList<L, M, R> {
+
+    public static final int SEGMENT_SHIFT = 14;
+
+    public static final int SEGMENT_SIZE = 1 << SEGMENT_SHIFT;
+
+    private static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+    private final AtomicInteger reserved = new AtomicInteger();
+
+    private final AtomicInteger published = new AtomicInteger();
+
+    private final Object growLock = new Object();
+
+    private volatile Directory directory = new Directory(0);
+
+    private final TripleIndexes<L, M, R> scans = new TripleIndexes<L, M, R>();
+
+    @Override
+    public boolean add(L leftElement, M middleElement, R rightElement) {
+        int index = reserve(1);
+        if (index < 0) return false;
+        Directory current = ensureSegments(index + 1);
+        current.left[index >>> SEGMENT_SHIFT][index & SEGMENT_MASK] = leftElement;
+        current.middle[index >>> SEGMENT_SHIFT][index & SEGMENT_MASK] = middleElement;
+        current.right[index >>> SEGMENT_SHIFT][index & SEGMENT_MASK] = rightElement;
+        publish(current, index, 1);
+        return true;
+    }
+
+    @Override
+    public boolean addAll(L[] leftAdd, M[] middleAdd, R[] rightAdd) {
+        checkParameters(leftAdd, middleAdd, rightAdd);
+        int count = leftAdd.length;
+        if (count == 0) return true;
+        int begin = reserve(count);
+        if (begin < 0) return false;
+        Directory current = ensureSegments(begin + count);
+        try {
+            for (int copied = 0; copied < count; ) {
+                int index = begin + copied;
+                int length = Math.min(count - copied, SEGMENT_SIZE - (index & SEGMENT_MASK));
+                System.arraycopy(leftAdd, copied, current.left[index >>> SEGMENT_SHIFT], index & SEGMENT_MASK, length);
+                System.arraycopy(middleAdd, copied, current.middle[index >>> SEGMENT_SHIFT], index & SEGMENT_MASK, length);
+                System.arraycopy(rightAdd, copied, current.right[index >>> SEGMENT_SHIFT], index & SEGMENT_MASK, length);
+                copied += length;
+            }
+        } finally {
+            // a reserved range is always published, otherwise published size would stop at it,
+            // rows not copied keep default values
+            publish(current, begin, count);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean addAll(TripleCollection<L, M, R> collection) {
+        return addAll(collection.getLeft(), collection.getMiddle(), collection.getRight());
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean contains(L leftElement, M middleElement, R rightElement) {
+        return indexOf(leftElement, middleElement, rightElement) >= 0;
+    }
+
+    @Override
+    public boolean containsAll(L[] leftElements, M[] middleElements, R[] rightElements) {
+        checkParameters(leftElements, middleElements, rightElements);
+        for (int i = 0; i < leftElements.length; i++)
+            if (!contains(leftElements[i], middleElements[i], rightElements[i]))
+                return false;
+        return true;
+    }
+
+    @Override
+    public boolean containsAll(TripleCollection<L, M, R> collection) {
+        return collection.forEach(new TripleProcedure<L, M, R>() {
+            @Override
+            public boolean execute(L leftElement, M middleElement, R rightElement) {
+                return contains(leftElement, middleElement, rightElement);
+            }
+        });
+    }
+
+    /**
+     * Iterates triples published when the call starts.
+     */
+    @Override
+    public boolean forEach(TripleProcedure<L, M, R> procedure) {
+        int size = published.get();
+        Directory current = directory;
+        for (int i = 0; i < size; i++)
+            if (!procedure.execute(current.leftAt(i), current.middleAt(i), current.rightAt(i)))
+                return false;
+        return true;
+    }
+
+    @Override
+    public int indexOf(L leftElement, M middleElement, R rightElement) {
+        int size = published.get();
+        Directory current = directory;
+        for (int i = 0; i < size; i++)
+            if (Tuples.equal(current.leftAt(i), leftElement) && Tuples.equal(current.middleAt(i), middleElement)
+                    && Tuples.equal(current.rightAt(i), rightElement))
+                return i;
+        return -1;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return published.get() == 0;
+    }
+
+    /**
+     * @return iterator over triples published when the call starts
+     */
+    @Override
+    public TripleIterator<L, M, R> iterator() {
+        return new Iterator(published.get(), directory);
+    }
+
+    @Override
+    public L getLeft(int index) {
+        checkIndex(index);
+        return directory.leftAt(index);
+    }
+
+    /**
+     * @return copy of the published part of the left column
+     */
+    @Override
+    public L[] getLeft() {
+        int size = published.get();
+        Directory current = directory;
+        L[] result = (L[]) new Object[size];
+        for (int segment = 0; segment << SEGMENT_SHIFT < size; segment++) {
+            int begin = segment << SEGMENT_SHIFT;
+            System.arraycopy(current.left[segment], 0, result, begin, Math.min(SEGMENT_SIZE, size - begin));
+        }
+        return result;
+    }
+
+    @Override
+    public M getMiddle(int index) {
+        checkIndex(index);
+        return directory.middleAt(index);
+    }
+
+    /**
+     * @return copy of the published part of the middle column
+     */
+    @Override
+    public M[] getMiddle() {
+        int size = published.get();
+        Directory current = directory;
+        M[] result = (M[]) new Object[size];
+        for (int segment = 0; segment << SEGMENT_SHIFT < size; segment++) {
+            int begin = segment << SEGMENT_SHIFT;
+            System.arraycopy(current.middle[segment], 0, result, begin, Math.min(SEGMENT_SIZE, size - begin));
+        }
+        return result;
+    }
+
+    @Override
+    public R getRight(int index) {
+        checkIndex(index);
+        return directory.rightAt(index);
+    }
+
+    /**
+     * @return copy of the published part of the right column
+     */
+    @Override
+    public R[] getRight() {
+        int size = published.get();
+        Directory current = directory;
+        R[] result = (R[]) new Object[size];
+        for (int segment = 0; segment << SEGMENT_SHIFT < size; segment++) {
+            int begin = segment << SEGMENT_SHIFT;
+            System.arraycopy(current.right[segment], 0, result, begin, Math.min(SEGMENT_SIZE, size - begin));
+        }
+        return result;
+    }
+
+    @Override
+    public boolean remove(int index) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean remove(L leftElement, M middleElement, R rightElement) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean removeAll(L[] leftElements, M[] middleElements, R[] rightElements) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean removeAll(TripleCollection<L, M, R> collection) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean retainAll(L[] leftToRetain, M[] middleToRetain, R[] rightToRetain) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean retainAll(TripleCollection<L, M, R> collection) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean removeIf(TripleProcedure<L, M, R> filter) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void transformValues(TripleFunction<L, M, R> function) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * @return number of published triples, triples being added right now are not counted
+     */
+    @Override
+    public int size() {
+        return published.get();
+    }
+
+    /**
+     * @return copy of the range
+     */
+    @Override
+    public TripleArrayList<L, M, R> subList(int begin, int end) {
+        if (begin < 0 || end > published.get() || begin > end) throw new IndexOutOfBoundsException();
+        Directory current = directory;
+        TripleArrayList<L, M, R> list = new TripleArrayList<L, M, R>(end - begin);
+        for (int i = begin; i < end; i++)
+            list.add(current.leftAt(i), current.middleAt(i), current.rightAt(i));
+        return list;
+    }
+
+    @Override
+    public void attachLeftIndex(ColumnIndex<L> index) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void attachMiddleIndex(ColumnIndex<M> index) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void attachRightIndex(ColumnIndex<R> index) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void detachIndexes() {
+    }
+
+    @Override
+    public int[] lookupLeft(L value) {
+        return scans.lookupLeft(value, this);
+    }
+
+    @Override
+    public int[] lookupMiddle(M value) {
+        return scans.lookupMiddle(value, this);
+    }
+
+    @Override
+    public int[] lookupRight(R value) {
+        return scans.lookupRight(value, this);
+    }
+
+    /**
+     * @return first reserved row, or -1 if the list would overflow
+     */
+    private int reserve(int count) {
+        while (true) {
+            int begin = reserved.get();
+            if (begin > Integer.MAX_VALUE - count) return -1;
+            if (reserved.compareAndSet(begin, begin + count))
+                return begin;
+        }
+    }
+
+    private Directory ensureSegments(int rows) {
+        Directory current = directory;
+        int segments = (int) (((long) rows + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+        if (current.segments >= segments) return current;
+        synchronized (growLock) {
+            current = directory;
+            if (current.segments < segments) {
+                current = current.grow(segments);
+                directory = current;
+            }
+            return current;
+        }
+    }
+
+    /**
+     * Marks the range ready and moves published size over all ready ranges which follow it.
+     * Ranges are contiguous, so a range is marked by its length stored at its first row.
+     */
+    private void publish(Directory current, int begin, int count) {
+        current.ready[begin >>> SEGMENT_SHIFT].set(begin & SEGMENT_MASK, count);
+        while (true) {
+            int size = published.get();
+            if (size == Integer.MAX_VALUE || size >= reserved.get()) return;
+            Directory latest = directory;
+            if (latest.segments <= size >>> SEGMENT_SHIFT) return;
+            int length = latest.ready[size >>> SEGMENT_SHIFT].get(size & SEGMENT_MASK);
+            if (length == 0) return;
+            published.compareAndSet(size, size + length);
+        }
+    }
+
+    private void checkIndex(int index) {
+        int size = published.get();
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+    }
+
+    private void checkParameters(L[] left, M[] middle, R[] right) {
+        if (left == null || middle == null || right == null) throw new NullPointerException();
+        if (left.length != middle.length || left.length != right.length) throw new IllegalArgumentException();
+    }
+
+    /**
+     * Immutable set of segments, segments themselves are shared between directories.
+     */
+    private class Directory {
+
+        private final int segments;
+
+        private final L[][] left;
+
+        private final M[][] middle;
+
+        private final R[][] right;
+
+        private final AtomicIntegerArray[] ready;
+
+        private Directory(int segments) {
+            this.segments = segments;
+            left = (L[][]) new Object[segments][];
+            middle = (M[][]) new Object[segments][];
+            right = (R[][]) new Object[segments][];
+            ready = new AtomicIntegerArray[segments];
+        }
+
+        private Directory grow(int newSegments) {
+            newSegments = Math.max(newSegments, segments + (segments >> 1));
+            Directory grown = new Directory(newSegments);
+            System.arraycopy(left, 0, grown.left, 0, segments);
+            System.arraycopy(middle, 0, grown.middle, 0, segments);
+            System.arraycopy(right, 0, grown.right, 0, segments);
+            System.arraycopy(ready, 0, grown.ready, 0, segments);
+            for (int i = segments; i < newSegments; i++) {
+                grown.left[i] = (L[]) new Object[SEGMENT_SIZE];
+                grown.middle[i] = (M[]) new Object[SEGMENT_SIZE];
+                grown.right[i] = (R[]) new Object[SEGMENT_SIZE];
+                grown.ready[i] = new AtomicIntegerArray(SEGMENT_SIZE);
+            }
+            return grown;
+        }
+
+        private L leftAt(int index) {
+            return left[index >>> SEGMENT_SHIFT][index & SEGMENT_MASK];
+        }
+
+        private M middleAt(int index) {
+            return middle[index >>> SEGMENT_SHIFT][index & SEGMENT_MASK];
+        }
+
+        private R rightAt(int index) {
+            return right[index >>> SEGMENT_SHIFT][index & SEGMENT_MASK];
+        }
+    }
+
+    private class Iterator implements TripleIterator<L, M, R> {
+
+        private final int size;
+
+        private final Directory directory;
+
+        private int current;
+
+        private Iterator(int size, Directory directory) {
+            this.size = size;
+            this.directory = directory;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return current < size;
+        }
+
+        @Override
+        public void iterate() {
+            current++;
+        }
+
+        @Override
+        public boolean remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public L nextLeft() {
+            return directory.leftAt(current);
+        }
+
+        @Override
+        public M nextMiddle() {
+            return directory.middleAt(current);
+        }
+
+        @Override
+        public R nextRight() {
+            return directory.rightAt(current);
+        }
+    }
+}
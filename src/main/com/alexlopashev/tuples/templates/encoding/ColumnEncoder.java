@@ -0,0 +1,42 @@
+package com.alexlopashev.tuples.templates.encoding;
+
+/**
+ * Builds encoded columns, {@link Encodings#AUTO} builds every applicable encoding and keeps
+ * the smallest one.
+ */
+public class ColumnEncoder<T> {
+
+    /**
+     * @param values first size values are encoded, the array may be kept by a plain column
+     * @param encoding one of {@link Encodings} constants
+     */
+    public EncodedColumn<T> encode(T[] values, int size, int encoding) {
+        switch (encoding) {
+            case Encodings.PLAIN:
+                return new PlainColumn<T>(values, size);
+            case Encodings.DICTIONARY:
+                return new DictionaryColumn<T>(values, size);
+            case Encodings.DELTA:
+                return new DeltaColumn<T>(values, size);
+            case Encodings.RUN_LENGTH:
+                return new RunLengthColumn<T>(values, size);
+            case Encodings.AUTO:
+                return smallest(values, size);
+            default:
+                throw new IllegalArgumentException("Unknown encoding: " + encoding);
+        }
+    }
+
+    private EncodedColumn<T> smallest(T[] values, int size) {
+        EncodedColumn<T> result = new PlainColumn<T>(values, size);
+        result = smaller(result, new RunLengthColumn<T>(values, size));
+        result = smaller(result, new DictionaryColumn<T>(values, size));
+        if (Encodings.deltaSupported((T) null))
+            result = smaller(result, new DeltaColumn<T>(values, size));
+        return result;
+    }
+
+    private EncodedColumn<T> smaller(EncodedColumn<T> first, EncodedColumn<T> second) {
+        return second.bytes() < first.bytes() ? second : first;
+    }
+}
@@ -0,0 +1,144 @@
+package com.alexlopashev.tuples.templates.encoding;
+
+import com.alexlopashev.tuples.templates.scan.ColumnScans;
+
+/**
+ * Column of zigzag varint differences between neighbour values, see {@link Encodings#DELTA}.
+ * Sorted or slowly changing numbers like timestamps take one or two bytes per row. Blocks of
+ * {@link ColumnScans#BLOCK} rows start with a full value and keep their lowest and highest
+ * values, so a row is decoded from the start of its block and blocks which can't contain a
+ * value are skipped by match without decoding.
+ */
+public class DeltaColumn<T> implements EncodedColumn<T> {
+
+    private static final int SHIFT = 6;
+    private static final int MASK = (1 << SHIFT) - 1;
+
+    private final long[] starts;
+
+    private final long[] lows;
+
+    private final long[] highs;
+
+    /**
+     * Position of the first difference of each block in data.
+     */
+    private final int[] positions;
+
+    private final byte[] data;
+
+    private final int size;
+
+    DeltaColumn(T[] values, int size) {
+        if (!Encodings.deltaSupported((T) null)) throw new IllegalArgumentException("Objects can't be delta encoded");
+        int blocks = (size + MASK) >>> SHIFT;
+        starts = new long[blocks];
+        lows = new long[blocks];
+        highs = new long[blocks];
+        positions = new int[blocks];
+        byte[] buffer = new byte[Math.max(16, size)];
+        int length = 0;
+        long previous = 0;
+        for (int i = 0; i < size; i++) {
+            long value = Encodings.toLong(values[i]);
+            int block = i >>> SHIFT;
+            if ((i & MASK) == 0) {
+                starts[block] = value;
+                lows[block] = value;
+                highs[block] = value;
+                positions[block] = length;
+            } else {
+                if (length + 10 > buffer.length) {
+                    byte[] newBuffer = new byte[buffer.length << 1];
+                    System.arraycopy(buffer, 0, newBuffer, 0, length);
+                    buffer = newBuffer;
+                }
+                long delta = value - previous;
+                long zigzag = (delta << 1) ^ (delta >> 63);
+                while ((zigzag & ~0x7FL) != 0) {
+                    buffer[length++] = (byte) (zigzag | 0x80);
+                    zigzag >>>= 7;
+                }
+                buffer[length++] = (byte) zigzag;
+                lows[block] = Math.min(lows[block], value);
+                highs[block] = Math.max(highs[block], value);
+            }
+            previous = value;
+        }
+        data = new byte[length];
+        System.arraycopy(buffer, 0, data, 0, length);
+        this.size = size;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public T get(int index) {
+        int block = index >>> SHIFT;
+        long value = starts[block];
+        for (int row = block << SHIFT, position = positions[block]; row < index; row++) {
+            long zigzag = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte next = data[position++];
+                zigzag |= (long) (next & 0x7F) << shift;
+                if (next >= 0) break;
+            }
+            value += (zigzag >>> 1) ^ -(zigzag & 1);
+        }
+        return (T) Encodings.fromLong(value, (T) null);
+    }
+
+    @Override
+    public long match(int from, int to, T value) {
+        long target = Encodings.toLong(value);
+        long mask = 0;
+        for (int row = from, end; row < to; row = end) {
+            int block = row >>> SHIFT;
+            end = Math.min(to, (block + 1) << SHIFT);
+            if (target < lows[block] || target > highs[block]) continue;
+            long current = starts[block];
+            for (int i = block << SHIFT, position = positions[block]; i < end; i++) {
+                if ((i & MASK) != 0) {
+                    long zigzag = 0;
+                    for (int shift = 0; ; shift += 7) {
+                        byte next = data[position++];
+                        zigzag |= (long) (next & 0x7F) << shift;
+                        if (next >= 0) break;
+                    }
+                    current += (zigzag >>> 1) ^ -(zigzag & 1);
+                }
+                if (i >= row) mask |= (current == target ? 1L : 0L) << (i - from);
+            }
+        }
+        return mask;
+    }
+
+    @Override
+    public void copy(int begin, int end, T[] target, int offset) {
+        for (int row = begin, blockEnd; row < end; row = blockEnd) {
+            int block = row >>> SHIFT;
+            blockEnd = Math.min(end, (block + 1) << SHIFT);
+            long current = starts[block];
+            for (int i = block << SHIFT, position = positions[block]; i < blockEnd; i++) {
+                if ((i & MASK) != 0) {
+                    long zigzag = 0;
+                    for (int shift = 0; ; shift += 7) {
+                        byte next = data[position++];
+                        zigzag |= (long) (next & 0x7F) << shift;
+                        if (next >= 0) break;
+                    }
+                    current += (zigzag >>> 1) ^ -(zigzag & 1);
+                }
+                if (i >= row) target[offset + i - begin] = (T) Encodings.fromLong(current, (T) null);
+            }
+        }
+    }
+
+    @Override
+    public long bytes() {
+        return data.length + starts.length * 28L;
+    }
+}
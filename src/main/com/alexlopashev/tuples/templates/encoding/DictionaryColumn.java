@@ -0,0 +1,138 @@
+package com.alexlopashev.tuples.templates.encoding;
+
+import com.alexlopashev.tuples.templates.Tuples;
+
+import java.util.Arrays;
+
+/**
+ * Column of distinct values and a code per row packed with as many bits as the number of
+ * distinct values needs, see {@link Encodings#DICTIONARY}. A value is looked up in the
+ * dictionary once per match, then codes are compared, a value which is not in the column
+ * matches nothing without reading codes.
+ */
+public class DictionaryColumn<T> implements EncodedColumn<T> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int NONE = -1;
+
+    private T[] dictionary;
+
+    private int distinct;
+
+    /**
+     * Open addressing table of codes, slots are found by value hash with linear probing.
+     */
+    private int[] table;
+
+    private final int width;
+
+    private final long codeMask;
+
+    private final long[] codes;
+
+    private final int size;
+
+    DictionaryColumn(T[] values, int size) {
+        dictionary = (T[]) new Object[DEFAULT_CAPACITY];
+        table = new int[DEFAULT_CAPACITY << 1];
+        Arrays.fill(table, NONE);
+        int[] rowCodes = new int[size];
+        for (int i = 0; i < size; i++)
+            rowCodes[i] = add(values[i]);
+        this.size = size;
+        width = Math.max(1, 32 - Integer.numberOfLeadingZeros(distinct - 1));
+        codeMask = (1L << width) - 1;
+        codes = new long[(int) (((long) size * width + 63) >>> 6)];
+        for (int i = 0; i < size; i++) {
+            long bit = (long) i * width;
+            int word = (int) (bit >>> 6);
+            int shift = (int) bit & 63;
+            codes[word] |= (long) rowCodes[i] << shift;
+            if (shift + width > 64) codes[word + 1] |= (long) rowCodes[i] >>> (64 - shift);
+        }
+    }
+
+    /**
+     * @return number of distinct values
+     */
+    public int distinct() {
+        return distinct;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public T get(int index) {
+        return dictionary[codeAt(index)];
+    }
+
+    @Override
+    public long match(int from, int to, T value) {
+        int code = codeOf(value);
+        if (code == NONE) return 0;
+        long mask = 0;
+        for (int i = from; i < to; i++)
+            mask |= (codeAt(i) == code ? 1L : 0L) << (i - from);
+        return mask;
+    }
+
+    @Override
+    public void copy(int begin, int end, T[] target, int offset) {
+        for (int i = begin; i < end; i++)
+            target[offset++] = dictionary[codeAt(i)];
+    }
+
+    @Override
+    public long bytes() {
+        return codes.length * 8L + table.length * 4L + (long) distinct * Encodings.valueBytes((T) null);
+    }
+
+    private int codeAt(int index) {
+        long bit = (long) index * width;
+        int word = (int) (bit >>> 6);
+        int shift = (int) bit & 63;
+        long code = codes[word] >>> shift;
+        if (shift + width > 64) code |= codes[word + 1] << (64 - shift);
+        return (int) (code & codeMask);
+    }
+
+    private int codeOf(T value) {
+        int mask = table.length - 1;
+        for (int slot = Tuples.mix(Tuples.hash(value)) & mask; table[slot] != NONE; slot = (slot + 1) & mask)
+            if (Tuples.equal(dictionary[table[slot]], value))
+                return table[slot];
+        return NONE;
+    }
+
+    private int add(T value) {
+        int mask = table.length - 1;
+        int slot = Tuples.mix(Tuples.hash(value)) & mask;
+        for (; table[slot] != NONE; slot = (slot + 1) & mask)
+            if (Tuples.equal(dictionary[table[slot]], value))
+                return table[slot];
+        if (distinct == dictionary.length) {
+            T[] newDictionary = (T[]) new Object[distinct << 1];
+            System.arraycopy(dictionary, 0, newDictionary, 0, distinct);
+            dictionary = newDictionary;
+        }
+        dictionary[distinct] = value;
+        table[slot] = distinct;
+        if (++distinct << 1 > table.length) rehash(table.length << 1);
+        return distinct - 1;
+    }
+
+    private void rehash(int capacity) {
+        table = new int[capacity];
+        Arrays.fill(table, NONE);
+        int mask = capacity - 1;
+        for (int code = 0; code < distinct; code++) {
+            int slot = Tuples.mix(Tuples.hash(dictionary[code])) & mask;
+            while (table[slot] != NONE)
+                slot = (slot + 1) & mask;
+            table[slot] = code;
+        }
+    }
+}
@@ -0,0 +1,351 @@
+package com.alexlopashev.tuples.templates.encoding;
+
+import com.alexlopashev.tuples.templates.DoubleCollection;
+import com.alexlopashev.tuples.templates.function.DoubleFunction;
+import com.alexlopashev.tuples.templates.iterator.DoubleCursor;
+import com.alexlopashev.tuples.templates.iterator.DoubleIterator;
+import com.alexlopashev.tuples.templates.list.DoubleArrayList;
+import com.alexlopashev.tuples.templates.list.DoubleList;
+import com.alexlopashev.tuples.templates.procedure.DoubleProcedure;
+import com.alexlopashev.tuples.templates.scan.ColumnScans;
+
+/**
+ * Immutable pair list with each column in its own encoding, see {@link Encodings}: dictionary
+ * codes for a few distinct values, varint differences for sorted numbers, runs for repeated
+ * values. {@link #indexOf}, {@link #contains} and {@link #count} compare encoded columns block
+ * by block instead of decoding rows, {@link #forEach} and the cursor decode a block at a time.
+ * Modifications throw {@link UnsupportedOperationException}, {@link #subList(int, int)} is a view,
+ * {@link #toArrayList()} decodes into a modifiable copy.
+ */
+public class DoubleEncodedList<L, R> implements DoubleList<L, R> {
+
+    private final EncodedColumn<L> left;
+
+    private final EncodedColumn<R> right;
+
+    private final int offset;
+
+    private final int size;
+
+    /**
+     * Encodes the source picking the smallest encoding for each column.
+     */
+    public DoubleEncodedList(DoubleList<L, R> source) {
+        this(source, Encodings.AUTO, Encodings.AUTO);
+    }
+
+    /**
+     * @param leftEncoding one of {@link Encodings} constants
+     * @param rightEncoding one of {@link Encodings} constants
+     */
+    public DoubleEncodedList(DoubleList<L, R> source, int leftEncoding, int rightEncoding) {
+        this(new ColumnEncoder<L>().encode(source.getLeft(), source.size(), leftEncoding),
+                new ColumnEncoder<R>().encode(source.getRight(), source.size(), rightEncoding), 0, source.size());
+    }
+
+    private DoubleEncodedList(EncodedColumn<L> left, EncodedColumn<R> right, int offset, int size) {
+        this.left = left;
+        this.right = right;
+        this.offset = offset;
+        this.size = size;
+    }
+
+    /**
+     * @return encoded left column, shared with views of the list
+     */
+    public EncodedColumn<L> leftColumn() {
+        return left;
+    }
+
+    /**
+     * @return encoded right column, shared with views of the list
+     */
+    public EncodedColumn<R> rightColumn() {
+        return right;
+    }
+
+    /**
+     * @return approximate size of encoded columns
+     */
+    public long bytes() {
+        return left.bytes() + right.bytes();
+    }
+
+    @Override
+    public boolean add(L leftElement, R rightElement) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean addAll(L[] leftAdd, R[] rightAdd) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean addAll(DoubleCollection<L, R> collection) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean contains(L leftElement, R rightElement) {
+        return indexOf(leftElement, rightElement) >= 0;
+    }
+
+    @Override
+    public boolean containsAll(L[] leftElements, R[] rightElements) {
+        if (leftElements == null || rightElements == null) throw new NullPointerException();
+        if (leftElements.length != rightElements.length) throw new IllegalArgumentException();
+        for (int i = 0; i < leftElements.length; i++)
+            if (!contains(leftElements[i], rightElements[i]))
+                return false;
+        return true;
+    }
+
+    @Override
+    public boolean containsAll(DoubleCollection<L, R> collection) {
+        return collection.forEach(new DoubleProcedure<L, R>() {
+            @Override
+            public boolean execute(L leftElement, R rightElement) {
+                return contains(leftElement, rightElement);
+            }
+        });
+    }
+
+    @Override
+    public boolean forEach(DoubleProcedure<L, R> procedure) {
+        L[] leftBlock = (L[]) new Object[ColumnScans.BLOCK];
+        R[] rightBlock = (R[]) new Object[ColumnScans.BLOCK];
+        for (int from = 0, to; from < size; from = to) {
+            to = from + Math.min(ColumnScans.BLOCK, size - from);
+            copyRange(from, to, leftBlock, rightBlock, 0);
+            for (int i = 0; i < to - from; i++)
+                if (!procedure.execute(leftBlock[i], rightBlock[i]))
+                    return false;
+        }
+        return true;
+    }
+
+    /**
+     * Matches the left column first, the right one only in blocks with matching left values.
+     */
+    @Override
+    public int indexOf(L leftElement, R rightElement) {
+        for (int from = 0, to; from < size; from = to) {
+            to = from + Math.min(ColumnScans.BLOCK, size - from);
+            long mask = left.match(offset + from, offset + to, leftElement);
+            if (mask != 0) mask &= right.match(offset + from, offset + to, rightElement);
+            if (mask != 0) return from + Long.numberOfTrailingZeros(mask);
+        }
+        return -1;
+    }
+
+    /**
+     * @return number of pairs equal to the given one
+     */
+    public int count(L leftElement, R rightElement) {
+        int count = 0;
+        for (int from = 0, to; from < size; from = to) {
+            to = from + Math.min(ColumnScans.BLOCK, size - from);
+            long mask = left.match(offset + from, offset + to, leftElement);
+            if (mask != 0) mask &= right.match(offset + from, offset + to, rightElement);
+            count += Long.bitCount(mask);
+        }
+        return count;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public DoubleIterator<L, R> iterator() {
+        return new Iterator();
+    }
+
+    @Override
+    public L getLeft(int index) {
+        checkIndex(index);
+        return left.get(offset + index);
+    }
+
+    /**
+     * @return decoded copy of the left column
+     */
+    @Override
+    public L[] getLeft() {
+        L[] result = (L[]) new Object[size];
+        left.copy(offset, offset + size, result, 0);
+        return result;
+    }
+
+    @Override
+    public R getRight(int index) {
+        checkIndex(index);
+        return right.get(offset + index);
+    }
+
+    /**
+     * @return decoded copy of the right column
+     */
+    @Override
+    public R[] getRight() {
+        R[] result = (R[]) new Object[size];
+        right.copy(offset, offset + size, result, 0);
+        return result;
+    }
+
+    @Override
+    public boolean remove(int index) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean remove(L leftElement, R rightElement) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean removeAll(L[] leftElements, R[] rightElements) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean removeAll(DoubleCollection<L, R> collection) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean retainAll(L[] leftToRetain, R[] rightToRetain) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean retainAll(DoubleCollection<L, R> collection) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean removeIf(DoubleProcedure<L, R> filter) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void transformValues(DoubleFunction<L, R> function) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return view of the range sharing the encoded columns
+     */
+    @Override
+    public DoubleEncodedList<L, R> subList(int begin, int end) {
+        if (begin < 0 || end > size || begin > end) throw new IndexOutOfBoundsException();
+        return new DoubleEncodedList<L, R>(left, right, offset + begin, end - begin);
+    }
+
+    /**
+     * Decodes pairs from begin (inclusive) to end (exclusive) to the arrays starting at offset.
+     */
+    public void copyRange(int begin, int end, L[] leftTarget, R[] rightTarget, int offset) {
+        if (begin < 0 || end > size || begin > end) throw new IndexOutOfBoundsException();
+        left.copy(this.offset + begin, this.offset + end, leftTarget, offset);
+        right.copy(this.offset + begin, this.offset + end, rightTarget, offset);
+    }
+
+    /**
+     * @return cursor decoding pairs from the first one
+     */
+    public DoubleCursor<L, R> cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * @return modifiable decoded copy of the list
+     */
+    public DoubleArrayList<L, R> toArrayList() {
+        return new DoubleArrayList<L, R>(getLeft(), getRight());
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+    }
+
+    private class Cursor implements DoubleCursor<L, R> {
+
+        private int current;
+
+        @Override
+        public boolean hasNext() {
+            return current < size;
+        }
+
+        @Override
+        public int readBatch(L[] leftBuffer, R[] rightBuffer, int max) {
+            if (max < 0) throw new IllegalArgumentException();
+            int count = Math.min(max, size - current);
+            if (count <= 0) return 0;
+            copyRange(current, current + count, leftBuffer, rightBuffer, 0);
+            current += count;
+            return count;
+        }
+    }
+
+    /**
+     * Decodes a block of pairs at a time.
+     */
+    private class Iterator implements DoubleIterator<L, R> {
+
+        private final L[] leftBlock = (L[]) new Object[ColumnScans.BLOCK];
+
+        private final R[] rightBlock = (R[]) new Object[ColumnScans.BLOCK];
+
+        private int current;
+
+        private int blockBegin = -ColumnScans.BLOCK;
+
+        @Override
+        public boolean hasNext() {
+            return current < size;
+        }
+
+        @Override
+        public void iterate() {
+            current++;
+        }
+
+        @Override
+        public boolean remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public L nextLeft() {
+            decode();
+            return leftBlock[current - blockBegin];
+        }
+
+        @Override
+        public R nextRight() {
+            decode();
+            return rightBlock[current - blockBegin];
+        }
+
+        private void decode() {
+            if (current - blockBegin < ColumnScans.BLOCK) return;
+            checkIndex(current);
+            blockBegin = current;
+            copyRange(blockBegin, Math.min(size, blockBegin + ColumnScans.BLOCK), leftBlock, rightBlock, 0);
+        }
+    }
+}
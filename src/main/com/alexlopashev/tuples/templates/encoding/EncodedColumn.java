@@ -0,0 +1,32 @@
+package com.alexlopashev.tuples.templates.encoding;
+
+import com.alexlopashev.tuples.templates.scan.ColumnScans;
+
+/**
+ * Immutable column in one of {@link Encodings}. Rows are compared in blocks like
+ * {@link ColumnScans#match}, encoded data is compared without decoding rows where the
+ * encoding allows it.
+ */
+public interface EncodedColumn<T> {
+
+    int size();
+
+    T get(int index);
+
+    /**
+     * @return bit mask of rows from (inclusive) to (exclusive) equal to the value, bit i stands
+     * for row from + i, at most {@link ColumnScans#BLOCK} rows are compared
+     */
+    long match(int from, int to, T value);
+
+    /**
+     * Decodes rows from begin (inclusive) to end (exclusive) to the array starting at offset.
+     */
+    void copy(int begin, int end, T[] target, int offset);
+
+    /**
+     * @return approximate size of the encoded column, referenced objects are not counted
+     */
+    long bytes();
+
+}
@@ -0,0 +1,173 @@
+package com.alexlopashev.tuples.templates.encoding;
+
+import com.alexlopashev.tuples.templates.Tuples;
+
+/**
+ * Column encodings of {@link DoubleEncodedList} and {@link TripleEncodedList} and overloaded
+ * helpers which let column templates turn values into longs, after generation overload
+ * resolution picks the primitive version, templates pass {@code (T) null} as witness.
+ *
+ * Floating point values are kept as bits with canonical NaN, as compared by {@link Tuples#equal}.
+ * Boxed columns can't be delta encoded.
+ */
+public final class Encodings {
+
+    /**
+     * Values as they are.
+     */
+    public static final int PLAIN = 0;
+
+    /**
+     * Distinct values once and a bit packed code per row, for columns with few distinct values.
+     */
+    public static final int DICTIONARY = 1;
+
+    /**
+     * Varint differences of neighbour values, for sorted or slowly changing numbers.
+     */
+    public static final int DELTA = 2;
+
+    /**
+     * Value and end row of each run of equal values, for columns with long runs.
+     */
+    public static final int RUN_LENGTH = 3;
+
+    /**
+     * The smallest of encodings applicable to the column.
+     */
+    public static final int AUTO = 4;
+
+    private Encodings() {
+    }
+
+    public static boolean deltaSupported(byte witness) {
+        return true;
+    }
+
+    public static boolean deltaSupported(char witness) {
+        return true;
+    }
+
+    public static boolean deltaSupported(short witness) {
+        return true;
+    }
+
+    public static boolean deltaSupported(int witness) {
+        return true;
+    }
+
+    public static boolean deltaSupported(long witness) {
+        return true;
+    }
+
+    public static boolean deltaSupported(float witness) {
+        return true;
+    }
+
+    public static boolean deltaSupported(double witness) {
+        return true;
+    }
+
+    public static boolean deltaSupported(Object witness) {
+        return false;
+    }
+
+    /**
+     * @return bytes taken by a value in an array, a reference for objects
+     */
+    public static int valueBytes(byte witness) {
+        return 1;
+    }
+
+    public static int valueBytes(char witness) {
+        return 2;
+    }
+
+    public static int valueBytes(short witness) {
+        return 2;
+    }
+
+    public static int valueBytes(int witness) {
+        return 4;
+    }
+
+    public static int valueBytes(long witness) {
+        return 8;
+    }
+
+    public static int valueBytes(float witness) {
+        return 4;
+    }
+
+    public static int valueBytes(double witness) {
+        return 8;
+    }
+
+    public static int valueBytes(Object witness) {
+        return 4;
+    }
+
+    public static long toLong(byte value) {
+        return value;
+    }
+
+    public static long toLong(char value) {
+        return value;
+    }
+
+    public static long toLong(short value) {
+        return value;
+    }
+
+    public static long toLong(int value) {
+        return value;
+    }
+
+    public static long toLong(long value) {
+        return value;
+    }
+
+    public static long toLong(float value) {
+        return Float.floatToIntBits(value);
+    }
+
+    public static long toLong(double value) {
+        return Double.doubleToLongBits(value);
+    }
+
+    public static long toLong(Object value) {
+        throw new UnsupportedOperationException("Objects can't be delta encoded");
+    }
+
+    public static byte fromLong(long value, byte witness) {
+        return (byte) value;
+    }
+
+    public static char fromLong(long value, char witness) {
+        return (char) value;
+    }
+
+    public static short fromLong(long value, short witness) {
+        return (short) value;
+    }
+
+    public static int fromLong(long value, int witness) {
+        return (int) value;
+    }
+
+    public static long fromLong(long value, long witness) {
+        return value;
+    }
+
+    public static float fromLong(long value, float witness) {
+        return Float.intBitsToFloat((int) value);
+    }
+
+    public static double fromLong(long value, double witness) {
+        return Double.longBitsToDouble(value);
+    }
+
+    public static Object fromLong(long value, Object witness) {
+        throw new UnsupportedOperationException("Objects can't be delta encoded");
+    }
+}
@@ -0,0 +1,46 @@
+package com.alexlopashev.tuples.templates.encoding;
+
+import com.alexlopashev.tuples.templates.scan.ColumnScans;
+
+/**
+ * Column of values as they are, see {@link Encodings#PLAIN}.
+ */
+public class PlainColumn<T> implements EncodedColumn<T> {
+
+    private final T[] values;
+
+    private final int size;
+
+    /**
+     * @param values first size values are the column, the array is not copied
+     */
+    PlainColumn(T[] values, int size) {
+        this.values = values;
+        this.size = size;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public T get(int index) {
+        return values[index];
+    }
+
+    @Override
+    public long match(int from, int to, T value) {
+        return ColumnScans.match(values, from, to, value);
+    }
+
+    @Override
+    public void copy(int begin, int end, T[] target, int offset) {
+        System.arraycopy(values, begin, target, offset, end - begin);
+    }
+
+    @Override
+    public long bytes() {
+        return (long) size * Encodings.valueBytes((T) null);
+    }
+}
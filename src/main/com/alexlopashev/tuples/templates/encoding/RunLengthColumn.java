@@ -0,0 +1,96 @@
+package com.alexlopashev.tuples.templates.encoding;
+
+import com.alexlopashev.tuples.templates.Tuples;
+
+import java.util.Arrays;
+
+/**
+ * Column of runs of equal values, each run is its value and the row after its end, see
+ * {@link Encodings#RUN_LENGTH}. A row is found by binary search over run ends, a match
+ * compares one value per run and sets bits of the whole run at once.
+ */
+public class RunLengthColumn<T> implements EncodedColumn<T> {
+
+    private final T[] values;
+
+    private final int[] ends;
+
+    private final int runs;
+
+    private final int size;
+
+    RunLengthColumn(T[] values, int size) {
+        int runs = size == 0 ? 0 : 1;
+        for (int i = 1; i < size; i++)
+            if (!Tuples.equal(values[i], values[i - 1]))
+                runs++;
+        this.values = (T[]) new Object[runs];
+        this.ends = new int[runs];
+        for (int i = 0, run = -1; i < size; i++) {
+            if (i == 0 || !Tuples.equal(values[i], values[i - 1]))
+                this.values[++run] = values[i];
+            ends[run] = i + 1;
+        }
+        this.runs = runs;
+        this.size = size;
+    }
+
+    /**
+     * @return number of runs of equal values
+     */
+    public int runs() {
+        return runs;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public T get(int index) {
+        return values[runAt(index)];
+    }
+
+    @Override
+    public long match(int from, int to, T value) {
+        long mask = 0;
+        for (int run = runAt(from), row = from, end; row < to; run++, row = end) {
+            end = Math.min(ends[run], to);
+            if (Tuples.equal(values[run], value))
+                mask |= range(row - from, end - from);
+        }
+        return mask;
+    }
+
+    @Override
+    public void copy(int begin, int end, T[] target, int offset) {
+        for (int run = runAt(begin), row = begin, runEnd; row < end; run++, row = runEnd) {
+            runEnd = Math.min(ends[run], end);
+            Arrays.fill(target, offset + row - begin, offset + runEnd - begin, values[run]);
+        }
+    }
+
+    @Override
+    public long bytes() {
+        return (long) runs * (Encodings.valueBytes((T) null) + 4);
+    }
+
+    /**
+     * @return first run ending after the row
+     */
+    private int runAt(int row) {
+        int low = 0;
+        int high = runs - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (ends[middle] > row) high = middle;
+            else low = middle + 1;
+        }
+        return low;
+    }
+
+    private static long range(int begin, int end) {
+        return (end - begin == 64 ? -1L : (1L << (end - begin)) - 1) << begin;
+    }
+}
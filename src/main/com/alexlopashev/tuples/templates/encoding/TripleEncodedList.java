@@ -0,0 +1,463 @@
+package com.alexlopashev.tuples.templates.encoding;
+
+import com.alexlopashev.tuples.templates.TripleCollection;
+import com.alexlopashev.tuples.templates.function.TripleFunction;
+import com.alexlopashev.tuples.templates.index.ColumnIndex;
+import com.alexlopashev.tuples.templates.index.TripleIndexes;
+import com.alexlopashev.tuples.templates.iterator.TripleCursor;
+import com.alexlopashev.tuples.templates.iterator.TripleIterator;
+import com.alexlopashev.tuples.templates.list.TripleArrayList;
+import com.alexlopashev.tuples.templates.list.TripleList;
+import com.alexlopashev.tuples.templates.procedure.TripleProcedure;
+import com.alexlopashev.tuples.templates.scan.ColumnScans;
+
+/**
+ * Immutable triple list with each column in its own encoding, see {@link Encodings}: dictionary
+ * codes for a few distinct values, varint differences for sorted numbers, runs for repeated
+ * values. {@link #indexOf}, {@link #contains} and {@link #count} compare encoded columns block
+ * by block instead of decoding rows, {@link #forEach} and the cursor decode a block at a time.
+ * Modifications throw {@link UnsupportedOperationException}, {@link #subList(int, int)} is a view,
+ * {@link #toArrayList()} decodes into a modifiable copy. Lookups match encoded columns unless
+ * indexes are attached, they are built once as the content never changes.
+ */
+public class TripleEncodedList<L, M, R> implements TripleList<L, M, R> {
+
+    private final EncodedColumn<L> left;
+
+    private final EncodedColumn<M> middle;
+
+    private final EncodedColumn<R> right;
+
+    private final TripleIndexes<L, M, R> indexes = new TripleIndexes<L, M, R>();
+
+    private final int offset;
+
+    private final int size;
+
+    /**
+     * Encodes the source picking the smallest encoding for each column.
+     */
+    public TripleEncodedList(TripleList<L, M, R> source) {
+        this(source, Encodings.AUTO, Encodings.AUTO, Encodings.AUTO);
+    }
+
+    /**
+     * @param leftEncoding one of {@link Encodings} constants
+     * @param middleEncoding one of {@link Encodings} constants
+     * @param rightEncoding one of {@link Encodings} constants
+     */
+    public TripleEncodedList(TripleList<L, M, R> source, int leftEncoding, int middleEncoding, int rightEncoding) {
+        this(new ColumnEncoder<L>().encode(source.getLeft(), source.size(), leftEncoding),
+                new ColumnEncoder<M>().encode(source.getMiddle(), source.size(), middleEncoding),
+                new ColumnEncoder<R>().encode(source.getRight(), source.size(), rightEncoding), 0, source.size());
+    }
+
+    private TripleEncodedList(EncodedColumn<L> left, EncodedColumn<M> middle, EncodedColumn<R> right, int offset, int size) {
+        this.left = left;
+        this.middle = middle;
+        this.right = right;
+        this.offset = offset;
+        this.size = size;
+    }
+
+    /**
+     * @return encoded left column, shared with views of the list
+     */
+    public EncodedColumn<L> leftColumn() {
+        return left;
+    }
+
+    /**
+     * @return encoded middle column, shared with views of the list
+     */
+    public EncodedColumn<M> middleColumn() {
+        return middle;
+    }
+
+    /**
+     * @return encoded right column, shared with views of the list
+     */
+    public EncodedColumn<R> rightColumn() {
+        return right;
+    }
+
+    /**
+     * @return approximate size of encoded columns
+     */
+    public long bytes() {
+        return left.bytes() + middle.bytes() + right.bytes();
+    }
+
+    @Override
+    public boolean add(L leftElement, M middleElement, R rightElement) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean addAll(L[] leftAdd, M[] middleAdd, R[] rightAdd) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean addAll(TripleCollection<L, M, R> collection) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean contains(L leftElement, M middleElement, R rightElement) {
+        return indexOf(leftElement, middleElement, rightElement) >= 0;
+    }
+
+    @Override
+    public boolean containsAll(L[] leftElements, M[] middleElements, R[] rightElements) {
+        if (leftElements == null || middleElements == null || rightElements == null) throw new NullPointerException();
+        if (leftElements.length != middleElements.length || leftElements.length != rightElements.length)
+            throw new IllegalArgumentException();
+        for (int i = 0; i < leftElements.length; i++)
+            if (!contains(leftElements[i], middleElements[i], rightElements[i]))
+                return false;
+        return true;
+    }
+
+    @Override
+    public boolean containsAll(TripleCollection<L, M, R> collection) {
+        return collection.forEach(new TripleProcedure<L, M, R>() {
+            @Override
+            public boolean execute(L leftElement, M middleElement, R rightElement) {
+                return contains(leftElement, middleElement, rightElement);
+            }
+        });
+    }
+
+    @Override
+    public boolean forEach(TripleProcedure<L, M, R> procedure) {
+        L[] leftBlock = (L[]) new Object[ColumnScans.BLOCK];
+        M[] middleBlock = (M[]) new Object[ColumnScans.BLOCK];
+        R[] rightBlock = (R[]) new Object[ColumnScans.BLOCK];
+        for (int from = 0, to; from < size; from = to) {
+            to = from + Math.min(ColumnScans.BLOCK, size - from);
+            copyRange(from, to, leftBlock, middleBlock, rightBlock, 0);
+            for (int i = 0; i < to - from; i++)
+                if (!procedure.execute(leftBlock[i], middleBlock[i], rightBlock[i]))
+                    return false;
+        }
+        return true;
+    }
+
+    /**
+     * Matches the left column first, the others only in blocks with matching values.
+     */
+    @Override
+    public int indexOf(L leftElement, M middleElement, R rightElement) {
+        for (int from = 0, to; from < size; from = to) {
+            to = from + Math.min(ColumnScans.BLOCK, size - from);
+            long mask = left.match(offset + from, offset + to, leftElement);
+            if (mask != 0) mask &= middle.match(offset + from, offset + to, middleElement);
+            if (mask != 0) mask &= right.match(offset + from, offset + to, rightElement);
+            if (mask != 0) return from + Long.numberOfTrailingZeros(mask);
+        }
+        return -1;
+    }
+
+    /**
+     * @return number of triples equal to the given one
+     */
+    public int count(L leftElement, M middleElement, R rightElement) {
+        int count = 0;
+        for (int from = 0, to; from < size; from = to) {
+            to = from + Math.min(ColumnScans.BLOCK, size - from);
+            long mask = left.match(offset + from, offset + to, leftElement);
+            if (mask != 0) mask &= middle.match(offset + from, offset + to, middleElement);
+            if (mask != 0) mask &= right.match(offset + from, offset + to, rightElement);
+            count += Long.bitCount(mask);
+        }
+        return count;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public TripleIterator<L, M, R> iterator() {
+        return new Iterator();
+    }
+
+    @Override
+    public L getLeft(int index) {
+        checkIndex(index);
+        return left.get(offset + index);
+    }
+
+    /**
+     * @return decoded copy of the left column
+     */
+    @Override
+    public L[] getLeft() {
+        L[] result = (L[]) new Object[size];
+        left.copy(offset, offset + size, result, 0);
+        return result;
+    }
+
+    @Override
+    public M getMiddle(int index) {
+        checkIndex(index);
+        return middle.get(offset + index);
+    }
+
+    /**
+     * @return decoded copy of the middle column
+     */
+    @Override
+    public M[] getMiddle() {
+        M[] result = (M[]) new Object[size];
+        middle.copy(offset, offset + size, result, 0);
+        return result;
+    }
+
+    @Override
+    public R getRight(int index) {
+        checkIndex(index);
+        return right.get(offset + index);
+    }
+
+    /**
+     * @return decoded copy of the right column
+     */
+    @Override
+    public R[] getRight() {
+        R[] result = (R[]) new Object[size];
+        right.copy(offset, offset + size, result, 0);
+        return result;
+    }
+
+    @Override
+    public boolean remove(int index) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean remove(L leftElement, M middleElement, R rightElement) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean removeAll(L[] leftElements, M[] middleElements, R[] rightElements) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean removeAll(TripleCollection<L, M, R> collection) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean retainAll(L[] leftToRetain, M[] middleToRetain, R[] rightToRetain) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean retainAll(TripleCollection<L, M, R> collection) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean removeIf(TripleProcedure<L, M, R> filter) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void transformValues(TripleFunction<L, M, R> function) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void attachLeftIndex(ColumnIndex<L> index) {
+        indexes.attachLeft(index, this);
+    }
+
+    @Override
+    public void attachMiddleIndex(ColumnIndex<M> index) {
+        indexes.attachMiddle(index, this);
+    }
+
+    @Override
+    public void attachRightIndex(ColumnIndex<R> index) {
+        indexes.attachRight(index, this);
+    }
+
+    @Override
+    public void detachIndexes() {
+        indexes.detach();
+    }
+
+    @Override
+    public int[] lookupLeft(L value) {
+        if (!indexes.isEmpty()) return indexes.lookupLeft(value, this);
+        int[] rows = new int[size];
+        int count = 0;
+        for (int from = 0, to; from < size; from = to) {
+            to = from + Math.min(ColumnScans.BLOCK, size - from);
+            for (long mask = left.match(offset + from, offset + to, value); mask != 0; mask &= mask - 1)
+                rows[count++] = from + Long.numberOfTrailingZeros(mask);
+        }
+        return trim(rows, count);
+    }
+
+    @Override
+    public int[] lookupMiddle(M value) {
+        if (!indexes.isEmpty()) return indexes.lookupMiddle(value, this);
+        int[] rows = new int[size];
+        int count = 0;
+        for (int from = 0, to; from < size; from = to) {
+            to = from + Math.min(ColumnScans.BLOCK, size - from);
+            for (long mask = middle.match(offset + from, offset + to, value); mask != 0; mask &= mask - 1)
+                rows[count++] = from + Long.numberOfTrailingZeros(mask);
+        }
+        return trim(rows, count);
+    }
+
+    @Override
+    public int[] lookupRight(R value) {
+        if (!indexes.isEmpty()) return indexes.lookupRight(value, this);
+        int[] rows = new int[size];
+        int count = 0;
+        for (int from = 0, to; from < size; from = to) {
+            to = from + Math.min(ColumnScans.BLOCK, size - from);
+            for (long mask = right.match(offset + from, offset + to, value); mask != 0; mask &= mask - 1)
+                rows[count++] = from + Long.numberOfTrailingZeros(mask);
+        }
+        return trim(rows, count);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return view of the range sharing the encoded columns
+     */
+    @Override
+    public TripleEncodedList<L, M, R> subList(int begin, int end) {
+        if (begin < 0 || end > size || begin > end) throw new IndexOutOfBoundsException();
+        return new TripleEncodedList<L, M, R>(left, middle, right, offset + begin, end - begin);
+    }
+
+    /**
+     * Decodes triples from begin (inclusive) to end (exclusive) to the arrays starting at offset.
+     */
+    public void copyRange(int begin, int end, L[] leftTarget, M[] middleTarget, R[] rightTarget, int offset) {
+        if (begin < 0 || end > size || begin > end) throw new IndexOutOfBoundsException();
+        left.copy(this.offset + begin, this.offset + end, leftTarget, offset);
+        middle.copy(this.offset + begin, this.offset + end, middleTarget, offset);
+        right.copy(this.offset + begin, this.offset + end, rightTarget, offset);
+    }
+
+    /**
+     * @return cursor decoding triples from the first one
+     */
+    public TripleCursor<L, M, R> cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * @return modifiable decoded copy of the list
+     */
+    public TripleArrayList<L, M, R> toArrayList() {
+        return new TripleArrayList<L, M, R>(getLeft(), getMiddle(), getRight());
+    }
+
+    private static int[] trim(int[] rows, int count) {
+        if (count == rows.length) return rows;
+        int[] result = new int[count];
+        System.arraycopy(rows, 0, result, 0, count);
+        return result;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+    }
+
+    private class Cursor implements TripleCursor<L, M, R> {
+
+        private int current;
+
+        @Override
+        public boolean hasNext() {
+            return current < size;
+        }
+
+        @Override
+        public int readBatch(L[] leftBuffer, M[] middleBuffer, R[] rightBuffer, int max) {
+            if (max < 0) throw new IllegalArgumentException();
+            int count = Math.min(max, size - current);
+            if (count <= 0) return 0;
+            copyRange(current, current + count, leftBuffer, middleBuffer, rightBuffer, 0);
+            current += count;
+            return count;
+        }
+    }
+
+    /**
+     * Decodes a block of triples at a time.
+     */
+    private class Iterator implements TripleIterator<L, M, R> {
+
+        private final L[] leftBlock = (L[]) new Object[ColumnScans.BLOCK];
+
+        private final M[] middleBlock = (M[]) new Object[ColumnScans.BLOCK];
+
+        private final R[] rightBlock = (R[]) new Object[ColumnScans.BLOCK];
+
+        private int current;
+
+        private int blockBegin = -ColumnScans.BLOCK;
+
+        @Override
+        public boolean hasNext() {
+            return current < size;
+        }
+
+        @Override
+        public void iterate() {
+            current++;
+        }
+
+        @Override
+        public boolean remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public L nextLeft() {
+            decode();
+            return leftBlock[current - blockBegin];
+        }
+
+        @Override
+        public M nextMiddle() {
+            decode();
+            return middleBlock[current - blockBegin];
+        }
+
+        @Override
+        public R nextRight() {
+            decode();
+            return rightBlock[current - blockBegin];
+        }
+
+        private void decode() {
+            if (current - blockBegin < ColumnScans.BLOCK) return;
+            checkIndex(current);
+            blockBegin = current;
+            copyRange(blockBegin, Math.min(size, blockBegin + ColumnScans.BLOCK), leftBlock, middleBlock, rightBlock, 0);
+        }
+    }
+}
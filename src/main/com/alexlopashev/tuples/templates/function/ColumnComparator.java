@@ -0,0 +1,10 @@
+package com.alexlopashev.tuples.templates.function;
+
+/**
+ * Order of column values, replaces {@code Comparator} which cannot be specialized for primitives.
+ */
+public interface ColumnComparator<T> {
+
+    int compare(T first, T second);
+
+}
@@ -0,0 +1,10 @@
+package com.alexlopashev.tuples.templates.function;
+
+/**
+ * Maps a value of one column, used to transform columns independently and lazily.
+ */
+public interface ColumnFunction<T> {
+
+    T execute(T value);
+
+}
@@ -0,0 +1,10 @@
+package com.alexlopashev.tuples.templates.function;
+
+/**
+ * Associative combination of two column values, used to reduce a column to one value.
+ */
+public interface ColumnReducer<T> {
+
+    T reduce(T accumulated, T value);
+
+}
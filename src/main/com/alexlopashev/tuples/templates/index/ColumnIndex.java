@@ -0,0 +1,28 @@
+package com.alexlopashev.tuples.templates.index;
+
+/**
+ * Secondary index over one column of a list, maps values to row positions.
+ * The list notifies attached index about every change, so it's maintained incrementally.
+ */
+public interface ColumnIndex<T> {
+
+    /**
+     * Row was appended, it's always the last row of the list.
+     */
+    void added(int row, T value);
+
+    /**
+     * Row was removed, all rows after it are shifted by one.
+     */
+    void removed(int row, T value);
+
+    void cleared();
+
+    /**
+     * @return positions of rows with the value in ascending order
+     */
+    int[] lookup(T value);
+
+    int count(T value);
+
+}
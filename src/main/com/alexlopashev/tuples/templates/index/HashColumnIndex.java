@@ -0,0 +1,191 @@
+package com.alexlopashev.tuples.templates.index;
+
+import com.alexlopashev.tuples.templates.Tuples;
+
+/**
+ * Hash index: distinct values are kept in an open addressing table, rows with the same
+ * value are linked through a column parallel to the list ({@code nextRow}), so lookup
+ * costs O(1 + matches) and the index takes one int per row.
+ *
+ * Removing a row is O(n) as it renumbers rows after it, like removing from the list itself.
+ */
+public class HashColumnIndex<T> implements ColumnIndex<T> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int MAX_CAPACITY = 1 << 30;
+    private static final int NONE = -1;
+
+    private static final byte FREE = 0;
+    private static final byte FULL = 1;
+    private static final byte REMOVED = 2;
+
+    private T[] keys;
+
+    private byte[] states;
+
+    private int[] heads;
+
+    private int[] tails;
+
+    private int[] counts;
+
+    private int keyCount;
+
+    private int removedKeys;
+
+    private int[] nextRow;
+
+    private int rows;
+
+    public HashColumnIndex() {
+        initialize(DEFAULT_CAPACITY);
+    }
+
+    @Override
+    public void added(int row, T value) {
+        if (row >= nextRow.length) {
+            int[] newNextRow = new int[Math.max(nextRow.length << 1, row + 1)];
+            System.arraycopy(nextRow, 0, newNextRow, 0, rows);
+            nextRow = newNextRow;
+        }
+        nextRow[row] = NONE;
+        rows = row + 1;
+        int index = insertionIndex(value);
+        if (index >= 0) {
+            if (states[index] == REMOVED) removedKeys--;
+            keys[index] = value;
+            states[index] = FULL;
+            heads[index] = row;
+            counts[index] = 0;
+            keyCount++;
+        } else {
+            index = -index - 1;
+            nextRow[tails[index]] = row;
+        }
+        tails[index] = row;
+        counts[index]++;
+        if (keyCount + removedKeys > maxFill(states.length))
+            rehash(keyCount + removedKeys > keyCount << 1 ? states.length : states.length << 1);
+    }
+
+    @Override
+    public void removed(int row, T value) {
+        int index = indexOf(value);
+        if (index < 0) throw new IllegalStateException("Value is not indexed: " + value);
+        if (--counts[index] == 0) {
+            keys[index] = (T) null;
+            states[index] = REMOVED;
+            keyCount--;
+            removedKeys++;
+        } else if (heads[index] == row) {
+            heads[index] = nextRow[row];
+        } else {
+            int previous = heads[index];
+            while (nextRow[previous] != row)
+                previous = nextRow[previous];
+            nextRow[previous] = nextRow[row];
+            if (tails[index] == row)
+                tails[index] = previous;
+        }
+        System.arraycopy(nextRow, row + 1, nextRow, row, rows - row - 1);
+        rows--;
+        for (int i = 0; i < rows; i++)
+            if (nextRow[i] > row) nextRow[i]--;
+        for (int i = 0; i < states.length; i++)
+            if (states[i] == FULL) {
+                if (heads[i] > row) heads[i]--;
+                if (tails[i] > row) tails[i]--;
+            }
+    }
+
+    @Override
+    public void cleared() {
+        initialize(DEFAULT_CAPACITY);
+    }
+
+    @Override
+    public int[] lookup(T value) {
+        int index = indexOf(value);
+        if (index < 0) return new int[0];
+        int[] result = new int[counts[index]];
+        for (int row = heads[index], i = 0; row != NONE; row = nextRow[row])
+            result[i++] = row;
+        return result;
+    }
+
+    @Override
+    public int count(T value) {
+        int index = indexOf(value);
+        return index < 0 ? 0 : counts[index];
+    }
+
+    private int indexOf(T value) {
+        int mask = states.length - 1;
+        int index = Tuples.mix(Tuples.hash(value)) & mask;
+        while (states[index] != FREE) {
+            if (states[index] == FULL && Tuples.equal(keys[index], value))
+                return index;
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * @return free slot for the value or {@code -index - 1} if the value is already there
+     */
+    private int insertionIndex(T value) {
+        int mask = states.length - 1;
+        int index = Tuples.mix(Tuples.hash(value)) & mask;
+        int firstRemoved = -1;
+        while (states[index] != FREE) {
+            if (states[index] == FULL) {
+                if (Tuples.equal(keys[index], value))
+                    return -index - 1;
+            } else if (firstRemoved < 0) {
+                firstRemoved = index;
+            }
+            index = (index + 1) & mask;
+        }
+        return firstRemoved >= 0 ? firstRemoved : index;
+    }
+
+    private void rehash(int newCapacity) {
+        if (newCapacity > MAX_CAPACITY) newCapacity = MAX_CAPACITY;
+        T[] oldKeys = keys;
+        byte[] oldStates = states;
+        int[] oldHeads = heads;
+        int[] oldTails = tails;
+        int[] oldCounts = counts;
+        initializeKeys(newCapacity);
+        for (int i = 0; i < oldStates.length; i++)
+            if (oldStates[i] == FULL) {
+                int index = insertionIndex(oldKeys[i]);
+                keys[index] = oldKeys[i];
+                states[index] = FULL;
+                heads[index] = oldHeads[i];
+                tails[index] = oldTails[i];
+                counts[index] = oldCounts[i];
+                keyCount++;
+            }
+    }
+
+    private void initialize(int capacity) {
+        initializeKeys(capacity);
+        nextRow = new int[DEFAULT_CAPACITY];
+        rows = 0;
+    }
+
+    private void initializeKeys(int capacity) {
+        keys = (T[]) new Object[capacity];
+        states = new byte[capacity];
+        heads = new int[capacity];
+        tails = new int[capacity];
+        counts = new int[capacity];
+        keyCount = 0;
+        removedKeys = 0;
+    }
+
+    private static int maxFill(int capacity) {
+        return capacity - (capacity >> 2);
+    }
+}
@@ -0,0 +1,135 @@
+package com.alexlopashev.tuples.templates.index;
+
+import com.alexlopashev.tuples.templates.Tuples;
+
+/**
+ * Sorted index: (value, row) pairs ordered by value and then by row, so besides equality
+ * lookups it answers range queries by binary search. Generic values have to be
+ * {@link Comparable}. Adding and removing rows is O(n) because of array shifts.
+ */
+public class SortedColumnIndex<T> implements ColumnIndex<T> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private T[] values;
+
+    private int[] rows;
+
+    private int size;
+
+    public SortedColumnIndex() {
+        initialize(DEFAULT_CAPACITY);
+    }
+
+    @Override
+    public void added(int row, T value) {
+        if (size == rows.length) {
+            T[] newValues = (T[]) new Object[rows.length << 1];
+            int[] newRows = new int[rows.length << 1];
+            System.arraycopy(values, 0, newValues, 0, size);
+            System.arraycopy(rows, 0, newRows, 0, size);
+            values = newValues;
+            rows = newRows;
+        }
+        int position = upperBound(value);
+        System.arraycopy(values, position, values, position + 1, size - position);
+        System.arraycopy(rows, position, rows, position + 1, size - position);
+        values[position] = value;
+        rows[position] = row;
+        size++;
+    }
+
+    @Override
+    public void removed(int row, T value) {
+        int position = positionOf(value, row);
+        if (position < 0) throw new IllegalStateException("Row is not indexed: " + row);
+        System.arraycopy(values, position + 1, values, position, size - position - 1);
+        System.arraycopy(rows, position + 1, rows, position, size - position - 1);
+        size--;
+        values[size] = (T) null;
+        for (int i = 0; i < size; i++)
+            if (rows[i] > row) rows[i]--;
+    }
+
+    @Override
+    public void cleared() {
+        initialize(DEFAULT_CAPACITY);
+    }
+
+    @Override
+    public int[] lookup(T value) {
+        return copyRows(lowerBound(value), upperBound(value));
+    }
+
+    @Override
+    public int count(T value) {
+        return upperBound(value) - lowerBound(value);
+    }
+
+    /**
+     * @return rows with values in [from, to) ordered by value
+     */
+    public int[] range(T from, T to) {
+        int begin = lowerBound(from);
+        return copyRows(begin, Math.max(begin, lowerBound(to)));
+    }
+
+    private int[] copyRows(int begin, int end) {
+        int[] result = new int[end - begin];
+        System.arraycopy(rows, begin, result, 0, result.length);
+        return result;
+    }
+
+    /**
+     * @return first position with value not less than given one
+     */
+    private int lowerBound(T value) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (Tuples.compare(values[middle], value) < 0)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+        return low;
+    }
+
+    /**
+     * @return first position with value greater than given one
+     */
+    private int upperBound(T value) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (Tuples.compare(values[middle], value) <= 0)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+        return low;
+    }
+
+    private int positionOf(T value, int row) {
+        int low = lowerBound(value);
+        int high = upperBound(value);
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (rows[middle] < row)
+                low = middle + 1;
+            else if (rows[middle] > row)
+                high = middle;
+            else
+                return middle;
+        }
+        return -1;
+    }
+
+    private void initialize(int capacity) {
+        values = (T[]) new Object[capacity];
+        rows = new int[capacity];
+        size = 0;
+    }
+}
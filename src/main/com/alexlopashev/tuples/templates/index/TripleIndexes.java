@@ -0,0 +1,116 @@
+package com.alexlopashev.tuples.templates.index;
+
+import com.alexlopashev.tuples.templates.Tuples;
+import com.alexlopashev.tuples.templates.list.TripleList;
+
+/**
+ * Column indexes attached to a triple list. TripleList implementations report their changes
+ * here and delegate index related methods, so index maintenance is written once.
+ */
+public class TripleIndexes<L, M, R> {
+
+    private ColumnIndex<L> left;
+
+    private ColumnIndex<M> middle;
+
+    private ColumnIndex<R> right;
+
+    public void attachLeft(ColumnIndex<L> index, TripleList<L, M, R> list) {
+        index.cleared();
+        for (int i = 0; i < list.size(); i++)
+            index.added(i, list.getLeft(i));
+        left = index;
+    }
+
+    public void attachMiddle(ColumnIndex<M> index, TripleList<L, M, R> list) {
+        index.cleared();
+        for (int i = 0; i < list.size(); i++)
+            index.added(i, list.getMiddle(i));
+        middle = index;
+    }
+
+    public void attachRight(ColumnIndex<R> index, TripleList<L, M, R> list) {
+        index.cleared();
+        for (int i = 0; i < list.size(); i++)
+            index.added(i, list.getRight(i));
+        right = index;
+    }
+
+    public void detach() {
+        left = null;
+        middle = null;
+        right = null;
+    }
+
+    public boolean isEmpty() {
+        return left == null && middle == null && right == null;
+    }
+
+    public void added(int row, L leftValue, M middleValue, R rightValue) {
+        if (left != null) left.added(row, leftValue);
+        if (middle != null) middle.added(row, middleValue);
+        if (right != null) right.added(row, rightValue);
+    }
+
+    public void removed(int row, L leftValue, M middleValue, R rightValue) {
+        if (left != null) left.removed(row, leftValue);
+        if (middle != null) middle.removed(row, middleValue);
+        if (right != null) right.removed(row, rightValue);
+    }
+
+    public void cleared() {
+        if (left != null) left.cleared();
+        if (middle != null) middle.cleared();
+        if (right != null) right.cleared();
+    }
+
+    /**
+     * Refills attached indexes after changes which are not reported row by row.
+     */
+    public void rebuild(TripleList<L, M, R> list) {
+        if (isEmpty()) return;
+        cleared();
+        for (int i = 0; i < list.size(); i++)
+            added(i, list.getLeft(i), list.getMiddle(i), list.getRight(i));
+    }
+
+    public int[] lookupLeft(L value, TripleList<L, M, R> list) {
+        if (left != null) return left.lookup(value);
+        int size = list.size();
+        int[] rows = new int[size];
+        int count = 0;
+        for (int i = 0; i < size; i++)
+            if (Tuples.equal(list.getLeft(i), value))
+                rows[count++] = i;
+        return trim(rows, count);
+    }
+
+    public int[] lookupMiddle(M value, TripleList<L, M, R> list) {
+        if (middle != null) return middle.lookup(value);
+        int size = list.size();
+        int[] rows = new int[size];
+        int count = 0;
+        for (int i = 0; i < size; i++)
+            if (Tuples.equal(list.getMiddle(i), value))
+                rows[count++] = i;
+        return trim(rows, count);
+    }
+
+    public int[] lookupRight(R value, TripleList<L, M, R> list) {
+        if (right != null) return right.lookup(value);
+        int size = list.size();
+        int[] rows = new int[size];
+        int count = 0;
+        for (int i = 0; i < size; i++)
+            if (Tuples.equal(list.getRight(i), value))
+                rows[count++] = i;
+        return trim(rows, count);
+    }
+
+    private static int[] trim(int[] rows, int count) {
+        if (count == rows.length) return rows;
+        int[] result = new int[count];
+        System.arraycopy(rows, 0, result, 0, count);
+        return result;
+    }
+}
@@ -0,0 +1,139 @@
+package com.alexlopashev.tuples.templates.io;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Access to primitive column values stored in byte buffers (mapped files, serialized lists).
+ * Overloaded by element type, reads and type queries take a witness value ({@code (L) null}
+ * in templates) to select the overload. Generic (Object) versions throw
+ * {@link UnsupportedOperationException}: only primitive columns have binary layout.
+ */
+public final class ColumnBuffers {
+
+    public static final byte BYTE = 1;
+    public static final byte CHAR = 2;
+    public static final byte SHORT = 3;
+    public static final byte INT = 4;
+    public static final byte LONG = 5;
+    public static final byte FLOAT = 6;
+    public static final byte DOUBLE = 7;
+
+    private ColumnBuffers() {
+    }
+
+    /**
+     * @return width of the type in bytes for type tag
+     */
+    public static int width(byte type) {
+        switch (type) {
+            case BYTE: return 1;
+            case CHAR:
+            case SHORT: return 2;
+            case INT:
+            case FLOAT: return 4;
+            case LONG:
+            case DOUBLE: return 8;
+            default: throw new IllegalArgumentException("Unknown column type " + type);
+        }
+    }
+
+    public static byte type(byte witness) {
+        return BYTE;
+    }
+
+    public static byte type(char witness) {
+        return CHAR;
+    }
+
+    public static byte type(short witness) {
+        return SHORT;
+    }
+
+    public static byte type(int witness) {
+        return INT;
+    }
+
+    public static byte type(long witness) {
+        return LONG;
+    }
+
+    public static byte type(float witness) {
+        return FLOAT;
+    }
+
+    public static byte type(double witness) {
+        return DOUBLE;
+    }
+
+    public static byte type(Object witness) {
+        throw unsupported();
+    }
+
+    public static void put(ByteBuffer buffer, int offset, byte value) {
+        buffer.put(offset, value);
+    }
+
+    public static void put(ByteBuffer buffer, int offset, char value) {
+        buffer.putChar(offset, value);
+    }
+
+    public static void put(ByteBuffer buffer, int offset, short value) {
+        buffer.putShort(offset, value);
+    }
+
+    public static void put(ByteBuffer buffer, int offset, int value) {
+        buffer.putInt(offset, value);
+    }
+
+    public static void put(ByteBuffer buffer, int offset, long value) {
+        buffer.putLong(offset, value);
+    }
+
+    public static void put(ByteBuffer buffer, int offset, float value) {
+        buffer.putFloat(offset, value);
+    }
+
+    public static void put(ByteBuffer buffer, int offset, double value) {
+        buffer.putDouble(offset, value);
+    }
+
+    public static void put(ByteBuffer buffer, int offset, Object value) {
+        throw unsupported();
+    }
+
+    public static byte get(ByteBuffer buffer, int offset, byte witness) {
+        return buffer.get(offset);
+    }
+
+    public static char get(ByteBuffer buffer, int offset, char witness) {
+        return buffer.getChar(offset);
+    }
+
+    public static short get(ByteBuffer buffer, int offset, short witness) {
+        return buffer.getShort(offset);
+    }
+
+    public static int get(ByteBuffer buffer, int offset, int witness) {
+        return buffer.getInt(offset);
+    }
+
+    public static long get(ByteBuffer buffer, int offset, long witness) {
+        return buffer.getLong(offset);
+    }
+
+    public static float get(ByteBuffer buffer, int offset, float witness) {
+        return buffer.getFloat(offset);
+    }
+
+    public static double get(ByteBuffer buffer, int offset, double witness) {
+        return buffer.getDouble(offset);
+    }
+
+    public static Object get(ByteBuffer buffer, int offset, Object witness) {
+        throw unsupported();
+    }
+
+    private static UnsupportedOperationException unsupported() {
+        return new UnsupportedOperationException("Only primitive columns have binary representation");
+    }
+}
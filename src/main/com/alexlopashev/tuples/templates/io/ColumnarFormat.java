@@ -0,0 +1,161 @@
+package com.alexlopashev.tuples.templates.io;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.zip.CRC32;
+
+/**
+ * Binary columnar format of tuple lists, all numbers are little-endian:
+ * <pre>
+ * 0   int   magic
+ * 4   byte  version
+ * 5   byte  arity (number of columns)
+ * 6   byte  flags, {@link #FLAG_CHECKSUM}
+ * 7   byte  reserved
+ * 8   long  size
+ * 16  byte  type tag of each column ({@link ColumnBuffers}), padded to 8 bytes
+ * 24        packed values of the first column, then the second one, ...
+ *     int   CRC32 of all preceding bytes, if flagged
+ * </pre>
+ * Written by DoubleColumnarWriter and TripleColumnarWriter, wrapped without copying by
+ * DoubleColumnarList and TripleColumnarList.
+ */
+public final class ColumnarFormat {
+
+    public static final int MAGIC = 0x4643544A;
+
+    public static final byte VERSION = 1;
+
+    public static final byte FLAG_CHECKSUM = 1;
+
+    public static final int HEADER_BYTES = 24;
+
+    public static final int MAX_ARITY = 8;
+
+    private static final int VERSION_OFFSET = 4;
+
+    private static final int ARITY_OFFSET = 5;
+
+    private static final int FLAGS_OFFSET = 6;
+
+    private static final int SIZE_OFFSET = 8;
+
+    private static final int TYPES_OFFSET = 16;
+
+    private ColumnarFormat() {
+    }
+
+    /**
+     * Writes header at the start of the buffer.
+     */
+    public static void putHeader(ByteBuffer buffer, byte[] types, int size, boolean checksum) {
+        buffer.putInt(0, MAGIC);
+        buffer.put(VERSION_OFFSET, VERSION);
+        buffer.put(ARITY_OFFSET, (byte) types.length);
+        buffer.put(FLAGS_OFFSET, checksum ? FLAG_CHECKSUM : 0);
+        buffer.put(FLAGS_OFFSET + 1, (byte) 0);
+        buffer.putLong(SIZE_OFFSET, size);
+        for (int i = 0; i < MAX_ARITY; i++)
+            buffer.put(TYPES_OFFSET + i, i < types.length ? types[i] : 0);
+    }
+
+    /**
+     * @return total length in bytes of a list with given columns and size
+     */
+    public static long length(byte[] types, long size, boolean checksum) {
+        long length = HEADER_BYTES;
+        for (byte type : types)
+            length += size * ColumnBuffers.width(type);
+        return checksum ? length + 4 : length;
+    }
+
+    public static int size(ByteBuffer buffer) {
+        return (int) buffer.getLong(SIZE_OFFSET);
+    }
+
+    public static boolean hasChecksum(ByteBuffer buffer) {
+        return (buffer.get(FLAGS_OFFSET) & FLAG_CHECKSUM) != 0;
+    }
+
+    /**
+     * Checks that buffer holds a whole list with columns of given types.
+     *
+     * @throws IllegalArgumentException if it does not
+     */
+    public static void check(ByteBuffer buffer, byte[] types) {
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC)
+            throw new IllegalArgumentException("Not a columnar tuple list");
+        if (buffer.get(VERSION_OFFSET) != VERSION)
+            throw new IllegalArgumentException("Unsupported version " + buffer.get(VERSION_OFFSET));
+        if (buffer.get(ARITY_OFFSET) != types.length)
+            throw new IllegalArgumentException("List has " + buffer.get(ARITY_OFFSET) + " columns, expected " + types.length);
+        for (int i = 0; i < types.length; i++)
+            if (buffer.get(TYPES_OFFSET + i) != types[i])
+                throw new IllegalArgumentException("Column " + i + " has type " + buffer.get(TYPES_OFFSET + i) + ", expected " + types[i]);
+        long size = buffer.getLong(SIZE_OFFSET);
+        if (size < 0 || size > Integer.MAX_VALUE || buffer.capacity() < length(types, size, hasChecksum(buffer)))
+            throw new IllegalArgumentException("Truncated list of size " + size);
+    }
+
+    /**
+     * Compares stored checksum with the one of the content, lists without checksum are valid.
+     */
+    public static boolean checksumValid(ByteBuffer buffer) {
+        if (!hasChecksum(buffer)) return true;
+        byte[] types = new byte[buffer.get(ARITY_OFFSET)];
+        for (int i = 0; i < types.length; i++)
+            types[i] = buffer.get(TYPES_OFFSET + i);
+        int end = (int) length(types, size(buffer), false);
+        CRC32 crc = new CRC32();
+        ByteBuffer content = buffer.duplicate();
+        content.position(0).limit(end);
+        crc.update(content);
+        return buffer.getInt(end) == (int) crc.getValue();
+    }
+
+    /**
+     * Reads one list from the channel into a heap buffer, ready to be wrapped.
+     */
+    public static ByteBuffer read(ReadableByteChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(channel, header);
+        if (header.getInt(0) != MAGIC) throw new IOException("Not a columnar tuple list");
+        int arity = header.get(ARITY_OFFSET);
+        if (arity < 0 || arity > MAX_ARITY) throw new IOException("Illegal arity " + arity);
+        byte[] types = new byte[arity];
+        for (int i = 0; i < arity; i++)
+            types[i] = header.get(TYPES_OFFSET + i);
+        long size = header.getLong(SIZE_OFFSET);
+        long length;
+        try {
+            length = length(types, size, hasChecksum(header));
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage());
+        }
+        if (size < 0 || length > Integer.MAX_VALUE) throw new IOException("List of size " + size + " does not fit a buffer");
+        ByteBuffer buffer = ByteBuffer.allocate((int) length).order(ByteOrder.LITTLE_ENDIAN);
+        header.flip();
+        buffer.put(header);
+        readFully(channel, buffer);
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Reads one list from the stream into a heap buffer, ready to be wrapped.
+     */
+    public static ByteBuffer read(InputStream in) throws IOException {
+        return read(Channels.newChannel(in));
+    }
+
+    private static void readFully(ReadableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining())
+            if (channel.read(buffer) < 0)
+                throw new EOFException();
+    }
+}
@@ -0,0 +1,275 @@
+package com.alexlopashev.tuples.templates.io;
+
+import com.alexlopashev.tuples.templates.DoubleCollection;
+import com.alexlopashev.tuples.templates.Tuples;
+import com.alexlopashev.tuples.templates.function.DoubleFunction;
+import com.alexlopashev.tuples.templates.iterator.DoubleIterator;
+import com.alexlopashev.tuples.templates.list.DoubleArrayList;
+import com.alexlopashev.tuples.templates.list.DoubleList;
+import com.alexlopashev.tuples.templates.procedure.DoubleProcedure;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Read-only pair list over a buffer in {@link ColumnarFormat}. Values are read from the buffer
+ * in place, so wrapping a mapped file or a buffer from {@link ColumnarFormat#read} costs
+ * no copying, neither does {@link #subList(int, int)}. Modifications throw
+ * {@link UnsupportedOperationException}, {@link #toArrayList()} makes a modifiable copy.
+ *
+ * Makes sense only for primitive specializations (e.g. IntLongColumnarList), generic version
+ * throws {@link UnsupportedOperationException} on construction.
+ */
+public class DoubleColumnarList<L, R> implements DoubleList<L, R> {
+
+    private final ByteBuffer buffer;
+
+    private final int leftWidth;
+
+    private final int rightWidth;
+
+    private final int leftOffset;
+
+    private final int rightOffset;
+
+    private final int size;
+
+    public DoubleColumnarList(ByteBuffer buffer) {
+        this(buffer, false);
+    }
+
+    /**
+     * @param buffer list in {@link ColumnarFormat} starting at buffer position
+     * @param verifyChecksum whether to read the whole buffer to verify stored checksum
+     * @throws IllegalArgumentException if buffer holds no list of this type, or the checksum does not match
+     */
+    public DoubleColumnarList(ByteBuffer buffer, boolean verifyChecksum) {
+        byte[] types = {ColumnBuffers.type((L) null), ColumnBuffers.type((R) null)};
+        this.buffer = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+        ColumnarFormat.check(this.buffer, types);
+        if (verifyChecksum && !ColumnarFormat.checksumValid(this.buffer))
+            throw new IllegalArgumentException("Checksum mismatch");
+        leftWidth = ColumnBuffers.width(types[0]);
+        rightWidth = ColumnBuffers.width(types[1]);
+        size = ColumnarFormat.size(this.buffer);
+        leftOffset = ColumnarFormat.HEADER_BYTES;
+        rightOffset = leftOffset + size * leftWidth;
+    }
+
+    private DoubleColumnarList(DoubleColumnarList<L, R> list, int begin, int end) {
+        buffer = list.buffer;
+        leftWidth = list.leftWidth;
+        rightWidth = list.rightWidth;
+        leftOffset = list.leftOffset + begin * leftWidth;
+        rightOffset = list.rightOffset + begin * rightWidth;
+        size = end - begin;
+    }
+
+    @Override
+    public boolean add(L leftElement, R rightElement) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean addAll(L[] leftAdd, R[] rightAdd) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean addAll(DoubleCollection<L, R> collection) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean contains(L leftElement, R rightElement) {
+        return indexOf(leftElement, rightElement) >= 0;
+    }
+
+    @Override
+    public boolean containsAll(L[] leftElements, R[] rightElements) {
+        if (leftElements == null || rightElements == null) throw new NullPointerException();
+        if (leftElements.length != rightElements.length) throw new IllegalArgumentException();
+        for (int i = 0; i < leftElements.length; i++)
+            if (!contains(leftElements[i], rightElements[i]))
+                return false;
+        return true;
+    }
+
+    @Override
+    public boolean containsAll(DoubleCollection<L, R> collection) {
+        return collection.forEach(new DoubleProcedure<L, R>() {
+            @Override
+            public boolean execute(L leftElement, R rightElement) {
+                return contains(leftElement, rightElement);
+            }
+        });
+    }
+
+    @Override
+    public boolean forEach(DoubleProcedure<L, R> procedure) {
+        for (int i = 0; i < size; i++)
+            if (!procedure.execute(leftAt(i), rightAt(i)))
+                return false;
+        return true;
+    }
+
+    @Override
+    public int indexOf(L leftElement, R rightElement) {
+        for (int i = 0; i < size; i++)
+            if (Tuples.equal(leftAt(i), leftElement) && Tuples.equal(rightAt(i), rightElement))
+                return i;
+        return -1;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public DoubleIterator<L, R> iterator() {
+        return new Iterator();
+    }
+
+    @Override
+    public L getLeft(int index) {
+        checkIndex(index);
+        return leftAt(index);
+    }
+
+    /**
+     * @return heap copy of the left column
+     */
+    @Override
+    public L[] getLeft() {
+        L[] result = (L[]) new Object[size];
+        for (int i = 0; i < size; i++)
+            result[i] = leftAt(i);
+        return result;
+    }
+
+    @Override
+    public R getRight(int index) {
+        checkIndex(index);
+        return rightAt(index);
+    }
+
+    /**
+     * @return heap copy of the right column
+     */
+    @Override
+    public R[] getRight() {
+        R[] result = (R[]) new Object[size];
+        for (int i = 0; i < size; i++)
+            result[i] = rightAt(i);
+        return result;
+    }
+
+    @Override
+    public boolean remove(int index) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean remove(L leftElement, R rightElement) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean removeAll(L[] leftElements, R[] rightElements) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean removeAll(DoubleCollection<L, R> collection) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean retainAll(L[] leftToRetain, R[] rightToRetain) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean retainAll(DoubleCollection<L, R> collection) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean removeIf(DoubleProcedure<L, R> filter) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void transformValues(DoubleFunction<L, R> function) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return view of the range sharing the buffer
+     */
+    @Override
+    public DoubleColumnarList<L, R> subList(int begin, int end) {
+        if (begin < 0 || end > size || begin > end) throw new IndexOutOfBoundsException();
+        return new DoubleColumnarList<L, R>(this, begin, end);
+    }
+
+    /**
+     * @return modifiable heap copy of the list
+     */
+    public DoubleArrayList<L, R> toArrayList() {
+        return new DoubleArrayList<L, R>(getLeft(), getRight());
+    }
+
+    private L leftAt(int index) {
+        return (L) ColumnBuffers.get(buffer, leftOffset + index * leftWidth, (L) null);
+    }
+
+    private R rightAt(int index) {
+        return (R) ColumnBuffers.get(buffer, rightOffset + index * rightWidth, (R) null);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+    }
+
+    private class Iterator implements DoubleIterator<L, R> {
+
+        private int current;
+
+        @Override
+        public boolean hasNext() {
+            return current < size;
+        }
+
+        @Override
+        public void iterate() {
+            current++;
+        }
+
+        @Override
+        public boolean remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public L nextLeft() {
+            return getLeft(current);
+        }
+
+        @Override
+        public R nextRight() {
+            return getRight(current);
+        }
+    }
+}
@@ -0,0 +1,424 @@
+package com.alexlopashev.tuples.templates.io;
+
+import com.alexlopashev.tuples.templates.DoubleCollection;
+import com.alexlopashev.tuples.templates.Tuples;
+import com.alexlopashev.tuples.templates.function.DoubleFunction;
+import com.alexlopashev.tuples.templates.iterator.DoubleIterator;
+import com.alexlopashev.tuples.templates.list.DoubleArrayList;
+import com.alexlopashev.tuples.templates.list.DoubleList;
+import com.alexlopashev.tuples.templates.procedure.DoubleProcedure;
+import com.alexlopashev.tuples.templates.set.DoubleHashSet;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Pair list persisted in a directory: each column is a memory-mapped file, size and capacity
+ * are kept in a small mapped header. Opening an existing directory maps the data instead
+ * of reading it, appends are writes to the page cache. Size is stored only by {@link #flush()}
+ * and {@link #close()} after columns are forced to the storage, so a stored size never covers
+ * unwritten pairs, while changes made after the last flush are lost if the process dies.
+ *
+ * Makes sense only for primitive specializations (e.g. IntLongMappedFileList), generic version
+ * throws {@link UnsupportedOperationException} on construction. {@link #getLeft()} and
+ * {@link #getRight()} return heap copies of the columns, failures of growing the files are
+ * reported as {@link UncheckedIOException}.
+ */
+public class DoubleMappedFileList<L, R> implements DoubleList<L, R>, Closeable {
+
+    public static final String HEADER = "header";
+
+    public static final String LEFT = "left.col";
+
+    public static final String RIGHT = "right.col";
+
+    private final MappedHeader header;
+
+    private final MappedColumn left;
+
+    private final MappedColumn right;
+
+    private int size;
+
+    private boolean closed;
+
+    /**
+     * Opens the list stored in the directory, or creates an empty one.
+     */
+    public DoubleMappedFileList(File directory) throws IOException {
+        byte leftType = ColumnBuffers.type((L) null);
+        byte rightType = ColumnBuffers.type((R) null);
+        if (!directory.isDirectory() && !directory.mkdirs()) throw new IOException("Cannot create " + directory);
+        MappedHeader header = new MappedHeader(new File(directory, HEADER), new byte[]{leftType, rightType});
+        MappedColumn left = null;
+        MappedColumn right = null;
+        boolean opened = false;
+        try {
+            left = new MappedColumn(new File(directory, LEFT), ColumnBuffers.width(leftType));
+            right = new MappedColumn(new File(directory, RIGHT), ColumnBuffers.width(rightType));
+            size = header.size();
+            if (size > left.capacity() || size > right.capacity())
+                throw new IOException(directory + ": columns are shorter than size " + size);
+            opened = true;
+        } finally {
+            if (!opened) closeQuietly(right, left, header);
+        }
+        this.header = header;
+        this.left = left;
+        this.right = right;
+    }
+
+    @Override
+    public boolean add(L leftElement, R rightElement) {
+        ensureOpen();
+        if (size == Integer.MAX_VALUE) return false;
+        extendBy(1);
+        setLeft(size, leftElement);
+        setRight(size, rightElement);
+        size++;
+        return true;
+    }
+
+    @Override
+    public boolean addAll(L[] leftAdd, R[] rightAdd) {
+        ensureOpen();
+        checkParameters(leftAdd, rightAdd);
+        if (size >= Integer.MAX_VALUE - leftAdd.length) return false;
+        extendBy(leftAdd.length);
+        for (int i = 0; i < leftAdd.length; i++) {
+            setLeft(size + i, leftAdd[i]);
+            setRight(size + i, rightAdd[i]);
+        }
+        size += leftAdd.length;
+        return true;
+    }
+
+    @Override
+    public boolean addAll(DoubleCollection<L, R> collection) {
+        ensureOpen();
+        return addAll(collection.getLeft(), collection.getRight());
+    }
+
+    /**
+     * Drops all pairs, files keep their length and are reused by next appends.
+     */
+    @Override
+    public void clear() {
+        ensureOpen();
+        size = 0;
+    }
+
+    @Override
+    public boolean contains(L leftElement, R rightElement) {
+        return indexOf(leftElement, rightElement) >= 0;
+    }
+
+    @Override
+    public boolean containsAll(L[] leftElements, R[] rightElements) {
+        checkParameters(leftElements, rightElements);
+        for (int i = 0; i < leftElements.length; i++)
+            if (!contains(leftElements[i], rightElements[i]))
+                return false;
+        return true;
+    }
+
+    @Override
+    public boolean containsAll(DoubleCollection<L, R> collection) {
+        return collection.forEach(new DoubleProcedure<L, R>() {
+            @Override
+            public boolean execute(L leftElement, R rightElement) {
+                return contains(leftElement, rightElement);
+            }
+        });
+    }
+
+    @Override
+    public boolean forEach(DoubleProcedure<L, R> procedure) {
+        ensureOpen();
+        for (int i = 0; i < size; i++)
+            if (!procedure.execute(leftAt(i), rightAt(i)))
+                return false;
+        return true;
+    }
+
+    @Override
+    public int indexOf(L leftElement, R rightElement) {
+        ensureOpen();
+        for (int i = 0; i < size; i++)
+            if (Tuples.equal(leftAt(i), leftElement) && Tuples.equal(rightAt(i), rightElement))
+                return i;
+        return -1;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public DoubleIterator<L, R> iterator() {
+        ensureOpen();
+        return new Iterator();
+    }
+
+    @Override
+    public L getLeft(int index) {
+        ensureOpen();
+        checkIndex(index);
+        return leftAt(index);
+    }
+
+    /**
+     * @return heap copy of the left column
+     */
+    @Override
+    public L[] getLeft() {
+        ensureOpen();
+        L[] result = (L[]) new Object[size];
+        for (int i = 0; i < size; i++)
+            result[i] = leftAt(i);
+        return result;
+    }
+
+    @Override
+    public R getRight(int index) {
+        ensureOpen();
+        checkIndex(index);
+        return rightAt(index);
+    }
+
+    /**
+     * @return heap copy of the right column
+     */
+    @Override
+    public R[] getRight() {
+        ensureOpen();
+        R[] result = (R[]) new Object[size];
+        for (int i = 0; i < size; i++)
+            result[i] = rightAt(i);
+        return result;
+    }
+
+    @Override
+    public boolean remove(int index) {
+        ensureOpen();
+        if (index < 0) throw new IllegalArgumentException();
+        if (index >= size) return false;
+        for (int i = index + 1; i < size; i++) {
+            setLeft(i - 1, leftAt(i));
+            setRight(i - 1, rightAt(i));
+        }
+        size--;
+        return true;
+    }
+
+    @Override
+    public boolean remove(final L leftElement, final R rightElement) {
+        return removeIf(new DoubleProcedure<L, R>() {
+            @Override
+            public boolean execute(L left, R right) {
+                return Tuples.equal(left, leftElement) && Tuples.equal(right, rightElement);
+            }
+        });
+    }
+
+    @Override
+    public boolean removeAll(L[] leftElements, R[] rightElements) {
+        return removeIf(new ProbeProcedure(new DoubleHashSet<L, R>(leftElements, rightElements), true));
+    }
+
+    @Override
+    public boolean removeAll(DoubleCollection<L, R> collection) {
+        return removeIf(new ProbeProcedure(probe(collection), true));
+    }
+
+    @Override
+    public boolean retainAll(L[] leftToRetain, R[] rightToRetain) {
+        return removeIf(new ProbeProcedure(new DoubleHashSet<L, R>(leftToRetain, rightToRetain), false));
+    }
+
+    @Override
+    public boolean retainAll(DoubleCollection<L, R> collection) {
+        return removeIf(new ProbeProcedure(probe(collection), false));
+    }
+
+    @Override
+    public boolean removeIf(DoubleProcedure<L, R> filter) {
+        ensureOpen();
+        int retained = 0;
+        for (int i = 0; i < size; i++) {
+            L leftElement = leftAt(i);
+            R rightElement = rightAt(i);
+            if (filter.execute(leftElement, rightElement))
+                continue;
+            if (retained != i) {
+                setLeft(retained, leftElement);
+                setRight(retained, rightElement);
+            }
+            retained++;
+        }
+        if (retained == size) return false;
+        size = retained;
+        return true;
+    }
+
+    @Override
+    public void transformValues(DoubleFunction<L, R> function) {
+        ensureOpen();
+        for (int i = 0; i < size; i++) {
+            setLeft(i, function.executeLeft(leftAt(i)));
+            setRight(i, function.executeRight(rightAt(i)));
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return heap copy of the range
+     */
+    @Override
+    public DoubleArrayList<L, R> subList(int begin, int end) {
+        ensureOpen();
+        if (begin < 0 || end > size || begin > end) throw new IndexOutOfBoundsException();
+        DoubleArrayList<L, R> list = new DoubleArrayList<L, R>(end - begin);
+        for (int i = begin; i < end; i++)
+            list.add(leftAt(i), rightAt(i));
+        return list;
+    }
+
+    /**
+     * Writes modified columns to the storage, then stores size in the header and writes it.
+     */
+    public void flush() {
+        ensureOpen();
+        left.flush();
+        right.flush();
+        header.size(size);
+        header.flush();
+    }
+
+    /**
+     * Flushes and closes the files, further calls fail with {@link IllegalStateException}.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        flush();
+        closed = true;
+        left.close();
+        right.close();
+        header.close();
+    }
+
+    private static void closeQuietly(Closeable... files) {
+        for (Closeable file : files) {
+            if (file == null) continue;
+            try {
+                file.close();
+            } catch (IOException e) {
+                // the failure which made the constructor close files is reported instead
+            }
+        }
+    }
+
+    private L leftAt(int index) {
+        return (L) ColumnBuffers.get(left.chunk(index), left.offset(index), (L) null);
+    }
+
+    private R rightAt(int index) {
+        return (R) ColumnBuffers.get(right.chunk(index), right.offset(index), (R) null);
+    }
+
+    private void setLeft(int index, L value) {
+        ColumnBuffers.put(left.chunk(index), left.offset(index), value);
+    }
+
+    private void setRight(int index, R value) {
+        ColumnBuffers.put(right.chunk(index), right.offset(index), value);
+    }
+
+    private void extendBy(int offset) {
+        long capacity = (long) size + offset;
+        if (capacity <= left.capacity() && capacity <= right.capacity()) return;
+        try {
+            left.ensureCapacity(capacity);
+            right.ensureCapacity(capacity);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        header.capacity(Math.min(left.capacity(), right.capacity()));
+    }
+
+    private DoubleHashSet<L, R> probe(DoubleCollection<L, R> collection) {
+        if (collection instanceof DoubleHashSet)
+            return (DoubleHashSet<L, R>) collection;
+        return new DoubleHashSet<L, R>(collection);
+    }
+
+    private void ensureOpen() {
+        if (closed) throw new IllegalStateException("List is closed");
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+    }
+
+    private void checkParameters(L[] left, R[] right) {
+        if (left == null || right == null) throw new NullPointerException();
+        if (left.length != right.length) throw new IllegalArgumentException();
+    }
+
+    private class ProbeProcedure implements DoubleProcedure<L, R> {
+
+        private final DoubleHashSet<L, R> probe;
+
+        private final boolean removeContained;
+
+        private ProbeProcedure(DoubleHashSet<L, R> probe, boolean removeContained) {
+            this.probe = probe;
+            this.removeContained = removeContained;
+        }
+
+        @Override
+        public boolean execute(L left, R right) {
+            return probe.contains(left, right) == removeContained;
+        }
+    }
+
+    private class Iterator implements DoubleIterator<L, R> {
+
+        private int current;
+
+        @Override
+        public boolean hasNext() {
+            return current < size;
+        }
+
+        @Override
+        public void iterate() {
+            current++;
+        }
+
+        @Override
+        public boolean remove() {
+            if (!DoubleMappedFileList.this.remove(current)) return false;
+            current--;
+            return true;
+        }
+
+        @Override
+        public L nextLeft() {
+            return getLeft(current);
+        }
+
+        @Override
+        public R nextRight() {
+            return getRight(current);
+        }
+    }
+}
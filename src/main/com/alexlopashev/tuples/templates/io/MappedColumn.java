@@ -0,0 +1,125 @@
+package com.alexlopashev.tuples.templates.io;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Column of fixed width values in a memory-mapped file. The file is mapped in chunks of
+ * {@link #CHUNK_BYTES}, so a column is not limited by 2Gb size of a single mapping. The last
+ * chunk starts at {@link #MIN_CHUNK_BYTES} and is remapped twice as large whenever the column
+ * outgrows it, so small columns keep small files, then the column grows by mapping more chunks
+ * past the end of the file. Values are little-endian.
+ */
+public class MappedColumn implements Closeable {
+
+    public static final int CHUNK_BYTES = 1 << 26;
+
+    public static final int MIN_CHUNK_BYTES = 1 << 16;
+
+    private final FileChannel channel;
+
+    private final int widthShift;
+
+    private final int chunkShift;
+
+    private final int chunkMask;
+
+    private MappedByteBuffer[] chunks = new MappedByteBuffer[0];
+
+    private long mappedBytes;
+
+    public MappedColumn(File file, int width) throws IOException {
+        if (Integer.bitCount(width) != 1 || width > 8) throw new IllegalArgumentException("Width: " + width);
+        widthShift = Integer.numberOfTrailingZeros(width);
+        chunkShift = Integer.numberOfTrailingZeros(CHUNK_BYTES) - widthShift;
+        chunkMask = (1 << chunkShift) - 1;
+        channel = new RandomAccessFile(file, "rw").getChannel();
+        boolean opened = false;
+        try {
+            long length = channel.size();
+            if (length > 0) map(length);
+            opened = true;
+        } finally {
+            if (!opened) channel.close();
+        }
+    }
+
+    /**
+     * @return number of values the mapped chunks can hold
+     */
+    public long capacity() {
+        return mappedBytes >>> widthShift;
+    }
+
+    /**
+     * Maps chunks until the column can hold given number of values.
+     */
+    public void ensureCapacity(long values) throws IOException {
+        if (capacity() < values)
+            map(values << widthShift);
+    }
+
+    /**
+     * @return mapped chunk holding value with the index
+     */
+    public ByteBuffer chunk(int index) {
+        return chunks[index >>> chunkShift];
+    }
+
+    /**
+     * @return offset of value with the index inside its {@link #chunk(int)}
+     */
+    public int offset(int index) {
+        return (index & chunkMask) << widthShift;
+    }
+
+    /**
+     * Writes modified pages of the column to the storage.
+     */
+    public void flush() {
+        for (MappedByteBuffer chunk : chunks)
+            chunk.force();
+    }
+
+    /**
+     * Closes the file. Mappings are released by GC as soon as the column becomes unreachable.
+     */
+    @Override
+    public void close() throws IOException {
+        chunks = new MappedByteBuffer[0];
+        mappedBytes = 0;
+        channel.close();
+    }
+
+    /**
+     * Maps at least given number of bytes, full chunks which are mapped already are kept.
+     */
+    private void map(long bytes) throws IOException {
+        int full = (int) (bytes / CHUNK_BYTES);
+        long rest = bytes - (long) full * CHUNK_BYTES;
+        int count = rest > 0 ? full + 1 : full;
+        MappedByteBuffer[] newChunks = new MappedByteBuffer[count];
+        for (int i = 0; i < count; i++) {
+            int chunkBytes = i < full ? CHUNK_BYTES : lastChunkBytes(rest);
+            if (i < chunks.length && chunks[i].capacity() == chunkBytes) {
+                newChunks[i] = chunks[i];
+            } else {
+                newChunks[i] = channel.map(FileChannel.MapMode.READ_WRITE, (long) i * CHUNK_BYTES, chunkBytes);
+                newChunks[i].order(ByteOrder.LITTLE_ENDIAN);
+            }
+        }
+        chunks = newChunks;
+        mappedBytes = (long) (count - 1) * CHUNK_BYTES + newChunks[count - 1].capacity();
+    }
+
+    private int lastChunkBytes(long bytes) {
+        if (bytes <= MIN_CHUNK_BYTES) return MIN_CHUNK_BYTES;
+        return (int) Math.min(CHUNK_BYTES, Long.highestOneBit(bytes - 1) << 1);
+    }
+}
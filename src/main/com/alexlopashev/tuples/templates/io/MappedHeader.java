@@ -0,0 +1,107 @@
+package com.alexlopashev.tuples.templates.io;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Small memory-mapped header of a file-backed list: format magic and version, column types,
+ * size and capacity. Updating size is a plain memory write, it reaches the storage with
+ * {@link #flush()} or eventually by OS page cache write back.
+ */
+public class MappedHeader implements Closeable {
+
+    public static final int MAGIC = 0x4A545550;
+
+    public static final int VERSION = 1;
+
+    private static final int BYTES = 64;
+
+    private static final int MAGIC_OFFSET = 0;
+
+    private static final int VERSION_OFFSET = 4;
+
+    private static final int ARITY_OFFSET = 8;
+
+    private static final int TYPES_OFFSET = 12;
+
+    private static final int SIZE_OFFSET = 16;
+
+    private static final int CAPACITY_OFFSET = 24;
+
+    private final FileChannel channel;
+
+    private final MappedByteBuffer buffer;
+
+    /**
+     * Opens existing header checking that it describes columns of given types, or
+     * initializes a new one for an empty list.
+     */
+    public MappedHeader(File file, byte[] types) throws IOException {
+        channel = new RandomAccessFile(file, "rw").getChannel();
+        boolean opened = false;
+        try {
+            boolean created = channel.size() == 0;
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, BYTES);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (created) {
+                buffer.putInt(MAGIC_OFFSET, MAGIC);
+                buffer.putInt(VERSION_OFFSET, VERSION);
+                buffer.putInt(ARITY_OFFSET, types.length);
+                for (int i = 0; i < types.length; i++)
+                    buffer.put(TYPES_OFFSET + i, types[i]);
+                buffer.force();
+            } else {
+                check(file, types);
+            }
+            opened = true;
+        } finally {
+            if (!opened) channel.close();
+        }
+    }
+
+    public int size() {
+        return (int) buffer.getLong(SIZE_OFFSET);
+    }
+
+    public void size(int size) {
+        buffer.putLong(SIZE_OFFSET, size);
+    }
+
+    public long capacity() {
+        return buffer.getLong(CAPACITY_OFFSET);
+    }
+
+    public void capacity(long capacity) {
+        buffer.putLong(CAPACITY_OFFSET, capacity);
+    }
+
+    public void flush() {
+        buffer.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void check(File file, byte[] types) throws IOException {
+        if (buffer.getInt(MAGIC_OFFSET) != MAGIC)
+            throw fail(file, "not a tuple list header");
+        if (buffer.getInt(VERSION_OFFSET) != VERSION)
+            throw fail(file, "unsupported version " + buffer.getInt(VERSION_OFFSET));
+        if (buffer.getInt(ARITY_OFFSET) != types.length)
+            throw fail(file, "list has " + buffer.getInt(ARITY_OFFSET) + " columns, expected " + types.length);
+        for (int i = 0; i < types.length; i++)
+            if (buffer.get(TYPES_OFFSET + i) != types[i])
+                throw fail(file, "column " + i + " has type " + buffer.get(TYPES_OFFSET + i) + ", expected " + types[i]);
+    }
+
+    private static IOException fail(File file, String message) {
+        return new IOException(file + ": " + message);
+    }
+}
@@ -0,0 +1,351 @@
+package com.alexlopashev.tuples.templates.io;
+
+import com.alexlopashev.tuples.templates.TripleCollection;
+import com.alexlopashev.tuples.templates.Tuples;
+import com.alexlopashev.tuples.templates.function.TripleFunction;
+import com.alexlopashev.tuples.templates.index.ColumnIndex;
+import com.alexlopashev.tuples.templates.index.TripleIndexes;
+import com.alexlopashev.tuples.templates.iterator.TripleIterator;
+import com.alexlopashev.tuples.templates.list.TripleArrayList;
+import com.alexlopashev.tuples.templates.list.TripleList;
+import com.alexlopashev.tuples.templates.procedure.TripleProcedure;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Read-only triple list over a buffer in {@link ColumnarFormat}. Values are read from the buffer
+ * in place, so wrapping a mapped file or a buffer from {@link ColumnarFormat#read} costs
+ * no copying, neither does {@link #subList(int, int)}. Modifications throw
+ * {@link UnsupportedOperationException}, {@link #toArrayList()} makes a modifiable copy.
+ * Indexes can be attached, they are built once as the content never changes.
+ *
+ * Makes sense only for primitive specializations (e.g. IntLongDoubleColumnarList), generic version
+ * throws {@link UnsupportedOperationException} on construction.
+ */
+public class TripleColumnarList<L, M, R> implements TripleList<L, M, R> {
+
+    private final ByteBuffer buffer;
+
+    private final int leftWidth;
+
+    private final int middleWidth;
+
+    private final int rightWidth;
+
+    private final int leftOffset;
+
+    private final int middleOffset;
+
+    private final int rightOffset;
+
+    private final int size;
+
+    private final TripleIndexes<L, M, R> indexes = new TripleIndexes<L, M, R>();
+
+    public TripleColumnarList(ByteBuffer buffer) {
+        this(buffer, false);
+    }
+
+    /**
+     * @param buffer list in {@link ColumnarFormat} starting at buffer position
+     * @param verifyChecksum whether to read the whole buffer to verify stored checksum
+     * @throws IllegalArgumentException if buffer holds no list of this type, or the checksum does not match
+     */
+    public TripleColumnarList(ByteBuffer buffer, boolean verifyChecksum) {
+        byte[] types = {ColumnBuffers.type((L) null), ColumnBuffers.type((M) null), ColumnBuffers.type((R) null)};
+        this.buffer = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+        ColumnarFormat.check(this.buffer, types);
+        if (verifyChecksum && !ColumnarFormat.checksumValid(this.buffer))
+            throw new IllegalArgumentException("Checksum mismatch");
+        leftWidth = ColumnBuffers.width(types[0]);
+        middleWidth = ColumnBuffers.width(types[1]);
+        rightWidth = ColumnBuffers.width(types[2]);
+        size = ColumnarFormat.size(this.buffer);
+        leftOffset = ColumnarFormat.HEADER_BYTES;
+        middleOffset = leftOffset + size * leftWidth;
+        rightOffset = middleOffset + size * middleWidth;
+    }
+
+    private TripleColumnarList(TripleColumnarList<L, M, R> list, int begin, int end) {
+        buffer = list.buffer;
+        leftWidth = list.leftWidth;
+        middleWidth = list.middleWidth;
+        rightWidth = list.rightWidth;
+        leftOffset = list.leftOffset + begin * leftWidth;
+        middleOffset = list.middleOffset + begin * middleWidth;
+        rightOffset = list.rightOffset + begin * rightWidth;
+        size = end - begin;
+    }
+
+    @Override
+    public boolean add(L leftElement, M middleElement, R rightElement) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean addAll(L[] leftAdd, M[] middleAdd, R[] rightAdd) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean addAll(TripleCollection<L, M, R> collection) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean contains(L leftElement, M middleElement, R rightElement) {
+        return indexOf(leftElement, middleElement, rightElement) >= 0;
+    }
+
+    @Override
+    public boolean containsAll(L[] leftElements, M[] middleElements, R[] rightElements) {
+        if (leftElements == null || middleElements == null || rightElements == null) throw new NullPointerException();
+        if (leftElements.length != middleElements.length || leftElements.length != rightElements.length)
+            throw new IllegalArgumentException();
+        for (int i = 0; i < leftElements.length; i++)
+            if (!contains(leftElements[i], middleElements[i], rightElements[i]))
+                return false;
+        return true;
+    }
+
+    @Override
+    public boolean containsAll(TripleCollection<L, M, R> collection) {
+        return collection.forEach(new TripleProcedure<L, M, R>() {
+            @Override
+            public boolean execute(L leftElement, M middleElement, R rightElement) {
+                return contains(leftElement, middleElement, rightElement);
+            }
+        });
+    }
+
+    @Override
+    public boolean forEach(TripleProcedure<L, M, R> procedure) {
+        for (int i = 0; i < size; i++)
+            if (!procedure.execute(leftAt(i), middleAt(i), rightAt(i)))
+                return false;
+        return true;
+    }
+
+    @Override
+    public int indexOf(L leftElement, M middleElement, R rightElement) {
+        for (int i = 0; i < size; i++)
+            if (Tuples.equal(leftAt(i), leftElement) && Tuples.equal(middleAt(i), middleElement)
+                    && Tuples.equal(rightAt(i), rightElement))
+                return i;
+        return -1;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public TripleIterator<L, M, R> iterator() {
+        return new Iterator();
+    }
+
+    @Override
+    public L getLeft(int index) {
+        checkIndex(index);
+        return leftAt(index);
+    }
+
+    /**
+     * @return heap copy of the left column
+     */
+    @Override
+    public L[] getLeft() {
+        L[] result = (L[]) new Object[size];
+        for (int i = 0; i < size; i++)
+            result[i] = leftAt(i);
+        return result;
+    }
+
+    @Override
+    public M getMiddle(int index) {
+        checkIndex(index);
+        return middleAt(index);
+    }
+
+    /**
+     * @return heap copy of the middle column
+     */
+    @Override
+    public M[] getMiddle() {
+        M[] result = (M[]) new Object[size];
+        for (int i = 0; i < size; i++)
+            result[i] = middleAt(i);
+        return result;
+    }
+
+    @Override
+    public R getRight(int index) {
+        checkIndex(index);
+        return rightAt(index);
+    }
+
+    /**
+     * @return heap copy of the right column
+     */
+    @Override
+    public R[] getRight() {
+        R[] result = (R[]) new Object[size];
+        for (int i = 0; i < size; i++)
+            result[i] = rightAt(i);
+        return result;
+    }
+
+    @Override
+    public boolean remove(int index) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean remove(L leftElement, M middleElement, R rightElement) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean removeAll(L[] leftElements, M[] middleElements, R[] rightElements) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean removeAll(TripleCollection<L, M, R> collection) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean retainAll(L[] leftToRetain, M[] middleToRetain, R[] rightToRetain) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean retainAll(TripleCollection<L, M, R> collection) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean removeIf(TripleProcedure<L, M, R> filter) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void transformValues(TripleFunction<L, M, R> function) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return view of the range sharing the buffer
+     */
+    @Override
+    public TripleColumnarList<L, M, R> subList(int begin, int end) {
+        if (begin < 0 || end > size || begin > end) throw new IndexOutOfBoundsException();
+        return new TripleColumnarList<L, M, R>(this, begin, end);
+    }
+
+    @Override
+    public void attachLeftIndex(ColumnIndex<L> index) {
+        indexes.attachLeft(index, this);
+    }
+
+    @Override
+    public void attachMiddleIndex(ColumnIndex<M> index) {
+        indexes.attachMiddle(index, this);
+    }
+
+    @Override
+    public void attachRightIndex(ColumnIndex<R> index) {
+        indexes.attachRight(index, this);
+    }
+
+    @Override
+    public void detachIndexes() {
+        indexes.detach();
+    }
+
+    @Override
+    public int[] lookupLeft(L value) {
+        return indexes.lookupLeft(value, this);
+    }
+
+    @Override
+    public int[] lookupMiddle(M value) {
+        return indexes.lookupMiddle(value, this);
+    }
+
+    @Override
+    public int[] lookupRight(R value) {
+        return indexes.lookupRight(value, this);
+    }
+
+    /**
+     * @return modifiable heap copy of the list
+     */
+    public TripleArrayList<L, M, R> toArrayList() {
+        return new TripleArrayList<L, M, R>(getLeft(), getMiddle(), getRight());
+    }
+
+    private L leftAt(int index) {
+        return (L) ColumnBuffers.get(buffer, leftOffset + index * leftWidth, (L) null);
+    }
+
+    private M middleAt(int index) {
+        return (M) ColumnBuffers.get(buffer, middleOffset + index * middleWidth, (M) null);
+    }
+
+    private R rightAt(int index) {
+        return (R) ColumnBuffers.get(buffer, rightOffset + index * rightWidth, (R) null);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+    }
+
+    private class Iterator implements TripleIterator<L, M, R> {
+
+        private int current;
+
+        @Override
+        public boolean hasNext() {
+            return current < size;
+        }
+
+        @Override
+        public void iterate() {
+            current++;
+        }
+
+        @Override
+        public boolean remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public L nextLeft() {
+            return getLeft(current);
+        }
+
+        @Override
+        public M nextMiddle() {
+            return getMiddle(current);
+        }
+
+        @Override
+        public R nextRight() {
+            return getRight(current);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.alexlopashev.tuples.templates.io;
+
+import com.alexlopashev.tuples.templates.list.TripleList;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.zip.CRC32;
+
+/**
+ * Writes triple lists in {@link ColumnarFormat}: header, packed left, middle and right columns
+ * and optional checksum. Values go through a reusable staging buffer, so a writer is cheap to
+ * reuse but must not be shared between threads.
+ *
+ * Makes sense only for primitive specializations (e.g. IntLongDoubleColumnarWriter), generic version
+ * throws {@link UnsupportedOperationException} on construction.
+ */
+public class TripleColumnarWriter<L, M, R> {
+
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    private final byte[] types;
+
+    private final int leftWidth;
+
+    private final int middleWidth;
+
+    private final int rightWidth;
+
+    private final boolean checksum;
+
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+
+    private final CRC32 crc = new CRC32();
+
+    private WritableByteChannel channel;
+
+    public TripleColumnarWriter() {
+        this(true);
+    }
+
+    public TripleColumnarWriter(boolean checksum) {
+        types = new byte[]{ColumnBuffers.type((L) null), ColumnBuffers.type((M) null), ColumnBuffers.type((R) null)};
+        leftWidth = ColumnBuffers.width(types[0]);
+        middleWidth = ColumnBuffers.width(types[1]);
+        rightWidth = ColumnBuffers.width(types[2]);
+        this.checksum = checksum;
+    }
+
+    /**
+     * Writes the list to the stream, the stream is neither flushed nor closed.
+     */
+    public void write(TripleList<L, M, R> list, OutputStream out) throws IOException {
+        write(list, Channels.newChannel(out));
+    }
+
+    /**
+     * Writes the list to the channel, the channel is not closed.
+     */
+    public void write(TripleList<L, M, R> list, WritableByteChannel channel) throws IOException {
+        this.channel = channel;
+        try {
+            int size = list.size();
+            buffer.clear();
+            crc.reset();
+            ColumnarFormat.putHeader(buffer, types, size, checksum);
+            buffer.position(ColumnarFormat.HEADER_BYTES);
+            for (int i = 0; i < size; i++) {
+                reserve(leftWidth);
+                ColumnBuffers.put(buffer, buffer.position(), list.getLeft(i));
+                buffer.position(buffer.position() + leftWidth);
+            }
+            for (int i = 0; i < size; i++) {
+                reserve(middleWidth);
+                ColumnBuffers.put(buffer, buffer.position(), list.getMiddle(i));
+                buffer.position(buffer.position() + middleWidth);
+            }
+            for (int i = 0; i < size; i++) {
+                reserve(rightWidth);
+                ColumnBuffers.put(buffer, buffer.position(), list.getRight(i));
+                buffer.position(buffer.position() + rightWidth);
+            }
+            drain();
+            if (checksum) {
+                buffer.putInt((int) crc.getValue());
+                drain();
+            }
+        } finally {
+            this.channel = null;
+        }
+    }
+
+    private void reserve(int width) throws IOException {
+        if (buffer.remaining() < width)
+            drain();
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        crc.update(buffer.array(), 0, buffer.limit());
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+        buffer.clear();
+    }
+}
@@ -0,0 +1,521 @@
+package com.alexlopashev.tuples.templates.io;
+
+import com.alexlopashev.tuples.templates.TripleCollection;
+import com.alexlopashev.tuples.templates.Tuples;
+import com.alexlopashev.tuples.templates.function.TripleFunction;
+import com.alexlopashev.tuples.templates.index.ColumnIndex;
+import com.alexlopashev.tuples.templates.index.TripleIndexes;
+import com.alexlopashev.tuples.templates.iterator.TripleIterator;
+import com.alexlopashev.tuples.templates.list.TripleArrayList;
+import com.alexlopashev.tuples.templates.list.TripleList;
+import com.alexlopashev.tuples.templates.procedure.TripleProcedure;
+import com.alexlopashev.tuples.templates.set.TripleHashSet;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Triple list persisted in a directory: each column is a memory-mapped file, size and capacity
+ * are kept in a small mapped header. Opening an existing directory maps the data instead
+ * of reading it, appends are writes to the page cache. Size is stored only by {@link #flush()}
+ * and {@link #close()} after columns are forced to the storage, so a stored size never covers
+ * unwritten triples, while changes made after the last flush are lost if the process dies.
+ *
+ * Makes sense only for primitive specializations (e.g. IntLongDoubleMappedFileList), generic version
+ * throws {@link UnsupportedOperationException} on construction. {@link #getLeft()}, {@link #getMiddle()}
+ * and {@link #getRight()} return heap copies of the columns, failures of growing the files are
+ * reported as {@link UncheckedIOException}. Attached indexes live on the heap and are not persisted.
+ */
+public class TripleMappedFileList<L, M, R> implements TripleList<L, M, R>, Closeable {
+
+    public static final String HEADER = "header";
+
+    public static final String LEFT = "left.col";
+
+    public static final String MIDDLE = "middle.col";
+
+    public static final String RIGHT = "right.col";
+
+    private final MappedHeader header;
+
+    private final MappedColumn left;
+
+    private final MappedColumn middle;
+
+    private final MappedColumn right;
+
+    private int size;
+
+    private boolean closed;
+
+    private final TripleIndexes<L, M, R> indexes = new TripleIndexes<L, M, R>();
+
+    /**
+     * Opens the list stored in the directory, or creates an empty one.
+     */
+    public TripleMappedFileList(File directory) throws IOException {
+        byte leftType = ColumnBuffers.type((L) null);
+        byte middleType = ColumnBuffers.type((M) null);
+        byte rightType = ColumnBuffers.type((R) null);
+        if (!directory.isDirectory() && !directory.mkdirs()) throw new IOException("Cannot create " + directory);
+        MappedHeader header = new MappedHeader(new File(directory, HEADER), new byte[]{leftType, middleType, rightType});
+        MappedColumn left = null;
+        MappedColumn middle = null;
+        MappedColumn right = null;
+        boolean opened = false;
+        try {
+            left = new MappedColumn(new File(directory, LEFT), ColumnBuffers.width(leftType));
+            middle = new MappedColumn(new File(directory, MIDDLE), ColumnBuffers.width(middleType));
+            right = new MappedColumn(new File(directory, RIGHT), ColumnBuffers.width(rightType));
+            size = header.size();
+            if (size > left.capacity() || size > middle.capacity() || size > right.capacity())
+                throw new IOException(directory + ": columns are shorter than size " + size);
+            opened = true;
+        } finally {
+            if (!opened) closeQuietly(right, middle, left, header);
+        }
+        this.header = header;
+        this.left = left;
+        this.middle = middle;
+        this.right = right;
+    }
+
+    @Override
+    public boolean add(L leftElement, M middleElement, R rightElement) {
+        ensureOpen();
+        if (size == Integer.MAX_VALUE) return false;
+        extendBy(1);
+        setLeft(size, leftElement);
+        setMiddle(size, middleElement);
+        setRight(size, rightElement);
+        size++;
+        indexes.added(size - 1, leftElement, middleElement, rightElement);
+        return true;
+    }
+
+    @Override
+    public boolean addAll(L[] leftAdd, M[] middleAdd, R[] rightAdd) {
+        ensureOpen();
+        checkParameters(leftAdd, middleAdd, rightAdd);
+        if (size >= Integer.MAX_VALUE - leftAdd.length) return false;
+        extendBy(leftAdd.length);
+        for (int i = 0; i < leftAdd.length; i++) {
+            setLeft(size + i, leftAdd[i]);
+            setMiddle(size + i, middleAdd[i]);
+            setRight(size + i, rightAdd[i]);
+        }
+        for (int i = 0; i < leftAdd.length; i++)
+            indexes.added(size + i, leftAdd[i], middleAdd[i], rightAdd[i]);
+        size += leftAdd.length;
+        return true;
+    }
+
+    @Override
+    public boolean addAll(TripleCollection<L, M, R> collection) {
+        ensureOpen();
+        return addAll(collection.getLeft(), collection.getMiddle(), collection.getRight());
+    }
+
+    /**
+     * Drops all triples, files keep their length and are reused by next appends.
+     */
+    @Override
+    public void clear() {
+        ensureOpen();
+        size = 0;
+        indexes.cleared();
+    }
+
+    @Override
+    public boolean contains(L leftElement, M middleElement, R rightElement) {
+        return indexOf(leftElement, middleElement, rightElement) >= 0;
+    }
+
+    @Override
+    public boolean containsAll(L[] leftElements, M[] middleElements, R[] rightElements) {
+        checkParameters(leftElements, middleElements, rightElements);
+        for (int i = 0; i < leftElements.length; i++)
+            if (!contains(leftElements[i], middleElements[i], rightElements[i]))
+                return false;
+        return true;
+    }
+
+    @Override
+    public boolean containsAll(TripleCollection<L, M, R> collection) {
+        return collection.forEach(new TripleProcedure<L, M, R>() {
+            @Override
+            public boolean execute(L leftElement, M middleElement, R rightElement) {
+                return contains(leftElement, middleElement, rightElement);
+            }
+        });
+    }
+
+    @Override
+    public boolean forEach(TripleProcedure<L, M, R> procedure) {
+        ensureOpen();
+        for (int i = 0; i < size; i++)
+            if (!procedure.execute(leftAt(i), middleAt(i), rightAt(i)))
+                return false;
+        return true;
+    }
+
+    @Override
+    public int indexOf(L leftElement, M middleElement, R rightElement) {
+        ensureOpen();
+        for (int i = 0; i < size; i++)
+            if (Tuples.equal(leftAt(i), leftElement) && Tuples.equal(middleAt(i), middleElement)
+                    && Tuples.equal(rightAt(i), rightElement))
+                return i;
+        return -1;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public TripleIterator<L, M, R> iterator() {
+        ensureOpen();
+        return new Iterator();
+    }
+
+    @Override
+    public L getLeft(int index) {
+        ensureOpen();
+        checkIndex(index);
+        return leftAt(index);
+    }
+
+    /**
+     * @return heap copy of the left column
+     */
+    @Override
+    public L[] getLeft() {
+        ensureOpen();
+        L[] result = (L[]) new Object[size];
+        for (int i = 0; i < size; i++)
+            result[i] = leftAt(i);
+        return result;
+    }
+
+    @Override
+    public M getMiddle(int index) {
+        ensureOpen();
+        checkIndex(index);
+        return middleAt(index);
+    }
+
+    /**
+     * @return heap copy of the middle column
+     */
+    @Override
+    public M[] getMiddle() {
+        ensureOpen();
+        M[] result = (M[]) new Object[size];
+        for (int i = 0; i < size; i++)
+            result[i] = middleAt(i);
+        return result;
+    }
+
+    @Override
+    public R getRight(int index) {
+        ensureOpen();
+        checkIndex(index);
+        return rightAt(index);
+    }
+
+    /**
+     * @return heap copy of the right column
+     */
+    @Override
+    public R[] getRight() {
+        ensureOpen();
+        R[] result = (R[]) new Object[size];
+        for (int i = 0; i < size; i++)
+            result[i] = rightAt(i);
+        return result;
+    }
+
+    @Override
+    public boolean remove(int index) {
+        ensureOpen();
+        if (index < 0) throw new IllegalArgumentException();
+        if (index >= size) return false;
+        indexes.removed(index, leftAt(index), middleAt(index), rightAt(index));
+        for (int i = index + 1; i < size; i++) {
+            setLeft(i - 1, leftAt(i));
+            setMiddle(i - 1, middleAt(i));
+            setRight(i - 1, rightAt(i));
+        }
+        size--;
+        return true;
+    }
+
+    @Override
+    public boolean remove(final L leftElement, final M middleElement, final R rightElement) {
+        return removeIf(new TripleProcedure<L, M, R>() {
+            @Override
+            public boolean execute(L left, M middle, R right) {
+                return Tuples.equal(left, leftElement) && Tuples.equal(middle, middleElement)
+                        && Tuples.equal(right, rightElement);
+            }
+        });
+    }
+
+    @Override
+    public boolean removeAll(L[] leftElements, M[] middleElements, R[] rightElements) {
+        return removeIf(new ProbeProcedure(new TripleHashSet<L, M, R>(leftElements, middleElements, rightElements), true));
+    }
+
+    @Override
+    public boolean removeAll(TripleCollection<L, M, R> collection) {
+        return removeIf(new ProbeProcedure(probe(collection), true));
+    }
+
+    @Override
+    public boolean retainAll(L[] leftToRetain, M[] middleToRetain, R[] rightToRetain) {
+        return removeIf(new ProbeProcedure(new TripleHashSet<L, M, R>(leftToRetain, middleToRetain, rightToRetain), false));
+    }
+
+    @Override
+    public boolean retainAll(TripleCollection<L, M, R> collection) {
+        return removeIf(new ProbeProcedure(probe(collection), false));
+    }
+
+    @Override
+    public boolean removeIf(TripleProcedure<L, M, R> filter) {
+        ensureOpen();
+        int retained = 0;
+        for (int i = 0; i < size; i++) {
+            L leftElement = leftAt(i);
+            M middleElement = middleAt(i);
+            R rightElement = rightAt(i);
+            if (filter.execute(leftElement, middleElement, rightElement))
+                continue;
+            if (retained != i) {
+                setLeft(retained, leftElement);
+                setMiddle(retained, middleElement);
+                setRight(retained, rightElement);
+            }
+            retained++;
+        }
+        if (retained == size) return false;
+        size = retained;
+        indexes.rebuild(this);
+        return true;
+    }
+
+    @Override
+    public void transformValues(TripleFunction<L, M, R> function) {
+        ensureOpen();
+        for (int i = 0; i < size; i++) {
+            setLeft(i, function.executeLeft(leftAt(i)));
+            setMiddle(i, function.executeMiddle(middleAt(i)));
+            setRight(i, function.executeRight(rightAt(i)));
+        }
+        indexes.rebuild(this);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return heap copy of the range
+     */
+    @Override
+    public TripleArrayList<L, M, R> subList(int begin, int end) {
+        ensureOpen();
+        if (begin < 0 || end > size || begin > end) throw new IndexOutOfBoundsException();
+        TripleArrayList<L, M, R> list = new TripleArrayList<L, M, R>(end - begin);
+        for (int i = begin; i < end; i++)
+            list.add(leftAt(i), middleAt(i), rightAt(i));
+        return list;
+    }
+
+    @Override
+    public void attachLeftIndex(ColumnIndex<L> index) {
+        indexes.attachLeft(index, this);
+    }
+
+    @Override
+    public void attachMiddleIndex(ColumnIndex<M> index) {
+        indexes.attachMiddle(index, this);
+    }
+
+    @Override
+    public void attachRightIndex(ColumnIndex<R> index) {
+        indexes.attachRight(index, this);
+    }
+
+    @Override
+    public void detachIndexes() {
+        indexes.detach();
+    }
+
+    @Override
+    public int[] lookupLeft(L value) {
+        return indexes.lookupLeft(value, this);
+    }
+
+    @Override
+    public int[] lookupMiddle(M value) {
+        return indexes.lookupMiddle(value, this);
+    }
+
+    @Override
+    public int[] lookupRight(R value) {
+        return indexes.lookupRight(value, this);
+    }
+
+    /**
+     * Writes modified columns to the storage, then stores size in the header and writes it.
+     */
+    public void flush() {
+        ensureOpen();
+        left.flush();
+        middle.flush();
+        right.flush();
+        header.size(size);
+        header.flush();
+    }
+
+    /**
+     * Flushes and closes the files, further calls fail with {@link IllegalStateException}.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        flush();
+        closed = true;
+        left.close();
+        middle.close();
+        right.close();
+        header.close();
+    }
+
+    private static void closeQuietly(Closeable... files) {
+        for (Closeable file : files) {
+            if (file == null) continue;
+            try {
+                file.close();
+            } catch (IOException e) {
+                // the failure which made the constructor close files is reported instead
+            }
+        }
+    }
+
+    private L leftAt(int index) {
+        return (L) ColumnBuffers.get(left.chunk(index), left.offset(index), (L) null);
+    }
+
+    private M middleAt(int index) {
+        return (M) ColumnBuffers.get(middle.chunk(index), middle.offset(index), (M) null);
+    }
+
+    private R rightAt(int index) {
+        return (R) ColumnBuffers.get(right.chunk(index), right.offset(index), (R) null);
+    }
+
+    private void setLeft(int index, L value) {
+        ColumnBuffers.put(left.chunk(index), left.offset(index), value);
+    }
+
+    private void setMiddle(int index, M value) {
+        ColumnBuffers.put(middle.chunk(index), middle.offset(index), value);
+    }
+
+    private void setRight(int index, R value) {
+        ColumnBuffers.put(right.chunk(index), right.offset(index), value);
+    }
+
+    private void extendBy(int offset) {
+        long capacity = (long) size + offset;
+        if (capacity <= left.capacity() && capacity <= middle.capacity() && capacity <= right.capacity()) return;
+        try {
+            left.ensureCapacity(capacity);
+            middle.ensureCapacity(capacity);
+            right.ensureCapacity(capacity);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        header.capacity(Math.min(left.capacity(), Math.min(middle.capacity(), right.capacity())));
+    }
+
+    private TripleHashSet<L, M, R> probe(TripleCollection<L, M, R> collection) {
+        if (collection instanceof TripleHashSet)
+            return (TripleHashSet<L, M, R>) collection;
+        return new TripleHashSet<L, M, R>(collection);
+    }
+
+    private void ensureOpen() {
+        if (closed) throw new IllegalStateException("List is closed");
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+    }
+
+    private void checkParameters(L[] left, M[] middle, R[] right) {
+        if (left == null || middle == null || right == null) throw new NullPointerException();
+        if (left.length != middle.length || middle.length != right.length) throw new IllegalArgumentException();
+    }
+
+    private class ProbeProcedure implements TripleProcedure<L, M, R> {
+
+        private final TripleHashSet<L, M, R> probe;
+
+        private final boolean removeContained;
+
+        private ProbeProcedure(TripleHashSet<L, M, R> probe, boolean removeContained) {
+            this.probe = probe;
+            this.removeContained = removeContained;
+        }
+
+        @Override
+        public boolean execute(L left, M middle, R right) {
+            return probe.contains(left, middle, right) == removeContained;
+        }
+    }
+
+    private class Iterator implements TripleIterator<L, M, R> {
+
+        private int current;
+
+        @Override
+        public boolean hasNext() {
+            return current < size;
+        }
+
+        @Override
+        public void iterate() {
+            current++;
+        }
+
+        @Override
+        public boolean remove() {
+            if (!TripleMappedFileList.this.remove(current)) return false;
+            current--;
+            return true;
+        }
+
+        @Override
+        public L nextLeft() {
+            return getLeft(current);
+        }
+
+        @Override
+        public M nextMiddle() {
+            return getMiddle(current);
+        }
+
+        @Override
+        public R nextRight() {
+            return getRight(current);
+        }
+    }
+}
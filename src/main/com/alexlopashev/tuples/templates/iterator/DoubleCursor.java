@@ -0,0 +1,23 @@
+package com.alexlopashev.tuples.templates.iterator;
+
+/**
+ * Reads pairs in blocks into caller buffers, no calls are made per pair:
+ * <pre>
+ * int count;
+ * while ((count = cursor.readBatch(left, right, left.length)) > 0)
+ *     for (int i = 0; i < count; i++)
+ *         ...
+ * </pre>
+ */
+public interface DoubleCursor<L, R> {
+
+    boolean hasNext();
+
+    /**
+     * Copies up to {@code max} next pairs to the beginning of the buffers.
+     *
+     * @return number of pairs copied, 0 when there are no more pairs
+     */
+    int readBatch(L[] left, R[] right, int max);
+
+}
@@ -0,0 +1,23 @@
+package com.alexlopashev.tuples.templates.iterator;
+
+/**
+ * Reads triples in blocks into caller buffers, no calls are made per triple:
+ * <pre>
+ * int count;
+ * while ((count = cursor.readBatch(left, middle, right, left.length)) > 0)
+ *     for (int i = 0; i < count; i++)
+ *         ...
+ * </pre>
+ */
+public interface TripleCursor<L, M, R> {
+
+    boolean hasNext();
+
+    /**
+     * Copies up to {@code max} next triples to the beginning of the buffers.
+     *
+     * @return number of triples copied, 0 when there are no more triples
+     */
+    int readBatch(L[] left, M[] middle, R[] right, int max);
+
+}
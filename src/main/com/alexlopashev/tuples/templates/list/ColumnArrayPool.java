@@ -0,0 +1,104 @@
+package com.alexlopashev.tuples.templates.list;
+
+import java.util.Arrays;
+
+/**
+ * Column arrays kept for reuse by size class, class k holds arrays of length 2^k. Every thread
+ * has its own free arrays, so borrowing and releasing never contend and an array released by
+ * another thread than the one which borrowed it simply moves to the releasing thread.
+ * Arrays longer than the maximal length and arrays over the limit of a class are left to the
+ * garbage collector.
+ */
+public class ColumnArrayPool<T> {
+
+    public static final int DEFAULT_MAX_PER_CLASS = 16;
+
+    public static final int DEFAULT_MAX_LENGTH = 1 << 20;
+
+    private static final int CLASSES = 31;
+
+    private final int maxPerClass;
+
+    private final int maxLength;
+
+    private final ThreadLocal<FreeArrays> free = new ThreadLocal<FreeArrays>() {
+        @Override
+        protected FreeArrays initialValue() {
+            return new FreeArrays();
+        }
+    };
+
+    public ColumnArrayPool() {
+        this(DEFAULT_MAX_PER_CLASS, DEFAULT_MAX_LENGTH);
+    }
+
+    /**
+     * @param maxPerClass number of free arrays a thread keeps per size class
+     * @param maxLength   length of the longest array kept
+     */
+    public ColumnArrayPool(int maxPerClass, int maxLength) {
+        if (maxPerClass < 0) throw new IllegalArgumentException("Illegal number of arrays: " + maxPerClass);
+        if (maxLength < 0) throw new IllegalArgumentException("Illegal length: " + maxLength);
+        this.maxPerClass = maxPerClass;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * @return array of at least minLength values with a power of two length, values of a reused
+     * array are default ones as far as its previous holder released it with the used length
+     */
+    public T[] borrow(int minLength) {
+        if (minLength < 0) throw new IllegalArgumentException("Illegal length: " + minLength);
+        int length = GrowthPolicies.ceilingPowerOf2(minLength);
+        if (Integer.bitCount(length) != 1) return (T[]) new Object[length];
+        FreeArrays arrays = free.get();
+        int sizeClass = Integer.numberOfTrailingZeros(length);
+        int count = arrays.counts[sizeClass];
+        if (count == 0) return (T[]) new Object[length];
+        T[] array = arrays.arrays[sizeClass][--count];
+        arrays.arrays[sizeClass][count] = null;
+        arrays.counts[sizeClass] = count;
+        return array;
+    }
+
+    /**
+     * Returns the array for reuse, it must not be used afterwards.
+     *
+     * @param used number of leading values to clear, so that the pool keeps no elements reachable
+     * @return whether the array is kept
+     */
+    public boolean release(T[] array, int used) {
+        if (array == null) throw new NullPointerException();
+        if (used < 0 || used > array.length) throw new IndexOutOfBoundsException("Used: " + used + ", length: " + array.length);
+        int length = array.length;
+        if (length > maxLength || Integer.bitCount(length) != 1) return false;
+        FreeArrays arrays = free.get();
+        int sizeClass = Integer.numberOfTrailingZeros(length);
+        int count = arrays.counts[sizeClass];
+        if (count == maxPerClass) return false;
+        if (arrays.arrays[sizeClass] == null)
+            arrays.arrays[sizeClass] = (T[][]) new Object[maxPerClass][];
+        Arrays.fill(array, 0, used, (T) null);
+        arrays.arrays[sizeClass][count] = array;
+        arrays.counts[sizeClass] = count + 1;
+        return true;
+    }
+
+    /**
+     * @return number of free arrays the current thread keeps
+     */
+    public int pooled() {
+        FreeArrays arrays = free.get();
+        int pooled = 0;
+        for (int count : arrays.counts)
+            pooled += count;
+        return pooled;
+    }
+
+    private class FreeArrays {
+
+        private final T[][][] arrays = (T[][][]) new Object[CLASSES][][];
+
+        private final int[] counts = new int[CLASSES];
+    }
+}
@@ -1,19 +1,37 @@
 package com.alexlopashev.tuples.templates.list;
 
 import com.alexlopashev.tuples.templates.DoubleCollection;
+import com.alexlopashev.tuples.templates.Tuples;
+import com.alexlopashev.tuples.templates.encoding.Encodings;
+import com.alexlopashev.tuples.templates.function.ColumnComparator;
+import com.alexlopashev.tuples.templates.function.ColumnFunction;
 import com.alexlopashev.tuples.templates.function.DoubleFunction;
+import com.alexlopashev.tuples.templates.iterator.DoubleCursor;
 import com.alexlopashev.tuples.templates.iterator.DoubleIterator;
+import com.alexlopashev.tuples.templates.parallel.ParallelRanges;
+import com.alexlopashev.tuples.templates.parallel.RangeProcedure;
 import com.alexlopashev.tuples.templates.procedure.DoubleProcedure;
+import com.alexlopashev.tuples.templates.scan.ColumnScans;
+import com.alexlopashev.tuples.templates.set.DoubleHashSet;
+import com.alexlopashev.tuples.templates.sort.DoubleSorter;
+import com.alexlopashev.tuples.templates.stats.ListCounters;
+import com.alexlopashev.tuples.templates.stats.ListStatistics;
+import com.alexlopashev.tuples.templates.stream.DoubleSpliterator;
+import com.alexlopashev.tuples.templates.stream.DoubleTupleStream;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * This file is correct java class and also plays role of template for
  * generating double array list classes for pair of primitive (this is primary goal
  * but you it also can be used for generating <int, String> 2-tuple list.
+ * Primitive versions (IntLongArrayList, ...) are produced by TemplateGenerator,
+ * so elements are compared only through {@link Tuples}.
  */
 public class DoubleArrayList<L, R> implements DoubleList<L, R> {
 
     private static final int DEFAULT_CAPACITY = 8;
-    private static final double LOG_RATIO = StrictMath.log10(2);
 
     private L[] left;
 
@@ -21,19 +39,58 @@ public class DoubleArrayList<L, R> implements DoubleList<L, R> {
 
     private int capacity;
 
+    private GrowthPolicy policy = GrowthPolicies.powerOfTwo();
+
     private int size;
 
+    /**
+     * Whether columns are referenced by a snapshot, then they are copied before pairs below size change.
+     */
+    private boolean shared;
+
+    /**
+     * Counters of resizes, copies and scans, null unless statistics are enabled.
+     */
+    private ListCounters counters = ListCounters.ENABLED ? newCounters() : null;
+
+    /**
+     * Pools columns are borrowed from and replaced columns are returned to, null unless the
+     * list belongs to a {@link DoubleArrayListPool}.
+     */
+    private ColumnArrayPool<L> leftArrays;
+
+    private ColumnArrayPool<R> rightArrays;
+
     public DoubleArrayList() {
         this(DEFAULT_CAPACITY);
     }
 
     public DoubleArrayList(int initialCapacity) {
-        initialize(0, nearestPowerOf2(initialCapacity));
+        this(initialCapacity, GrowthPolicies.powerOfTwo());
+    }
+
+    /**
+     * @param policy decides capacities when the list grows and shrinks, see {@link GrowthPolicies}
+     */
+    public DoubleArrayList(int initialCapacity, GrowthPolicy policy) {
+        if (initialCapacity < 0) throw new IllegalArgumentException("Illegal capacity: " + initialCapacity);
+        if (policy == null) throw new NullPointerException();
+        this.policy = policy;
+        initialize(0, policy.grow(0, initialCapacity));
+    }
+
+    /**
+     * List of a {@link DoubleArrayListPool} with columns taken from the pools.
+     */
+    DoubleArrayList(int initialCapacity, ColumnArrayPool<L> leftArrays, ColumnArrayPool<R> rightArrays) {
+        this.leftArrays = leftArrays;
+        this.rightArrays = rightArrays;
+        initialize(0, policy.grow(0, initialCapacity));
     }
 
     public DoubleArrayList(L[] leftInit, R[] rightInit) {
         checkParameters(leftInit, rightInit);
-        initialize(leftInit.length, nearestPowerOf2(size));
+        initialize(leftInit.length, policy.grow(0, leftInit.length));
         System.arraycopy(leftInit, 0, this.left, 0, size);
         System.arraycopy(rightInit, 0, this.right, 0, size);
     }
@@ -55,6 +112,7 @@ public class DoubleArrayList<L, R> implements DoubleList<L, R> {
         extendBy(leftAdd.length);
         System.arraycopy(leftAdd, 0, this.left, size, leftAdd.length);
         System.arraycopy(rightAdd, 0, this.right, size, rightAdd.length);
+        copied("append", leftAdd.length);
         size += leftAdd.length;
         return true;
     }
@@ -64,17 +122,38 @@ public class DoubleArrayList<L, R> implements DoubleList<L, R> {
         return addAll(collection.getLeft(), collection.getRight());
     }
 
+    /**
+     * Removes all pairs. Columns are kept as by {@link #reset()} when the growth policy keeps
+     * capacity of an empty list, otherwise they are reallocated with the capacity the policy
+     * gives to the default number of rows.
+     */
     @Override
     public void clear() {
-        initialize(0, DEFAULT_CAPACITY);
+        if (policy.shrink(capacity, 0) >= capacity) {
+            reset();
+            return;
+        }
+        releaseColumns();
+        initialize(0, policy.grow(0, DEFAULT_CAPACITY));
+    }
+
+    /**
+     * Removes all pairs keeping capacity whatever the growth policy is, nothing is allocated
+     * unless columns are shared with a snapshot. Only the used prefix of columns is cleared.
+     */
+    public void reset() {
+        if (shared) {
+            initialize(0, capacity);
+            return;
+        }
+        Arrays.fill(left, 0, size, (L) null);
+        Arrays.fill(right, 0, size, (R) null);
+        size = 0;
     }
 
     @Override
     public boolean contains(L leftElement, R rightElement) {
-        for (int i = 0; i < size; i++)
-            if (left[i]  == leftElement && right[i] == rightElement)
-                return true;
-        return false;
+        return indexOf(leftElement, rightElement) >= 0;
     }
 
     @Override
@@ -101,10 +180,14 @@ public class DoubleArrayList<L, R> implements DoubleList<L, R> {
 
     @Override
     public int indexOf(L leftElement, R rightElement) {
-        for (int i = 0; i < size; i++)
-            if (left[i] == leftElement && right[i] == rightElement)
-                return i;
-        return -1;
+        return indexOf(0, size, leftElement, rightElement);
+    }
+
+    /**
+     * @return number of pairs equal to the given one
+     */
+    public int count(L leftElement, R rightElement) {
+        return count(0, size, leftElement, rightElement);
     }
 
     @Override
@@ -122,9 +205,15 @@ public class DoubleArrayList<L, R> implements DoubleList<L, R> {
         return left[index];
     }
 
+    /**
+     * @return copy of the left column
+     */
     @Override
     public L[] getLeft() {
-        return left;
+        L[] result = initLeft(size);
+        System.arraycopy(left, 0, result, 0, size);
+        if (counters != null) counters.copied("copy", (long) size * Encodings.valueBytes((L) null));
+        return result;
     }
 
     @Override
@@ -132,107 +221,406 @@ public class DoubleArrayList<L, R> implements DoubleList<L, R> {
         return right[index];
     }
 
+    /**
+     * @return copy of the right column
+     */
     @Override
     public R[] getRight() {
-        return right;
+        R[] result = initRight(size);
+        System.arraycopy(right, 0, result, 0, size);
+        if (counters != null) counters.copied("copy", (long) size * Encodings.valueBytes((R) null));
+        return result;
     }
 
     @Override
     public boolean remove(int index) {
         if (index < 0) throw new IllegalArgumentException();
         if (index >= size) return false;
-        for (int i = index + 1; i < size; i++) {
-            left[i]     = left[i - 1];
-            right[i]    = right[i - 1];
-        }
+        unshare();
+        System.arraycopy(left, index + 1, left, index, size - index - 1);
+        System.arraycopy(right, index + 1, right, index, size - index - 1);
+        copied("shift", size - index - 1);
         size--;
+        left[size]  = (L) null;
+        right[size] = (R) null;
         return true;
     }
 
     @Override
-    public boolean remove(L leftElement, R rightElement) {
-        boolean removed = false;
-        int index;
-        while ((index = indexOf(leftElement, rightElement)) >= 0)
-            removed |= remove(index);
-        shrink();
-        return removed;
+    public boolean remove(final L leftElement, final R rightElement) {
+        return removeIf(new DoubleProcedure<L, R>() {
+            @Override
+            public boolean execute(L left, R right) {
+                return isSame(left, leftElement, right, rightElement);
+            }
+        });
     }
 
     @Override
     public boolean removeAll(L[] left, R[] right) {
-        checkParameters(left, right);
-        boolean totallyRemoved = true;
-        for (int i = 0; i < left.length; i++)
-            if (!remove(left[i], right[i]))
-                totallyRemoved = false;
-        return totallyRemoved;
+        return removeIf(new ProbeProcedure(new DoubleHashSet<L, R>(left, right), true));
     }
 
     @Override
     public boolean removeAll(DoubleCollection<L, R> collection) {
-        return removeAll(collection.getLeft(), collection.getRight());
+        return removeIf(new ProbeProcedure(probe(collection), true));
     }
 
     @Override
     public boolean retainAll(L[] leftToRetain, R[] rightToRetain) {
-        checkParameters(leftToRetain, rightToRetain);
-        DoubleIterator<L, R> it = iterator();
-        boolean modified = false;
-        while (it.hasNext()) {
-            for (int i = 0; i < leftToRetain.length; i++)
-                if (isSame(it.nextLeft(), leftToRetain[i], it.nextRight(), rightToRetain[i])) {
-                    it.remove();
-                    modified = true;
-                }
-            it.iterate();
-        }
-        return modified;
+        return removeIf(new ProbeProcedure(new DoubleHashSet<L, R>(leftToRetain, rightToRetain), false));
     }
 
     @Override
     public boolean retainAll(DoubleCollection<L, R> collection) {
-        DoubleIterator<L, R> it = iterator();
-        boolean modified = false;
-        while (it.hasNext()) {
-            if (!collection.contains(it.nextLeft(), it.nextRight())) {
-                it.remove();
-                modified = true;
-            }
-            it.iterate();
-        }
-        return modified;
+        return removeIf(new ProbeProcedure(probe(collection), false));
+    }
+
+    /**
+     * Removes all pairs for which the filter returns {@code true} in a single compaction pass,
+     * capacity is adjusted once at the end.
+     */
+    @Override
+    public boolean removeIf(DoubleProcedure<L, R> filter) {
+        return removeIf(0, size, filter) > 0;
     }
 
     @Override
     public void transformValues(DoubleFunction<L, R> function) {
+        unshare();
         for (int i = 0; i < size; i++) {
             left[i]     = function.executeLeft(left[i]);
             right[i]    = function.executeRight(right[i]);
         }
     }
 
+    /**
+     * Same as {@link #forEach(DoubleProcedure)} with index ranges split over the common pool.
+     * Procedure must be thread safe, see {@link ParallelRanges} for short-circuit semantics.
+     */
+    public boolean parallelForEach(DoubleProcedure<L, R> procedure) {
+        return parallelForEach(procedure, ForkJoinPool.commonPool(), ParallelRanges.DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * @param threshold maximum number of pairs processed by one task
+     */
+    public boolean parallelForEach(final DoubleProcedure<L, R> procedure, ForkJoinPool pool, int threshold) {
+        return ParallelRanges.execute(size, new RangeProcedure() {
+            @Override
+            public int execute(int begin, int end) {
+                for (int i = begin; i < end; i++)
+                    if (!procedure.execute(left[i], right[i]))
+                        return i;
+                return -1;
+            }
+        }, pool, threshold) < 0;
+    }
+
+    /**
+     * Same as {@link #transformValues(DoubleFunction)} with index ranges split over the common pool.
+     * Function must be thread safe.
+     */
+    public void parallelTransformValues(DoubleFunction<L, R> function) {
+        parallelTransformValues(function, ForkJoinPool.commonPool(), ParallelRanges.DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * @param threshold maximum number of pairs processed by one task
+     */
+    public void parallelTransformValues(final DoubleFunction<L, R> function, ForkJoinPool pool, int threshold) {
+        unshare();
+        ParallelRanges.execute(size, new RangeProcedure() {
+            @Override
+            public int execute(int begin, int end) {
+                for (int i = begin; i < end; i++) {
+                    left[i]     = function.executeLeft(left[i]);
+                    right[i]    = function.executeRight(right[i]);
+                }
+                return -1;
+            }
+        }, pool, threshold);
+    }
+
+    /**
+     * Sorts pairs in natural order of left, then right values, see {@link DoubleSorter}.
+     */
+    public void sort() {
+        unshare();
+        new DoubleSorter<L, R>().sort(left, right, size);
+    }
+
+    /**
+     * Sorts pairs by left, then by right values, null comparator stands for natural order.
+     */
+    public void sort(ColumnComparator<L> leftComparator, ColumnComparator<R> rightComparator) {
+        unshare();
+        new DoubleSorter<L, R>(leftComparator, rightComparator).sort(left, right, size);
+    }
+
+    /**
+     * @return selection of pairs for which the filter returns {@code true}, the list is not changed
+     */
+    public Selection filter(DoubleProcedure<L, R> filter) {
+        long[] words = new long[wordsFor(size)];
+        for (int i = 0; i < size; i++)
+            if (filter.execute(left[i], right[i]))
+                words[i >>> 6] |= 1L << i;
+        return new Selection(words, size);
+    }
+
+    /**
+     * @return selection of pairs equal to the given one, block masks of {@link ColumnScans} are
+     * stored as selection words
+     */
+    public Selection select(L leftElement, R rightElement) {
+        long[] words = new long[wordsFor(size)];
+        for (int from = 0, to; from < size; from = to) {
+            to = from + Math.min(ColumnScans.BLOCK, size - from);
+            long mask = ColumnScans.match(left, from, to, leftElement);
+            if (mask != 0) mask &= ColumnScans.match(right, from, to, rightElement);
+            words[from >>> 6] = mask;
+        }
+        return new Selection(words, size);
+    }
+
+    /**
+     * @return lazy view of this list with left values mapped by the function on access,
+     * see {@link DoubleLazyList}
+     */
+    public DoubleLazyList<L, R> mapLeft(ColumnFunction<L> function) {
+        return new DoubleLazyList<L, R>(this).mapLeft(function);
+    }
+
+    /**
+     * @return lazy view of this list with right values mapped by the function on access,
+     * see {@link DoubleLazyList}
+     */
+    public DoubleLazyList<L, R> mapRight(ColumnFunction<R> function) {
+        return new DoubleLazyList<L, R>(this).mapRight(function);
+    }
+
+    /**
+     * @return lazy view of this list with values mapped by the function on access, unlike
+     * {@link #transformValues} nothing is computed until values are read
+     */
+    public DoubleLazyList<L, R> map(DoubleFunction<L, R> function) {
+        return new DoubleLazyList<L, R>(this).map(function);
+    }
+
+    /**
+     * Returns immutable list of the current pairs sharing columns with this list, so taking
+     * a snapshot copies nothing. Columns are copied once on the first change of existing pairs
+     * after the snapshot, appends which fit into capacity copy nothing.
+     */
+    public DoubleSnapshotList<L, R> snapshot() {
+        shared = true;
+        L[][] leftChunks  = (L[][]) new Object[1][];
+        R[][] rightChunks = (R[][]) new Object[1][];
+        leftChunks[0]  = left;
+        rightChunks[0] = right;
+        return new DoubleSnapshotList<L, R>(leftChunks, rightChunks, 31, size);
+    }
+
+    /**
+     * Starts counting resizes, copies and scans of this list, see {@link ListCounters}.
+     */
+    public void enableStats() {
+        if (counters == null) counters = newCounters();
+    }
+
+    public void disableStats() {
+        counters = null;
+    }
+
+    /**
+     * @return counters of the list since statistics were enabled, zeros when they are disabled
+     */
+    public ListStatistics stats() {
+        return (counters != null ? counters : newCounters()).snapshot(size, capacity);
+    }
+
+    public DoubleSpliterator<L, R> spliterator() {
+        return new DoubleSpliterator<L, R>(this);
+    }
+
+    /**
+     * @return lazy stream of the pairs, sequential unless {@link DoubleTupleStream#parallel()} is called
+     */
+    public DoubleTupleStream<L, R> stream() {
+        return new DoubleTupleStream<L, R>(this);
+    }
+
     @Override
     public int size() {
         return size;
     }
 
+    /**
+     * @return number of rows the columns hold without reallocation
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Grows columns by the growth policy, so that minCapacity rows fit without reallocation.
+     */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > capacity)
+            copyColumns(policy.grow(capacity, minCapacity));
+    }
+
+    /**
+     * Reallocates columns to hold exactly size rows.
+     */
+    public void trimToSize() {
+        if (size < capacity)
+            copyColumns(size);
+    }
+
+    /**
+     * @return view of the range over columns of this list, changes made through the view are
+     * visible in this list and vice versa. Structural changes of this list made not through
+     * the view leave the view undefined, {@link SubList#copy()} detaches the range.
+     */
     @Override
-    public DoubleArrayList<L, R> subList(int begin, int end) {
+    public SubList subList(int begin, int end) {
+        if (begin < 0 || end > size || begin > end) throw new IndexOutOfBoundsException();
+        return new SubList(null, begin, end - begin);
+    }
+
+    /**
+     * @return detached copy of the list with capacity fitted to its size
+     */
+    public DoubleArrayList<L, R> copy() {
+        return copyOf(0, size);
+    }
+
+    /**
+     * Copies pairs from begin (inclusive) to end (exclusive) to the arrays starting at offset.
+     */
+    public void copyRange(int begin, int end, L[] leftTarget, R[] rightTarget, int offset) {
+        if (begin < 0 || end > size || begin > end) throw new IndexOutOfBoundsException();
+        System.arraycopy(left, begin, leftTarget, offset, end - begin);
+        System.arraycopy(right, begin, rightTarget, offset, end - begin);
+        copied("copy", end - begin);
+    }
+
+    /**
+     * @return cursor reading pairs from the first one, pairs added meanwhile are read as well
+     */
+    public DoubleCursor<L, R> cursor() {
+        return new Cursor(null);
+    }
+
+    private DoubleArrayList<L, R> copyOf(int begin, int end) {
         int subSize = end - begin;
-        int subCapacity = nearestPowerOf2(end - begin);
-        L[] subLeft   = initLeft(capacity);
-        R[] subRight  = initRight(capacity);
+        int subCapacity = policy.grow(0, subSize);
+        L[] subLeft   = initLeft(subCapacity);
+        R[] subRight  = initRight(subCapacity);
         System.arraycopy(left, begin, subLeft, 0, subSize);
         System.arraycopy(right, begin, subRight, 0, subSize);
+        copied("copy", subSize);
         return initialize(subLeft, subRight, subCapacity, subSize);
     }
 
+    /**
+     * Compares blocks of {@link ColumnScans#BLOCK} rows into bit masks, right values are compared only in
+     * blocks with matching left values.
+     */
+    private int indexOf(int begin, int end, L leftElement, R rightElement) {
+        long started = counters != null ? System.nanoTime() : 0;
+        int index = -1;
+        for (int from = begin, to; index < 0 && from < end; from = to) {
+            to = from + Math.min(ColumnScans.BLOCK, end - from);
+            long mask = ColumnScans.match(left, from, to, leftElement);
+            if (mask != 0) mask &= ColumnScans.match(right, from, to, rightElement);
+            if (mask != 0) index = from + Long.numberOfTrailingZeros(mask);
+        }
+        if (counters != null) counters.scanned(end - begin, index < 0 ? end - begin : index - begin + 1, index >= 0, started);
+        return index;
+    }
+
+    private int count(int begin, int end, L leftElement, R rightElement) {
+        long started = counters != null ? System.nanoTime() : 0;
+        int count = 0;
+        for (int from = begin, to; from < end; from = to) {
+            to = from + Math.min(ColumnScans.BLOCK, end - from);
+            long mask = ColumnScans.match(left, from, to, leftElement);
+            if (mask != 0) mask &= ColumnScans.match(right, from, to, rightElement);
+            count += Long.bitCount(mask);
+        }
+        if (counters != null) counters.scanned(end - begin, end - begin, count > 0, started);
+        return count;
+    }
+
+    /**
+     * Inserts count pairs from the arrays at the index shifting following pairs.
+     */
+    private boolean insertAll(int index, L[] leftAdd, R[] rightAdd, int count) {
+        if (size >= Integer.MAX_VALUE - count) return false;
+        extendBy(count);
+        unshare();
+        System.arraycopy(left, index, left, index + count, size - index);
+        System.arraycopy(right, index, right, index + count, size - index);
+        System.arraycopy(leftAdd, 0, left, index, count);
+        System.arraycopy(rightAdd, 0, right, index, count);
+        copied("shift", size - index);
+        copied("insert", count);
+        size += count;
+        return true;
+    }
+
+    /**
+     * Compacts pairs of the range which do not match the filter, following pairs are shifted once.
+     *
+     * @return number of removed pairs
+     */
+    private int removeIf(int begin, int end, DoubleProcedure<L, R> filter) {
+        int retained = begin;
+        while (retained < end && !filter.execute(left[retained], right[retained]))
+            retained++;
+        if (retained == end) return 0;
+        unshare();
+        for (int i = retained + 1; i < end; i++) {
+            if (filter.execute(left[i], right[i]))
+                continue;
+            left[retained]  = left[i];
+            right[retained] = right[i];
+            retained++;
+        }
+        int removed = end - retained;
+        removeRange(retained, end);
+        return removed;
+    }
+
+    private void removeRange(int begin, int end) {
+        if (begin == end) return;
+        unshare();
+        System.arraycopy(left, end, left, begin, size - end);
+        System.arraycopy(right, end, right, begin, size - end);
+        copied("shift", size - end);
+        for (int i = size - (end - begin); i < size; i++) {
+            left[i]  = (L) null;
+            right[i] = (R) null;
+        }
+        size -= end - begin;
+        shrink();
+    }
+
+    private DoubleHashSet<L, R> probe(DoubleCollection<L, R> collection) {
+        if (collection instanceof DoubleHashSet)
+            return (DoubleHashSet<L, R>) collection;
+        return new DoubleHashSet<L, R>(collection);
+    }
+
     private void initialize(int initialSize, int initialCapacity) {
         size = initialSize;
-        capacity = initialCapacity;
-        left    = initLeft(capacity);
-        right   = initRight(capacity);
+        left    = leftColumn(initialCapacity);
+        right   = rightColumn(initialCapacity);
+        capacity = left.length;
+        shared  = false;
     }
 
     private DoubleArrayList<L, R> initialize(L[] left, R[] right, int capacity, int size) {
@@ -240,6 +628,7 @@ public class DoubleArrayList<L, R> implements DoubleList<L, R> {
         DoubleArrayList<L, R> list = new DoubleArrayList<L, R>();
         list.size = size;
         list.capacity = capacity;
+        list.policy = policy;
         list.left = left;
         list.right = right;
         return list;
@@ -247,26 +636,65 @@ public class DoubleArrayList<L, R> implements DoubleList<L, R> {
 
     private void extendBy(int offset) {
         if (size + offset > capacity)
-            resize(size + offset);
+            copyColumns(policy.grow(capacity, size + offset));
     }
 
     private void shrink() {
-        if (size < capacity >> 2)
-            resize(capacity >> 1);
+        int newCapacity = policy.shrink(capacity, size);
+        if (newCapacity < capacity)
+            copyColumns(newCapacity);
     }
 
-    private void resize(int newCapacity) {
-        newCapacity = nearestPowerOf2(newCapacity);
-        L[] newLeft   = initLeft(newCapacity);
-        R[] newRight  = initRight(newCapacity);
+    /**
+     * Copies columns once after a snapshot, so the snapshot keeps the old ones.
+     */
+    private void unshare() {
+        if (shared) copyColumns(capacity);
+    }
+
+    private void copyColumns(int newCapacity) {
+        L[] newLeft   = leftColumn(newCapacity);
+        R[] newRight  = rightColumn(newCapacity);
         System.arraycopy(left, 0, newLeft, 0, size);
         System.arraycopy(right, 0, newRight, 0, size);
+        if (counters != null) {
+            if (newLeft.length != capacity) counters.resized(capacity, newLeft.length, size);
+            else copied("unshare", size);
+        }
+        releaseColumns();
         left    = newLeft;
         right   = newRight;
+        capacity = newLeft.length;
+        shared  = false;
     }
 
-    private int nearestPowerOf2(int capacity) {
-        return Math.max(DEFAULT_CAPACITY, 1 << ((int) (StrictMath.log10(capacity) / LOG_RATIO) + 1));
+    /**
+     * Returns columns about to be replaced to the pools, columns of a snapshot are kept.
+     */
+    private void releaseColumns() {
+        if (leftArrays == null || shared) return;
+        leftArrays.release(left, size);
+        rightArrays.release(right, size);
+    }
+
+    private ListCounters newCounters() {
+        return new ListCounters(getClass().getName(), Encodings.valueBytes((L) null) + Encodings.valueBytes((R) null));
+    }
+
+    private void copied(String operation, int rows) {
+        if (counters != null && rows > 0) counters.copied(operation, (long) rows * counters.rowBytes());
+    }
+
+    private static int wordsFor(int rows) {
+        return (rows + 63) >>> 6;
+    }
+
+    private L[] leftColumn(int capacity) {
+        return leftArrays == null ? initLeft(capacity) : leftArrays.borrow(capacity);
+    }
+
+    private R[] rightColumn(int capacity) {
+        return rightArrays == null ? initRight(capacity) : rightArrays.borrow(capacity);
     }
 
     private L[] initLeft(int capacity) {
@@ -278,7 +706,7 @@ public class DoubleArrayList<L, R> implements DoubleList<L, R> {
     }
 
     private boolean isSame(L l1, L l2, R r1, R r2) {
-        return l1.equals(l2) && r1.equals(r2);
+        return Tuples.equal(l1, l2) && Tuples.equal(r1, r2);
     }
 
     private void checkParameters(L[] left, R[] right) {
@@ -286,6 +714,453 @@ public class DoubleArrayList<L, R> implements DoubleList<L, R> {
         if (left.length != right.length) throw new IllegalArgumentException();
     }
 
+    private class ProbeProcedure implements DoubleProcedure<L, R> {
+
+        private final DoubleHashSet<L, R> probe;
+
+        private final boolean removeContained;
+
+        private ProbeProcedure(DoubleHashSet<L, R> probe, boolean removeContained) {
+            this.probe = probe;
+            this.removeContained = removeContained;
+        }
+
+        @Override
+        public boolean execute(L left, R right) {
+            return probe.contains(left, right) == removeContained;
+        }
+    }
+
+    /**
+     * Range of the list addressed by offset and length, reads and writes go to the list columns.
+     */
+    public class SubList implements DoubleList<L, R> {
+
+        private final SubList parent;
+
+        private final int offset;
+
+        private int length;
+
+        private SubList(SubList parent, int offset, int length) {
+            this.parent = parent;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public boolean add(L leftElement, R rightElement) {
+            L[] leftAdd = initLeft(1);
+            R[] rightAdd = initRight(1);
+            leftAdd[0] = leftElement;
+            rightAdd[0] = rightElement;
+            return addAll(leftAdd, rightAdd);
+        }
+
+        @Override
+        public boolean addAll(L[] leftAdd, R[] rightAdd) {
+            checkParameters(leftAdd, rightAdd);
+            if (!insertAll(offset + length, leftAdd, rightAdd, leftAdd.length)) return false;
+            resized(leftAdd.length);
+            return true;
+        }
+
+        @Override
+        public boolean addAll(DoubleCollection<L, R> collection) {
+            return addAll(collection.getLeft(), collection.getRight());
+        }
+
+        @Override
+        public void clear() {
+            removeRange(offset, offset + length);
+            resized(-length);
+        }
+
+        @Override
+        public boolean contains(L leftElement, R rightElement) {
+            return indexOf(leftElement, rightElement) >= 0;
+        }
+
+        @Override
+        public boolean containsAll(L[] leftElements, R[] rightElements) {
+            checkParameters(leftElements, rightElements);
+            for (int i = 0; i < leftElements.length; i++)
+                if (!contains(leftElements[i], rightElements[i]))
+                    return false;
+            return true;
+        }
+
+        @Override
+        public boolean containsAll(DoubleCollection<L, R> collection) {
+            return collection.forEach(new DoubleProcedure<L, R>() {
+                @Override
+                public boolean execute(L leftElement, R rightElement) {
+                    return contains(leftElement, rightElement);
+                }
+            });
+        }
+
+        @Override
+        public boolean forEach(DoubleProcedure<L, R> procedure) {
+            for (int i = offset; i < offset + length; i++)
+                if (!procedure.execute(left[i], right[i]))
+                    return false;
+            return true;
+        }
+
+        @Override
+        public int indexOf(L leftElement, R rightElement) {
+            int index = DoubleArrayList.this.indexOf(offset, offset + length, leftElement, rightElement);
+            return index < 0 ? -1 : index - offset;
+        }
+
+        public int count(L leftElement, R rightElement) {
+            return DoubleArrayList.this.count(offset, offset + length, leftElement, rightElement);
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return length == 0;
+        }
+
+        @Override
+        public DoubleIterator<L, R> iterator() {
+            return new RangeIterator();
+        }
+
+        @Override
+        public L getLeft(int index) {
+            checkIndex(index);
+            return left[offset + index];
+        }
+
+        /**
+         * @return copy of the left column range
+         */
+        @Override
+        public L[] getLeft() {
+            L[] result = initLeft(length);
+            System.arraycopy(left, offset, result, 0, length);
+            return result;
+        }
+
+        @Override
+        public R getRight(int index) {
+            checkIndex(index);
+            return right[offset + index];
+        }
+
+        /**
+         * @return copy of the right column range
+         */
+        @Override
+        public R[] getRight() {
+            R[] result = initRight(length);
+            System.arraycopy(right, offset, result, 0, length);
+            return result;
+        }
+
+        @Override
+        public boolean remove(int index) {
+            if (index < 0) throw new IllegalArgumentException();
+            if (index >= length) return false;
+            DoubleArrayList.this.remove(offset + index);
+            resized(-1);
+            return true;
+        }
+
+        @Override
+        public boolean remove(final L leftElement, final R rightElement) {
+            return removeIf(new DoubleProcedure<L, R>() {
+                @Override
+                public boolean execute(L left, R right) {
+                    return isSame(left, leftElement, right, rightElement);
+                }
+            });
+        }
+
+        @Override
+        public boolean removeAll(L[] leftElements, R[] rightElements) {
+            return removeIf(new ProbeProcedure(new DoubleHashSet<L, R>(leftElements, rightElements), true));
+        }
+
+        @Override
+        public boolean removeAll(DoubleCollection<L, R> collection) {
+            return removeIf(new ProbeProcedure(probe(collection), true));
+        }
+
+        @Override
+        public boolean retainAll(L[] leftToRetain, R[] rightToRetain) {
+            return removeIf(new ProbeProcedure(new DoubleHashSet<L, R>(leftToRetain, rightToRetain), false));
+        }
+
+        @Override
+        public boolean retainAll(DoubleCollection<L, R> collection) {
+            return removeIf(new ProbeProcedure(probe(collection), false));
+        }
+
+        @Override
+        public boolean removeIf(DoubleProcedure<L, R> filter) {
+            int removed = DoubleArrayList.this.removeIf(offset, offset + length, filter);
+            resized(-removed);
+            return removed > 0;
+        }
+
+        @Override
+        public void transformValues(DoubleFunction<L, R> function) {
+            unshare();
+            for (int i = offset; i < offset + length; i++) {
+                left[i]     = function.executeLeft(left[i]);
+                right[i]    = function.executeRight(right[i]);
+            }
+        }
+
+        @Override
+        public int size() {
+            return length;
+        }
+
+        /**
+         * @return view of the range within this view
+         */
+        @Override
+        public SubList subList(int begin, int end) {
+            if (begin < 0 || end > length || begin > end) throw new IndexOutOfBoundsException();
+            return new SubList(this, offset + begin, end - begin);
+        }
+
+        /**
+         * @return detached copy of the range
+         */
+        public DoubleArrayList<L, R> copy() {
+            return copyOf(offset, offset + length);
+        }
+
+        /**
+         * Copies pairs of the view from begin (inclusive) to end (exclusive) to the arrays starting at offset.
+         */
+        public void copyRange(int begin, int end, L[] leftTarget, R[] rightTarget, int offset) {
+            if (begin < 0 || end > length || begin > end) throw new IndexOutOfBoundsException();
+            DoubleArrayList.this.copyRange(this.offset + begin, this.offset + end, leftTarget, rightTarget, offset);
+        }
+
+        /**
+         * @return cursor reading pairs of the view from the first one
+         */
+        public DoubleCursor<L, R> cursor() {
+            return new Cursor(this);
+        }
+
+        private void resized(int delta) {
+            for (SubList list = this; list != null; list = list.parent)
+                list.length += delta;
+        }
+
+        private void checkIndex(int index) {
+            if (index < 0 || index >= length) throw new IndexOutOfBoundsException("Index: " + index + ", size: " + length);
+        }
+
+        private class RangeIterator implements DoubleIterator<L, R> {
+
+            private int current;
+
+            @Override
+            public boolean hasNext() {
+                return current < length;
+            }
+
+            @Override
+            public void iterate() {
+                current++;
+            }
+
+            @Override
+            public boolean remove() {
+                if (!SubList.this.remove(current)) return false;
+                current--;
+                return true;
+            }
+
+            @Override
+            public L nextLeft() {
+                return left[offset + current];
+            }
+
+            @Override
+            public R nextRight() {
+                return right[offset + current];
+            }
+        }
+    }
+
+    /**
+     * Rows of the list chosen by {@link #filter} or {@link #select}, one bit per row. Selections
+     * of the same list are combined with {@link #and}, {@link #or} and {@link #not} without reading
+     * the columns, {@link #forEach} and {@link #materialize()} read only selected pairs.
+     * Selections are immutable, structural changes of the list leave them undefined.
+     */
+    public class Selection {
+
+        private final long[] words;
+
+        private final int length;
+
+        private Selection(long[] words, int length) {
+            this.words = words;
+            this.length = length;
+        }
+
+        /**
+         * @return rows selected by both selections
+         */
+        public Selection and(Selection other) {
+            checkSelection(other);
+            long[] result = new long[words.length];
+            for (int i = 0; i < words.length; i++)
+                result[i] = words[i] & other.words[i];
+            return new Selection(result, length);
+        }
+
+        /**
+         * @return rows selected by any of selections
+         */
+        public Selection or(Selection other) {
+            checkSelection(other);
+            long[] result = new long[words.length];
+            for (int i = 0; i < words.length; i++)
+                result[i] = words[i] | other.words[i];
+            return new Selection(result, length);
+        }
+
+        /**
+         * @return rows not selected by this selection
+         */
+        public Selection not() {
+            long[] result = new long[words.length];
+            for (int i = 0; i < words.length; i++)
+                result[i] = ~words[i];
+            if ((length & 63) != 0) result[result.length - 1] &= (1L << length) - 1;
+            return new Selection(result, length);
+        }
+
+        /**
+         * @return selected rows for which the filter returns {@code true}, other rows are not read
+         */
+        public Selection filter(DoubleProcedure<L, R> filter) {
+            long[] result = new long[words.length];
+            for (int word = 0; word < words.length; word++)
+                for (long bits = words[word]; bits != 0; bits &= bits - 1) {
+                    int row = word << 6 | Long.numberOfTrailingZeros(bits);
+                    if (filter.execute(left[row], right[row]))
+                        result[word] |= bits & -bits;
+                }
+            return new Selection(result, length);
+        }
+
+        public boolean isSelected(int index) {
+            if (index < 0 || index >= length) throw new IndexOutOfBoundsException("Index: " + index + ", size: " + length);
+            return (words[index >>> 6] & 1L << index) != 0;
+        }
+
+        public boolean isEmpty() {
+            for (long word : words)
+                if (word != 0)
+                    return false;
+            return true;
+        }
+
+        /**
+         * @return number of selected rows
+         */
+        public int size() {
+            int count = 0;
+            for (long word : words)
+                count += Long.bitCount(word);
+            return count;
+        }
+
+        /**
+         * @return indexes of selected rows in ascending order
+         */
+        public int[] rows() {
+            int[] rows = new int[size()];
+            int count = 0;
+            for (int word = 0; word < words.length; word++)
+                for (long bits = words[word]; bits != 0; bits &= bits - 1)
+                    rows[count++] = word << 6 | Long.numberOfTrailingZeros(bits);
+            return rows;
+        }
+
+        public boolean forEach(DoubleProcedure<L, R> procedure) {
+            for (int word = 0; word < words.length; word++)
+                for (long bits = words[word]; bits != 0; bits &= bits - 1) {
+                    int row = word << 6 | Long.numberOfTrailingZeros(bits);
+                    if (!procedure.execute(left[row], right[row]))
+                        return false;
+                }
+            return true;
+        }
+
+        /**
+         * @return new list of selected pairs in list order
+         */
+        public DoubleArrayList<L, R> materialize() {
+            int count = size();
+            int resultCapacity = policy.grow(0, count);
+            L[] resultLeft = initLeft(resultCapacity);
+            R[] resultRight = initRight(resultCapacity);
+            int current = 0;
+            for (int word = 0; word < words.length; word++)
+                for (long bits = words[word]; bits != 0; bits &= bits - 1) {
+                    int row = word << 6 | Long.numberOfTrailingZeros(bits);
+                    resultLeft[current] = left[row];
+                    resultRight[current++] = right[row];
+                }
+            return initialize(resultLeft, resultRight, resultCapacity, count);
+        }
+
+        private DoubleArrayList<L, R> list() {
+            return DoubleArrayList.this;
+        }
+
+        private void checkSelection(Selection other) {
+            if (other.list() != DoubleArrayList.this || other.length != length) throw new IllegalArgumentException();
+        }
+    }
+
+    private class Cursor implements DoubleCursor<L, R> {
+
+        private final SubList range;
+
+        private int current;
+
+        private Cursor(SubList range) {
+            this.range = range;
+            current = range == null ? 0 : range.offset;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return current < end();
+        }
+
+        @Override
+        public int readBatch(L[] leftBuffer, R[] rightBuffer, int max) {
+            if (max < 0) throw new IllegalArgumentException();
+            int count = Math.min(max, end() - current);
+            if (count <= 0) return 0;
+            System.arraycopy(left, current, leftBuffer, 0, count);
+            System.arraycopy(right, current, rightBuffer, 0, count);
+            copied("copy", count);
+            current += count;
+            return count;
+        }
+
+        private int end() {
+            return range == null ? size : range.offset + range.length;
+        }
+    }
+
     private class Iterator implements DoubleIterator<L, R> {
 
         private int current;
@@ -306,7 +1181,9 @@ public class DoubleArrayList<L, R> implements DoubleList<L, R> {
 
         @Override
         public boolean remove() {
-            return DoubleArrayList.this.remove(current);
+            if (!DoubleArrayList.this.remove(current)) return false;
+            current--;
+            return true;
         }
 
         @Override
@@ -0,0 +1,505 @@
+package com.alexlopashev.tuples.templates.list;
+
+import com.alexlopashev.tuples.templates.DoubleCollection;
+import com.alexlopashev.tuples.templates.Tuples;
+import com.alexlopashev.tuples.templates.function.DoubleFunction;
+import com.alexlopashev.tuples.templates.iterator.DoubleCursor;
+import com.alexlopashev.tuples.templates.iterator.DoubleIterator;
+import com.alexlopashev.tuples.templates.procedure.DoubleProcedure;
+import com.alexlopashev.tuples.templates.set.DoubleHashSet;
+
+/**
+ * Pair list with columns split into fixed-size chunks referenced from a directory. Growing
+ * allocates one more chunk and never copies pairs, only the small directory is reallocated,
+ * so large lists produce no huge allocations. Chunks which are no longer needed after
+ * removals are released, one spare chunk is kept to avoid allocation on the next append.
+ */
+public class DoubleChunkedList<L, R> implements DoubleList<L, R> {
+
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 12;
+
+    private static final int DEFAULT_DIRECTORY_CAPACITY = 8;
+
+    private final int chunkShift;
+
+    private final int chunkMask;
+
+    private L[][] left;
+
+    private R[][] right;
+
+    private int chunks;
+
+    /**
+     * Chunks referenced by a snapshot, such chunk is copied before its pairs below size change.
+     */
+    private boolean[] shared;
+
+    private int size;
+
+    public DoubleChunkedList() {
+        this(DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param chunkSize number of pairs in a chunk, power of two
+     */
+    public DoubleChunkedList(int chunkSize) {
+        if (chunkSize <= 0 || Integer.bitCount(chunkSize) != 1) throw new IllegalArgumentException("Chunk size: " + chunkSize);
+        chunkShift = Integer.numberOfTrailingZeros(chunkSize);
+        chunkMask = chunkSize - 1;
+        left = (L[][]) new Object[DEFAULT_DIRECTORY_CAPACITY][];
+        right = (R[][]) new Object[DEFAULT_DIRECTORY_CAPACITY][];
+        shared = new boolean[DEFAULT_DIRECTORY_CAPACITY];
+    }
+
+    public DoubleChunkedList(L[] leftInit, R[] rightInit) {
+        this();
+        addAll(leftInit, rightInit);
+    }
+
+    @Override
+    public boolean add(L leftElement, R rightElement) {
+        if (size == Integer.MAX_VALUE) return false;
+        extendBy(1);
+        left[size >>> chunkShift][size & chunkMask] = leftElement;
+        right[size >>> chunkShift][size & chunkMask] = rightElement;
+        size++;
+        return true;
+    }
+
+    @Override
+    public boolean addAll(L[] leftAdd, R[] rightAdd) {
+        checkParameters(leftAdd, rightAdd);
+        return addAll(leftAdd, rightAdd, leftAdd.length);
+    }
+
+    @Override
+    public boolean addAll(DoubleCollection<L, R> collection) {
+        return addAll(collection.getLeft(), collection.getRight(), collection.size());
+    }
+
+    /**
+     * Drops all pairs and releases all chunks.
+     */
+    @Override
+    public void clear() {
+        size = 0;
+        chunks = 0;
+        left = (L[][]) new Object[DEFAULT_DIRECTORY_CAPACITY][];
+        right = (R[][]) new Object[DEFAULT_DIRECTORY_CAPACITY][];
+        shared = new boolean[DEFAULT_DIRECTORY_CAPACITY];
+    }
+
+    @Override
+    public boolean contains(L leftElement, R rightElement) {
+        return indexOf(leftElement, rightElement) >= 0;
+    }
+
+    @Override
+    public boolean containsAll(L[] leftElements, R[] rightElements) {
+        checkParameters(leftElements, rightElements);
+        for (int i = 0; i < leftElements.length; i++)
+            if (!contains(leftElements[i], rightElements[i]))
+                return false;
+        return true;
+    }
+
+    @Override
+    public boolean containsAll(DoubleCollection<L, R> collection) {
+        return collection.forEach(new DoubleProcedure<L, R>() {
+            @Override
+            public boolean execute(L leftElement, R rightElement) {
+                return contains(leftElement, rightElement);
+            }
+        });
+    }
+
+    @Override
+    public boolean forEach(DoubleProcedure<L, R> procedure) {
+        int used = usedChunks();
+        for (int chunk = 0; chunk < used; chunk++) {
+            L[] leftChunk = left[chunk];
+            R[] rightChunk = right[chunk];
+            int length = Math.min(chunkMask + 1, size - (chunk << chunkShift));
+            for (int i = 0; i < length; i++)
+                if (!procedure.execute(leftChunk[i], rightChunk[i]))
+                    return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int indexOf(L leftElement, R rightElement) {
+        int used = usedChunks();
+        for (int chunk = 0; chunk < used; chunk++) {
+            L[] leftChunk = left[chunk];
+            R[] rightChunk = right[chunk];
+            int length = Math.min(chunkMask + 1, size - (chunk << chunkShift));
+            for (int i = 0; i < length; i++)
+                if (Tuples.equal(leftChunk[i], leftElement) && Tuples.equal(rightChunk[i], rightElement))
+                    return (chunk << chunkShift) + i;
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public DoubleIterator<L, R> iterator() {
+        return new Iterator();
+    }
+
+    @Override
+    public L getLeft(int index) {
+        checkIndex(index);
+        return left[index >>> chunkShift][index & chunkMask];
+    }
+
+    /**
+     * @return copy of the left column
+     */
+    @Override
+    public L[] getLeft() {
+        L[] result = (L[]) new Object[size];
+        int used = usedChunks();
+        for (int chunk = 0; chunk < used; chunk++)
+            System.arraycopy(left[chunk], 0, result, chunk << chunkShift, Math.min(chunkMask + 1, size - (chunk << chunkShift)));
+        return result;
+    }
+
+    @Override
+    public R getRight(int index) {
+        checkIndex(index);
+        return right[index >>> chunkShift][index & chunkMask];
+    }
+
+    /**
+     * @return copy of the right column
+     */
+    @Override
+    public R[] getRight() {
+        R[] result = (R[]) new Object[size];
+        int used = usedChunks();
+        for (int chunk = 0; chunk < used; chunk++)
+            System.arraycopy(right[chunk], 0, result, chunk << chunkShift, Math.min(chunkMask + 1, size - (chunk << chunkShift)));
+        return result;
+    }
+
+    /**
+     * Shifts following pairs chunk by chunk, each chunk with one arraycopy.
+     */
+    @Override
+    public boolean remove(int index) {
+        if (index < 0) throw new IllegalArgumentException();
+        if (index >= size) return false;
+        int last = size - 1;
+        for (int chunk = index >>> chunkShift; chunk <= last >>> chunkShift; chunk++) {
+            int from = chunk == index >>> chunkShift ? index & chunkMask : 0;
+            int to = chunk == last >>> chunkShift ? last & chunkMask : chunkMask;
+            own(chunk);
+            System.arraycopy(left[chunk], from + 1, left[chunk], from, to - from);
+            System.arraycopy(right[chunk], from + 1, right[chunk], from, to - from);
+            if (chunk < last >>> chunkShift) {
+                left[chunk][chunkMask] = left[chunk + 1][0];
+                right[chunk][chunkMask] = right[chunk + 1][0];
+            }
+        }
+        left[last >>> chunkShift][last & chunkMask] = (L) null;
+        right[last >>> chunkShift][last & chunkMask] = (R) null;
+        size--;
+        shrink();
+        return true;
+    }
+
+    @Override
+    public boolean remove(final L leftElement, final R rightElement) {
+        return removeIf(new DoubleProcedure<L, R>() {
+            @Override
+            public boolean execute(L left, R right) {
+                return Tuples.equal(left, leftElement) && Tuples.equal(right, rightElement);
+            }
+        });
+    }
+
+    @Override
+    public boolean removeAll(L[] leftElements, R[] rightElements) {
+        return removeIf(new ProbeProcedure(new DoubleHashSet<L, R>(leftElements, rightElements), true));
+    }
+
+    @Override
+    public boolean removeAll(DoubleCollection<L, R> collection) {
+        return removeIf(new ProbeProcedure(probe(collection), true));
+    }
+
+    @Override
+    public boolean retainAll(L[] leftToRetain, R[] rightToRetain) {
+        return removeIf(new ProbeProcedure(new DoubleHashSet<L, R>(leftToRetain, rightToRetain), false));
+    }
+
+    @Override
+    public boolean retainAll(DoubleCollection<L, R> collection) {
+        return removeIf(new ProbeProcedure(probe(collection), false));
+    }
+
+    /**
+     * Removes pairs in a single compaction pass, then releases emptied chunks.
+     */
+    @Override
+    public boolean removeIf(DoubleProcedure<L, R> filter) {
+        int retained = 0;
+        for (int i = 0; i < size; i++) {
+            L leftElement = left[i >>> chunkShift][i & chunkMask];
+            R rightElement = right[i >>> chunkShift][i & chunkMask];
+            if (filter.execute(leftElement, rightElement))
+                continue;
+            if (retained != i) {
+                own(retained >>> chunkShift);
+                left[retained >>> chunkShift][retained & chunkMask] = leftElement;
+                right[retained >>> chunkShift][retained & chunkMask] = rightElement;
+            }
+            retained++;
+        }
+        if (retained == size) return false;
+        for (int i = retained; i < size; i++) {
+            own(i >>> chunkShift);
+            left[i >>> chunkShift][i & chunkMask] = (L) null;
+            right[i >>> chunkShift][i & chunkMask] = (R) null;
+        }
+        size = retained;
+        shrink();
+        return true;
+    }
+
+    @Override
+    public void transformValues(DoubleFunction<L, R> function) {
+        int used = usedChunks();
+        for (int chunk = 0; chunk < used; chunk++) {
+            own(chunk);
+            L[] leftChunk = left[chunk];
+            R[] rightChunk = right[chunk];
+            int length = Math.min(chunkMask + 1, size - (chunk << chunkShift));
+            for (int i = 0; i < length; i++) {
+                leftChunk[i] = function.executeLeft(leftChunk[i]);
+                rightChunk[i] = function.executeRight(rightChunk[i]);
+            }
+        }
+    }
+
+    /**
+     * Copies pairs from begin (inclusive) to end (exclusive) to the arrays starting at offset,
+     * one arraycopy per chunk.
+     */
+    public void copyRange(int begin, int end, L[] leftTarget, R[] rightTarget, int offset) {
+        if (begin < 0 || end > size || begin > end) throw new IndexOutOfBoundsException();
+        for (int from = begin, to = from + end - begin, count; from < to; from += count, offset += count) {
+            count = Math.min(chunkMask + 1 - (from & chunkMask), to - from);
+            System.arraycopy(left[from >>> chunkShift], from & chunkMask, leftTarget, offset, count);
+            System.arraycopy(right[from >>> chunkShift], from & chunkMask, rightTarget, offset, count);
+        }
+    }
+
+    /**
+     * @return cursor reading pairs from the first one, pairs added meanwhile are read as well
+     */
+    public DoubleCursor<L, R> cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Returns immutable list of the current pairs sharing chunks with this list, only the
+     * directory is copied. A shared chunk is copied on the first change of its existing pairs,
+     * appends copy nothing.
+     */
+    public DoubleSnapshotList<L, R> snapshot() {
+        int used = usedChunks();
+        L[][] leftChunks = (L[][]) new Object[used][];
+        R[][] rightChunks = (R[][]) new Object[used][];
+        System.arraycopy(left, 0, leftChunks, 0, used);
+        System.arraycopy(right, 0, rightChunks, 0, used);
+        for (int chunk = 0; chunk < used; chunk++)
+            shared[chunk] = true;
+        return new DoubleSnapshotList<L, R>(leftChunks, rightChunks, chunkShift, size);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return copy of the range with the same chunk size
+     */
+    @Override
+    public DoubleChunkedList<L, R> subList(int begin, int end) {
+        if (begin < 0 || end > size || begin > end) throw new IndexOutOfBoundsException();
+        DoubleChunkedList<L, R> list = new DoubleChunkedList<L, R>(chunkMask + 1);
+        list.extendBy(end - begin);
+        for (int i = begin; i < end; i++) {
+            list.left[(i - begin) >>> chunkShift][(i - begin) & chunkMask] = left[i >>> chunkShift][i & chunkMask];
+            list.right[(i - begin) >>> chunkShift][(i - begin) & chunkMask] = right[i >>> chunkShift][i & chunkMask];
+        }
+        list.size = end - begin;
+        return list;
+    }
+
+    private boolean addAll(L[] leftAdd, R[] rightAdd, int count) {
+        if (size >= Integer.MAX_VALUE - count) return false;
+        extendBy(count);
+        for (int copied = 0; copied < count; ) {
+            int index = size + copied;
+            int length = Math.min(count - copied, chunkMask + 1 - (index & chunkMask));
+            System.arraycopy(leftAdd, copied, left[index >>> chunkShift], index & chunkMask, length);
+            System.arraycopy(rightAdd, copied, right[index >>> chunkShift], index & chunkMask, length);
+            copied += length;
+        }
+        size += count;
+        return true;
+    }
+
+    /**
+     * Allocates chunks for offset more pairs, the directory grows by doubling.
+     */
+    private void extendBy(int offset) {
+        int needed = chunksFor((long) size + offset);
+        if (needed <= chunks) return;
+        if (needed > left.length) {
+            int capacity = Math.max(needed, left.length << 1);
+            L[][] newLeft = (L[][]) new Object[capacity][];
+            R[][] newRight = (R[][]) new Object[capacity][];
+            System.arraycopy(left, 0, newLeft, 0, chunks);
+            System.arraycopy(right, 0, newRight, 0, chunks);
+            boolean[] newShared = new boolean[capacity];
+            System.arraycopy(shared, 0, newShared, 0, chunks);
+            left = newLeft;
+            right = newRight;
+            shared = newShared;
+        }
+        for (; chunks < needed; chunks++) {
+            left[chunks] = (L[]) new Object[chunkMask + 1];
+            right[chunks] = (R[]) new Object[chunkMask + 1];
+            shared[chunks] = false;
+        }
+    }
+
+    /**
+     * Releases chunks past the one following the last used chunk.
+     */
+    private void shrink() {
+        int keep = usedChunks() + 1;
+        for (; chunks > keep; chunks--) {
+            left[chunks - 1] = null;
+            right[chunks - 1] = null;
+            shared[chunks - 1] = false;
+        }
+    }
+
+    /**
+     * Replaces a chunk shared with snapshots by its copy.
+     */
+    private void own(int chunk) {
+        if (!shared[chunk]) return;
+        L[] leftChunk = (L[]) new Object[chunkMask + 1];
+        R[] rightChunk = (R[]) new Object[chunkMask + 1];
+        System.arraycopy(left[chunk], 0, leftChunk, 0, chunkMask + 1);
+        System.arraycopy(right[chunk], 0, rightChunk, 0, chunkMask + 1);
+        left[chunk] = leftChunk;
+        right[chunk] = rightChunk;
+        shared[chunk] = false;
+    }
+
+    private int usedChunks() {
+        return chunksFor(size);
+    }
+
+    private int chunksFor(long pairs) {
+        return (int) ((pairs + chunkMask) >>> chunkShift);
+    }
+
+    private DoubleHashSet<L, R> probe(DoubleCollection<L, R> collection) {
+        if (collection instanceof DoubleHashSet)
+            return (DoubleHashSet<L, R>) collection;
+        return new DoubleHashSet<L, R>(collection);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+    }
+
+    private void checkParameters(L[] left, R[] right) {
+        if (left == null || right == null) throw new NullPointerException();
+        if (left.length != right.length) throw new IllegalArgumentException();
+    }
+
+    private class ProbeProcedure implements DoubleProcedure<L, R> {
+
+        private final DoubleHashSet<L, R> probe;
+
+        private final boolean removeContained;
+
+        private ProbeProcedure(DoubleHashSet<L, R> probe, boolean removeContained) {
+            this.probe = probe;
+            this.removeContained = removeContained;
+        }
+
+        @Override
+        public boolean execute(L left, R right) {
+            return probe.contains(left, right) == removeContained;
+        }
+    }
+
+    private class Cursor implements DoubleCursor<L, R> {
+
+        private int current;
+
+        @Override
+        public boolean hasNext() {
+            return current < size;
+        }
+
+        @Override
+        public int readBatch(L[] leftBuffer, R[] rightBuffer, int max) {
+            if (max < 0) throw new IllegalArgumentException();
+            int count = Math.min(max, size - current);
+            if (count <= 0) return 0;
+            copyRange(current, current + count, leftBuffer, rightBuffer, 0);
+            current += count;
+            return count;
+        }
+    }
+
+    private class Iterator implements DoubleIterator<L, R> {
+
+        private int current;
+
+        @Override
+        public boolean hasNext() {
+            return current < size;
+        }
+
+        @Override
+        public void iterate() {
+            current++;
+        }
+
+        @Override
+        public boolean remove() {
+            if (!DoubleChunkedList.this.remove(current)) return false;
+            current--;
+            return true;
+        }
+
+        @Override
+        public L nextLeft() {
+            return left[current >>> chunkShift][current & chunkMask];
+        }
+
+        @Override
+        public R nextRight() {
+            return right[current >>> chunkShift][current & chunkMask];
+        }
+    }
+}
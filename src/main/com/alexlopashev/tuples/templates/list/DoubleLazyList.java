@@ -0,0 +1,356 @@
+package com.alexlopashev.tuples.templates.list;
+
+import com.alexlopashev.tuples.templates.DoubleCollection;
+import com.alexlopashev.tuples.templates.Tuples;
+import com.alexlopashev.tuples.templates.function.ColumnFunction;
+import com.alexlopashev.tuples.templates.function.DoubleFunction;
+import com.alexlopashev.tuples.templates.iterator.DoubleIterator;
+import com.alexlopashev.tuples.templates.procedure.DoubleProcedure;
+
+/**
+ * Read-only view of a pair list with column functions applied on access. Chained
+ * {@link #mapLeft}, {@link #mapRight}, {@link #map} and {@link #transformValues} calls are
+ * composed into one function per column, so the source is read once however long the chain is
+ * and an unmapped column is read as is. {@link #materialize()} applies functions in a single
+ * pass into a new list. The view follows changes of the source, structural changes through
+ * the view throw {@link UnsupportedOperationException}.
+ */
+public class DoubleLazyList<L, R> implements DoubleList<L, R> {
+
+    private final DoubleList<L, R> source;
+
+    private ColumnFunction<L> leftFunction;
+
+    private ColumnFunction<R> rightFunction;
+
+    public DoubleLazyList(DoubleList<L, R> source) {
+        this(source, null, null);
+    }
+
+    private DoubleLazyList(DoubleList<L, R> source, ColumnFunction<L> leftFunction, ColumnFunction<R> rightFunction) {
+        if (source == null) throw new NullPointerException();
+        this.source = source;
+        this.leftFunction = leftFunction;
+        this.rightFunction = rightFunction;
+    }
+
+    /**
+     * @return new view with left values mapped by the function after functions of this view
+     */
+    public DoubleLazyList<L, R> mapLeft(ColumnFunction<L> function) {
+        if (function == null) throw new NullPointerException();
+        return new DoubleLazyList<L, R>(source, composeLeft(leftFunction, function), rightFunction);
+    }
+
+    /**
+     * @return new view with right values mapped by the function after functions of this view
+     */
+    public DoubleLazyList<L, R> mapRight(ColumnFunction<R> function) {
+        if (function == null) throw new NullPointerException();
+        return new DoubleLazyList<L, R>(source, leftFunction, composeRight(rightFunction, function));
+    }
+
+    /**
+     * @return new view with both values mapped by the function after functions of this view
+     */
+    public DoubleLazyList<L, R> map(DoubleFunction<L, R> function) {
+        if (function == null) throw new NullPointerException();
+        return new DoubleLazyList<L, R>(source, composeLeft(leftFunction, new LeftOf(function)),
+                composeRight(rightFunction, new RightOf(function)));
+    }
+
+    /**
+     * @return modifiable list with functions applied, the source is read once
+     */
+    public DoubleArrayList<L, R> materialize() {
+        final DoubleArrayList<L, R> result = new DoubleArrayList<L, R>(source.size());
+        source.forEach(new DoubleProcedure<L, R>() {
+            @Override
+            public boolean execute(L leftElement, R rightElement) {
+                return result.add(mappedLeft(leftElement), mappedRight(rightElement));
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public boolean add(L leftElement, R rightElement) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean addAll(L[] leftAdd, R[] rightAdd) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean addAll(DoubleCollection<L, R> collection) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean contains(L leftElement, R rightElement) {
+        return indexOf(leftElement, rightElement) >= 0;
+    }
+
+    @Override
+    public boolean containsAll(L[] leftElements, R[] rightElements) {
+        if (leftElements == null || rightElements == null) throw new NullPointerException();
+        if (leftElements.length != rightElements.length) throw new IllegalArgumentException();
+        for (int i = 0; i < leftElements.length; i++)
+            if (!contains(leftElements[i], rightElements[i]))
+                return false;
+        return true;
+    }
+
+    @Override
+    public boolean containsAll(DoubleCollection<L, R> collection) {
+        return collection.forEach(new DoubleProcedure<L, R>() {
+            @Override
+            public boolean execute(L leftElement, R rightElement) {
+                return contains(leftElement, rightElement);
+            }
+        });
+    }
+
+    @Override
+    public boolean forEach(final DoubleProcedure<L, R> procedure) {
+        return source.forEach(new DoubleProcedure<L, R>() {
+            @Override
+            public boolean execute(L leftElement, R rightElement) {
+                return procedure.execute(mappedLeft(leftElement), mappedRight(rightElement));
+            }
+        });
+    }
+
+    @Override
+    public int indexOf(L leftElement, R rightElement) {
+        int size = source.size();
+        for (int i = 0; i < size; i++)
+            if (Tuples.equal(mappedLeft(source.getLeft(i)), leftElement)
+                    && Tuples.equal(mappedRight(source.getRight(i)), rightElement))
+                return i;
+        return -1;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return source.isEmpty();
+    }
+
+    @Override
+    public DoubleIterator<L, R> iterator() {
+        return new Iterator();
+    }
+
+    @Override
+    public L getLeft(int index) {
+        checkIndex(index);
+        return mappedLeft(source.getLeft(index));
+    }
+
+    /**
+     * @return mapped copy of the left column
+     */
+    @Override
+    public L[] getLeft() {
+        int size = source.size();
+        L[] result = (L[]) new Object[size];
+        for (int i = 0; i < size; i++)
+            result[i] = mappedLeft(source.getLeft(i));
+        return result;
+    }
+
+    @Override
+    public R getRight(int index) {
+        checkIndex(index);
+        return mappedRight(source.getRight(index));
+    }
+
+    /**
+     * @return mapped copy of the right column
+     */
+    @Override
+    public R[] getRight() {
+        int size = source.size();
+        R[] result = (R[]) new Object[size];
+        for (int i = 0; i < size; i++)
+            result[i] = mappedRight(source.getRight(i));
+        return result;
+    }
+
+    @Override
+    public boolean remove(int index) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean remove(L leftElement, R rightElement) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean removeAll(L[] leftElements, R[] rightElements) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean removeAll(DoubleCollection<L, R> collection) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean retainAll(L[] leftToRetain, R[] rightToRetain) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean retainAll(DoubleCollection<L, R> collection) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean removeIf(DoubleProcedure<L, R> filter) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Composes the function into this view, nothing is computed and the source is not changed.
+     */
+    @Override
+    public void transformValues(DoubleFunction<L, R> function) {
+        if (function == null) throw new NullPointerException();
+        leftFunction = composeLeft(leftFunction, new LeftOf(function));
+        rightFunction = composeRight(rightFunction, new RightOf(function));
+    }
+
+    @Override
+    public int size() {
+        return source.size();
+    }
+
+    /**
+     * @return lazy view of the source range with the same functions
+     */
+    @Override
+    public DoubleLazyList<L, R> subList(int begin, int end) {
+        return new DoubleLazyList<L, R>(source.subList(begin, end), leftFunction, rightFunction);
+    }
+
+    private L mappedLeft(L value) {
+        return leftFunction == null ? value : leftFunction.execute(value);
+    }
+
+    private R mappedRight(R value) {
+        return rightFunction == null ? value : rightFunction.execute(value);
+    }
+
+    private ColumnFunction<L> composeLeft(ColumnFunction<L> first, ColumnFunction<L> second) {
+        return first == null ? second : new LeftComposition(first, second);
+    }
+
+    private ColumnFunction<R> composeRight(ColumnFunction<R> first, ColumnFunction<R> second) {
+        return first == null ? second : new RightComposition(first, second);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= source.size()) throw new IndexOutOfBoundsException("Index: " + index + ", size: " + source.size());
+    }
+
+    private class LeftComposition implements ColumnFunction<L> {
+
+        private final ColumnFunction<L> first;
+
+        private final ColumnFunction<L> second;
+
+        private LeftComposition(ColumnFunction<L> first, ColumnFunction<L> second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public L execute(L value) {
+            return second.execute(first.execute(value));
+        }
+    }
+
+    private class RightComposition implements ColumnFunction<R> {
+
+        private final ColumnFunction<R> first;
+
+        private final ColumnFunction<R> second;
+
+        private RightComposition(ColumnFunction<R> first, ColumnFunction<R> second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public R execute(R value) {
+            return second.execute(first.execute(value));
+        }
+    }
+
+    private class LeftOf implements ColumnFunction<L> {
+
+        private final DoubleFunction<L, R> function;
+
+        private LeftOf(DoubleFunction<L, R> function) {
+            this.function = function;
+        }
+
+        @Override
+        public L execute(L value) {
+            return function.executeLeft(value);
+        }
+    }
+
+    private class RightOf implements ColumnFunction<R> {
+
+        private final DoubleFunction<L, R> function;
+
+        private RightOf(DoubleFunction<L, R> function) {
+            this.function = function;
+        }
+
+        @Override
+        public R execute(R value) {
+            return function.executeRight(value);
+        }
+    }
+
+    private class Iterator implements DoubleIterator<L, R> {
+
+        private int current;
+
+        @Override
+        public boolean hasNext() {
+            return current < source.size();
+        }
+
+        @Override
+        public void iterate() {
+            current++;
+        }
+
+        @Override
+        public boolean remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public L nextLeft() {
+            return getLeft(current);
+        }
+
+        @Override
+        public R nextRight() {
+            return getRight(current);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.alexlopashev.tuples.templates.list;
 
 import com.alexlopashev.tuples.templates.DoubleCollection;
+import com.alexlopashev.tuples.templates.procedure.DoubleProcedure;
 
 public interface DoubleList<L, R> extends DoubleCollection<L, R> {
 
@@ -12,6 +13,11 @@ public interface DoubleList<L, R> extends DoubleCollection<L, R> {
 
     boolean remove(int index);
 
+    /**
+     * Removes all pairs for which the filter returns {@code true}.
+     */
+    boolean removeIf(DoubleProcedure<L, R> filter);
+
     DoubleList<L, R> subList(int begin, int end);
 
 }
@@ -0,0 +1,296 @@
+package com.alexlopashev.tuples.templates.list;
+
+import com.alexlopashev.tuples.templates.DoubleCollection;
+import com.alexlopashev.tuples.templates.Tuples;
+import com.alexlopashev.tuples.templates.function.DoubleFunction;
+import com.alexlopashev.tuples.templates.iterator.DoubleCursor;
+import com.alexlopashev.tuples.templates.iterator.DoubleIterator;
+import com.alexlopashev.tuples.templates.procedure.DoubleProcedure;
+
+/**
+ * Immutable pair list sharing column chunks with the list it was taken from, see
+ * {@link DoubleArrayList#snapshot()} and {@link DoubleChunkedList#snapshot()}. The source copies
+ * a shared chunk before modifying it, so the snapshot never changes and can be handed to other
+ * threads without copying. Modifications throw {@link UnsupportedOperationException},
+ * {@link #subList(int, int)} is a view, {@link #toArrayList()} makes a modifiable copy.
+ */
+public class DoubleSnapshotList<L, R> implements DoubleList<L, R> {
+
+    private final L[][] left;
+
+    private final R[][] right;
+
+    private final int chunkShift;
+
+    private final int chunkMask;
+
+    private final int offset;
+
+    private final int size;
+
+    /**
+     * @param chunkShift binary logarithm of the chunk size, 31 for a single chunk
+     */
+    DoubleSnapshotList(L[][] left, R[][] right, int chunkShift, int size) {
+        this(left, right, chunkShift, 0, size);
+    }
+
+    private DoubleSnapshotList(L[][] left, R[][] right, int chunkShift, int offset, int size) {
+        this.left = left;
+        this.right = right;
+        this.chunkShift = chunkShift;
+        this.chunkMask = (int) ((1L << chunkShift) - 1);
+        this.offset = offset;
+        this.size = size;
+    }
+
+    @Override
+    public boolean add(L leftElement, R rightElement) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean addAll(L[] leftAdd, R[] rightAdd) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean addAll(DoubleCollection<L, R> collection) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean contains(L leftElement, R rightElement) {
+        return indexOf(leftElement, rightElement) >= 0;
+    }
+
+    @Override
+    public boolean containsAll(L[] leftElements, R[] rightElements) {
+        if (leftElements == null || rightElements == null) throw new NullPointerException();
+        if (leftElements.length != rightElements.length) throw new IllegalArgumentException();
+        for (int i = 0; i < leftElements.length; i++)
+            if (!contains(leftElements[i], rightElements[i]))
+                return false;
+        return true;
+    }
+
+    @Override
+    public boolean containsAll(DoubleCollection<L, R> collection) {
+        return collection.forEach(new DoubleProcedure<L, R>() {
+            @Override
+            public boolean execute(L leftElement, R rightElement) {
+                return contains(leftElement, rightElement);
+            }
+        });
+    }
+
+    @Override
+    public boolean forEach(DoubleProcedure<L, R> procedure) {
+        for (int i = 0; i < size; i++)
+            if (!procedure.execute(leftAt(i), rightAt(i)))
+                return false;
+        return true;
+    }
+
+    @Override
+    public int indexOf(L leftElement, R rightElement) {
+        for (int i = 0; i < size; i++)
+            if (Tuples.equal(leftAt(i), leftElement) && Tuples.equal(rightAt(i), rightElement))
+                return i;
+        return -1;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public DoubleIterator<L, R> iterator() {
+        return new Iterator();
+    }
+
+    @Override
+    public L getLeft(int index) {
+        checkIndex(index);
+        return leftAt(index);
+    }
+
+    /**
+     * @return copy of the left column
+     */
+    @Override
+    public L[] getLeft() {
+        L[] result = (L[]) new Object[size];
+        for (int i = 0; i < size; i++)
+            result[i] = leftAt(i);
+        return result;
+    }
+
+    @Override
+    public R getRight(int index) {
+        checkIndex(index);
+        return rightAt(index);
+    }
+
+    /**
+     * @return copy of the right column
+     */
+    @Override
+    public R[] getRight() {
+        R[] result = (R[]) new Object[size];
+        for (int i = 0; i < size; i++)
+            result[i] = rightAt(i);
+        return result;
+    }
+
+    @Override
+    public boolean remove(int index) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean remove(L leftElement, R rightElement) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean removeAll(L[] leftElements, R[] rightElements) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean removeAll(DoubleCollection<L, R> collection) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean retainAll(L[] leftToRetain, R[] rightToRetain) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean retainAll(DoubleCollection<L, R> collection) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean removeIf(DoubleProcedure<L, R> filter) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void transformValues(DoubleFunction<L, R> function) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return view of the range sharing the chunks
+     */
+    @Override
+    public DoubleSnapshotList<L, R> subList(int begin, int end) {
+        if (begin < 0 || end > size || begin > end) throw new IndexOutOfBoundsException();
+        return new DoubleSnapshotList<L, R>(left, right, chunkShift, offset + begin, end - begin);
+    }
+
+    /**
+     * Copies pairs from begin (inclusive) to end (exclusive) to the arrays starting at offset,
+     * one arraycopy per chunk.
+     */
+    public void copyRange(int begin, int end, L[] leftTarget, R[] rightTarget, int offset) {
+        if (begin < 0 || end > size || begin > end) throw new IndexOutOfBoundsException();
+        for (int from = this.offset + begin, to = from + end - begin, count; from < to; from += count, offset += count) {
+            count = Math.min(chunkMask + 1 - (from & chunkMask), to - from);
+            System.arraycopy(left[from >>> chunkShift], from & chunkMask, leftTarget, offset, count);
+            System.arraycopy(right[from >>> chunkShift], from & chunkMask, rightTarget, offset, count);
+        }
+    }
+
+    /**
+     * @return cursor reading pairs from the first one
+     */
+    public DoubleCursor<L, R> cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * @return modifiable copy of the list
+     */
+    public DoubleArrayList<L, R> toArrayList() {
+        return new DoubleArrayList<L, R>(getLeft(), getRight());
+    }
+
+    private L leftAt(int index) {
+        index += offset;
+        return left[index >>> chunkShift][index & chunkMask];
+    }
+
+    private R rightAt(int index) {
+        index += offset;
+        return right[index >>> chunkShift][index & chunkMask];
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+    }
+
+    private class Cursor implements DoubleCursor<L, R> {
+
+        private int current;
+
+        @Override
+        public boolean hasNext() {
+            return current < size;
+        }
+
+        @Override
+        public int readBatch(L[] leftBuffer, R[] rightBuffer, int max) {
+            if (max < 0) throw new IllegalArgumentException();
+            int count = Math.min(max, size - current);
+            if (count <= 0) return 0;
+            copyRange(current, current + count, leftBuffer, rightBuffer, 0);
+            current += count;
+            return count;
+        }
+    }
+
+    private class Iterator implements DoubleIterator<L, R> {
+
+        private int current;
+
+        @Override
+        public boolean hasNext() {
+            return current < size;
+        }
+
+        @Override
+        public void iterate() {
+            current++;
+        }
+
+        @Override
+        public boolean remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public L nextLeft() {
+            return getLeft(current);
+        }
+
+        @Override
+        public R nextRight() {
+            return getRight(current);
+        }
+    }
+}
@@ -0,0 +1,431 @@
+package com.alexlopashev.tuples.templates.list;
+
+import com.alexlopashev.tuples.templates.DoubleCollection;
+import com.alexlopashev.tuples.templates.Tuples;
+import com.alexlopashev.tuples.templates.function.ColumnComparator;
+import com.alexlopashev.tuples.templates.function.DoubleFunction;
+import com.alexlopashev.tuples.templates.iterator.DoubleIterator;
+import com.alexlopashev.tuples.templates.procedure.DoubleProcedure;
+import com.alexlopashev.tuples.templates.set.DoubleHashSet;
+import com.alexlopashev.tuples.templates.sort.DoubleSorter;
+
+/**
+ * Pair list kept in {@link DoubleSorter} order: by left, then by right value. Single pairs are
+ * inserted at their binary searched position, bulk additions are appended, sorted and merged
+ * with the present pairs in one pass. {@link #indexOf}, {@link #contains} and {@link #range}
+ * are binary searches.
+ *
+ * Comparators have to be consistent with equality of values. {@link #getLeft()} and
+ * {@link #getRight()} return copies, so the order can't be broken from outside.
+ */
+public class DoubleSortedList<L, R> implements DoubleList<L, R> {
+
+    private static final int DEFAULT_CAPACITY = 8;
+
+    private final DoubleSorter<L, R> sorter;
+
+    private L[] left;
+
+    private R[] right;
+
+    private int size;
+
+    public DoubleSortedList() {
+        this(new DoubleSorter<L, R>());
+    }
+
+    /**
+     * @param leftComparator order of left values, natural if null
+     * @param rightComparator order of right values, natural if null
+     */
+    public DoubleSortedList(ColumnComparator<L> leftComparator, ColumnComparator<R> rightComparator) {
+        this(new DoubleSorter<L, R>(leftComparator, rightComparator));
+    }
+
+    public DoubleSortedList(L[] leftInit, R[] rightInit) {
+        this();
+        addAll(leftInit, rightInit);
+    }
+
+    private DoubleSortedList(DoubleSorter<L, R> sorter) {
+        this.sorter = sorter;
+        left = (L[]) new Object[DEFAULT_CAPACITY];
+        right = (R[]) new Object[DEFAULT_CAPACITY];
+    }
+
+    /**
+     * Inserts the pair after all equal ones.
+     */
+    @Override
+    public boolean add(L leftElement, R rightElement) {
+        if (size == Integer.MAX_VALUE) return false;
+        extendBy(1);
+        int index = upperBound(leftElement, rightElement);
+        System.arraycopy(left, index, left, index + 1, size - index);
+        System.arraycopy(right, index, right, index + 1, size - index);
+        left[index] = leftElement;
+        right[index] = rightElement;
+        size++;
+        return true;
+    }
+
+    @Override
+    public boolean addAll(L[] leftAdd, R[] rightAdd) {
+        checkParameters(leftAdd, rightAdd);
+        return addAll(leftAdd, rightAdd, leftAdd.length);
+    }
+
+    @Override
+    public boolean addAll(DoubleCollection<L, R> collection) {
+        final L[] leftAdd = (L[]) new Object[collection.size()];
+        final R[] rightAdd = (R[]) new Object[collection.size()];
+        final int[] count = new int[1];
+        collection.forEach(new DoubleProcedure<L, R>() {
+            @Override
+            public boolean execute(L leftElement, R rightElement) {
+                leftAdd[count[0]] = leftElement;
+                rightAdd[count[0]] = rightElement;
+                count[0]++;
+                return true;
+            }
+        });
+        return addAll(leftAdd, rightAdd, count[0]);
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+        left = (L[]) new Object[DEFAULT_CAPACITY];
+        right = (R[]) new Object[DEFAULT_CAPACITY];
+    }
+
+    @Override
+    public boolean contains(L leftElement, R rightElement) {
+        return indexOf(leftElement, rightElement) >= 0;
+    }
+
+    @Override
+    public boolean containsAll(L[] leftElements, R[] rightElements) {
+        checkParameters(leftElements, rightElements);
+        for (int i = 0; i < leftElements.length; i++)
+            if (!contains(leftElements[i], rightElements[i]))
+                return false;
+        return true;
+    }
+
+    @Override
+    public boolean containsAll(DoubleCollection<L, R> collection) {
+        return collection.forEach(new DoubleProcedure<L, R>() {
+            @Override
+            public boolean execute(L leftElement, R rightElement) {
+                return contains(leftElement, rightElement);
+            }
+        });
+    }
+
+    @Override
+    public boolean forEach(DoubleProcedure<L, R> procedure) {
+        for (int i = 0; i < size; i++)
+            if (!procedure.execute(left[i], right[i]))
+                return false;
+        return true;
+    }
+
+    /**
+     * @return index of the first equal pair found by binary search, or -1
+     */
+    @Override
+    public int indexOf(L leftElement, R rightElement) {
+        for (int i = lowerBound(leftElement, rightElement); i < size; i++) {
+            if (sorter.compare(left[i], right[i], leftElement, rightElement) != 0)
+                break;
+            if (Tuples.equal(left[i], leftElement) && Tuples.equal(right[i], rightElement))
+                return i;
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public DoubleIterator<L, R> iterator() {
+        return new Iterator();
+    }
+
+    @Override
+    public L getLeft(int index) {
+        checkIndex(index);
+        return left[index];
+    }
+
+    /**
+     * @return copy of the left column in list order
+     */
+    @Override
+    public L[] getLeft() {
+        L[] result = (L[]) new Object[size];
+        System.arraycopy(left, 0, result, 0, size);
+        return result;
+    }
+
+    @Override
+    public R getRight(int index) {
+        checkIndex(index);
+        return right[index];
+    }
+
+    /**
+     * @return copy of the right column in list order
+     */
+    @Override
+    public R[] getRight() {
+        R[] result = (R[]) new Object[size];
+        System.arraycopy(right, 0, result, 0, size);
+        return result;
+    }
+
+    @Override
+    public boolean remove(int index) {
+        if (index < 0) throw new IllegalArgumentException();
+        if (index >= size) return false;
+        System.arraycopy(left, index + 1, left, index, size - index - 1);
+        System.arraycopy(right, index + 1, right, index, size - index - 1);
+        size--;
+        left[size] = (L) null;
+        right[size] = (R) null;
+        return true;
+    }
+
+    /**
+     * Removes all pairs equal to the given one, they are found by binary search.
+     */
+    @Override
+    public boolean remove(L leftElement, R rightElement) {
+        int begin = lowerBound(leftElement, rightElement);
+        int end = upperBound(leftElement, rightElement);
+        int retained = begin;
+        for (int i = begin; i < end; i++) {
+            if (Tuples.equal(left[i], leftElement) && Tuples.equal(right[i], rightElement))
+                continue;
+            left[retained] = left[i];
+            right[retained] = right[i];
+            retained++;
+        }
+        if (retained == end) return false;
+        System.arraycopy(left, end, left, retained, size - end);
+        System.arraycopy(right, end, right, retained, size - end);
+        int newSize = size - (end - retained);
+        for (int i = newSize; i < size; i++) {
+            left[i] = (L) null;
+            right[i] = (R) null;
+        }
+        size = newSize;
+        return true;
+    }
+
+    @Override
+    public boolean removeAll(L[] leftElements, R[] rightElements) {
+        return removeIf(new ProbeProcedure(new DoubleHashSet<L, R>(leftElements, rightElements), true));
+    }
+
+    @Override
+    public boolean removeAll(DoubleCollection<L, R> collection) {
+        return removeIf(new ProbeProcedure(probe(collection), true));
+    }
+
+    @Override
+    public boolean retainAll(L[] leftToRetain, R[] rightToRetain) {
+        return removeIf(new ProbeProcedure(new DoubleHashSet<L, R>(leftToRetain, rightToRetain), false));
+    }
+
+    @Override
+    public boolean retainAll(DoubleCollection<L, R> collection) {
+        return removeIf(new ProbeProcedure(probe(collection), false));
+    }
+
+    /**
+     * Removes pairs in a single compaction pass, the order of the rest is kept.
+     */
+    @Override
+    public boolean removeIf(DoubleProcedure<L, R> filter) {
+        int retained = 0;
+        for (int i = 0; i < size; i++) {
+            if (filter.execute(left[i], right[i]))
+                continue;
+            left[retained] = left[i];
+            right[retained] = right[i];
+            retained++;
+        }
+        if (retained == size) return false;
+        for (int i = retained; i < size; i++) {
+            left[i] = (L) null;
+            right[i] = (R) null;
+        }
+        size = retained;
+        return true;
+    }
+
+    /**
+     * Transforms values and sorts the list again.
+     */
+    @Override
+    public void transformValues(DoubleFunction<L, R> function) {
+        for (int i = 0; i < size; i++) {
+            left[i] = function.executeLeft(left[i]);
+            right[i] = function.executeRight(right[i]);
+        }
+        sorter.sort(left, right, size);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return sorted copy of the range with the same order
+     */
+    @Override
+    public DoubleSortedList<L, R> subList(int begin, int end) {
+        if (begin < 0 || end > size || begin > end) throw new IndexOutOfBoundsException();
+        DoubleSortedList<L, R> list = new DoubleSortedList<L, R>(sorter);
+        list.extendBy(end - begin);
+        System.arraycopy(left, begin, list.left, 0, end - begin);
+        System.arraycopy(right, begin, list.right, 0, end - begin);
+        list.size = end - begin;
+        return list;
+    }
+
+    /**
+     * @return pairs with left value in [from, to), found by binary search
+     */
+    public DoubleSortedList<L, R> range(L from, L to) {
+        int begin = lowerBoundLeft(from);
+        return subList(begin, Math.max(begin, lowerBoundLeft(to)));
+    }
+
+    /**
+     * @return index of the first pair with left value not less than the given one, size if none
+     */
+    public int lowerBoundLeft(L leftElement) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int pivot = (low + high) >>> 1;
+            if (sorter.compareLeft(left[pivot], leftElement) < 0) low = pivot + 1;
+            else high = pivot;
+        }
+        return low;
+    }
+
+    private int lowerBound(L leftElement, R rightElement) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int pivot = (low + high) >>> 1;
+            if (sorter.compare(left[pivot], right[pivot], leftElement, rightElement) < 0) low = pivot + 1;
+            else high = pivot;
+        }
+        return low;
+    }
+
+    private int upperBound(L leftElement, R rightElement) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int pivot = (low + high) >>> 1;
+            if (sorter.compare(left[pivot], right[pivot], leftElement, rightElement) <= 0) low = pivot + 1;
+            else high = pivot;
+        }
+        return low;
+    }
+
+    private boolean addAll(L[] leftAdd, R[] rightAdd, int count) {
+        if (size >= Integer.MAX_VALUE - count) return false;
+        extendBy(count);
+        System.arraycopy(leftAdd, 0, left, size, count);
+        System.arraycopy(rightAdd, 0, right, size, count);
+        int sorted = size;
+        size += count;
+        sorter.merge(left, right, sorted, size);
+        return true;
+    }
+
+    private void extendBy(int offset) {
+        if (size + offset <= left.length) return;
+        int newCapacity = (int) Math.min(Integer.MAX_VALUE, Math.max((long) left.length << 1, (long) size + offset));
+        L[] newLeft = (L[]) new Object[newCapacity];
+        R[] newRight = (R[]) new Object[newCapacity];
+        System.arraycopy(left, 0, newLeft, 0, size);
+        System.arraycopy(right, 0, newRight, 0, size);
+        left = newLeft;
+        right = newRight;
+    }
+
+    private DoubleHashSet<L, R> probe(DoubleCollection<L, R> collection) {
+        if (collection instanceof DoubleHashSet)
+            return (DoubleHashSet<L, R>) collection;
+        return new DoubleHashSet<L, R>(collection);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+    }
+
+    private void checkParameters(L[] left, R[] right) {
+        if (left == null || right == null) throw new NullPointerException();
+        if (left.length != right.length) throw new IllegalArgumentException();
+    }
+
+    private class ProbeProcedure implements DoubleProcedure<L, R> {
+
+        private final DoubleHashSet<L, R> probe;
+
+        private final boolean removeContained;
+
+        private ProbeProcedure(DoubleHashSet<L, R> probe, boolean removeContained) {
+            this.probe = probe;
+            this.removeContained = removeContained;
+        }
+
+        @Override
+        public boolean execute(L left, R right) {
+            return probe.contains(left, right) == removeContained;
+        }
+    }
+
+    private class Iterator implements DoubleIterator<L, R> {
+
+        private int current;
+
+        @Override
+        public boolean hasNext() {
+            return current < size;
+        }
+
+        @Override
+        public void iterate() {
+            current++;
+        }
+
+        @Override
+        public boolean remove() {
+            if (!DoubleSortedList.this.remove(current)) return false;
+            current--;
+            return true;
+        }
+
+        @Override
+        public L nextLeft() {
+            return left[current];
+        }
+
+        @Override
+        public R nextRight() {
+            return right[current];
+        }
+    }
+}
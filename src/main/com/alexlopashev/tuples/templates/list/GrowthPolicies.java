@@ -0,0 +1,172 @@
+package com.alexlopashev.tuples.templates.list;
+
+/**
+ * Growth policies of array lists. Sizes are computed with integer arithmetic and never exceed
+ * {@link #MAX_CAPACITY}. Unless said otherwise a policy halves the capacity when size falls
+ * below a quarter of it.
+ */
+public final class GrowthPolicies {
+
+    public static final int MIN_CAPACITY = 8;
+
+    /**
+     * The largest array size the VM allocates reliably.
+     */
+    public static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    private static final GrowthPolicy POWER_OF_TWO = new PowerOfTwo();
+
+    private static final GrowthPolicy ONE_AND_HALF = new OneAndHalf();
+
+    private GrowthPolicies() {
+    }
+
+    /**
+     * Capacities are powers of two, the default policy.
+     */
+    public static GrowthPolicy powerOfTwo() {
+        return POWER_OF_TWO;
+    }
+
+    /**
+     * Capacity grows by half, which wastes at most a third of columns of a grown list.
+     */
+    public static GrowthPolicy oneAndHalf() {
+        return ONE_AND_HALF;
+    }
+
+    /**
+     * Capacity grows by multiples of the step and shrinks when more than two steps are free,
+     * for lists of a known scale where doubling would waste too much.
+     */
+    public static GrowthPolicy increment(int step) {
+        if (step <= 0) throw new IllegalArgumentException("Step must be positive: " + step);
+        return new Increment(step);
+    }
+
+    /**
+     * Grows as the policy, but shrinks only when size falls below capacity divided by divisor,
+     * then to the policy capacity for twice the size, so a list oscillating around a threshold
+     * is not reallocated on every turn.
+     */
+    public static GrowthPolicy hysteresis(GrowthPolicy policy, int divisor) {
+        if (policy == null) throw new NullPointerException();
+        if (divisor < 4) throw new IllegalArgumentException("Divisor must be at least 4: " + divisor);
+        return new Hysteresis(policy, divisor);
+    }
+
+    /**
+     * Grows as the policy and never shrinks, capacity is released by trimToSize only.
+     */
+    public static GrowthPolicy neverShrink(GrowthPolicy policy) {
+        if (policy == null) throw new NullPointerException();
+        return new NeverShrink(policy);
+    }
+
+    /**
+     * @return the smallest power of two not less than the value and {@link #MIN_CAPACITY}
+     */
+    public static int ceilingPowerOf2(int value) {
+        if (value <= MIN_CAPACITY) return MIN_CAPACITY;
+        if (value > 1 << 30) return MAX_CAPACITY;
+        return Integer.highestOneBit(value - 1) << 1;
+    }
+
+    private static int checked(int required) {
+        if (required < 0 || required > MAX_CAPACITY) throw new OutOfMemoryError("Required capacity: " + required);
+        return required;
+    }
+
+    private static int halved(int capacity, int size) {
+        return size < capacity >> 2 ? Math.max(MIN_CAPACITY, capacity >> 1) : capacity;
+    }
+
+    private static final class PowerOfTwo implements GrowthPolicy {
+
+        @Override
+        public int grow(int capacity, int required) {
+            return ceilingPowerOf2(checked(required));
+        }
+
+        @Override
+        public int shrink(int capacity, int size) {
+            return halved(capacity, size);
+        }
+    }
+
+    private static final class OneAndHalf implements GrowthPolicy {
+
+        @Override
+        public int grow(int capacity, int required) {
+            long grown = (long) capacity + (capacity >> 1);
+            return (int) Math.min(MAX_CAPACITY, Math.max(Math.max(grown, MIN_CAPACITY), checked(required)));
+        }
+
+        @Override
+        public int shrink(int capacity, int size) {
+            return halved(capacity, size);
+        }
+    }
+
+    private static final class Increment implements GrowthPolicy {
+
+        private final int step;
+
+        private Increment(int step) {
+            this.step = step;
+        }
+
+        @Override
+        public int grow(int capacity, int required) {
+            long steps = ((long) checked(required) + step - 1) / step;
+            return (int) Math.min(MAX_CAPACITY, Math.max(MIN_CAPACITY, steps * step));
+        }
+
+        @Override
+        public int shrink(int capacity, int size) {
+            return capacity - size > 2L * step ? grow(0, size + step) : capacity;
+        }
+    }
+
+    private static final class Hysteresis implements GrowthPolicy {
+
+        private final GrowthPolicy policy;
+
+        private final int divisor;
+
+        private Hysteresis(GrowthPolicy policy, int divisor) {
+            this.policy = policy;
+            this.divisor = divisor;
+        }
+
+        @Override
+        public int grow(int capacity, int required) {
+            return policy.grow(capacity, required);
+        }
+
+        @Override
+        public int shrink(int capacity, int size) {
+            if (size >= capacity / divisor) return capacity;
+            return Math.min(capacity, policy.grow(0, Math.max(MIN_CAPACITY, size << 1)));
+        }
+    }
+
+    private static final class NeverShrink implements GrowthPolicy {
+
+        private final GrowthPolicy policy;
+
+        private NeverShrink(GrowthPolicy policy) {
+            this.policy = policy;
+        }
+
+        @Override
+        public int grow(int capacity, int required) {
+            return policy.grow(capacity, required);
+        }
+
+        @Override
+        public int shrink(int capacity, int size) {
+            return capacity;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.alexlopashev.tuples.templates.list;
+
+/**
+ * Decides capacities of array list columns, see {@link GrowthPolicies} for implementations.
+ * Capacities are counted in rows.
+ */
+public interface GrowthPolicy {
+
+    /**
+     * @return new capacity, at least required, when required rows don't fit the capacity
+     */
+    int grow(int capacity, int required);
+
+    /**
+     * @return capacity to keep after removals left size rows, the current capacity to keep columns
+     */
+    int shrink(int capacity, int size);
+
+}
@@ -1,14 +1,32 @@
 package com.alexlopashev.tuples.templates.list;
 
 import com.alexlopashev.tuples.templates.TripleCollection;
+import com.alexlopashev.tuples.templates.Tuples;
+import com.alexlopashev.tuples.templates.encoding.Encodings;
+import com.alexlopashev.tuples.templates.function.ColumnComparator;
+import com.alexlopashev.tuples.templates.function.ColumnFunction;
 import com.alexlopashev.tuples.templates.function.TripleFunction;
+import com.alexlopashev.tuples.templates.index.ColumnIndex;
+import com.alexlopashev.tuples.templates.index.TripleIndexes;
+import com.alexlopashev.tuples.templates.iterator.TripleCursor;
 import com.alexlopashev.tuples.templates.iterator.TripleIterator;
+import com.alexlopashev.tuples.templates.parallel.ParallelRanges;
+import com.alexlopashev.tuples.templates.parallel.RangeProcedure;
 import com.alexlopashev.tuples.templates.procedure.TripleProcedure;
+import com.alexlopashev.tuples.templates.scan.ColumnScans;
+import com.alexlopashev.tuples.templates.set.TripleHashSet;
+import com.alexlopashev.tuples.templates.sort.TripleSorter;
+import com.alexlopashev.tuples.templates.stats.ListCounters;
+import com.alexlopashev.tuples.templates.stats.ListStatistics;
+import com.alexlopashev.tuples.templates.stream.TripleSpliterator;
+import com.alexlopashev.tuples.templates.stream.TripleTupleStream;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
 
 public class TripleArrayList<L, M, R> implements TripleList<L, M, R> {
 
     private static final int DEFAULT_CAPACITY = 8;
-    private static final double LOG_RATIO = StrictMath.log10(2);
 
     private L[] left;
 
@@ -18,19 +36,64 @@ public class TripleArrayList<L, M, R> implements TripleList<L, M, R> {
 
     private int capacity;
 
+    private GrowthPolicy policy = GrowthPolicies.powerOfTwo();
+
     private int size;
 
+    /**
+     * Whether columns are referenced by a snapshot, then they are copied before triples below size change.
+     */
+    private boolean shared;
+
+    /**
+     * Counters of resizes, copies and scans, null unless statistics are enabled.
+     */
+    private ListCounters counters = ListCounters.ENABLED ? newCounters() : null;
+
+    private final TripleIndexes<L, M, R> indexes = new TripleIndexes<L, M, R>();
+
+    /**
+     * Pools columns are borrowed from and replaced columns are returned to, null unless the
+     * list belongs to a {@link TripleArrayListPool}.
+     */
+    private ColumnArrayPool<L> leftArrays;
+
+    private ColumnArrayPool<M> middleArrays;
+
+    private ColumnArrayPool<R> rightArrays;
+
     public TripleArrayList() {
         this(DEFAULT_CAPACITY);
     }
 
     public TripleArrayList(int initialCapacity) {
-        initialize(0, nearestPowerOf2(initialCapacity));
+        this(initialCapacity, GrowthPolicies.powerOfTwo());
+    }
+
+    /**
+     * @param policy decides capacities when the list grows and shrinks, see {@link GrowthPolicies}
+     */
+    public TripleArrayList(int initialCapacity, GrowthPolicy policy) {
+        if (initialCapacity < 0) throw new IllegalArgumentException("Illegal capacity: " + initialCapacity);
+        if (policy == null) throw new NullPointerException();
+        this.policy = policy;
+        initialize(0, policy.grow(0, initialCapacity));
+    }
+
+    /**
+     * List of a {@link TripleArrayListPool} with columns taken from the pools.
+     */
+    TripleArrayList(int initialCapacity, ColumnArrayPool<L> leftArrays, ColumnArrayPool<M> middleArrays,
+                    ColumnArrayPool<R> rightArrays) {
+        this.leftArrays = leftArrays;
+        this.middleArrays = middleArrays;
+        this.rightArrays = rightArrays;
+        initialize(0, policy.grow(0, initialCapacity));
     }
 
     public TripleArrayList(L[] leftInit, M[] middleInit, R[] rightInit) {
         checkParameters(leftInit, middleInit, rightInit);
-        initialize(leftInit.length, nearestPowerOf2(size));
+        initialize(leftInit.length, policy.grow(0, leftInit.length));
         System.arraycopy(leftInit, 0, this.left, 0, size);
         System.arraycopy(middleInit, 0, this.middle, 0, size);
         System.arraycopy(rightInit, 0, this.right, 0, size);
@@ -44,6 +107,7 @@ public class TripleArrayList<L, M, R> implements TripleList<L, M, R> {
         this.middle[size] = middle;
         this.right[size] = right;
         size++;
+        indexes.added(size - 1, left, middle, right);
         return true;
     }
 
@@ -55,7 +119,10 @@ public class TripleArrayList<L, M, R> implements TripleList<L, M, R> {
         System.arraycopy(leftAdd, 0, this.left, size, leftAdd.length);
         System.arraycopy(middleAdd, 0, this.middle, size, middleAdd.length);
         System.arraycopy(rightAdd, 0, this.right, size, rightAdd.length);
+        copied("append", leftAdd.length);
         size += leftAdd.length;
+        for (int i = size - leftAdd.length; i < size; i++)
+            indexes.added(i, this.left[i], this.middle[i], this.right[i]);
         return true;
     }
 
@@ -64,17 +131,41 @@ public class TripleArrayList<L, M, R> implements TripleList<L, M, R> {
         return addAll(collection.getLeft(), collection.getMiddle(), collection.getRight());
     }
 
+    /**
+     * Removes all triples. Columns are kept as by {@link #reset()} when the growth policy keeps
+     * capacity of an empty list, otherwise they are reallocated with the capacity the policy
+     * gives to the default number of rows.
+     */
     @Override
     public void clear() {
-        initialize(0, DEFAULT_CAPACITY);
+        if (policy.shrink(capacity, 0) >= capacity) {
+            reset();
+            return;
+        }
+        releaseColumns();
+        initialize(0, policy.grow(0, DEFAULT_CAPACITY));
+        indexes.cleared();
+    }
+
+    /**
+     * Removes all triples keeping capacity whatever the growth policy is, nothing is allocated
+     * unless columns are shared with a snapshot. Only the used prefix of columns is cleared.
+     */
+    public void reset() {
+        if (shared) {
+            initialize(0, capacity);
+        } else {
+            Arrays.fill(left, 0, size, (L) null);
+            Arrays.fill(middle, 0, size, (M) null);
+            Arrays.fill(right, 0, size, (R) null);
+            size = 0;
+        }
+        indexes.cleared();
     }
 
     @Override
     public boolean contains(L leftElement, M middleElement, R rightElement) {
-        for (int i = 0; i < size; i++)
-            if (isSame(left[i], leftElement, middle[i], middleElement, right[i], rightElement))
-                return true;
-        return false;
+        return indexOf(leftElement, middleElement, rightElement) >= 0;
     }
 
     @Override
@@ -101,10 +192,14 @@ public class TripleArrayList<L, M, R> implements TripleList<L, M, R> {
 
     @Override
     public int indexOf(L leftElement, M middleElement, R rightElement) {
-        for (int i = 0; i < size; i++)
-            if (isSame(left[i], leftElement, middle[i], middleElement, right[i], rightElement))
-                return i;
-        return -1;
+        return indexOf(0, size, leftElement, middleElement, rightElement);
+    }
+
+    /**
+     * @return number of triples equal to the given one
+     */
+    public int count(L leftElement, M middleElement, R rightElement) {
+        return count(0, size, leftElement, middleElement, rightElement);
     }
 
     @Override
@@ -122,9 +217,15 @@ public class TripleArrayList<L, M, R> implements TripleList<L, M, R> {
         return left[index];
     }
 
+    /**
+     * @return copy of the left column
+     */
     @Override
     public L[] getLeft() {
-        return left;
+        L[] result = initLeft(size);
+        System.arraycopy(left, 0, result, 0, size);
+        if (counters != null) counters.copied("copy", (long) size * Encodings.valueBytes((L) null));
+        return result;
     }
 
     @Override
@@ -132,9 +233,15 @@ public class TripleArrayList<L, M, R> implements TripleList<L, M, R> {
         return middle[index];
     }
 
+    /**
+     * @return copy of the middle column
+     */
     @Override
     public M[] getMiddle() {
-        return middle;
+        M[] result = initMiddle(size);
+        System.arraycopy(middle, 0, result, 0, size);
+        if (counters != null) counters.copied("copy", (long) size * Encodings.valueBytes((M) null));
+        return result;
     }
 
     @Override
@@ -142,86 +249,255 @@ public class TripleArrayList<L, M, R> implements TripleList<L, M, R> {
         return right[index];
     }
 
+    /**
+     * @return copy of the right column
+     */
     @Override
     public R[] getRight() {
-        return right;
+        R[] result = initRight(size);
+        System.arraycopy(right, 0, result, 0, size);
+        if (counters != null) counters.copied("copy", (long) size * Encodings.valueBytes((R) null));
+        return result;
     }
 
     @Override
     public boolean remove(int index) {
         if (index < 0) throw new IllegalArgumentException();
         if (index >= size) return false;
-        for (int i = index + 1; i < size; i++) {
-            left[i]     = left[i - 1];
-            middle[i]   = middle[i - 1];
-            right[i]    = right[i - 1];
-        }
+        unshare();
+        indexes.removed(index, left[index], middle[index], right[index]);
+        System.arraycopy(left, index + 1, left, index, size - index - 1);
+        System.arraycopy(middle, index + 1, middle, index, size - index - 1);
+        System.arraycopy(right, index + 1, right, index, size - index - 1);
+        copied("shift", size - index - 1);
         size--;
+        left[size]      = (L) null;
+        middle[size]    = (M) null;
+        right[size]     = (R) null;
         return true;
     }
 
     @Override
-    public boolean remove(L leftElement, M middleElement, R rightElement) {
-        boolean removed = false;
-        int index;
-        while ((index = indexOf(leftElement, middleElement, rightElement)) >= 0)
-            removed |= remove(index);
-        shrink();
-        return removed;
+    public boolean remove(final L leftElement, final M middleElement, final R rightElement) {
+        return removeIf(new TripleProcedure<L, M, R>() {
+            @Override
+            public boolean execute(L left, M middle, R right) {
+                return isSame(left, leftElement, middle, middleElement, right, rightElement);
+            }
+        });
     }
 
     @Override
     public boolean removeAll(L[] left, M[] middle, R[] right) {
-        checkParameters(left, middle, right);
-        boolean totallyRemoved = true;
-        for (int i = 0; i < left.length; i++)
-            if (!remove(left[i], middle[i], right[i]))
-                totallyRemoved = false;
-        return totallyRemoved;
+        return removeIf(new ProbeProcedure(new TripleHashSet<L, M, R>(left, middle, right), true));
     }
 
     @Override
     public boolean removeAll(TripleCollection<L, M, R> collection) {
-        return removeAll(collection.getLeft(), collection.getMiddle(), collection.getRight());
+        return removeIf(new ProbeProcedure(probe(collection), true));
     }
 
     @Override
     public boolean retainAll(L[] leftToRetain, M[] middleToRetain, R[] rightToRetain) {
-        checkParameters(leftToRetain, middleToRetain, rightToRetain);
-        TripleIterator<L, M, R> it = iterator();
-        boolean modified = false;
-        while (it.hasNext()) {
-            for (int i = 0; i < leftToRetain.length; i++)
-                if (isSame(it.nextLeft(), leftToRetain[i], it.nextMiddle(), middleToRetain[i], it.nextRight(), rightToRetain[i])) {
-                    it.remove();
-                    modified = true;
-                }
-            it.iterate();
-        }
-        return modified;
+        return removeIf(new ProbeProcedure(new TripleHashSet<L, M, R>(leftToRetain, middleToRetain, rightToRetain), false));
     }
 
     @Override
     public boolean retainAll(TripleCollection<L, M, R> collection) {
-        TripleIterator<L, M, R> it = iterator();
-        boolean modified = false;
-        while (it.hasNext()) {
-            if (!collection.contains(it.nextLeft(), it.nextMiddle(), it.nextRight())) {
-                it.remove();
-                modified = true;
-            }
-            it.iterate();
-        }
-        return modified;
+        return removeIf(new ProbeProcedure(probe(collection), false));
+    }
+
+    /**
+     * Removes all triples for which the filter returns {@code true} in a single compaction pass,
+     * capacity is adjusted and attached indexes are rebuilt once at the end.
+     */
+    @Override
+    public boolean removeIf(TripleProcedure<L, M, R> filter) {
+        return removeIf(0, size, filter) > 0;
     }
 
     @Override
     public void transformValues(TripleFunction<L, M, R> function) {
+        unshare();
         for (int i = 0; i < size; i++) {
             left[i]     = function.executeLeft(left[i]);
             middle[i]   = function.executeMiddle(middle[i]);
             right[i]    = function.executeRight(right[i]);
         }
+        indexes.rebuild(this);
+    }
+
+    /**
+     * Same as {@link #forEach(TripleProcedure)} with index ranges split over the common pool.
+     * Procedure must be thread safe, see {@link ParallelRanges} for short-circuit semantics.
+     */
+    public boolean parallelForEach(TripleProcedure<L, M, R> procedure) {
+        return parallelForEach(procedure, ForkJoinPool.commonPool(), ParallelRanges.DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * @param threshold maximum number of triples processed by one task
+     */
+    public boolean parallelForEach(final TripleProcedure<L, M, R> procedure, ForkJoinPool pool, int threshold) {
+        return ParallelRanges.execute(size, new RangeProcedure() {
+            @Override
+            public int execute(int begin, int end) {
+                for (int i = begin; i < end; i++)
+                    if (!procedure.execute(left[i], middle[i], right[i]))
+                        return i;
+                return -1;
+            }
+        }, pool, threshold) < 0;
+    }
+
+    /**
+     * Same as {@link #transformValues(TripleFunction)} with index ranges split over the common pool.
+     * Function must be thread safe, attached indexes are rebuilt afterwards.
+     */
+    public void parallelTransformValues(TripleFunction<L, M, R> function) {
+        parallelTransformValues(function, ForkJoinPool.commonPool(), ParallelRanges.DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * @param threshold maximum number of triples processed by one task
+     */
+    public void parallelTransformValues(final TripleFunction<L, M, R> function, ForkJoinPool pool, int threshold) {
+        unshare();
+        ParallelRanges.execute(size, new RangeProcedure() {
+            @Override
+            public int execute(int begin, int end) {
+                for (int i = begin; i < end; i++) {
+                    left[i]     = function.executeLeft(left[i]);
+                    middle[i]   = function.executeMiddle(middle[i]);
+                    right[i]    = function.executeRight(right[i]);
+                }
+                return -1;
+            }
+        }, pool, threshold);
+        indexes.rebuild(this);
+    }
+
+    /**
+     * Sorts triples in natural order of left, middle, then right values, see {@link TripleSorter}.
+     */
+    public void sort() {
+        unshare();
+        new TripleSorter<L, M, R>().sort(left, middle, right, size);
+        indexes.rebuild(this);
+    }
+
+    /**
+     * Sorts triples by left, middle, then right values, null comparator stands for natural order.
+     */
+    public void sort(ColumnComparator<L> leftComparator, ColumnComparator<M> middleComparator,
+                     ColumnComparator<R> rightComparator) {
+        unshare();
+        new TripleSorter<L, M, R>(leftComparator, middleComparator, rightComparator).sort(left, middle, right, size);
+        indexes.rebuild(this);
+    }
+
+    /**
+     * @return selection of triples for which the filter returns {@code true}, the list is not changed
+     */
+    public Selection filter(TripleProcedure<L, M, R> filter) {
+        long[] words = new long[wordsFor(size)];
+        for (int i = 0; i < size; i++)
+            if (filter.execute(left[i], middle[i], right[i]))
+                words[i >>> 6] |= 1L << i;
+        return new Selection(words, size);
+    }
+
+    /**
+     * @return selection of triples equal to the given one, block masks of {@link ColumnScans} are
+     * stored as selection words
+     */
+    public Selection select(L leftElement, M middleElement, R rightElement) {
+        long[] words = new long[wordsFor(size)];
+        for (int from = 0, to; from < size; from = to) {
+            to = from + Math.min(ColumnScans.BLOCK, size - from);
+            long mask = ColumnScans.match(left, from, to, leftElement);
+            if (mask != 0) mask &= ColumnScans.match(middle, from, to, middleElement);
+            if (mask != 0) mask &= ColumnScans.match(right, from, to, rightElement);
+            words[from >>> 6] = mask;
+        }
+        return new Selection(words, size);
+    }
+
+    /**
+     * @return lazy view of this list with left values mapped by the function on access,
+     * see {@link TripleLazyList}
+     */
+    public TripleLazyList<L, M, R> mapLeft(ColumnFunction<L> function) {
+        return new TripleLazyList<L, M, R>(this).mapLeft(function);
+    }
+
+    /**
+     * @return lazy view of this list with middle values mapped by the function on access,
+     * see {@link TripleLazyList}
+     */
+    public TripleLazyList<L, M, R> mapMiddle(ColumnFunction<M> function) {
+        return new TripleLazyList<L, M, R>(this).mapMiddle(function);
+    }
+
+    /**
+     * @return lazy view of this list with right values mapped by the function on access,
+     * see {@link TripleLazyList}
+     */
+    public TripleLazyList<L, M, R> mapRight(ColumnFunction<R> function) {
+        return new TripleLazyList<L, M, R>(this).mapRight(function);
+    }
+
+    /**
+     * @return lazy view of this list with values mapped by the function on access, unlike
+     * {@link #transformValues} nothing is computed until values are read
+     */
+    public TripleLazyList<L, M, R> map(TripleFunction<L, M, R> function) {
+        return new TripleLazyList<L, M, R>(this).map(function);
+    }
+
+    /**
+     * Returns immutable list of the current triples sharing columns with this list, so taking
+     * a snapshot copies nothing. Columns are copied once on the first change of existing triples
+     * after the snapshot, appends which fit into capacity copy nothing.
+     */
+    public TripleSnapshotList<L, M, R> snapshot() {
+        shared = true;
+        L[][] leftChunks   = (L[][]) new Object[1][];
+        M[][] middleChunks = (M[][]) new Object[1][];
+        R[][] rightChunks  = (R[][]) new Object[1][];
+        leftChunks[0]   = left;
+        middleChunks[0] = middle;
+        rightChunks[0]  = right;
+        return new TripleSnapshotList<L, M, R>(leftChunks, middleChunks, rightChunks, 31, size);
+    }
+
+    /**
+     * Starts counting resizes, copies and scans of this list, see {@link ListCounters}.
+     */
+    public void enableStats() {
+        if (counters == null) counters = newCounters();
+    }
+
+    public void disableStats() {
+        counters = null;
+    }
+
+    /**
+     * @return counters of the list since statistics were enabled, zeros when they are disabled
+     */
+    public ListStatistics stats() {
+        return (counters != null ? counters : newCounters()).snapshot(size, capacity);
+    }
+
+    public TripleSpliterator<L, M, R> spliterator() {
+        return new TripleSpliterator<L, M, R>(this);
+    }
+
+    /**
+     * @return lazy stream of the triples, sequential unless {@link TripleTupleStream#parallel()} is called
+     */
+    public TripleTupleStream<L, M, R> stream() {
+        return new TripleTupleStream<L, M, R>(this);
     }
 
     @Override
@@ -229,25 +505,225 @@ public class TripleArrayList<L, M, R> implements TripleList<L, M, R> {
         return size;
     }
 
+    /**
+     * @return number of rows the columns hold without reallocation
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Grows columns by the growth policy, so that minCapacity rows fit without reallocation.
+     */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > capacity)
+            copyColumns(policy.grow(capacity, minCapacity));
+    }
+
+    /**
+     * Reallocates columns to hold exactly size rows.
+     */
+    public void trimToSize() {
+        if (size < capacity)
+            copyColumns(size);
+    }
+
+    /**
+     * @return view of the range over columns of this list, changes made through the view are
+     * visible in this list and vice versa. Structural changes of this list made not through
+     * the view leave the view undefined, {@link SubList#copy()} detaches the range.
+     */
     @Override
-    public TripleArrayList<L, M, R> subList(int begin, int end) {
+    public SubList subList(int begin, int end) {
+        if (begin < 0 || end > size || begin > end) throw new IndexOutOfBoundsException();
+        return new SubList(null, begin, end - begin);
+    }
+
+    /**
+     * @return detached copy of the list with capacity fitted to its size
+     */
+    public TripleArrayList<L, M, R> copy() {
+        return copyOf(0, size);
+    }
+
+    /**
+     * Copies triples from begin (inclusive) to end (exclusive) to the arrays starting at offset.
+     */
+    public void copyRange(int begin, int end, L[] leftTarget, M[] middleTarget, R[] rightTarget, int offset) {
+        if (begin < 0 || end > size || begin > end) throw new IndexOutOfBoundsException();
+        System.arraycopy(left, begin, leftTarget, offset, end - begin);
+        System.arraycopy(middle, begin, middleTarget, offset, end - begin);
+        System.arraycopy(right, begin, rightTarget, offset, end - begin);
+        copied("copy", end - begin);
+    }
+
+    /**
+     * @return cursor reading triples from the first one, triples added meanwhile are read as well
+     */
+    public TripleCursor<L, M, R> cursor() {
+        return new Cursor(null);
+    }
+
+    private TripleArrayList<L, M, R> copyOf(int begin, int end) {
         int subSize = end - begin;
-        int subCapacity = nearestPowerOf2(end - begin);
-        L[] subLeft   = initLeft(capacity);
-        M[] subMiddle = initMiddle(capacity);
-        R[] subRight  = initRight(capacity);
+        int subCapacity = policy.grow(0, subSize);
+        L[] subLeft   = initLeft(subCapacity);
+        M[] subMiddle = initMiddle(subCapacity);
+        R[] subRight  = initRight(subCapacity);
         System.arraycopy(left, begin, subLeft, 0, subSize);
         System.arraycopy(middle, begin, subMiddle, 0, subSize);
         System.arraycopy(right, begin, subRight, 0, subSize);
+        copied("copy", subSize);
         return initialize(subLeft, subMiddle, subRight, subCapacity, subSize);
     }
 
+    /**
+     * Compares blocks of {@link ColumnScans#BLOCK} rows into bit masks, middle and right values are compared
+     * only in blocks with candidates left.
+     */
+    private int indexOf(int begin, int end, L leftElement, M middleElement, R rightElement) {
+        long started = counters != null ? System.nanoTime() : 0;
+        int index = -1;
+        for (int from = begin, to; index < 0 && from < end; from = to) {
+            to = from + Math.min(ColumnScans.BLOCK, end - from);
+            long mask = ColumnScans.match(left, from, to, leftElement);
+            if (mask != 0) mask &= ColumnScans.match(middle, from, to, middleElement);
+            if (mask != 0) mask &= ColumnScans.match(right, from, to, rightElement);
+            if (mask != 0) index = from + Long.numberOfTrailingZeros(mask);
+        }
+        if (counters != null) counters.scanned(end - begin, index < 0 ? end - begin : index - begin + 1, index >= 0, started);
+        return index;
+    }
+
+    private int count(int begin, int end, L leftElement, M middleElement, R rightElement) {
+        long started = counters != null ? System.nanoTime() : 0;
+        int count = 0;
+        for (int from = begin, to; from < end; from = to) {
+            to = from + Math.min(ColumnScans.BLOCK, end - from);
+            long mask = ColumnScans.match(left, from, to, leftElement);
+            if (mask != 0) mask &= ColumnScans.match(middle, from, to, middleElement);
+            if (mask != 0) mask &= ColumnScans.match(right, from, to, rightElement);
+            count += Long.bitCount(mask);
+        }
+        if (counters != null) counters.scanned(end - begin, end - begin, count > 0, started);
+        return count;
+    }
+
+    /**
+     * Inserts count triples from the arrays at the index shifting following triples.
+     */
+    private boolean insertAll(int index, L[] leftAdd, M[] middleAdd, R[] rightAdd, int count) {
+        if (size >= Integer.MAX_VALUE - count) return false;
+        extendBy(count);
+        unshare();
+        System.arraycopy(left, index, left, index + count, size - index);
+        System.arraycopy(middle, index, middle, index + count, size - index);
+        System.arraycopy(right, index, right, index + count, size - index);
+        System.arraycopy(leftAdd, 0, left, index, count);
+        System.arraycopy(middleAdd, 0, middle, index, count);
+        System.arraycopy(rightAdd, 0, right, index, count);
+        copied("shift", size - index);
+        copied("insert", count);
+        size += count;
+        if (index == size - count) {
+            for (int i = index; i < size; i++)
+                indexes.added(i, left[i], middle[i], right[i]);
+        } else {
+            indexes.rebuild(this);
+        }
+        return true;
+    }
+
+    /**
+     * Compacts triples of the range which do not match the filter, following triples are shifted
+     * once and attached indexes are rebuilt.
+     *
+     * @return number of removed triples
+     */
+    private int removeIf(int begin, int end, TripleProcedure<L, M, R> filter) {
+        int retained = begin;
+        while (retained < end && !filter.execute(left[retained], middle[retained], right[retained]))
+            retained++;
+        if (retained == end) return 0;
+        unshare();
+        for (int i = retained + 1; i < end; i++) {
+            if (filter.execute(left[i], middle[i], right[i]))
+                continue;
+            left[retained]   = left[i];
+            middle[retained] = middle[i];
+            right[retained]  = right[i];
+            retained++;
+        }
+        int removed = end - retained;
+        removeRange(retained, end);
+        return removed;
+    }
+
+    private void removeRange(int begin, int end) {
+        if (begin == end) return;
+        unshare();
+        System.arraycopy(left, end, left, begin, size - end);
+        System.arraycopy(middle, end, middle, begin, size - end);
+        System.arraycopy(right, end, right, begin, size - end);
+        copied("shift", size - end);
+        for (int i = size - (end - begin); i < size; i++) {
+            left[i]   = (L) null;
+            middle[i] = (M) null;
+            right[i]  = (R) null;
+        }
+        size -= end - begin;
+        shrink();
+        indexes.rebuild(this);
+    }
+
+    @Override
+    public void attachLeftIndex(ColumnIndex<L> index) {
+        indexes.attachLeft(index, this);
+    }
+
+    @Override
+    public void attachMiddleIndex(ColumnIndex<M> index) {
+        indexes.attachMiddle(index, this);
+    }
+
+    @Override
+    public void attachRightIndex(ColumnIndex<R> index) {
+        indexes.attachRight(index, this);
+    }
+
+    @Override
+    public void detachIndexes() {
+        indexes.detach();
+    }
+
+    @Override
+    public int[] lookupLeft(L value) {
+        return indexes.lookupLeft(value, this);
+    }
+
+    @Override
+    public int[] lookupMiddle(M value) {
+        return indexes.lookupMiddle(value, this);
+    }
+
+    @Override
+    public int[] lookupRight(R value) {
+        return indexes.lookupRight(value, this);
+    }
+
+    private TripleHashSet<L, M, R> probe(TripleCollection<L, M, R> collection) {
+        if (collection instanceof TripleHashSet)
+            return (TripleHashSet<L, M, R>) collection;
+        return new TripleHashSet<L, M, R>(collection);
+    }
+
     private void initialize(int initialSize, int initialCapacity) {
         size = initialSize;
-        capacity = initialCapacity;
-        left    = initLeft(capacity);
-        middle  = initMiddle(capacity);
-        right   = initRight(capacity);
+        left    = leftColumn(initialCapacity);
+        middle  = middleColumn(initialCapacity);
+        right   = rightColumn(initialCapacity);
+        capacity = left.length;
+        shared  = false;
     }
 
     private TripleArrayList<L, M, R> initialize(L[] left, M[] middle, R[] right, int capacity, int size) {
@@ -255,6 +731,7 @@ public class TripleArrayList<L, M, R> implements TripleList<L, M, R> {
         TripleArrayList<L, M, R> list = new TripleArrayList<L, M, R>();
         list.size = size;
         list.capacity = capacity;
+        list.policy = policy;
         list.left = left;
         list.middle = middle;
         list.right = right;
@@ -263,29 +740,74 @@ public class TripleArrayList<L, M, R> implements TripleList<L, M, R> {
 
     private void extendBy(int offset) {
         if (size + offset > capacity)
-            resize(size + offset);
+            copyColumns(policy.grow(capacity, size + offset));
     }
 
     private void shrink() {
-        if (size < capacity >> 2)
-            resize(capacity >> 1);
+        int newCapacity = policy.shrink(capacity, size);
+        if (newCapacity < capacity)
+            copyColumns(newCapacity);
     }
 
-    private void resize(int newCapacity) {
-        newCapacity = nearestPowerOf2(newCapacity);
-        L[] newLeft   = initLeft(newCapacity);
-        M[] newMiddle = initMiddle(newCapacity);
-        R[] newRight  = initRight(newCapacity);
+    /**
+     * Copies columns once after a snapshot, so the snapshot keeps the old ones.
+     */
+    private void unshare() {
+        if (shared) copyColumns(capacity);
+    }
+
+    private void copyColumns(int newCapacity) {
+        L[] newLeft   = leftColumn(newCapacity);
+        M[] newMiddle = middleColumn(newCapacity);
+        R[] newRight  = rightColumn(newCapacity);
         System.arraycopy(left, 0, newLeft, 0, size);
         System.arraycopy(middle, 0, newMiddle, 0, size);
         System.arraycopy(right, 0, newRight, 0, size);
+        if (counters != null) {
+            if (newLeft.length != capacity) counters.resized(capacity, newLeft.length, size);
+            else copied("unshare", size);
+        }
+        releaseColumns();
         left    = newLeft;
         middle  = newMiddle;
         right   = newRight;
+        capacity = newLeft.length;
+        shared  = false;
+    }
+
+    /**
+     * Returns columns about to be replaced to the pools, columns of a snapshot are kept.
+     */
+    private void releaseColumns() {
+        if (leftArrays == null || shared) return;
+        leftArrays.release(left, size);
+        middleArrays.release(middle, size);
+        rightArrays.release(right, size);
+    }
+
+    private ListCounters newCounters() {
+        return new ListCounters(getClass().getName(), Encodings.valueBytes((L) null) + Encodings.valueBytes((M) null)
+                + Encodings.valueBytes((R) null));
+    }
+
+    private void copied(String operation, int rows) {
+        if (counters != null && rows > 0) counters.copied(operation, (long) rows * counters.rowBytes());
+    }
+
+    private static int wordsFor(int rows) {
+        return (rows + 63) >>> 6;
     }
 
-    private int nearestPowerOf2(int capacity) {
-        return Math.max(DEFAULT_CAPACITY, 1 << ((int) (StrictMath.log10(capacity) / LOG_RATIO) + 1));
+    private L[] leftColumn(int capacity) {
+        return leftArrays == null ? initLeft(capacity) : leftArrays.borrow(capacity);
+    }
+
+    private M[] middleColumn(int capacity) {
+        return middleArrays == null ? initMiddle(capacity) : middleArrays.borrow(capacity);
+    }
+
+    private R[] rightColumn(int capacity) {
+        return rightArrays == null ? initRight(capacity) : rightArrays.borrow(capacity);
     }
 
     private L[] initLeft(int capacity) {
@@ -301,7 +823,7 @@ public class TripleArrayList<L, M, R> implements TripleList<L, M, R> {
     }
 
     private boolean isSame(L l1, L l2, M m1, M m2, R r1, R r2) {
-        return l1.equals(l2) && m1.equals(m2) && r1.equals(r2);
+        return Tuples.equal(l1, l2) && Tuples.equal(m1, m2) && Tuples.equal(r1, r2);
     }
 
     private void checkParameters(L[] left, M[] middle, R[] right) {
@@ -309,6 +831,534 @@ public class TripleArrayList<L, M, R> implements TripleList<L, M, R> {
         if (left.length != middle.length || middle.length != right.length) throw new IllegalArgumentException();
     }
 
+    private class ProbeProcedure implements TripleProcedure<L, M, R> {
+
+        private final TripleHashSet<L, M, R> probe;
+
+        private final boolean removeContained;
+
+        private ProbeProcedure(TripleHashSet<L, M, R> probe, boolean removeContained) {
+            this.probe = probe;
+            this.removeContained = removeContained;
+        }
+
+        @Override
+        public boolean execute(L left, M middle, R right) {
+            return probe.contains(left, middle, right) == removeContained;
+        }
+    }
+
+    /**
+     * Range of the list addressed by offset and length, reads and writes go to the list columns.
+     */
+    public class SubList implements TripleList<L, M, R> {
+
+        private final SubList parent;
+
+        private final int offset;
+
+        private int length;
+
+        private SubList(SubList parent, int offset, int length) {
+            this.parent = parent;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public boolean add(L leftElement, M middleElement, R rightElement) {
+            L[] leftAdd = initLeft(1);
+            M[] middleAdd = initMiddle(1);
+            R[] rightAdd = initRight(1);
+            leftAdd[0] = leftElement;
+            middleAdd[0] = middleElement;
+            rightAdd[0] = rightElement;
+            return addAll(leftAdd, middleAdd, rightAdd);
+        }
+
+        @Override
+        public boolean addAll(L[] leftAdd, M[] middleAdd, R[] rightAdd) {
+            checkParameters(leftAdd, middleAdd, rightAdd);
+            if (!insertAll(offset + length, leftAdd, middleAdd, rightAdd, leftAdd.length)) return false;
+            resized(leftAdd.length);
+            return true;
+        }
+
+        @Override
+        public boolean addAll(TripleCollection<L, M, R> collection) {
+            return addAll(collection.getLeft(), collection.getMiddle(), collection.getRight());
+        }
+
+        @Override
+        public void clear() {
+            removeRange(offset, offset + length);
+            resized(-length);
+        }
+
+        @Override
+        public boolean contains(L leftElement, M middleElement, R rightElement) {
+            return indexOf(leftElement, middleElement, rightElement) >= 0;
+        }
+
+        @Override
+        public boolean containsAll(L[] leftElements, M[] middleElements, R[] rightElements) {
+            checkParameters(leftElements, middleElements, rightElements);
+            for (int i = 0; i < leftElements.length; i++)
+                if (!contains(leftElements[i], middleElements[i], rightElements[i]))
+                    return false;
+            return true;
+        }
+
+        @Override
+        public boolean containsAll(TripleCollection<L, M, R> collection) {
+            return collection.forEach(new TripleProcedure<L, M, R>() {
+                @Override
+                public boolean execute(L leftElement, M middleElement, R rightElement) {
+                    return contains(leftElement, middleElement, rightElement);
+                }
+            });
+        }
+
+        @Override
+        public boolean forEach(TripleProcedure<L, M, R> procedure) {
+            for (int i = offset; i < offset + length; i++)
+                if (!procedure.execute(left[i], middle[i], right[i]))
+                    return false;
+            return true;
+        }
+
+        @Override
+        public int indexOf(L leftElement, M middleElement, R rightElement) {
+            int index = TripleArrayList.this.indexOf(offset, offset + length, leftElement, middleElement, rightElement);
+            return index < 0 ? -1 : index - offset;
+        }
+
+        public int count(L leftElement, M middleElement, R rightElement) {
+            return TripleArrayList.this.count(offset, offset + length, leftElement, middleElement, rightElement);
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return length == 0;
+        }
+
+        @Override
+        public TripleIterator<L, M, R> iterator() {
+            return new RangeIterator();
+        }
+
+        @Override
+        public L getLeft(int index) {
+            checkIndex(index);
+            return left[offset + index];
+        }
+
+        /**
+         * @return copy of the left column range
+         */
+        @Override
+        public L[] getLeft() {
+            L[] result = initLeft(length);
+            System.arraycopy(left, offset, result, 0, length);
+            return result;
+        }
+
+        @Override
+        public M getMiddle(int index) {
+            checkIndex(index);
+            return middle[offset + index];
+        }
+
+        /**
+         * @return copy of the middle column range
+         */
+        @Override
+        public M[] getMiddle() {
+            M[] result = initMiddle(length);
+            System.arraycopy(middle, offset, result, 0, length);
+            return result;
+        }
+
+        @Override
+        public R getRight(int index) {
+            checkIndex(index);
+            return right[offset + index];
+        }
+
+        /**
+         * @return copy of the right column range
+         */
+        @Override
+        public R[] getRight() {
+            R[] result = initRight(length);
+            System.arraycopy(right, offset, result, 0, length);
+            return result;
+        }
+
+        @Override
+        public boolean remove(int index) {
+            if (index < 0) throw new IllegalArgumentException();
+            if (index >= length) return false;
+            TripleArrayList.this.remove(offset + index);
+            resized(-1);
+            return true;
+        }
+
+        @Override
+        public boolean remove(final L leftElement, final M middleElement, final R rightElement) {
+            return removeIf(new TripleProcedure<L, M, R>() {
+                @Override
+                public boolean execute(L left, M middle, R right) {
+                    return isSame(left, leftElement, middle, middleElement, right, rightElement);
+                }
+            });
+        }
+
+        @Override
+        public boolean removeAll(L[] leftElements, M[] middleElements, R[] rightElements) {
+            return removeIf(new ProbeProcedure(new TripleHashSet<L, M, R>(leftElements, middleElements, rightElements), true));
+        }
+
+        @Override
+        public boolean removeAll(TripleCollection<L, M, R> collection) {
+            return removeIf(new ProbeProcedure(probe(collection), true));
+        }
+
+        @Override
+        public boolean retainAll(L[] leftToRetain, M[] middleToRetain, R[] rightToRetain) {
+            return removeIf(new ProbeProcedure(new TripleHashSet<L, M, R>(leftToRetain, middleToRetain, rightToRetain), false));
+        }
+
+        @Override
+        public boolean retainAll(TripleCollection<L, M, R> collection) {
+            return removeIf(new ProbeProcedure(probe(collection), false));
+        }
+
+        @Override
+        public boolean removeIf(TripleProcedure<L, M, R> filter) {
+            int removed = TripleArrayList.this.removeIf(offset, offset + length, filter);
+            resized(-removed);
+            return removed > 0;
+        }
+
+        @Override
+        public void transformValues(TripleFunction<L, M, R> function) {
+            unshare();
+            for (int i = offset; i < offset + length; i++) {
+                left[i]     = function.executeLeft(left[i]);
+                middle[i]   = function.executeMiddle(middle[i]);
+                right[i]    = function.executeRight(right[i]);
+            }
+            indexes.rebuild(TripleArrayList.this);
+        }
+
+        @Override
+        public int size() {
+            return length;
+        }
+
+        /**
+         * @return view of the range within this view
+         */
+        @Override
+        public SubList subList(int begin, int end) {
+            if (begin < 0 || end > length || begin > end) throw new IndexOutOfBoundsException();
+            return new SubList(this, offset + begin, end - begin);
+        }
+
+        /**
+         * Indexes are attached to the whole list, see {@link TripleArrayList#attachLeftIndex}.
+         */
+        @Override
+        public void attachLeftIndex(ColumnIndex<L> index) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void attachMiddleIndex(ColumnIndex<M> index) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void attachRightIndex(ColumnIndex<R> index) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void detachIndexes() {
+        }
+
+        /**
+         * Uses index attached to the whole list if any.
+         */
+        @Override
+        public int[] lookupLeft(L value) {
+            return inRange(indexes.lookupLeft(value, TripleArrayList.this));
+        }
+
+        @Override
+        public int[] lookupMiddle(M value) {
+            return inRange(indexes.lookupMiddle(value, TripleArrayList.this));
+        }
+
+        @Override
+        public int[] lookupRight(R value) {
+            return inRange(indexes.lookupRight(value, TripleArrayList.this));
+        }
+
+        /**
+         * @return detached copy of the range
+         */
+        public TripleArrayList<L, M, R> copy() {
+            return copyOf(offset, offset + length);
+        }
+
+        /**
+         * Copies triples of the view from begin (inclusive) to end (exclusive) to the arrays starting at offset.
+         */
+        public void copyRange(int begin, int end, L[] leftTarget, M[] middleTarget, R[] rightTarget, int offset) {
+            if (begin < 0 || end > length || begin > end) throw new IndexOutOfBoundsException();
+            TripleArrayList.this.copyRange(this.offset + begin, this.offset + end, leftTarget, middleTarget, rightTarget, offset);
+        }
+
+        /**
+         * @return cursor reading triples of the view from the first one
+         */
+        public TripleCursor<L, M, R> cursor() {
+            return new Cursor(this);
+        }
+
+        private int[] inRange(int[] rows) {
+            int count = 0;
+            for (int i = 0; i < rows.length; i++)
+                if (rows[i] >= offset && rows[i] < offset + length)
+                    count++;
+            int[] result = new int[count];
+            count = 0;
+            for (int i = 0; i < rows.length; i++)
+                if (rows[i] >= offset && rows[i] < offset + length)
+                    result[count++] = rows[i] - offset;
+            return result;
+        }
+
+        private void resized(int delta) {
+            for (SubList list = this; list != null; list = list.parent)
+                list.length += delta;
+        }
+
+        private void checkIndex(int index) {
+            if (index < 0 || index >= length) throw new IndexOutOfBoundsException("Index: " + index + ", size: " + length);
+        }
+
+        private class RangeIterator implements TripleIterator<L, M, R> {
+
+            private int current;
+
+            @Override
+            public boolean hasNext() {
+                return current < length;
+            }
+
+            @Override
+            public void iterate() {
+                current++;
+            }
+
+            @Override
+            public boolean remove() {
+                if (!SubList.this.remove(current)) return false;
+                current--;
+                return true;
+            }
+
+            @Override
+            public L nextLeft() {
+                return left[offset + current];
+            }
+
+            @Override
+            public M nextMiddle() {
+                return middle[offset + current];
+            }
+
+            @Override
+            public R nextRight() {
+                return right[offset + current];
+            }
+        }
+    }
+
+    /**
+     * Rows of the list chosen by {@link #filter} or {@link #select}, one bit per row. Selections
+     * of the same list are combined with {@link #and}, {@link #or} and {@link #not} without reading
+     * the columns, {@link #forEach} and {@link #materialize()} read only selected triples.
+     * Selections are immutable, structural changes of the list leave them undefined.
+     */
+    public class Selection {
+
+        private final long[] words;
+
+        private final int length;
+
+        private Selection(long[] words, int length) {
+            this.words = words;
+            this.length = length;
+        }
+
+        /**
+         * @return rows selected by both selections
+         */
+        public Selection and(Selection other) {
+            checkSelection(other);
+            long[] result = new long[words.length];
+            for (int i = 0; i < words.length; i++)
+                result[i] = words[i] & other.words[i];
+            return new Selection(result, length);
+        }
+
+        /**
+         * @return rows selected by any of selections
+         */
+        public Selection or(Selection other) {
+            checkSelection(other);
+            long[] result = new long[words.length];
+            for (int i = 0; i < words.length; i++)
+                result[i] = words[i] | other.words[i];
+            return new Selection(result, length);
+        }
+
+        /**
+         * @return rows not selected by this selection
+         */
+        public Selection not() {
+            long[] result = new long[words.length];
+            for (int i = 0; i < words.length; i++)
+                result[i] = ~words[i];
+            if ((length & 63) != 0) result[result.length - 1] &= (1L << length) - 1;
+            return new Selection(result, length);
+        }
+
+        /**
+         * @return selected rows for which the filter returns {@code true}, other rows are not read
+         */
+        public Selection filter(TripleProcedure<L, M, R> filter) {
+            long[] result = new long[words.length];
+            for (int word = 0; word < words.length; word++)
+                for (long bits = words[word]; bits != 0; bits &= bits - 1) {
+                    int row = word << 6 | Long.numberOfTrailingZeros(bits);
+                    if (filter.execute(left[row], middle[row], right[row]))
+                        result[word] |= bits & -bits;
+                }
+            return new Selection(result, length);
+        }
+
+        public boolean isSelected(int index) {
+            if (index < 0 || index >= length) throw new IndexOutOfBoundsException("Index: " + index + ", size: " + length);
+            return (words[index >>> 6] & 1L << index) != 0;
+        }
+
+        public boolean isEmpty() {
+            for (long word : words)
+                if (word != 0)
+                    return false;
+            return true;
+        }
+
+        /**
+         * @return number of selected rows
+         */
+        public int size() {
+            int count = 0;
+            for (long word : words)
+                count += Long.bitCount(word);
+            return count;
+        }
+
+        /**
+         * @return indexes of selected rows in ascending order
+         */
+        public int[] rows() {
+            int[] rows = new int[size()];
+            int count = 0;
+            for (int word = 0; word < words.length; word++)
+                for (long bits = words[word]; bits != 0; bits &= bits - 1)
+                    rows[count++] = word << 6 | Long.numberOfTrailingZeros(bits);
+            return rows;
+        }
+
+        public boolean forEach(TripleProcedure<L, M, R> procedure) {
+            for (int word = 0; word < words.length; word++)
+                for (long bits = words[word]; bits != 0; bits &= bits - 1) {
+                    int row = word << 6 | Long.numberOfTrailingZeros(bits);
+                    if (!procedure.execute(left[row], middle[row], right[row]))
+                        return false;
+                }
+            return true;
+        }
+
+        /**
+         * @return new list of selected triples in list order
+         */
+        public TripleArrayList<L, M, R> materialize() {
+            int count = size();
+            int resultCapacity = policy.grow(0, count);
+            L[] resultLeft = initLeft(resultCapacity);
+            M[] resultMiddle = initMiddle(resultCapacity);
+            R[] resultRight = initRight(resultCapacity);
+            int current = 0;
+            for (int word = 0; word < words.length; word++)
+                for (long bits = words[word]; bits != 0; bits &= bits - 1) {
+                    int row = word << 6 | Long.numberOfTrailingZeros(bits);
+                    resultLeft[current] = left[row];
+                    resultMiddle[current] = middle[row];
+                    resultRight[current++] = right[row];
+                }
+            return initialize(resultLeft, resultMiddle, resultRight, resultCapacity, count);
+        }
+
+        private TripleArrayList<L, M, R> list() {
+            return TripleArrayList.this;
+        }
+
+        private void checkSelection(Selection other) {
+            if (other.list() != TripleArrayList.this || other.length != length) throw new IllegalArgumentException();
+        }
+    }
+
+    private class Cursor implements TripleCursor<L, M, R> {
+
+        private final SubList range;
+
+        private int current;
+
+        private Cursor(SubList range) {
+            this.range = range;
+            current = range == null ? 0 : range.offset;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return current < end();
+        }
+
+        @Override
+        public int readBatch(L[] leftBuffer, M[] middleBuffer, R[] rightBuffer, int max) {
+            if (max < 0) throw new IllegalArgumentException();
+            int count = Math.min(max, end() - current);
+            if (count <= 0) return 0;
+            System.arraycopy(left, current, leftBuffer, 0, count);
+            System.arraycopy(middle, current, middleBuffer, 0, count);
+            System.arraycopy(right, current, rightBuffer, 0, count);
+            copied("copy", count);
+            current += count;
+            return count;
+        }
+
+        private int end() {
+            return range == null ? size : range.offset + range.length;
+        }
+    }
+
     private class Iterator implements TripleIterator<L, M, R> {
 
         private int current;
@@ -329,7 +1379,9 @@ public class TripleArrayList<L, M, R> implements TripleList<L, M, R> {
 
         @Override
         public boolean remove() {
-            return TripleArrayList.this.remove(current);
+            if (!TripleArrayList.this.remove(current)) return false;
+            current--;
+            return true;
         }
 
         @Override
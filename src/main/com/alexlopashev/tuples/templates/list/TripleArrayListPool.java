@@ -0,0 +1,106 @@
+package com.alexlopashev.tuples.templates.list;
+
+import java.util.ArrayDeque;
+
+/**
+ * Triple lists kept for reuse, e.g. scratch lists of request handlers. Every thread has its own
+ * free lists, so borrowing and releasing never contend. Lists of the pool take columns from
+ * column array pools shared by all its lists and return columns replaced on growth, so once
+ * the pool is warm borrowing, filling and releasing a list allocates nothing.
+ */
+public class TripleArrayListPool<L, M, R> {
+
+    public static final int DEFAULT_MAX_POOLED = 16;
+
+    private final int initialCapacity;
+
+    private final int maxPooled;
+
+    private final int maxCapacity;
+
+    private final ColumnArrayPool<L> leftArrays;
+
+    private final ColumnArrayPool<M> middleArrays;
+
+    private final ColumnArrayPool<R> rightArrays;
+
+    private final ThreadLocal<ArrayDeque<TripleArrayList<L, M, R>>> free = new ThreadLocal<ArrayDeque<TripleArrayList<L, M, R>>>() {
+        @Override
+        protected ArrayDeque<TripleArrayList<L, M, R>> initialValue() {
+            return new ArrayDeque<TripleArrayList<L, M, R>>();
+        }
+    };
+
+    public TripleArrayListPool() {
+        this(GrowthPolicies.MIN_CAPACITY, DEFAULT_MAX_POOLED, ColumnArrayPool.DEFAULT_MAX_LENGTH);
+    }
+
+    /**
+     * @param initialCapacity capacity of new lists
+     * @param maxPooled       number of free lists and of free column arrays per size class a thread keeps
+     * @param maxCapacity     capacity of the largest list kept, larger ones are left to the garbage collector
+     */
+    public TripleArrayListPool(int initialCapacity, int maxPooled, int maxCapacity) {
+        if (initialCapacity < 0) throw new IllegalArgumentException("Illegal capacity: " + initialCapacity);
+        if (maxPooled < 0) throw new IllegalArgumentException("Illegal number of lists: " + maxPooled);
+        if (maxCapacity < 0) throw new IllegalArgumentException("Illegal capacity: " + maxCapacity);
+        this.initialCapacity = initialCapacity;
+        this.maxPooled = maxPooled;
+        this.maxCapacity = maxCapacity;
+        this.leftArrays = new ColumnArrayPool<L>(maxPooled, maxCapacity);
+        this.middleArrays = new ColumnArrayPool<M>(maxPooled, maxCapacity);
+        this.rightArrays = new ColumnArrayPool<R>(maxPooled, maxCapacity);
+    }
+
+    /**
+     * @return empty list, a released one if the current thread has any
+     */
+    public TripleArrayList<L, M, R> borrow() {
+        TripleArrayList<L, M, R> list = free.get().pollLast();
+        if (list != null) return list;
+        return new TripleArrayList<L, M, R>(initialCapacity, leftArrays, middleArrays, rightArrays);
+    }
+
+    /**
+     * Resets the list and keeps it for reuse, neither the list nor its views must be used
+     * afterwards. Snapshots stay valid, their columns are never returned to the pool.
+     *
+     * @return whether the list is kept
+     */
+    public boolean release(TripleArrayList<L, M, R> list) {
+        if (list == null) throw new NullPointerException();
+        ArrayDeque<TripleArrayList<L, M, R>> lists = free.get();
+        if (list.capacity() > maxCapacity || lists.size() >= maxPooled) return false;
+        list.reset();
+        lists.addLast(list);
+        return true;
+    }
+
+    /**
+     * @return pool of left column arrays used by lists of this pool, handlers may borrow from it too
+     */
+    public ColumnArrayPool<L> leftArrays() {
+        return leftArrays;
+    }
+
+    /**
+     * @return pool of middle column arrays used by lists of this pool, handlers may borrow from it too
+     */
+    public ColumnArrayPool<M> middleArrays() {
+        return middleArrays;
+    }
+
+    /**
+     * @return pool of right column arrays used by lists of this pool, handlers may borrow from it too
+     */
+    public ColumnArrayPool<R> rightArrays() {
+        return rightArrays;
+    }
+
+    /**
+     * @return number of free lists the current thread keeps
+     */
+    public int pooled() {
+        return free.get().size();
+    }
+}
@@ -0,0 +1,604 @@
+package com.alexlopashev.tuples.templates.list;
+
+import com.alexlopashev.tuples.templates.TripleCollection;
+import com.alexlopashev.tuples.templates.Tuples;
+import com.alexlopashev.tuples.templates.function.TripleFunction;
+import com.alexlopashev.tuples.templates.index.ColumnIndex;
+import com.alexlopashev.tuples.templates.index.TripleIndexes;
+import com.alexlopashev.tuples.templates.iterator.TripleCursor;
+import com.alexlopashev.tuples.templates.iterator.TripleIterator;
+import com.alexlopashev.tuples.templates.procedure.TripleProcedure;
+import com.alexlopashev.tuples.templates.set.TripleHashSet;
+
+/**
+ * Triple list with columns split into fixed-size chunks referenced from a directory. Growing
+ * allocates one more chunk and never copies triples, only the small directory is reallocated,
+ * so large lists produce no huge allocations. Chunks which are no longer needed after
+ * removals are released, one spare chunk is kept to avoid allocation on the next append.
+ */
+public class TripleChunkedList<L, M, R> implements TripleList<L, M, R> {
+
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 12;
+
+    private static final int DEFAULT_DIRECTORY_CAPACITY = 8;
+
+    private final int chunkShift;
+
+    private final int chunkMask;
+
+    private L[][] left;
+
+    private M[][] middle;
+
+    private R[][] right;
+
+    private int chunks;
+
+    /**
+     * Chunks referenced by a snapshot, such chunk is copied before its triples below size change.
+     */
+    private boolean[] shared;
+
+    private int size;
+
+    private final TripleIndexes<L, M, R> indexes = new TripleIndexes<L, M, R>();
+
+    public TripleChunkedList() {
+        this(DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param chunkSize number of triples in a chunk, power of two
+     */
+    public TripleChunkedList(int chunkSize) {
+        if (chunkSize <= 0 || Integer.bitCount(chunkSize) != 1) throw new IllegalArgumentException("Chunk size: " + chunkSize);
+        chunkShift = Integer.numberOfTrailingZeros(chunkSize);
+        chunkMask = chunkSize - 1;
+        left = (L[][]) new Object[DEFAULT_DIRECTORY_CAPACITY][];
+        middle = (M[][]) new Object[DEFAULT_DIRECTORY_CAPACITY][];
+        right = (R[][]) new Object[DEFAULT_DIRECTORY_CAPACITY][];
+        shared = new boolean[DEFAULT_DIRECTORY_CAPACITY];
+    }
+
+    public TripleChunkedList(L[] leftInit, M[] middleInit, R[] rightInit) {
+        this();
+        addAll(leftInit, middleInit, rightInit);
+    }
+
+    @Override
+    public boolean add(L leftElement, M middleElement, R rightElement) {
+        if (size == Integer.MAX_VALUE) return false;
+        extendBy(1);
+        left[size >>> chunkShift][size & chunkMask] = leftElement;
+        middle[size >>> chunkShift][size & chunkMask] = middleElement;
+        right[size >>> chunkShift][size & chunkMask] = rightElement;
+        size++;
+        indexes.added(size - 1, leftElement, middleElement, rightElement);
+        return true;
+    }
+
+    @Override
+    public boolean addAll(L[] leftAdd, M[] middleAdd, R[] rightAdd) {
+        checkParameters(leftAdd, middleAdd, rightAdd);
+        return addAll(leftAdd, middleAdd, rightAdd, leftAdd.length);
+    }
+
+    @Override
+    public boolean addAll(TripleCollection<L, M, R> collection) {
+        return addAll(collection.getLeft(), collection.getMiddle(), collection.getRight(), collection.size());
+    }
+
+    /**
+     * Drops all triples and releases all chunks.
+     */
+    @Override
+    public void clear() {
+        size = 0;
+        chunks = 0;
+        left = (L[][]) new Object[DEFAULT_DIRECTORY_CAPACITY][];
+        middle = (M[][]) new Object[DEFAULT_DIRECTORY_CAPACITY][];
+        right = (R[][]) new Object[DEFAULT_DIRECTORY_CAPACITY][];
+        shared = new boolean[DEFAULT_DIRECTORY_CAPACITY];
+        indexes.cleared();
+    }
+
+    @Override
+    public boolean contains(L leftElement, M middleElement, R rightElement) {
+        return indexOf(leftElement, middleElement, rightElement) >= 0;
+    }
+
+    @Override
+    public boolean containsAll(L[] leftElements, M[] middleElements, R[] rightElements) {
+        checkParameters(leftElements, middleElements, rightElements);
+        for (int i = 0; i < leftElements.length; i++)
+            if (!contains(leftElements[i], middleElements[i], rightElements[i]))
+                return false;
+        return true;
+    }
+
+    @Override
+    public boolean containsAll(TripleCollection<L, M, R> collection) {
+        return collection.forEach(new TripleProcedure<L, M, R>() {
+            @Override
+            public boolean execute(L leftElement, M middleElement, R rightElement) {
+                return contains(leftElement, middleElement, rightElement);
+            }
+        });
+    }
+
+    @Override
+    public boolean forEach(TripleProcedure<L, M, R> procedure) {
+        int used = usedChunks();
+        for (int chunk = 0; chunk < used; chunk++) {
+            L[] leftChunk = left[chunk];
+            M[] middleChunk = middle[chunk];
+            R[] rightChunk = right[chunk];
+            int length = Math.min(chunkMask + 1, size - (chunk << chunkShift));
+            for (int i = 0; i < length; i++)
+                if (!procedure.execute(leftChunk[i], middleChunk[i], rightChunk[i]))
+                    return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int indexOf(L leftElement, M middleElement, R rightElement) {
+        int used = usedChunks();
+        for (int chunk = 0; chunk < used; chunk++) {
+            L[] leftChunk = left[chunk];
+            M[] middleChunk = middle[chunk];
+            R[] rightChunk = right[chunk];
+            int length = Math.min(chunkMask + 1, size - (chunk << chunkShift));
+            for (int i = 0; i < length; i++)
+                if (Tuples.equal(leftChunk[i], leftElement) && Tuples.equal(middleChunk[i], middleElement)
+                        && Tuples.equal(rightChunk[i], rightElement))
+                    return (chunk << chunkShift) + i;
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public TripleIterator<L, M, R> iterator() {
+        return new Iterator();
+    }
+
+    @Override
+    public L getLeft(int index) {
+        checkIndex(index);
+        return left[index >>> chunkShift][index & chunkMask];
+    }
+
+    /**
+     * @return copy of the left column
+     */
+    @Override
+    public L[] getLeft() {
+        L[] result = (L[]) new Object[size];
+        int used = usedChunks();
+        for (int chunk = 0; chunk < used; chunk++)
+            System.arraycopy(left[chunk], 0, result, chunk << chunkShift, Math.min(chunkMask + 1, size - (chunk << chunkShift)));
+        return result;
+    }
+
+    @Override
+    public M getMiddle(int index) {
+        checkIndex(index);
+        return middle[index >>> chunkShift][index & chunkMask];
+    }
+
+    /**
+     * @return copy of the middle column
+     */
+    @Override
+    public M[] getMiddle() {
+        M[] result = (M[]) new Object[size];
+        int used = usedChunks();
+        for (int chunk = 0; chunk < used; chunk++)
+            System.arraycopy(middle[chunk], 0, result, chunk << chunkShift, Math.min(chunkMask + 1, size - (chunk << chunkShift)));
+        return result;
+    }
+
+    @Override
+    public R getRight(int index) {
+        checkIndex(index);
+        return right[index >>> chunkShift][index & chunkMask];
+    }
+
+    /**
+     * @return copy of the right column
+     */
+    @Override
+    public R[] getRight() {
+        R[] result = (R[]) new Object[size];
+        int used = usedChunks();
+        for (int chunk = 0; chunk < used; chunk++)
+            System.arraycopy(right[chunk], 0, result, chunk << chunkShift, Math.min(chunkMask + 1, size - (chunk << chunkShift)));
+        return result;
+    }
+
+    /**
+     * Shifts following triples chunk by chunk, each chunk with one arraycopy.
+     */
+    @Override
+    public boolean remove(int index) {
+        if (index < 0) throw new IllegalArgumentException();
+        if (index >= size) return false;
+        indexes.removed(index, getLeft(index), getMiddle(index), getRight(index));
+        int last = size - 1;
+        for (int chunk = index >>> chunkShift; chunk <= last >>> chunkShift; chunk++) {
+            int from = chunk == index >>> chunkShift ? index & chunkMask : 0;
+            int to = chunk == last >>> chunkShift ? last & chunkMask : chunkMask;
+            own(chunk);
+            System.arraycopy(left[chunk], from + 1, left[chunk], from, to - from);
+            System.arraycopy(middle[chunk], from + 1, middle[chunk], from, to - from);
+            System.arraycopy(right[chunk], from + 1, right[chunk], from, to - from);
+            if (chunk < last >>> chunkShift) {
+                left[chunk][chunkMask] = left[chunk + 1][0];
+                middle[chunk][chunkMask] = middle[chunk + 1][0];
+                right[chunk][chunkMask] = right[chunk + 1][0];
+            }
+        }
+        left[last >>> chunkShift][last & chunkMask] = (L) null;
+        middle[last >>> chunkShift][last & chunkMask] = (M) null;
+        right[last >>> chunkShift][last & chunkMask] = (R) null;
+        size--;
+        shrink();
+        return true;
+    }
+
+    @Override
+    public boolean remove(final L leftElement, final M middleElement, final R rightElement) {
+        return removeIf(new TripleProcedure<L, M, R>() {
+            @Override
+            public boolean execute(L left, M middle, R right) {
+                return Tuples.equal(left, leftElement) && Tuples.equal(middle, middleElement)
+                        && Tuples.equal(right, rightElement);
+            }
+        });
+    }
+
+    @Override
+    public boolean removeAll(L[] leftElements, M[] middleElements, R[] rightElements) {
+        return removeIf(new ProbeProcedure(new TripleHashSet<L, M, R>(leftElements, middleElements, rightElements), true));
+    }
+
+    @Override
+    public boolean removeAll(TripleCollection<L, M, R> collection) {
+        return removeIf(new ProbeProcedure(probe(collection), true));
+    }
+
+    @Override
+    public boolean retainAll(L[] leftToRetain, M[] middleToRetain, R[] rightToRetain) {
+        return removeIf(new ProbeProcedure(new TripleHashSet<L, M, R>(leftToRetain, middleToRetain, rightToRetain), false));
+    }
+
+    @Override
+    public boolean retainAll(TripleCollection<L, M, R> collection) {
+        return removeIf(new ProbeProcedure(probe(collection), false));
+    }
+
+    /**
+     * Removes triples in a single compaction pass, then releases emptied chunks.
+     */
+    @Override
+    public boolean removeIf(TripleProcedure<L, M, R> filter) {
+        int retained = 0;
+        for (int i = 0; i < size; i++) {
+            L leftElement = left[i >>> chunkShift][i & chunkMask];
+            M middleElement = middle[i >>> chunkShift][i & chunkMask];
+            R rightElement = right[i >>> chunkShift][i & chunkMask];
+            if (filter.execute(leftElement, middleElement, rightElement))
+                continue;
+            if (retained != i) {
+                own(retained >>> chunkShift);
+                left[retained >>> chunkShift][retained & chunkMask] = leftElement;
+                middle[retained >>> chunkShift][retained & chunkMask] = middleElement;
+                right[retained >>> chunkShift][retained & chunkMask] = rightElement;
+            }
+            retained++;
+        }
+        if (retained == size) return false;
+        for (int i = retained; i < size; i++) {
+            own(i >>> chunkShift);
+            left[i >>> chunkShift][i & chunkMask] = (L) null;
+            middle[i >>> chunkShift][i & chunkMask] = (M) null;
+            right[i >>> chunkShift][i & chunkMask] = (R) null;
+        }
+        size = retained;
+        shrink();
+        indexes.rebuild(this);
+        return true;
+    }
+
+    @Override
+    public void transformValues(TripleFunction<L, M, R> function) {
+        int used = usedChunks();
+        for (int chunk = 0; chunk < used; chunk++) {
+            own(chunk);
+            L[] leftChunk = left[chunk];
+            M[] middleChunk = middle[chunk];
+            R[] rightChunk = right[chunk];
+            int length = Math.min(chunkMask + 1, size - (chunk << chunkShift));
+            for (int i = 0; i < length; i++) {
+                leftChunk[i] = function.executeLeft(leftChunk[i]);
+                middleChunk[i] = function.executeMiddle(middleChunk[i]);
+                rightChunk[i] = function.executeRight(rightChunk[i]);
+            }
+        }
+        indexes.rebuild(this);
+    }
+
+    /**
+     * Copies triples from begin (inclusive) to end (exclusive) to the arrays starting at offset,
+     * one arraycopy per chunk.
+     */
+    public void copyRange(int begin, int end, L[] leftTarget, M[] middleTarget, R[] rightTarget, int offset) {
+        if (begin < 0 || end > size || begin > end) throw new IndexOutOfBoundsException();
+        for (int from = begin, to = from + end - begin, count; from < to; from += count, offset += count) {
+            count = Math.min(chunkMask + 1 - (from & chunkMask), to - from);
+            System.arraycopy(left[from >>> chunkShift], from & chunkMask, leftTarget, offset, count);
+            System.arraycopy(middle[from >>> chunkShift], from & chunkMask, middleTarget, offset, count);
+            System.arraycopy(right[from >>> chunkShift], from & chunkMask, rightTarget, offset, count);
+        }
+    }
+
+    /**
+     * @return cursor reading triples from the first one, triples added meanwhile are read as well
+     */
+    public TripleCursor<L, M, R> cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Returns immutable list of the current triples sharing chunks with this list, only the
+     * directory is copied. A shared chunk is copied on the first change of its existing triples,
+     * appends copy nothing.
+     */
+    public TripleSnapshotList<L, M, R> snapshot() {
+        int used = usedChunks();
+        L[][] leftChunks = (L[][]) new Object[used][];
+        M[][] middleChunks = (M[][]) new Object[used][];
+        R[][] rightChunks = (R[][]) new Object[used][];
+        System.arraycopy(left, 0, leftChunks, 0, used);
+        System.arraycopy(middle, 0, middleChunks, 0, used);
+        System.arraycopy(right, 0, rightChunks, 0, used);
+        for (int chunk = 0; chunk < used; chunk++)
+            shared[chunk] = true;
+        return new TripleSnapshotList<L, M, R>(leftChunks, middleChunks, rightChunks, chunkShift, size);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return copy of the range with the same chunk size
+     */
+    @Override
+    public TripleChunkedList<L, M, R> subList(int begin, int end) {
+        if (begin < 0 || end > size || begin > end) throw new IndexOutOfBoundsException();
+        TripleChunkedList<L, M, R> list = new TripleChunkedList<L, M, R>(chunkMask + 1);
+        list.extendBy(end - begin);
+        for (int i = begin; i < end; i++) {
+            list.left[(i - begin) >>> chunkShift][(i - begin) & chunkMask] = left[i >>> chunkShift][i & chunkMask];
+            list.middle[(i - begin) >>> chunkShift][(i - begin) & chunkMask] = middle[i >>> chunkShift][i & chunkMask];
+            list.right[(i - begin) >>> chunkShift][(i - begin) & chunkMask] = right[i >>> chunkShift][i & chunkMask];
+        }
+        list.size = end - begin;
+        return list;
+    }
+
+    @Override
+    public void attachLeftIndex(ColumnIndex<L> index) {
+        indexes.attachLeft(index, this);
+    }
+
+    @Override
+    public void attachMiddleIndex(ColumnIndex<M> index) {
+        indexes.attachMiddle(index, this);
+    }
+
+    @Override
+    public void attachRightIndex(ColumnIndex<R> index) {
+        indexes.attachRight(index, this);
+    }
+
+    @Override
+    public void detachIndexes() {
+        indexes.detach();
+    }
+
+    @Override
+    public int[] lookupLeft(L value) {
+        return indexes.lookupLeft(value, this);
+    }
+
+    @Override
+    public int[] lookupMiddle(M value) {
+        return indexes.lookupMiddle(value, this);
+    }
+
+    @Override
+    public int[] lookupRight(R value) {
+        return indexes.lookupRight(value, this);
+    }
+
+    private boolean addAll(L[] leftAdd, M[] middleAdd, R[] rightAdd, int count) {
+        if (size >= Integer.MAX_VALUE - count) return false;
+        extendBy(count);
+        for (int copied = 0; copied < count; ) {
+            int index = size + copied;
+            int length = Math.min(count - copied, chunkMask + 1 - (index & chunkMask));
+            System.arraycopy(leftAdd, copied, left[index >>> chunkShift], index & chunkMask, length);
+            System.arraycopy(middleAdd, copied, middle[index >>> chunkShift], index & chunkMask, length);
+            System.arraycopy(rightAdd, copied, right[index >>> chunkShift], index & chunkMask, length);
+            copied += length;
+        }
+        size += count;
+        for (int i = size - count; i < size; i++)
+            indexes.added(i, getLeft(i), getMiddle(i), getRight(i));
+        return true;
+    }
+
+    /**
+     * Allocates chunks for offset more triples, the directory grows by doubling.
+     */
+    private void extendBy(int offset) {
+        int needed = chunksFor((long) size + offset);
+        if (needed <= chunks) return;
+        if (needed > left.length) {
+            int capacity = Math.max(needed, left.length << 1);
+            L[][] newLeft = (L[][]) new Object[capacity][];
+            M[][] newMiddle = (M[][]) new Object[capacity][];
+            R[][] newRight = (R[][]) new Object[capacity][];
+            System.arraycopy(left, 0, newLeft, 0, chunks);
+            System.arraycopy(middle, 0, newMiddle, 0, chunks);
+            System.arraycopy(right, 0, newRight, 0, chunks);
+            boolean[] newShared = new boolean[capacity];
+            System.arraycopy(shared, 0, newShared, 0, chunks);
+            left = newLeft;
+            middle = newMiddle;
+            right = newRight;
+            shared = newShared;
+        }
+        for (; chunks < needed; chunks++) {
+            left[chunks] = (L[]) new Object[chunkMask + 1];
+            middle[chunks] = (M[]) new Object[chunkMask + 1];
+            right[chunks] = (R[]) new Object[chunkMask + 1];
+            shared[chunks] = false;
+        }
+    }
+
+    /**
+     * Releases chunks past the one following the last used chunk.
+     */
+    private void shrink() {
+        int keep = usedChunks() + 1;
+        for (; chunks > keep; chunks--) {
+            left[chunks - 1] = null;
+            middle[chunks - 1] = null;
+            right[chunks - 1] = null;
+            shared[chunks - 1] = false;
+        }
+    }
+
+    /**
+     * Replaces a chunk shared with snapshots by its copy.
+     */
+    private void own(int chunk) {
+        if (!shared[chunk]) return;
+        L[] leftChunk = (L[]) new Object[chunkMask + 1];
+        M[] middleChunk = (M[]) new Object[chunkMask + 1];
+        R[] rightChunk = (R[]) new Object[chunkMask + 1];
+        System.arraycopy(left[chunk], 0, leftChunk, 0, chunkMask + 1);
+        System.arraycopy(middle[chunk], 0, middleChunk, 0, chunkMask + 1);
+        System.arraycopy(right[chunk], 0, rightChunk, 0, chunkMask + 1);
+        left[chunk] = leftChunk;
+        middle[chunk] = middleChunk;
+        right[chunk] = rightChunk;
+        shared[chunk] = false;
+    }
+
+    private int usedChunks() {
+        return chunksFor(size);
+    }
+
+    private int chunksFor(long triples) {
+        return (int) ((triples + chunkMask) >>> chunkShift);
+    }
+
+    private TripleHashSet<L, M, R> probe(TripleCollection<L, M, R> collection) {
+        if (collection instanceof TripleHashSet)
+            return (TripleHashSet<L, M, R>) collection;
+        return new TripleHashSet<L, M, R>(collection);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+    }
+
+    private void checkParameters(L[] left, M[] middle, R[] right) {
+        if (left == null || middle == null || right == null) throw new NullPointerException();
+        if (left.length != middle.length || left.length != right.length) throw new IllegalArgumentException();
+    }
+
+    private class ProbeProcedure implements TripleProcedure<L, M, R> {
+
+        private final TripleHashSet<L, M, R> probe;
+
+        private final boolean removeContained;
+
+        private ProbeProcedure(TripleHashSet<L, M, R> probe, boolean removeContained) {
+            this.probe = probe;
+            this.removeContained = removeContained;
+        }
+
+        @Override
+        public boolean execute(L left, M middle, R right) {
+            return probe.contains(left, middle, right) == removeContained;
+        }
+    }
+
+    private class Cursor implements TripleCursor<L, M, R> {
+
+        private int current;
+
+        @Override
+        public boolean hasNext() {
+            return current < size;
+        }
+
+        @Override
+        public int readBatch(L[] leftBuffer, M[] middleBuffer, R[] rightBuffer, int max) {
+            if (max < 0) throw new IllegalArgumentException();
+            int count = Math.min(max, size - current);
+            if (count <= 0) return 0;
+            copyRange(current, current + count, leftBuffer, middleBuffer, rightBuffer, 0);
+            current += count;
+            return count;
+        }
+    }
+
+    private class Iterator implements TripleIterator<L, M, R> {
+
+        private int current;
+
+        @Override
+        public boolean hasNext() {
+            return current < size;
+        }
+
+        @Override
+        public void iterate() {
+            current++;
+        }
+
+        @Override
+        public boolean remove() {
+            if (!TripleChunkedList.this.remove(current)) return false;
+            current--;
+            return true;
+        }
+
+        @Override
+        public L nextLeft() {
+            return left[current >>> chunkShift][current & chunkMask];
+        }
+
+        @Override
+        public M nextMiddle() {
+            return middle[current >>> chunkShift][current & chunkMask];
+        }
+
+        @Override
+        public R nextRight() {
+            return right[current >>> chunkShift][current & chunkMask];
+        }
+    }
+}
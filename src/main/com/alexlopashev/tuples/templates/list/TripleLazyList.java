@@ -0,0 +1,471 @@
+package com.alexlopashev.tuples.templates.list;
+
+import com.alexlopashev.tuples.templates.TripleCollection;
+import com.alexlopashev.tuples.templates.Tuples;
+import com.alexlopashev.tuples.templates.function.ColumnFunction;
+import com.alexlopashev.tuples.templates.function.TripleFunction;
+import com.alexlopashev.tuples.templates.index.ColumnIndex;
+import com.alexlopashev.tuples.templates.index.TripleIndexes;
+import com.alexlopashev.tuples.templates.iterator.TripleIterator;
+import com.alexlopashev.tuples.templates.procedure.TripleProcedure;
+
+/**
+ * Read-only view of a triple list with column functions applied on access. Chained
+ * {@link #mapLeft}, {@link #mapMiddle}, {@link #mapRight}, {@link #map} and
+ * {@link #transformValues} calls are composed into one function per column, so the source is
+ * read once however long the chain is and an unmapped column is read as is. {@link #materialize()} applies functions in a single
+ * pass into a new list. The view follows changes of the source, structural changes through
+ * the view throw {@link UnsupportedOperationException}, so does attaching an index as values
+ * are computed on access, lookups scan the view.
+ */
+public class TripleLazyList<L, M, R> implements TripleList<L, M, R> {
+
+    private final TripleList<L, M, R> source;
+
+    private ColumnFunction<L> leftFunction;
+
+    private ColumnFunction<M> middleFunction;
+
+    private ColumnFunction<R> rightFunction;
+
+    private final TripleIndexes<L, M, R> scans = new TripleIndexes<L, M, R>();
+
+    public TripleLazyList(TripleList<L, M, R> source) {
+        this(source, null, null, null);
+    }
+
+    private TripleLazyList(TripleList<L, M, R> source, ColumnFunction<L> leftFunction, ColumnFunction<M> middleFunction,
+                           ColumnFunction<R> rightFunction) {
+        if (source == null) throw new NullPointerException();
+        this.source = source;
+        this.leftFunction = leftFunction;
+        this.middleFunction = middleFunction;
+        this.rightFunction = rightFunction;
+    }
+
+    /**
+     * @return new view with left values mapped by the function after functions of this view
+     */
+    public TripleLazyList<L, M, R> mapLeft(ColumnFunction<L> function) {
+        if (function == null) throw new NullPointerException();
+        return new TripleLazyList<L, M, R>(source, composeLeft(leftFunction, function), middleFunction, rightFunction);
+    }
+
+    /**
+     * @return new view with middle values mapped by the function after functions of this view
+     */
+    public TripleLazyList<L, M, R> mapMiddle(ColumnFunction<M> function) {
+        if (function == null) throw new NullPointerException();
+        return new TripleLazyList<L, M, R>(source, leftFunction, composeMiddle(middleFunction, function), rightFunction);
+    }
+
+    /**
+     * @return new view with right values mapped by the function after functions of this view
+     */
+    public TripleLazyList<L, M, R> mapRight(ColumnFunction<R> function) {
+        if (function == null) throw new NullPointerException();
+        return new TripleLazyList<L, M, R>(source, leftFunction, middleFunction, composeRight(rightFunction, function));
+    }
+
+    /**
+     * @return new view with all values mapped by the function after functions of this view
+     */
+    public TripleLazyList<L, M, R> map(TripleFunction<L, M, R> function) {
+        if (function == null) throw new NullPointerException();
+        return new TripleLazyList<L, M, R>(source, composeLeft(leftFunction, new LeftOf(function)),
+                composeMiddle(middleFunction, new MiddleOf(function)), composeRight(rightFunction, new RightOf(function)));
+    }
+
+    /**
+     * @return modifiable list with functions applied, the source is read once
+     */
+    public TripleArrayList<L, M, R> materialize() {
+        final TripleArrayList<L, M, R> result = new TripleArrayList<L, M, R>(source.size());
+        source.forEach(new TripleProcedure<L, M, R>() {
+            @Override
+            public boolean execute(L leftElement, M middleElement, R rightElement) {
+                return result.add(mappedLeft(leftElement), mappedMiddle(middleElement), mappedRight(rightElement));
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public boolean add(L leftElement, M middleElement, R rightElement) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean addAll(L[] leftAdd, M[] middleAdd, R[] rightAdd) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean addAll(TripleCollection<L, M, R> collection) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean contains(L leftElement, M middleElement, R rightElement) {
+        return indexOf(leftElement, middleElement, rightElement) >= 0;
+    }
+
+    @Override
+    public boolean containsAll(L[] leftElements, M[] middleElements, R[] rightElements) {
+        if (leftElements == null || middleElements == null || rightElements == null) throw new NullPointerException();
+        if (leftElements.length != middleElements.length || leftElements.length != rightElements.length) throw new IllegalArgumentException();
+        for (int i = 0; i < leftElements.length; i++)
+            if (!contains(leftElements[i], middleElements[i], rightElements[i]))
+                return false;
+        return true;
+    }
+
+    @Override
+    public boolean containsAll(TripleCollection<L, M, R> collection) {
+        return collection.forEach(new TripleProcedure<L, M, R>() {
+            @Override
+            public boolean execute(L leftElement, M middleElement, R rightElement) {
+                return contains(leftElement, middleElement, rightElement);
+            }
+        });
+    }
+
+    @Override
+    public boolean forEach(final TripleProcedure<L, M, R> procedure) {
+        return source.forEach(new TripleProcedure<L, M, R>() {
+            @Override
+            public boolean execute(L leftElement, M middleElement, R rightElement) {
+                return procedure.execute(mappedLeft(leftElement), mappedMiddle(middleElement), mappedRight(rightElement));
+            }
+        });
+    }
+
+    @Override
+    public int indexOf(L leftElement, M middleElement, R rightElement) {
+        int size = source.size();
+        for (int i = 0; i < size; i++)
+            if (Tuples.equal(mappedLeft(source.getLeft(i)), leftElement)
+                    && Tuples.equal(mappedMiddle(source.getMiddle(i)), middleElement)
+                    && Tuples.equal(mappedRight(source.getRight(i)), rightElement))
+                return i;
+        return -1;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return source.isEmpty();
+    }
+
+    @Override
+    public TripleIterator<L, M, R> iterator() {
+        return new Iterator();
+    }
+
+    @Override
+    public L getLeft(int index) {
+        checkIndex(index);
+        return mappedLeft(source.getLeft(index));
+    }
+
+    /**
+     * @return mapped copy of the left column
+     */
+    @Override
+    public L[] getLeft() {
+        int size = source.size();
+        L[] result = (L[]) new Object[size];
+        for (int i = 0; i < size; i++)
+            result[i] = mappedLeft(source.getLeft(i));
+        return result;
+    }
+
+    @Override
+    public M getMiddle(int index) {
+        checkIndex(index);
+        return mappedMiddle(source.getMiddle(index));
+    }
+
+    /**
+     * @return mapped copy of the middle column
+     */
+    @Override
+    public M[] getMiddle() {
+        int size = source.size();
+        M[] result = (M[]) new Object[size];
+        for (int i = 0; i < size; i++)
+            result[i] = mappedMiddle(source.getMiddle(i));
+        return result;
+    }
+
+    @Override
+    public R getRight(int index) {
+        checkIndex(index);
+        return mappedRight(source.getRight(index));
+    }
+
+    /**
+     * @return mapped copy of the right column
+     */
+    @Override
+    public R[] getRight() {
+        int size = source.size();
+        R[] result = (R[]) new Object[size];
+        for (int i = 0; i < size; i++)
+            result[i] = mappedRight(source.getRight(i));
+        return result;
+    }
+
+    @Override
+    public boolean remove(int index) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean remove(L leftElement, M middleElement, R rightElement) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean removeAll(L[] leftElements, M[] middleElements, R[] rightElements) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean removeAll(TripleCollection<L, M, R> collection) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean retainAll(L[] leftToRetain, M[] middleToRetain, R[] rightToRetain) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean retainAll(TripleCollection<L, M, R> collection) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean removeIf(TripleProcedure<L, M, R> filter) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Composes the function into this view, nothing is computed and the source is not changed.
+     */
+    @Override
+    public void transformValues(TripleFunction<L, M, R> function) {
+        if (function == null) throw new NullPointerException();
+        leftFunction = composeLeft(leftFunction, new LeftOf(function));
+        middleFunction = composeMiddle(middleFunction, new MiddleOf(function));
+        rightFunction = composeRight(rightFunction, new RightOf(function));
+    }
+
+    @Override
+    public int size() {
+        return source.size();
+    }
+
+    /**
+     * @return lazy view of the source range with the same functions
+     */
+    @Override
+    public TripleLazyList<L, M, R> subList(int begin, int end) {
+        return new TripleLazyList<L, M, R>(source.subList(begin, end), leftFunction, middleFunction, rightFunction);
+    }
+
+    @Override
+    public void attachLeftIndex(ColumnIndex<L> index) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void attachMiddleIndex(ColumnIndex<M> index) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void attachRightIndex(ColumnIndex<R> index) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void detachIndexes() {
+    }
+
+    @Override
+    public int[] lookupLeft(L value) {
+        return scans.lookupLeft(value, this);
+    }
+
+    @Override
+    public int[] lookupMiddle(M value) {
+        return scans.lookupMiddle(value, this);
+    }
+
+    @Override
+    public int[] lookupRight(R value) {
+        return scans.lookupRight(value, this);
+    }
+
+    private L mappedLeft(L value) {
+        return leftFunction == null ? value : leftFunction.execute(value);
+    }
+
+    private M mappedMiddle(M value) {
+        return middleFunction == null ? value : middleFunction.execute(value);
+    }
+
+    private R mappedRight(R value) {
+        return rightFunction == null ? value : rightFunction.execute(value);
+    }
+
+    private ColumnFunction<L> composeLeft(ColumnFunction<L> first, ColumnFunction<L> second) {
+        return first == null ? second : new LeftComposition(first, second);
+    }
+
+    private ColumnFunction<M> composeMiddle(ColumnFunction<M> first, ColumnFunction<M> second) {
+        return first == null ? second : new MiddleComposition(first, second);
+    }
+
+    private ColumnFunction<R> composeRight(ColumnFunction<R> first, ColumnFunction<R> second) {
+        return first == null ? second : new RightComposition(first, second);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= source.size()) throw new IndexOutOfBoundsException("Index: " + index + ", size: " + source.size());
+    }
+
+    private class LeftComposition implements ColumnFunction<L> {
+
+        private final ColumnFunction<L> first;
+
+        private final ColumnFunction<L> second;
+
+        private LeftComposition(ColumnFunction<L> first, ColumnFunction<L> second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public L execute(L value) {
+            return second.execute(first.execute(value));
+        }
+    }
+
+    private class MiddleComposition implements ColumnFunction<M> {
+
+        private final ColumnFunction<M> first;
+
+        private final ColumnFunction<M> second;
+
+        private MiddleComposition(ColumnFunction<M> first, ColumnFunction<M> second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public M execute(M value) {
+            return second.execute(first.execute(value));
+        }
+    }
+
+    private class RightComposition implements ColumnFunction<R> {
+
+        private final ColumnFunction<R> first;
+
+        private final ColumnFunction<R> second;
+
+        private RightComposition(ColumnFunction<R> first, ColumnFunction<R> second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public R execute(R value) {
+            return second.execute(first.execute(value));
+        }
+    }
+
+    private class LeftOf implements ColumnFunction<L> {
+
+        private final TripleFunction<L, M, R> function;
+
+        private LeftOf(TripleFunction<L, M, R> function) {
+            this.function = function;
+        }
+
+        @Override
+        public L execute(L value) {
+            return function.executeLeft(value);
+        }
+    }
+
+    private class MiddleOf implements ColumnFunction<M> {
+
+        private final TripleFunction<L, M, R> function;
+
+        private MiddleOf(TripleFunction<L, M, R> function) {
+            this.function = function;
+        }
+
+        @Override
+        public M execute(M value) {
+            return function.executeMiddle(value);
+        }
+    }
+
+    private class RightOf implements ColumnFunction<R> {
+
+        private final TripleFunction<L, M, R> function;
+
+        private RightOf(TripleFunction<L, M, R> function) {
+            this.function = function;
+        }
+
+        @Override
+        public R execute(R value) {
+            return function.executeRight(value);
+        }
+    }
+
+    private class Iterator implements TripleIterator<L, M, R> {
+
+        private int current;
+
+        @Override
+        public boolean hasNext() {
+            return current < source.size();
+        }
+
+        @Override
+        public void iterate() {
+            current++;
+        }
+
+        @Override
+        public boolean remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public L nextLeft() {
+            return getLeft(current);
+        }
+
+        @Override
+        public M nextMiddle() {
+            return getMiddle(current);
+        }
+
+        @Override
+        public R nextRight() {
+            return getRight(current);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.alexlopashev.tuples.templates.list;
 
 import com.alexlopashev.tuples.templates.TripleCollection;
+import com.alexlopashev.tuples.templates.index.ColumnIndex;
+import com.alexlopashev.tuples.templates.procedure.TripleProcedure;
 
 public interface TripleList<L, M, R> extends TripleCollection<L, M, R> {
 
@@ -14,6 +16,32 @@ public interface TripleList<L, M, R> extends TripleCollection<L, M, R> {
 
     boolean remove(int index);
 
+    /**
+     * Removes all triples for which the filter returns {@code true}.
+     */
+    boolean removeIf(TripleProcedure<L, M, R> filter);
+
     TripleList<L, M, R> subList(int begin, int end);
 
+    /**
+     * Attaches index to the left column replacing previous one, it's filled with existing rows
+     * and then kept up to date by the list.
+     */
+    void attachLeftIndex(ColumnIndex<L> index);
+
+    void attachMiddleIndex(ColumnIndex<M> index);
+
+    void attachRightIndex(ColumnIndex<R> index);
+
+    void detachIndexes();
+
+    /**
+     * @return positions of rows with given left value, answered by attached index or by scan
+     */
+    int[] lookupLeft(L value);
+
+    int[] lookupMiddle(M value);
+
+    int[] lookupRight(R value);
+
 }
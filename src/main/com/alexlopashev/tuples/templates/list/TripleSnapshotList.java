@@ -0,0 +1,368 @@
+package com.alexlopashev.tuples.templates.list;
+
+import com.alexlopashev.tuples.templates.TripleCollection;
+import com.alexlopashev.tuples.templates.Tuples;
+import com.alexlopashev.tuples.templates.function.TripleFunction;
+import com.alexlopashev.tuples.templates.index.ColumnIndex;
+import com.alexlopashev.tuples.templates.index.TripleIndexes;
+import com.alexlopashev.tuples.templates.iterator.TripleCursor;
+import com.alexlopashev.tuples.templates.iterator.TripleIterator;
+import com.alexlopashev.tuples.templates.procedure.TripleProcedure;
+
+/**
+ * Immutable triple list sharing column chunks with the list it was taken from, see
+ * {@link TripleArrayList#snapshot()} and {@link TripleChunkedList#snapshot()}. The source copies
+ * a shared chunk before modifying it, so the snapshot never changes and can be handed to other
+ * threads without copying. Modifications throw {@link UnsupportedOperationException},
+ * {@link #subList(int, int)} is a view, {@link #toArrayList()} makes a modifiable copy.
+ * Indexes can be attached, they are built once as the content never changes.
+ */
+public class TripleSnapshotList<L, M, R> implements TripleList<L, M, R> {
+
+    private final L[][] left;
+
+    private final M[][] middle;
+
+    private final R[][] right;
+
+    private final int chunkShift;
+
+    private final int chunkMask;
+
+    private final int offset;
+
+    private final int size;
+
+    private final TripleIndexes<L, M, R> indexes = new TripleIndexes<L, M, R>();
+
+    /**
+     * @param chunkShift binary logarithm of the chunk size, 31 for a single chunk
+     */
+    TripleSnapshotList(L[][] left, M[][] middle, R[][] right, int chunkShift, int size) {
+        this(left, middle, right, chunkShift, 0, size);
+    }
+
+    private TripleSnapshotList(L[][] left, M[][] middle, R[][] right, int chunkShift, int offset, int size) {
+        this.left = left;
+        this.middle = middle;
+        this.right = right;
+        this.chunkShift = chunkShift;
+        this.chunkMask = (int) ((1L << chunkShift) - 1);
+        this.offset = offset;
+        this.size = size;
+    }
+
+    @Override
+    public boolean add(L leftElement, M middleElement, R rightElement) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean addAll(L[] leftAdd, M[] middleAdd, R[] rightAdd) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean addAll(TripleCollection<L, M, R> collection) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean contains(L leftElement, M middleElement, R rightElement) {
+        return indexOf(leftElement, middleElement, rightElement) >= 0;
+    }
+
+    @Override
+    public boolean containsAll(L[] leftElements, M[] middleElements, R[] rightElements) {
+        if (leftElements == null || middleElements == null || rightElements == null) throw new NullPointerException();
+        if (leftElements.length != middleElements.length || leftElements.length != rightElements.length) throw new IllegalArgumentException();
+        for (int i = 0; i < leftElements.length; i++)
+            if (!contains(leftElements[i], middleElements[i], rightElements[i]))
+                return false;
+        return true;
+    }
+
+    @Override
+    public boolean containsAll(TripleCollection<L, M, R> collection) {
+        return collection.forEach(new TripleProcedure<L, M, R>() {
+            @Override
+            public boolean execute(L leftElement, M middleElement, R rightElement) {
+                return contains(leftElement, middleElement, rightElement);
+            }
+        });
+    }
+
+    @Override
+    public boolean forEach(TripleProcedure<L, M, R> procedure) {
+        for (int i = 0; i < size; i++)
+            if (!procedure.execute(leftAt(i), middleAt(i), rightAt(i)))
+                return false;
+        return true;
+    }
+
+    @Override
+    public int indexOf(L leftElement, M middleElement, R rightElement) {
+        for (int i = 0; i < size; i++)
+            if (Tuples.equal(leftAt(i), leftElement) && Tuples.equal(middleAt(i), middleElement)
+                    && Tuples.equal(rightAt(i), rightElement))
+                return i;
+        return -1;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public TripleIterator<L, M, R> iterator() {
+        return new Iterator();
+    }
+
+    @Override
+    public L getLeft(int index) {
+        checkIndex(index);
+        return leftAt(index);
+    }
+
+    /**
+     * @return copy of the left column
+     */
+    @Override
+    public L[] getLeft() {
+        L[] result = (L[]) new Object[size];
+        for (int i = 0; i < size; i++)
+            result[i] = leftAt(i);
+        return result;
+    }
+
+    @Override
+    public M getMiddle(int index) {
+        checkIndex(index);
+        return middleAt(index);
+    }
+
+    /**
+     * @return copy of the middle column
+     */
+    @Override
+    public M[] getMiddle() {
+        M[] result = (M[]) new Object[size];
+        for (int i = 0; i < size; i++)
+            result[i] = middleAt(i);
+        return result;
+    }
+
+    @Override
+    public R getRight(int index) {
+        checkIndex(index);
+        return rightAt(index);
+    }
+
+    /**
+     * @return copy of the right column
+     */
+    @Override
+    public R[] getRight() {
+        R[] result = (R[]) new Object[size];
+        for (int i = 0; i < size; i++)
+            result[i] = rightAt(i);
+        return result;
+    }
+
+    @Override
+    public boolean remove(int index) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean remove(L leftElement, M middleElement, R rightElement) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean removeAll(L[] leftElements, M[] middleElements, R[] rightElements) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean removeAll(TripleCollection<L, M, R> collection) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean retainAll(L[] leftToRetain, M[] middleToRetain, R[] rightToRetain) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean retainAll(TripleCollection<L, M, R> collection) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean removeIf(TripleProcedure<L, M, R> filter) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void transformValues(TripleFunction<L, M, R> function) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return view of the range sharing the chunks
+     */
+    @Override
+    public TripleSnapshotList<L, M, R> subList(int begin, int end) {
+        if (begin < 0 || end > size || begin > end) throw new IndexOutOfBoundsException();
+        return new TripleSnapshotList<L, M, R>(left, middle, right, chunkShift, offset + begin, end - begin);
+    }
+
+    @Override
+    public void attachLeftIndex(ColumnIndex<L> index) {
+        indexes.attachLeft(index, this);
+    }
+
+    @Override
+    public void attachMiddleIndex(ColumnIndex<M> index) {
+        indexes.attachMiddle(index, this);
+    }
+
+    @Override
+    public void attachRightIndex(ColumnIndex<R> index) {
+        indexes.attachRight(index, this);
+    }
+
+    @Override
+    public void detachIndexes() {
+        indexes.detach();
+    }
+
+    @Override
+    public int[] lookupLeft(L value) {
+        return indexes.lookupLeft(value, this);
+    }
+
+    @Override
+    public int[] lookupMiddle(M value) {
+        return indexes.lookupMiddle(value, this);
+    }
+
+    @Override
+    public int[] lookupRight(R value) {
+        return indexes.lookupRight(value, this);
+    }
+
+    /**
+     * Copies triples from begin (inclusive) to end (exclusive) to the arrays starting at offset,
+     * one arraycopy per chunk.
+     */
+    public void copyRange(int begin, int end, L[] leftTarget, M[] middleTarget, R[] rightTarget, int offset) {
+        if (begin < 0 || end > size || begin > end) throw new IndexOutOfBoundsException();
+        for (int from = this.offset + begin, to = from + end - begin, count; from < to; from += count, offset += count) {
+            count = Math.min(chunkMask + 1 - (from & chunkMask), to - from);
+            System.arraycopy(left[from >>> chunkShift], from & chunkMask, leftTarget, offset, count);
+            System.arraycopy(middle[from >>> chunkShift], from & chunkMask, middleTarget, offset, count);
+            System.arraycopy(right[from >>> chunkShift], from & chunkMask, rightTarget, offset, count);
+        }
+    }
+
+    /**
+     * @return cursor reading triples from the first one
+     */
+    public TripleCursor<L, M, R> cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * @return modifiable copy of the list
+     */
+    public TripleArrayList<L, M, R> toArrayList() {
+        return new TripleArrayList<L, M, R>(getLeft(), getMiddle(), getRight());
+    }
+
+    private L leftAt(int index) {
+        index += offset;
+        return left[index >>> chunkShift][index & chunkMask];
+    }
+
+    private M middleAt(int index) {
+        index += offset;
+        return middle[index >>> chunkShift][index & chunkMask];
+    }
+
+    private R rightAt(int index) {
+        index += offset;
+        return right[index >>> chunkShift][index & chunkMask];
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+    }
+
+    private class Cursor implements TripleCursor<L, M, R> {
+
+        private int current;
+
+        @Override
+        public boolean hasNext() {
+            return current < size;
+        }
+
+        @Override
+        public int readBatch(L[] leftBuffer, M[] middleBuffer, R[] rightBuffer, int max) {
+            if (max < 0) throw new IllegalArgumentException();
+            int count = Math.min(max, size - current);
+            if (count <= 0) return 0;
+            copyRange(current, current + count, leftBuffer, middleBuffer, rightBuffer, 0);
+            current += count;
+            return count;
+        }
+    }
+
+    private class Iterator implements TripleIterator<L, M, R> {
+
+        private int current;
+
+        @Override
+        public boolean hasNext() {
+            return current < size;
+        }
+
+        @Override
+        public void iterate() {
+            current++;
+        }
+
+        @Override
+        public boolean remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public L nextLeft() {
+            return getLeft(current);
+        }
+
+        @Override
+        public M nextMiddle() {
+            return getMiddle(current);
+        }
+
+        @Override
+        public R nextRight() {
+            return getRight(current);
+        }
+    }
+}
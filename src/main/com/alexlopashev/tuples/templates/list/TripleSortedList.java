@@ -0,0 +1,538 @@
+package com.alexlopashev.tuples.templates.list;
+
+import com.alexlopashev.tuples.templates.TripleCollection;
+import com.alexlopashev.tuples.templates.Tuples;
+import com.alexlopashev.tuples.templates.function.ColumnComparator;
+import com.alexlopashev.tuples.templates.function.TripleFunction;
+import com.alexlopashev.tuples.templates.index.ColumnIndex;
+import com.alexlopashev.tuples.templates.index.TripleIndexes;
+import com.alexlopashev.tuples.templates.iterator.TripleIterator;
+import com.alexlopashev.tuples.templates.procedure.TripleProcedure;
+import com.alexlopashev.tuples.templates.set.TripleHashSet;
+import com.alexlopashev.tuples.templates.sort.TripleSorter;
+
+/**
+ * Triple list kept in {@link TripleSorter} order: by left, middle, then right value. Single
+ * triples are inserted at their binary searched position, bulk additions are appended, sorted
+ * and merged with the present triples in one pass. {@link #indexOf}, {@link #contains},
+ * {@link #range} and {@link #lookupLeft} are binary searches, attached indexes serve middle and
+ * right lookups.
+ *
+ * Comparators have to be consistent with equality of values. Column getters return copies,
+ * so the order can't be broken from outside. Inserting in the middle shifts rows, so it
+ * rebuilds attached indexes.
+ */
+public class TripleSortedList<L, M, R> implements TripleList<L, M, R> {
+
+    private static final int DEFAULT_CAPACITY = 8;
+
+    private final TripleSorter<L, M, R> sorter;
+
+    private L[] left;
+
+    private M[] middle;
+
+    private R[] right;
+
+    private int size;
+
+    private final TripleIndexes<L, M, R> indexes = new TripleIndexes<L, M, R>();
+
+    public TripleSortedList() {
+        this(new TripleSorter<L, M, R>());
+    }
+
+    /**
+     * @param leftComparator order of left values, natural if null
+     * @param middleComparator order of middle values, natural if null
+     * @param rightComparator order of right values, natural if null
+     */
+    public TripleSortedList(ColumnComparator<L> leftComparator, ColumnComparator<M> middleComparator,
+                            ColumnComparator<R> rightComparator) {
+        this(new TripleSorter<L, M, R>(leftComparator, middleComparator, rightComparator));
+    }
+
+    public TripleSortedList(L[] leftInit, M[] middleInit, R[] rightInit) {
+        this();
+        addAll(leftInit, middleInit, rightInit);
+    }
+
+    private TripleSortedList(TripleSorter<L, M, R> sorter) {
+        this.sorter = sorter;
+        left = (L[]) new Object[DEFAULT_CAPACITY];
+        middle = (M[]) new Object[DEFAULT_CAPACITY];
+        right = (R[]) new Object[DEFAULT_CAPACITY];
+    }
+
+    /**
+     * Inserts the triple after all equal ones.
+     */
+    @Override
+    public boolean add(L leftElement, M middleElement, R rightElement) {
+        if (size == Integer.MAX_VALUE) return false;
+        extendBy(1);
+        int index = upperBound(leftElement, middleElement, rightElement);
+        System.arraycopy(left, index, left, index + 1, size - index);
+        System.arraycopy(middle, index, middle, index + 1, size - index);
+        System.arraycopy(right, index, right, index + 1, size - index);
+        left[index] = leftElement;
+        middle[index] = middleElement;
+        right[index] = rightElement;
+        size++;
+        if (index == size - 1) indexes.added(index, leftElement, middleElement, rightElement);
+        else indexes.rebuild(this);
+        return true;
+    }
+
+    @Override
+    public boolean addAll(L[] leftAdd, M[] middleAdd, R[] rightAdd) {
+        checkParameters(leftAdd, middleAdd, rightAdd);
+        return addAll(leftAdd, middleAdd, rightAdd, leftAdd.length);
+    }
+
+    @Override
+    public boolean addAll(TripleCollection<L, M, R> collection) {
+        final L[] leftAdd = (L[]) new Object[collection.size()];
+        final M[] middleAdd = (M[]) new Object[collection.size()];
+        final R[] rightAdd = (R[]) new Object[collection.size()];
+        final int[] count = new int[1];
+        collection.forEach(new TripleProcedure<L, M, R>() {
+            @Override
+            public boolean execute(L leftElement, M middleElement, R rightElement) {
+                leftAdd[count[0]] = leftElement;
+                middleAdd[count[0]] = middleElement;
+                rightAdd[count[0]] = rightElement;
+                count[0]++;
+                return true;
+            }
+        });
+        return addAll(leftAdd, middleAdd, rightAdd, count[0]);
+    }
+
+    @Override
+    public void clear() {
+        size = 0;
+        indexes.cleared();
+        left = (L[]) new Object[DEFAULT_CAPACITY];
+        middle = (M[]) new Object[DEFAULT_CAPACITY];
+        right = (R[]) new Object[DEFAULT_CAPACITY];
+    }
+
+    @Override
+    public boolean contains(L leftElement, M middleElement, R rightElement) {
+        return indexOf(leftElement, middleElement, rightElement) >= 0;
+    }
+
+    @Override
+    public boolean containsAll(L[] leftElements, M[] middleElements, R[] rightElements) {
+        checkParameters(leftElements, middleElements, rightElements);
+        for (int i = 0; i < leftElements.length; i++)
+            if (!contains(leftElements[i], middleElements[i], rightElements[i]))
+                return false;
+        return true;
+    }
+
+    @Override
+    public boolean containsAll(TripleCollection<L, M, R> collection) {
+        return collection.forEach(new TripleProcedure<L, M, R>() {
+            @Override
+            public boolean execute(L leftElement, M middleElement, R rightElement) {
+                return contains(leftElement, middleElement, rightElement);
+            }
+        });
+    }
+
+    @Override
+    public boolean forEach(TripleProcedure<L, M, R> procedure) {
+        for (int i = 0; i < size; i++)
+            if (!procedure.execute(left[i], middle[i], right[i]))
+                return false;
+        return true;
+    }
+
+    /**
+     * @return index of the first equal triple found by binary search, or -1
+     */
+    @Override
+    public int indexOf(L leftElement, M middleElement, R rightElement) {
+        for (int i = lowerBound(leftElement, middleElement, rightElement); i < size; i++) {
+            if (sorter.compare(left[i], middle[i], right[i], leftElement, middleElement, rightElement) != 0)
+                break;
+            if (Tuples.equal(left[i], leftElement) && Tuples.equal(middle[i], middleElement)
+                    && Tuples.equal(right[i], rightElement))
+                return i;
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public TripleIterator<L, M, R> iterator() {
+        return new Iterator();
+    }
+
+    @Override
+    public L getLeft(int index) {
+        checkIndex(index);
+        return left[index];
+    }
+
+    /**
+     * @return copy of the left column in list order
+     */
+    @Override
+    public L[] getLeft() {
+        L[] result = (L[]) new Object[size];
+        System.arraycopy(left, 0, result, 0, size);
+        return result;
+    }
+
+    @Override
+    public M getMiddle(int index) {
+        checkIndex(index);
+        return middle[index];
+    }
+
+    /**
+     * @return copy of the middle column in list order
+     */
+    @Override
+    public M[] getMiddle() {
+        M[] result = (M[]) new Object[size];
+        System.arraycopy(middle, 0, result, 0, size);
+        return result;
+    }
+
+    @Override
+    public R getRight(int index) {
+        checkIndex(index);
+        return right[index];
+    }
+
+    /**
+     * @return copy of the right column in list order
+     */
+    @Override
+    public R[] getRight() {
+        R[] result = (R[]) new Object[size];
+        System.arraycopy(right, 0, result, 0, size);
+        return result;
+    }
+
+    @Override
+    public boolean remove(int index) {
+        if (index < 0) throw new IllegalArgumentException();
+        if (index >= size) return false;
+        indexes.removed(index, left[index], middle[index], right[index]);
+        System.arraycopy(left, index + 1, left, index, size - index - 1);
+        System.arraycopy(middle, index + 1, middle, index, size - index - 1);
+        System.arraycopy(right, index + 1, right, index, size - index - 1);
+        size--;
+        left[size] = (L) null;
+        middle[size] = (M) null;
+        right[size] = (R) null;
+        return true;
+    }
+
+    /**
+     * Removes all triples equal to the given one, they are found by binary search.
+     */
+    @Override
+    public boolean remove(L leftElement, M middleElement, R rightElement) {
+        int begin = lowerBound(leftElement, middleElement, rightElement);
+        int end = upperBound(leftElement, middleElement, rightElement);
+        int retained = begin;
+        for (int i = begin; i < end; i++) {
+            if (Tuples.equal(left[i], leftElement) && Tuples.equal(middle[i], middleElement)
+                    && Tuples.equal(right[i], rightElement))
+                continue;
+            left[retained] = left[i];
+            middle[retained] = middle[i];
+            right[retained] = right[i];
+            retained++;
+        }
+        if (retained == end) return false;
+        System.arraycopy(left, end, left, retained, size - end);
+        System.arraycopy(middle, end, middle, retained, size - end);
+        System.arraycopy(right, end, right, retained, size - end);
+        int newSize = size - (end - retained);
+        for (int i = newSize; i < size; i++) {
+            left[i] = (L) null;
+            middle[i] = (M) null;
+            right[i] = (R) null;
+        }
+        size = newSize;
+        indexes.rebuild(this);
+        return true;
+    }
+
+    @Override
+    public boolean removeAll(L[] leftElements, M[] middleElements, R[] rightElements) {
+        return removeIf(new ProbeProcedure(new TripleHashSet<L, M, R>(leftElements, middleElements, rightElements), true));
+    }
+
+    @Override
+    public boolean removeAll(TripleCollection<L, M, R> collection) {
+        return removeIf(new ProbeProcedure(probe(collection), true));
+    }
+
+    @Override
+    public boolean retainAll(L[] leftToRetain, M[] middleToRetain, R[] rightToRetain) {
+        return removeIf(new ProbeProcedure(new TripleHashSet<L, M, R>(leftToRetain, middleToRetain, rightToRetain), false));
+    }
+
+    @Override
+    public boolean retainAll(TripleCollection<L, M, R> collection) {
+        return removeIf(new ProbeProcedure(probe(collection), false));
+    }
+
+    /**
+     * Removes triples in a single compaction pass, the order of the rest is kept.
+     */
+    @Override
+    public boolean removeIf(TripleProcedure<L, M, R> filter) {
+        int retained = 0;
+        for (int i = 0; i < size; i++) {
+            if (filter.execute(left[i], middle[i], right[i]))
+                continue;
+            left[retained] = left[i];
+            middle[retained] = middle[i];
+            right[retained] = right[i];
+            retained++;
+        }
+        if (retained == size) return false;
+        for (int i = retained; i < size; i++) {
+            left[i] = (L) null;
+            middle[i] = (M) null;
+            right[i] = (R) null;
+        }
+        size = retained;
+        indexes.rebuild(this);
+        return true;
+    }
+
+    /**
+     * Transforms values and sorts the list again.
+     */
+    @Override
+    public void transformValues(TripleFunction<L, M, R> function) {
+        for (int i = 0; i < size; i++) {
+            left[i] = function.executeLeft(left[i]);
+            middle[i] = function.executeMiddle(middle[i]);
+            right[i] = function.executeRight(right[i]);
+        }
+        sorter.sort(left, middle, right, size);
+        indexes.rebuild(this);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return sorted copy of the range with the same order
+     */
+    @Override
+    public TripleSortedList<L, M, R> subList(int begin, int end) {
+        if (begin < 0 || end > size || begin > end) throw new IndexOutOfBoundsException();
+        TripleSortedList<L, M, R> list = new TripleSortedList<L, M, R>(sorter);
+        list.extendBy(end - begin);
+        System.arraycopy(left, begin, list.left, 0, end - begin);
+        System.arraycopy(middle, begin, list.middle, 0, end - begin);
+        System.arraycopy(right, begin, list.right, 0, end - begin);
+        list.size = end - begin;
+        return list;
+    }
+
+    /**
+     * @return triples with left value in [from, to), found by binary search
+     */
+    public TripleSortedList<L, M, R> range(L from, L to) {
+        int begin = lowerBoundLeft(from);
+        return subList(begin, Math.max(begin, lowerBoundLeft(to)));
+    }
+
+    /**
+     * @return index of the first triple with left value not less than the given one, size if none
+     */
+    public int lowerBoundLeft(L leftElement) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int pivot = (low + high) >>> 1;
+            if (sorter.compareLeft(left[pivot], leftElement) < 0) low = pivot + 1;
+            else high = pivot;
+        }
+        return low;
+    }
+
+    @Override
+    public void attachLeftIndex(ColumnIndex<L> index) {
+        indexes.attachLeft(index, this);
+    }
+
+    @Override
+    public void attachMiddleIndex(ColumnIndex<M> index) {
+        indexes.attachMiddle(index, this);
+    }
+
+    @Override
+    public void attachRightIndex(ColumnIndex<R> index) {
+        indexes.attachRight(index, this);
+    }
+
+    @Override
+    public void detachIndexes() {
+        indexes.detach();
+    }
+
+    /**
+     * @return rows with the left value, found by binary search
+     */
+    @Override
+    public int[] lookupLeft(L value) {
+        int begin = lowerBoundLeft(value);
+        int end = begin;
+        while (end < size && Tuples.equal(left[end], value))
+            end++;
+        int[] rows = new int[end - begin];
+        for (int i = 0; i < rows.length; i++)
+            rows[i] = begin + i;
+        return rows;
+    }
+
+    @Override
+    public int[] lookupMiddle(M value) {
+        return indexes.lookupMiddle(value, this);
+    }
+
+    @Override
+    public int[] lookupRight(R value) {
+        return indexes.lookupRight(value, this);
+    }
+
+    private int lowerBound(L leftElement, M middleElement, R rightElement) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int pivot = (low + high) >>> 1;
+            if (sorter.compare(left[pivot], middle[pivot], right[pivot], leftElement, middleElement, rightElement) < 0)
+                low = pivot + 1;
+            else high = pivot;
+        }
+        return low;
+    }
+
+    private int upperBound(L leftElement, M middleElement, R rightElement) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int pivot = (low + high) >>> 1;
+            if (sorter.compare(left[pivot], middle[pivot], right[pivot], leftElement, middleElement, rightElement) <= 0)
+                low = pivot + 1;
+            else high = pivot;
+        }
+        return low;
+    }
+
+    private boolean addAll(L[] leftAdd, M[] middleAdd, R[] rightAdd, int count) {
+        if (size >= Integer.MAX_VALUE - count) return false;
+        extendBy(count);
+        System.arraycopy(leftAdd, 0, left, size, count);
+        System.arraycopy(middleAdd, 0, middle, size, count);
+        System.arraycopy(rightAdd, 0, right, size, count);
+        int sorted = size;
+        size += count;
+        sorter.merge(left, middle, right, sorted, size);
+        indexes.rebuild(this);
+        return true;
+    }
+
+    private void extendBy(int offset) {
+        if (size + offset <= left.length) return;
+        int newCapacity = (int) Math.min(Integer.MAX_VALUE, Math.max((long) left.length << 1, (long) size + offset));
+        L[] newLeft = (L[]) new Object[newCapacity];
+        M[] newMiddle = (M[]) new Object[newCapacity];
+        R[] newRight = (R[]) new Object[newCapacity];
+        System.arraycopy(left, 0, newLeft, 0, size);
+        System.arraycopy(middle, 0, newMiddle, 0, size);
+        System.arraycopy(right, 0, newRight, 0, size);
+        left = newLeft;
+        middle = newMiddle;
+        right = newRight;
+    }
+
+    private TripleHashSet<L, M, R> probe(TripleCollection<L, M, R> collection) {
+        if (collection instanceof TripleHashSet)
+            return (TripleHashSet<L, M, R>) collection;
+        return new TripleHashSet<L, M, R>(collection);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+    }
+
+    private void checkParameters(L[] left, M[] middle, R[] right) {
+        if (left == null || middle == null || right == null) throw new NullPointerException();
+        if (left.length != middle.length || left.length != right.length) throw new IllegalArgumentException();
+    }
+
+    private class ProbeProcedure implements TripleProcedure<L, M, R> {
+
+        private final TripleHashSet<L, M, R> probe;
+
+        private final boolean removeContained;
+
+        private ProbeProcedure(TripleHashSet<L, M, R> probe, boolean removeContained) {
+            this.probe = probe;
+            this.removeContained = removeContained;
+        }
+
+        @Override
+        public boolean execute(L left, M middle, R right) {
+            return probe.contains(left, middle, right) == removeContained;
+        }
+    }
+
+    private class Iterator implements TripleIterator<L, M, R> {
+
+        private int current;
+
+        @Override
+        public boolean hasNext() {
+            return current < size;
+        }
+
+        @Override
+        public void iterate() {
+            current++;
+        }
+
+        @Override
+        public boolean remove() {
+            if (!TripleSortedList.this.remove(current)) return false;
+            current--;
+            return true;
+        }
+
+        @Override
+        public L nextLeft() {
+            return left[current];
+        }
+
+        @Override
+        public M nextMiddle() {
+            return middle[current];
+        }
+
+        @Override
+        public R nextRight() {
+            return right[current];
+        }
+    }
+}
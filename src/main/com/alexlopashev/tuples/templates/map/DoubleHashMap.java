@@ -0,0 +1,232 @@
+package com.alexlopashev.tuples.templates.map;
+
+import com.alexlopashev.tuples.templates.TupleCollection;
+import com.alexlopashev.tuples.templates.Tuples;
+import com.alexlopashev.tuples.templates.procedure.DoubleProcedure;
+import com.alexlopashev.tuples.templates.procedure.TripleProcedure;
+
+/**
+ * Hash map with (left, right) pair as a key. Keys are kept in two parallel columns
+ * and values in third one, with open addressing (linear probing) and no entry objects.
+ *
+ * Missing keys are reported with no entry value ({@code null} by default), that is
+ * the only way for primitive specializations (e.g. IntLongDoubleHashMap) to do it.
+ */
+public class DoubleHashMap<L, R, V> implements TupleCollection {
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private static final byte FREE = 0;
+    private static final byte FULL = 1;
+    private static final byte REMOVED = 2;
+
+    private final V noEntryValue;
+
+    private L[] left;
+
+    private R[] right;
+
+    private V[] values;
+
+    private byte[] states;
+
+    private int size;
+
+    private int removed;
+
+    public DoubleHashMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public DoubleHashMap(int expectedSize) {
+        this(expectedSize, (V) null);
+    }
+
+    public DoubleHashMap(int expectedSize, V noEntryValue) {
+        this.noEntryValue = noEntryValue;
+        initialize(tableSize(expectedSize));
+    }
+
+    /**
+     * @return previous value or no entry value if there was no such key
+     */
+    public V put(L leftKey, R rightKey, V value) {
+        int index = insertionIndex(leftKey, rightKey);
+        if (index < 0) {
+            index = -index - 1;
+            V previous = values[index];
+            values[index] = value;
+            return previous;
+        }
+        insertAt(index, leftKey, rightKey, value);
+        return noEntryValue;
+    }
+
+    /**
+     * @return current value if key is present (it's not replaced), no entry value otherwise
+     */
+    public V putIfAbsent(L leftKey, R rightKey, V value) {
+        int index = insertionIndex(leftKey, rightKey);
+        if (index < 0)
+            return values[-index - 1];
+        insertAt(index, leftKey, rightKey, value);
+        return noEntryValue;
+    }
+
+    public V get(L leftKey, R rightKey) {
+        int index = indexOf(leftKey, rightKey);
+        return index < 0 ? noEntryValue : values[index];
+    }
+
+    public boolean containsKey(L leftKey, R rightKey) {
+        return indexOf(leftKey, rightKey) >= 0;
+    }
+
+    /**
+     * @return removed value or no entry value if there was no such key
+     */
+    public V remove(L leftKey, R rightKey) {
+        int index = indexOf(leftKey, rightKey);
+        if (index < 0) return noEntryValue;
+        V previous = values[index];
+        left[index] = (L) null;
+        right[index] = (R) null;
+        values[index] = (V) null;
+        states[index] = REMOVED;
+        size--;
+        removed++;
+        return previous;
+    }
+
+    public boolean forEachKey(DoubleProcedure<L, R> procedure) {
+        for (int i = 0; i < states.length; i++)
+            if (states[i] == FULL && !procedure.execute(left[i], right[i]))
+                return false;
+        return true;
+    }
+
+    public boolean forEachEntry(TripleProcedure<L, R, V> procedure) {
+        for (int i = 0; i < states.length; i++)
+            if (states[i] == FULL && !procedure.execute(left[i], right[i], values[i]))
+                return false;
+        return true;
+    }
+
+    public V getNoEntryValue() {
+        return noEntryValue;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void clear() {
+        initialize(DEFAULT_CAPACITY);
+    }
+
+    private void insertAt(int index, L leftKey, R rightKey, V value) {
+        if (states[index] == REMOVED) removed--;
+        left[index] = leftKey;
+        right[index] = rightKey;
+        values[index] = value;
+        states[index] = FULL;
+        size++;
+        if (size + removed > maxFill(states.length))
+            rehash(size + removed > size << 1 ? states.length : states.length << 1);
+    }
+
+    private int indexOf(L leftKey, R rightKey) {
+        int mask = states.length - 1;
+        int index = hash(leftKey, rightKey) & mask;
+        while (states[index] != FREE) {
+            if (states[index] == FULL && isSame(left[index], leftKey, right[index], rightKey))
+                return index;
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * @return free slot for the key or {@code -index - 1} if the key is already there
+     */
+    private int insertionIndex(L leftKey, R rightKey) {
+        int mask = states.length - 1;
+        int index = hash(leftKey, rightKey) & mask;
+        int firstRemoved = -1;
+        while (states[index] != FREE) {
+            if (states[index] == FULL) {
+                if (isSame(left[index], leftKey, right[index], rightKey))
+                    return -index - 1;
+            } else if (firstRemoved < 0) {
+                firstRemoved = index;
+            }
+            index = (index + 1) & mask;
+        }
+        return firstRemoved >= 0 ? firstRemoved : index;
+    }
+
+    private void rehash(int newCapacity) {
+        L[] oldLeft = left;
+        R[] oldRight = right;
+        V[] oldValues = values;
+        byte[] oldStates = states;
+        initialize(newCapacity);
+        for (int i = 0; i < oldStates.length; i++)
+            if (oldStates[i] == FULL) {
+                int index = insertionIndex(oldLeft[i], oldRight[i]);
+                left[index] = oldLeft[i];
+                right[index] = oldRight[i];
+                values[index] = oldValues[i];
+                states[index] = FULL;
+                size++;
+            }
+    }
+
+    private void initialize(int capacity) {
+        left = initLeft(capacity);
+        right = initRight(capacity);
+        values = initValues(capacity);
+        states = new byte[capacity];
+        size = 0;
+        removed = 0;
+    }
+
+    private static int tableSize(int expectedSize) {
+        int capacity = DEFAULT_CAPACITY;
+        while (maxFill(capacity) < expectedSize && capacity < MAX_CAPACITY)
+            capacity <<= 1;
+        return capacity;
+    }
+
+    private static int maxFill(int capacity) {
+        return capacity - (capacity >> 2);
+    }
+
+    private int hash(L leftKey, R rightKey) {
+        return Tuples.mix(31 * Tuples.hash(leftKey) + Tuples.hash(rightKey));
+    }
+
+    private L[] initLeft(int capacity) {
+        return (L[]) new Object[capacity];
+    }
+
+    private R[] initRight(int capacity) {
+        return (R[]) new Object[capacity];
+    }
+
+    private V[] initValues(int capacity) {
+        return (V[]) new Object[capacity];
+    }
+
+    private boolean isSame(L l1, L l2, R r1, R r2) {
+        return Tuples.equal(l1, l2) && Tuples.equal(r1, r2);
+    }
+}
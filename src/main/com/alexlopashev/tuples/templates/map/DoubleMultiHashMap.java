@@ -0,0 +1,275 @@
+package com.alexlopashev.tuples.templates.map;
+
+import com.alexlopashev.tuples.templates.TupleCollection;
+import com.alexlopashev.tuples.templates.Tuples;
+import com.alexlopashev.tuples.templates.procedure.DoubleProcedure;
+
+/**
+ * Pairs grouped by the left column: each left key maps to all right values added with it,
+ * in insertion order. Keys live in an open addressing table, values in a column with
+ * int links between values of the same key, so no per-entry objects are created.
+ *
+ * {@link #size()} is the number of pairs, {@link #keyCount()} is the number of distinct keys.
+ */
+public class DoubleMultiHashMap<L, R> implements TupleCollection {
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int MAX_CAPACITY = 1 << 30;
+    private static final int NONE = -1;
+
+    private static final byte FREE = 0;
+    private static final byte FULL = 1;
+    private static final byte REMOVED = 2;
+
+    private L[] keys;
+
+    private byte[] states;
+
+    private int[] heads;
+
+    private int[] tails;
+
+    private int[] counts;
+
+    private int keyCount;
+
+    private int removedKeys;
+
+    private R[] values;
+
+    private int[] next;
+
+    private int valueCount;
+
+    private int size;
+
+    public DoubleMultiHashMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public DoubleMultiHashMap(int expectedKeys) {
+        initializeKeys(tableSize(expectedKeys));
+        initializeValues(DEFAULT_CAPACITY);
+    }
+
+    public void put(L key, R value) {
+        int index = insertionIndex(key);
+        if (index >= 0) {
+            if (states[index] == REMOVED) removedKeys--;
+            keys[index] = key;
+            states[index] = FULL;
+            heads[index] = NONE;
+            counts[index] = 0;
+            keyCount++;
+        } else {
+            index = -index - 1;
+        }
+        if (valueCount == values.length)
+            resizeValues(values.length << 1);
+        values[valueCount] = value;
+        next[valueCount] = NONE;
+        if (heads[index] == NONE)
+            heads[index] = valueCount;
+        else
+            next[tails[index]] = valueCount;
+        tails[index] = valueCount;
+        counts[index]++;
+        valueCount++;
+        size++;
+        if (keyCount + removedKeys > maxFill(states.length))
+            rehash(keyCount + removedKeys > keyCount << 1 ? states.length : states.length << 1);
+    }
+
+    public boolean containsKey(L key) {
+        return indexOf(key) >= 0;
+    }
+
+    public int count(L key) {
+        int index = indexOf(key);
+        return index < 0 ? 0 : counts[index];
+    }
+
+    /**
+     * @return copy of values added with the key, empty array for unknown key
+     */
+    public R[] get(L key) {
+        int index = indexOf(key);
+        if (index < 0) return initValues(0);
+        R[] result = initValues(counts[index]);
+        for (int i = heads[index], j = 0; i != NONE; i = next[i])
+            result[j++] = values[i];
+        return result;
+    }
+
+    public boolean forEachValue(L key, DoubleProcedure<L, R> procedure) {
+        int index = indexOf(key);
+        if (index < 0) return true;
+        for (int i = heads[index]; i != NONE; i = next[i])
+            if (!procedure.execute(key, values[i]))
+                return false;
+        return true;
+    }
+
+    public boolean forEach(DoubleProcedure<L, R> procedure) {
+        for (int index = 0; index < states.length; index++)
+            if (states[index] == FULL)
+                for (int i = heads[index]; i != NONE; i = next[i])
+                    if (!procedure.execute(keys[index], values[i]))
+                        return false;
+        return true;
+    }
+
+    /**
+     * @return number of removed values
+     */
+    public int removeKey(L key) {
+        int index = indexOf(key);
+        if (index < 0) return 0;
+        int removedValues = counts[index];
+        keys[index] = (L) null;
+        states[index] = REMOVED;
+        keyCount--;
+        removedKeys++;
+        size -= removedValues;
+        if (valueCount - size > valueCount >> 1)
+            compactValues();
+        return removedValues;
+    }
+
+    public int keyCount() {
+        return keyCount;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void clear() {
+        initializeKeys(DEFAULT_CAPACITY);
+        initializeValues(DEFAULT_CAPACITY);
+    }
+
+    private int indexOf(L key) {
+        int mask = states.length - 1;
+        int index = Tuples.mix(Tuples.hash(key)) & mask;
+        while (states[index] != FREE) {
+            if (states[index] == FULL && Tuples.equal(keys[index], key))
+                return index;
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * @return free slot for the key or {@code -index - 1} if the key is already there
+     */
+    private int insertionIndex(L key) {
+        int mask = states.length - 1;
+        int index = Tuples.mix(Tuples.hash(key)) & mask;
+        int firstRemoved = -1;
+        while (states[index] != FREE) {
+            if (states[index] == FULL) {
+                if (Tuples.equal(keys[index], key))
+                    return -index - 1;
+            } else if (firstRemoved < 0) {
+                firstRemoved = index;
+            }
+            index = (index + 1) & mask;
+        }
+        return firstRemoved >= 0 ? firstRemoved : index;
+    }
+
+    private void rehash(int newCapacity) {
+        L[] oldKeys = keys;
+        byte[] oldStates = states;
+        int[] oldHeads = heads;
+        int[] oldTails = tails;
+        int[] oldCounts = counts;
+        initializeKeys(newCapacity);
+        for (int i = 0; i < oldStates.length; i++)
+            if (oldStates[i] == FULL) {
+                int index = insertionIndex(oldKeys[i]);
+                keys[index] = oldKeys[i];
+                states[index] = FULL;
+                heads[index] = oldHeads[i];
+                tails[index] = oldTails[i];
+                counts[index] = oldCounts[i];
+                keyCount++;
+            }
+    }
+
+    /**
+     * Drops values of removed keys, values of every key become contiguous.
+     */
+    private void compactValues() {
+        R[] oldValues = values;
+        int[] oldNext = next;
+        int live = size;
+        initializeValues(Math.max(DEFAULT_CAPACITY, live));
+        for (int index = 0; index < states.length; index++) {
+            if (states[index] != FULL) continue;
+            int head = valueCount;
+            for (int i = heads[index]; i != NONE; i = oldNext[i]) {
+                values[valueCount] = oldValues[i];
+                next[valueCount] = valueCount + 1;
+                valueCount++;
+            }
+            next[valueCount - 1] = NONE;
+            heads[index] = head;
+            tails[index] = valueCount - 1;
+        }
+        size = live;
+    }
+
+    private void resizeValues(int newCapacity) {
+        R[] newValues = initValues(newCapacity);
+        int[] newNext = new int[newCapacity];
+        System.arraycopy(values, 0, newValues, 0, valueCount);
+        System.arraycopy(next, 0, newNext, 0, valueCount);
+        values = newValues;
+        next = newNext;
+    }
+
+    private void initializeKeys(int capacity) {
+        keys = initKeys(capacity);
+        states = new byte[capacity];
+        heads = new int[capacity];
+        tails = new int[capacity];
+        counts = new int[capacity];
+        keyCount = 0;
+        removedKeys = 0;
+    }
+
+    private void initializeValues(int capacity) {
+        values = initValues(capacity);
+        next = new int[capacity];
+        valueCount = 0;
+        size = 0;
+    }
+
+    private static int tableSize(int expectedSize) {
+        int capacity = DEFAULT_CAPACITY;
+        while (maxFill(capacity) < expectedSize && capacity < MAX_CAPACITY)
+            capacity <<= 1;
+        return capacity;
+    }
+
+    private static int maxFill(int capacity) {
+        return capacity - (capacity >> 2);
+    }
+
+    private L[] initKeys(int capacity) {
+        return (L[]) new Object[capacity];
+    }
+
+    private R[] initValues(int capacity) {
+        return (R[]) new Object[capacity];
+    }
+}
@@ -0,0 +1,395 @@
+package com.alexlopashev.tuples.templates.offheap;
+
+import com.alexlopashev.tuples.templates.DoubleCollection;
+import com.alexlopashev.tuples.templates.Tuples;
+import com.alexlopashev.tuples.templates.function.DoubleFunction;
+import com.alexlopashev.tuples.templates.iterator.DoubleIterator;
+import com.alexlopashev.tuples.templates.list.DoubleList;
+import com.alexlopashev.tuples.templates.procedure.DoubleProcedure;
+import com.alexlopashev.tuples.templates.set.DoubleHashSet;
+
+import java.io.Closeable;
+
+/**
+ * Pair list with columns in native memory, invisible for GC. Columns grow by native
+ * reallocation, nothing is copied through the heap. Memory is released only by
+ * {@link #close()}, the list cannot be used after it.
+ *
+ * Makes sense only for primitive specializations (e.g. IntLongOffHeapList), generic version
+ * throws {@link UnsupportedOperationException} on construction. {@link #getLeft()} and
+ * {@link #getRight()} return heap copies of the columns.
+ */
+public class DoubleOffHeapList<L, R> implements DoubleList<L, R>, Closeable {
+
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    private final int leftWidth;
+
+    private final int rightWidth;
+
+    private long left;
+
+    private long right;
+
+    private int capacity;
+
+    private int size;
+
+    private boolean closed;
+
+    public DoubleOffHeapList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public DoubleOffHeapList(int initialCapacity) {
+        if (initialCapacity < 0) throw new IllegalArgumentException();
+        leftWidth = OffHeapMemory.width((L) null);
+        rightWidth = OffHeapMemory.width((R) null);
+        capacity = Math.max(1, initialCapacity);
+        left = OffHeapMemory.allocate((long) capacity * leftWidth);
+        right = OffHeapMemory.allocate((long) capacity * rightWidth);
+    }
+
+    public DoubleOffHeapList(L[] leftInit, R[] rightInit) {
+        this(leftInit.length);
+        addAll(leftInit, rightInit);
+    }
+
+    @Override
+    public boolean add(L leftElement, R rightElement) {
+        ensureOpen();
+        if (size == Integer.MAX_VALUE) return false;
+        extendBy(1);
+        setLeft(size, leftElement);
+        setRight(size, rightElement);
+        size++;
+        return true;
+    }
+
+    @Override
+    public boolean addAll(L[] leftAdd, R[] rightAdd) {
+        ensureOpen();
+        checkParameters(leftAdd, rightAdd);
+        if (size >= Integer.MAX_VALUE - leftAdd.length) return false;
+        extendBy(leftAdd.length);
+        for (int i = 0; i < leftAdd.length; i++) {
+            setLeft(size + i, leftAdd[i]);
+            setRight(size + i, rightAdd[i]);
+        }
+        size += leftAdd.length;
+        return true;
+    }
+
+    @Override
+    public boolean addAll(DoubleCollection<L, R> collection) {
+        ensureOpen();
+        return addAll(collection.getLeft(), collection.getRight());
+    }
+
+    /**
+     * Drops all pairs and shrinks columns back to default capacity.
+     */
+    @Override
+    public void clear() {
+        ensureOpen();
+        size = 0;
+        resize(DEFAULT_CAPACITY);
+    }
+
+    @Override
+    public boolean contains(L leftElement, R rightElement) {
+        return indexOf(leftElement, rightElement) >= 0;
+    }
+
+    @Override
+    public boolean containsAll(L[] leftElements, R[] rightElements) {
+        checkParameters(leftElements, rightElements);
+        for (int i = 0; i < leftElements.length; i++)
+            if (!contains(leftElements[i], rightElements[i]))
+                return false;
+        return true;
+    }
+
+    @Override
+    public boolean containsAll(DoubleCollection<L, R> collection) {
+        return collection.forEach(new DoubleProcedure<L, R>() {
+            @Override
+            public boolean execute(L leftElement, R rightElement) {
+                return contains(leftElement, rightElement);
+            }
+        });
+    }
+
+    @Override
+    public boolean forEach(DoubleProcedure<L, R> procedure) {
+        ensureOpen();
+        for (int i = 0; i < size; i++)
+            if (!procedure.execute(leftAt(i), rightAt(i)))
+                return false;
+        return true;
+    }
+
+    @Override
+    public int indexOf(L leftElement, R rightElement) {
+        ensureOpen();
+        for (int i = 0; i < size; i++)
+            if (Tuples.equal(leftAt(i), leftElement) && Tuples.equal(rightAt(i), rightElement))
+                return i;
+        return -1;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public DoubleIterator<L, R> iterator() {
+        ensureOpen();
+        return new Iterator();
+    }
+
+    @Override
+    public L getLeft(int index) {
+        ensureOpen();
+        checkIndex(index);
+        return leftAt(index);
+    }
+
+    /**
+     * @return heap copy of the left column
+     */
+    @Override
+    public L[] getLeft() {
+        ensureOpen();
+        L[] result = (L[]) new Object[size];
+        for (int i = 0; i < size; i++)
+            result[i] = leftAt(i);
+        return result;
+    }
+
+    @Override
+    public R getRight(int index) {
+        ensureOpen();
+        checkIndex(index);
+        return rightAt(index);
+    }
+
+    /**
+     * @return heap copy of the right column
+     */
+    @Override
+    public R[] getRight() {
+        ensureOpen();
+        R[] result = (R[]) new Object[size];
+        for (int i = 0; i < size; i++)
+            result[i] = rightAt(i);
+        return result;
+    }
+
+    @Override
+    public boolean remove(int index) {
+        ensureOpen();
+        if (index < 0) throw new IllegalArgumentException();
+        if (index >= size) return false;
+        int tail = size - index - 1;
+        OffHeapMemory.copy(leftAddress(index + 1), leftAddress(index), (long) tail * leftWidth);
+        OffHeapMemory.copy(rightAddress(index + 1), rightAddress(index), (long) tail * rightWidth);
+        size--;
+        return true;
+    }
+
+    @Override
+    public boolean remove(final L leftElement, final R rightElement) {
+        return removeIf(new DoubleProcedure<L, R>() {
+            @Override
+            public boolean execute(L left, R right) {
+                return Tuples.equal(left, leftElement) && Tuples.equal(right, rightElement);
+            }
+        });
+    }
+
+    @Override
+    public boolean removeAll(L[] leftElements, R[] rightElements) {
+        return removeIf(new ProbeProcedure(new DoubleHashSet<L, R>(leftElements, rightElements), true));
+    }
+
+    @Override
+    public boolean removeAll(DoubleCollection<L, R> collection) {
+        return removeIf(new ProbeProcedure(probe(collection), true));
+    }
+
+    @Override
+    public boolean retainAll(L[] leftToRetain, R[] rightToRetain) {
+        return removeIf(new ProbeProcedure(new DoubleHashSet<L, R>(leftToRetain, rightToRetain), false));
+    }
+
+    @Override
+    public boolean retainAll(DoubleCollection<L, R> collection) {
+        return removeIf(new ProbeProcedure(probe(collection), false));
+    }
+
+    @Override
+    public boolean removeIf(DoubleProcedure<L, R> filter) {
+        ensureOpen();
+        int retained = 0;
+        for (int i = 0; i < size; i++) {
+            L leftElement = leftAt(i);
+            R rightElement = rightAt(i);
+            if (filter.execute(leftElement, rightElement))
+                continue;
+            if (retained != i) {
+                setLeft(retained, leftElement);
+                setRight(retained, rightElement);
+            }
+            retained++;
+        }
+        if (retained == size) return false;
+        size = retained;
+        return true;
+    }
+
+    @Override
+    public void transformValues(DoubleFunction<L, R> function) {
+        ensureOpen();
+        for (int i = 0; i < size; i++) {
+            setLeft(i, function.executeLeft(leftAt(i)));
+            setRight(i, function.executeRight(rightAt(i)));
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return off-heap copy of the range, it has to be closed separately
+     */
+    @Override
+    public DoubleOffHeapList<L, R> subList(int begin, int end) {
+        ensureOpen();
+        if (begin < 0 || end > size || begin > end) throw new IndexOutOfBoundsException();
+        DoubleOffHeapList<L, R> list = new DoubleOffHeapList<L, R>(end - begin);
+        OffHeapMemory.copy(leftAddress(begin), list.left, (long) (end - begin) * leftWidth);
+        OffHeapMemory.copy(rightAddress(begin), list.right, (long) (end - begin) * rightWidth);
+        list.size = end - begin;
+        return list;
+    }
+
+    /**
+     * Releases native memory, further calls fail with {@link IllegalStateException}.
+     */
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        OffHeapMemory.free(left);
+        OffHeapMemory.free(right);
+        size = 0;
+    }
+
+    private L leftAt(int index) {
+        return (L) OffHeapMemory.get(leftAddress(index), (L) null);
+    }
+
+    private R rightAt(int index) {
+        return (R) OffHeapMemory.get(rightAddress(index), (R) null);
+    }
+
+    private void setLeft(int index, L value) {
+        OffHeapMemory.put(leftAddress(index), value);
+    }
+
+    private void setRight(int index, R value) {
+        OffHeapMemory.put(rightAddress(index), value);
+    }
+
+    private long leftAddress(int index) {
+        return left + (long) index * leftWidth;
+    }
+
+    private long rightAddress(int index) {
+        return right + (long) index * rightWidth;
+    }
+
+    private void extendBy(int offset) {
+        if (size + offset > capacity)
+            resize((int) Math.min(Integer.MAX_VALUE, Math.max((long) capacity << 1, (long) size + offset)));
+    }
+
+    private void resize(int newCapacity) {
+        newCapacity = Math.max(newCapacity, Math.max(1, size));
+        left = OffHeapMemory.reallocate(left, (long) newCapacity * leftWidth);
+        right = OffHeapMemory.reallocate(right, (long) newCapacity * rightWidth);
+        capacity = newCapacity;
+    }
+
+    private DoubleHashSet<L, R> probe(DoubleCollection<L, R> collection) {
+        if (collection instanceof DoubleHashSet)
+            return (DoubleHashSet<L, R>) collection;
+        return new DoubleHashSet<L, R>(collection);
+    }
+
+    private void ensureOpen() {
+        if (closed) throw new IllegalStateException("List is closed");
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+    }
+
+    private void checkParameters(L[] left, R[] right) {
+        if (left == null || right == null) throw new NullPointerException();
+        if (left.length != right.length) throw new IllegalArgumentException();
+    }
+
+    private class ProbeProcedure implements DoubleProcedure<L, R> {
+
+        private final DoubleHashSet<L, R> probe;
+
+        private final boolean removeContained;
+
+        private ProbeProcedure(DoubleHashSet<L, R> probe, boolean removeContained) {
+            this.probe = probe;
+            this.removeContained = removeContained;
+        }
+
+        @Override
+        public boolean execute(L left, R right) {
+            return probe.contains(left, right) == removeContained;
+        }
+    }
+
+    private class Iterator implements DoubleIterator<L, R> {
+
+        private int current;
+
+        @Override
+        public boolean hasNext() {
+            return current < size;
+        }
+
+        @Override
+        public void iterate() {
+            current++;
+        }
+
+        @Override
+        public boolean remove() {
+            if (!DoubleOffHeapList.this.remove(current)) return false;
+            current--;
+            return true;
+        }
+
+        @Override
+        public L nextLeft() {
+            return getLeft(current);
+        }
+
+        @Override
+        public R nextRight() {
+            return getRight(current);
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package com.alexlopashev.tuples.templates.offheap;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+
+/**
+ * Native memory access for off-heap columns. Reads and writes are overloaded by element type,
+ * reads take a witness value ({@code (L) null} in templates) to select the overload, so
+ * generated primitive lists compile to plain {@code getInt}/{@code putLong}/... calls.
+ * Generic (Object) versions throw {@link UnsupportedOperationException}: objects cannot
+ * live off-heap.
+ *
+ * sun.misc.Unsafe is looked up reflectively and called through constant method handles, so
+ * the tree compiles without internal API warnings while calls are still inlined by the JIT.
+ */
+public final class OffHeapMemory {
+
+    private static final MethodHandle ALLOCATE;
+
+    private static final MethodHandle REALLOCATE;
+
+    private static final MethodHandle FREE;
+
+    private static final MethodHandle COPY;
+
+    private static final MethodHandle GET_BYTE;
+
+    private static final MethodHandle PUT_BYTE;
+
+    private static final MethodHandle GET_CHAR;
+
+    private static final MethodHandle PUT_CHAR;
+
+    private static final MethodHandle GET_SHORT;
+
+    private static final MethodHandle PUT_SHORT;
+
+    private static final MethodHandle GET_INT;
+
+    private static final MethodHandle PUT_INT;
+
+    private static final MethodHandle GET_LONG;
+
+    private static final MethodHandle PUT_LONG;
+
+    private static final MethodHandle GET_FLOAT;
+
+    private static final MethodHandle PUT_FLOAT;
+
+    private static final MethodHandle GET_DOUBLE;
+
+    private static final MethodHandle PUT_DOUBLE;
+
+    static {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            Object unsafe = field.get(null);
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            ALLOCATE = handle(lookup, unsafe, "allocateMemory", MethodType.methodType(long.class, long.class));
+            REALLOCATE = handle(lookup, unsafe, "reallocateMemory", MethodType.methodType(long.class, long.class, long.class));
+            FREE = handle(lookup, unsafe, "freeMemory", MethodType.methodType(void.class, long.class));
+            COPY = handle(lookup, unsafe, "copyMemory", MethodType.methodType(void.class, long.class, long.class, long.class));
+            GET_BYTE = handle(lookup, unsafe, "getByte", MethodType.methodType(byte.class, long.class));
+            PUT_BYTE = handle(lookup, unsafe, "putByte", MethodType.methodType(void.class, long.class, byte.class));
+            GET_CHAR = handle(lookup, unsafe, "getChar", MethodType.methodType(char.class, long.class));
+            PUT_CHAR = handle(lookup, unsafe, "putChar", MethodType.methodType(void.class, long.class, char.class));
+            GET_SHORT = handle(lookup, unsafe, "getShort", MethodType.methodType(short.class, long.class));
+            PUT_SHORT = handle(lookup, unsafe, "putShort", MethodType.methodType(void.class, long.class, short.class));
+            GET_INT = handle(lookup, unsafe, "getInt", MethodType.methodType(int.class, long.class));
+            PUT_INT = handle(lookup, unsafe, "putInt", MethodType.methodType(void.class, long.class, int.class));
+            GET_LONG = handle(lookup, unsafe, "getLong", MethodType.methodType(long.class, long.class));
+            PUT_LONG = handle(lookup, unsafe, "putLong", MethodType.methodType(void.class, long.class, long.class));
+            GET_FLOAT = handle(lookup, unsafe, "getFloat", MethodType.methodType(float.class, long.class));
+            PUT_FLOAT = handle(lookup, unsafe, "putFloat", MethodType.methodType(void.class, long.class, float.class));
+            GET_DOUBLE = handle(lookup, unsafe, "getDouble", MethodType.methodType(double.class, long.class));
+            PUT_DOUBLE = handle(lookup, unsafe, "putDouble", MethodType.methodType(void.class, long.class, double.class));
+        } catch (Exception e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private OffHeapMemory() {
+    }
+
+    public static long allocate(long bytes) {
+        try {
+            return (long) ALLOCATE.invokeExact(Math.max(1L, bytes));
+        } catch (Throwable e) {
+            throw failed(e);
+        }
+    }
+
+    /**
+     * Grows or shrinks block natively, content is preserved and never copied through the heap.
+     */
+    public static long reallocate(long address, long bytes) {
+        try {
+            return (long) REALLOCATE.invokeExact(address, Math.max(1L, bytes));
+        } catch (Throwable e) {
+            throw failed(e);
+        }
+    }
+
+    public static void free(long address) {
+        try {
+            FREE.invokeExact(address);
+        } catch (Throwable e) {
+            throw failed(e);
+        }
+    }
+
+    public static void copy(long from, long to, long bytes) {
+        try {
+            COPY.invokeExact(from, to, bytes);
+        } catch (Throwable e) {
+            throw failed(e);
+        }
+    }
+
+    public static int width(byte witness) {
+        return 1;
+    }
+
+    public static int width(char witness) {
+        return 2;
+    }
+
+    public static int width(short witness) {
+        return 2;
+    }
+
+    public static int width(int witness) {
+        return 4;
+    }
+
+    public static int width(long witness) {
+        return 8;
+    }
+
+    public static int width(float witness) {
+        return 4;
+    }
+
+    public static int width(double witness) {
+        return 8;
+    }
+
+    public static int width(Object witness) {
+        throw unsupported();
+    }
+
+    public static void put(long address, byte value) {
+        try {
+            PUT_BYTE.invokeExact(address, value);
+        } catch (Throwable e) {
+            throw failed(e);
+        }
+    }
+
+    public static void put(long address, char value) {
+        try {
+            PUT_CHAR.invokeExact(address, value);
+        } catch (Throwable e) {
+            throw failed(e);
+        }
+    }
+
+    public static void put(long address, short value) {
+        try {
+            PUT_SHORT.invokeExact(address, value);
+        } catch (Throwable e) {
+            throw failed(e);
+        }
+    }
+
+    public static void put(long address, int value) {
+        try {
+            PUT_INT.invokeExact(address, value);
+        } catch (Throwable e) {
+            throw failed(e);
+        }
+    }
+
+    public static void put(long address, long value) {
+        try {
+            PUT_LONG.invokeExact(address, value);
+        } catch (Throwable e) {
+            throw failed(e);
+        }
+    }
+
+    public static void put(long address, float value) {
+        try {
+            PUT_FLOAT.invokeExact(address, value);
+        } catch (Throwable e) {
+            throw failed(e);
+        }
+    }
+
+    public static void put(long address, double value) {
+        try {
+            PUT_DOUBLE.invokeExact(address, value);
+        } catch (Throwable e) {
+            throw failed(e);
+        }
+    }
+
+    public static void put(long address, Object value) {
+        throw unsupported();
+    }
+
+    public static byte get(long address, byte witness) {
+        try {
+            return (byte) GET_BYTE.invokeExact(address);
+        } catch (Throwable e) {
+            throw failed(e);
+        }
+    }
+
+    public static char get(long address, char witness) {
+        try {
+            return (char) GET_CHAR.invokeExact(address);
+        } catch (Throwable e) {
+            throw failed(e);
+        }
+    }
+
+    public static short get(long address, short witness) {
+        try {
+            return (short) GET_SHORT.invokeExact(address);
+        } catch (Throwable e) {
+            throw failed(e);
+        }
+    }
+
+    public static int get(long address, int witness) {
+        try {
+            return (int) GET_INT.invokeExact(address);
+        } catch (Throwable e) {
+            throw failed(e);
+        }
+    }
+
+    public static long get(long address, long witness) {
+        try {
+            return (long) GET_LONG.invokeExact(address);
+        } catch (Throwable e) {
+            throw failed(e);
+        }
+    }
+
+    public static float get(long address, float witness) {
+        try {
+            return (float) GET_FLOAT.invokeExact(address);
+        } catch (Throwable e) {
+            throw failed(e);
+        }
+    }
+
+    public static double get(long address, double witness) {
+        try {
+            return (double) GET_DOUBLE.invokeExact(address);
+        } catch (Throwable e) {
+            throw failed(e);
+        }
+    }
+
+    public static Object get(long address, Object witness) {
+        throw unsupported();
+    }
+
+    private static MethodHandle handle(MethodHandles.Lookup lookup, Object unsafe, String name, MethodType type)
+            throws ReflectiveOperationException {
+        return lookup.findVirtual(unsafe.getClass(), name, type).bindTo(unsafe);
+    }
+
+    private static RuntimeException failed(Throwable e) {
+        if (e instanceof RuntimeException) throw (RuntimeException) e;
+        if (e instanceof Error) throw (Error) e;
+        throw new IllegalStateException(e);
+    }
+
+    private static UnsupportedOperationException unsupported() {
+        return new UnsupportedOperationException("Only primitive columns can be stored off-heap");
+    }
+}
@@ -0,0 +1,494 @@
+package com.alexlopashev.tuples.templates.offheap;
+
+import com.alexlopashev.tuples.templates.TripleCollection;
+import com.alexlopashev.tuples.templates.Tuples;
+import com.alexlopashev.tuples.templates.function.TripleFunction;
+import com.alexlopashev.tuples.templates.index.ColumnIndex;
+import com.alexlopashev.tuples.templates.index.TripleIndexes;
+import com.alexlopashev.tuples.templates.iterator.TripleIterator;
+import com.alexlopashev.tuples.templates.list.TripleList;
+import com.alexlopashev.tuples.templates.procedure.TripleProcedure;
+import com.alexlopashev.tuples.templates.set.TripleHashSet;
+
+import java.io.Closeable;
+
+/**
+ * Triple list with columns in native memory, invisible for GC. Columns grow by native
+ * reallocation, nothing is copied through the heap. Memory is released only by
+ * {@link #close()}, the list cannot be used after it.
+ *
+ * Makes sense only for primitive specializations (e.g. IntLongDoubleOffHeapList), generic version
+ * throws {@link UnsupportedOperationException} on construction. {@link #getLeft()}, {@link #getMiddle()}
+ * and {@link #getRight()} return heap copies of the columns.
+ */
+public class TripleOffHeapList<L, M, R> implements TripleList<L, M, R>, Closeable {
+
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    private final int leftWidth;
+
+    private final int middleWidth;
+
+    private final int rightWidth;
+
+    private long left;
+
+    private long middle;
+
+    private long right;
+
+    private int capacity;
+
+    private int size;
+
+    private boolean closed;
+
+    private final TripleIndexes<L, M, R> indexes = new TripleIndexes<L, M, R>();
+
+    public TripleOffHeapList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public TripleOffHeapList(int initialCapacity) {
+        if (initialCapacity < 0) throw new IllegalArgumentException();
+        leftWidth = OffHeapMemory.width((L) null);
+        middleWidth = OffHeapMemory.width((M) null);
+        rightWidth = OffHeapMemory.width((R) null);
+        capacity = Math.max(1, initialCapacity);
+        left = OffHeapMemory.allocate((long) capacity * leftWidth);
+        middle = OffHeapMemory.allocate((long) capacity * middleWidth);
+        right = OffHeapMemory.allocate((long) capacity * rightWidth);
+    }
+
+    public TripleOffHeapList(L[] leftInit, M[] middleInit, R[] rightInit) {
+        this(leftInit.length);
+        addAll(leftInit, middleInit, rightInit);
+    }
+
+    @Override
+    public boolean add(L leftElement, M middleElement, R rightElement) {
+        ensureOpen();
+        if (size == Integer.MAX_VALUE) return false;
+        extendBy(1);
+        setLeft(size, leftElement);
+        setMiddle(size, middleElement);
+        setRight(size, rightElement);
+        size++;
+        indexes.added(size - 1, leftElement, middleElement, rightElement);
+        return true;
+    }
+
+    @Override
+    public boolean addAll(L[] leftAdd, M[] middleAdd, R[] rightAdd) {
+        ensureOpen();
+        checkParameters(leftAdd, middleAdd, rightAdd);
+        if (size >= Integer.MAX_VALUE - leftAdd.length) return false;
+        extendBy(leftAdd.length);
+        for (int i = 0; i < leftAdd.length; i++) {
+            setLeft(size + i, leftAdd[i]);
+            setMiddle(size + i, middleAdd[i]);
+            setRight(size + i, rightAdd[i]);
+        }
+        for (int i = 0; i < leftAdd.length; i++)
+            indexes.added(size + i, leftAdd[i], middleAdd[i], rightAdd[i]);
+        size += leftAdd.length;
+        return true;
+    }
+
+    @Override
+    public boolean addAll(TripleCollection<L, M, R> collection) {
+        ensureOpen();
+        return addAll(collection.getLeft(), collection.getMiddle(), collection.getRight());
+    }
+
+    /**
+     * Drops all triples and shrinks columns back to default capacity.
+     */
+    @Override
+    public void clear() {
+        ensureOpen();
+        size = 0;
+        resize(DEFAULT_CAPACITY);
+        indexes.cleared();
+    }
+
+    @Override
+    public boolean contains(L leftElement, M middleElement, R rightElement) {
+        return indexOf(leftElement, middleElement, rightElement) >= 0;
+    }
+
+    @Override
+    public boolean containsAll(L[] leftElements, M[] middleElements, R[] rightElements) {
+        checkParameters(leftElements, middleElements, rightElements);
+        for (int i = 0; i < leftElements.length; i++)
+            if (!contains(leftElements[i], middleElements[i], rightElements[i]))
+                return false;
+        return true;
+    }
+
+    @Override
+    public boolean containsAll(TripleCollection<L, M, R> collection) {
+        return collection.forEach(new TripleProcedure<L, M, R>() {
+            @Override
+            public boolean execute(L leftElement, M middleElement, R rightElement) {
+                return contains(leftElement, middleElement, rightElement);
+            }
+        });
+    }
+
+    @Override
+    public boolean forEach(TripleProcedure<L, M, R> procedure) {
+        ensureOpen();
+        for (int i = 0; i < size; i++)
+            if (!procedure.execute(leftAt(i), middleAt(i), rightAt(i)))
+                return false;
+        return true;
+    }
+
+    @Override
+    public int indexOf(L leftElement, M middleElement, R rightElement) {
+        ensureOpen();
+        for (int i = 0; i < size; i++)
+            if (Tuples.equal(leftAt(i), leftElement) && Tuples.equal(middleAt(i), middleElement)
+                    && Tuples.equal(rightAt(i), rightElement))
+                return i;
+        return -1;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public TripleIterator<L, M, R> iterator() {
+        ensureOpen();
+        return new Iterator();
+    }
+
+    @Override
+    public L getLeft(int index) {
+        ensureOpen();
+        checkIndex(index);
+        return leftAt(index);
+    }
+
+    /**
+     * @return heap copy of the left column
+     */
+    @Override
+    public L[] getLeft() {
+        ensureOpen();
+        L[] result = (L[]) new Object[size];
+        for (int i = 0; i < size; i++)
+            result[i] = leftAt(i);
+        return result;
+    }
+
+    @Override
+    public M getMiddle(int index) {
+        ensureOpen();
+        checkIndex(index);
+        return middleAt(index);
+    }
+
+    /**
+     * @return heap copy of the middle column
+     */
+    @Override
+    public M[] getMiddle() {
+        ensureOpen();
+        M[] result = (M[]) new Object[size];
+        for (int i = 0; i < size; i++)
+            result[i] = middleAt(i);
+        return result;
+    }
+
+    @Override
+    public R getRight(int index) {
+        ensureOpen();
+        checkIndex(index);
+        return rightAt(index);
+    }
+
+    /**
+     * @return heap copy of the right column
+     */
+    @Override
+    public R[] getRight() {
+        ensureOpen();
+        R[] result = (R[]) new Object[size];
+        for (int i = 0; i < size; i++)
+            result[i] = rightAt(i);
+        return result;
+    }
+
+    @Override
+    public boolean remove(int index) {
+        ensureOpen();
+        if (index < 0) throw new IllegalArgumentException();
+        if (index >= size) return false;
+        indexes.removed(index, leftAt(index), middleAt(index), rightAt(index));
+        int tail = size - index - 1;
+        OffHeapMemory.copy(leftAddress(index + 1), leftAddress(index), (long) tail * leftWidth);
+        OffHeapMemory.copy(middleAddress(index + 1), middleAddress(index), (long) tail * middleWidth);
+        OffHeapMemory.copy(rightAddress(index + 1), rightAddress(index), (long) tail * rightWidth);
+        size--;
+        return true;
+    }
+
+    @Override
+    public boolean remove(final L leftElement, final M middleElement, final R rightElement) {
+        return removeIf(new TripleProcedure<L, M, R>() {
+            @Override
+            public boolean execute(L left, M middle, R right) {
+                return Tuples.equal(left, leftElement) && Tuples.equal(middle, middleElement)
+                        && Tuples.equal(right, rightElement);
+            }
+        });
+    }
+
+    @Override
+    public boolean removeAll(L[] leftElements, M[] middleElements, R[] rightElements) {
+        return removeIf(new ProbeProcedure(new TripleHashSet<L, M, R>(leftElements, middleElements, rightElements), true));
+    }
+
+    @Override
+    public boolean removeAll(TripleCollection<L, M, R> collection) {
+        return removeIf(new ProbeProcedure(probe(collection), true));
+    }
+
+    @Override
+    public boolean retainAll(L[] leftToRetain, M[] middleToRetain, R[] rightToRetain) {
+        return removeIf(new ProbeProcedure(new TripleHashSet<L, M, R>(leftToRetain, middleToRetain, rightToRetain), false));
+    }
+
+    @Override
+    public boolean retainAll(TripleCollection<L, M, R> collection) {
+        return removeIf(new ProbeProcedure(probe(collection), false));
+    }
+
+    @Override
+    public boolean removeIf(TripleProcedure<L, M, R> filter) {
+        ensureOpen();
+        int retained = 0;
+        for (int i = 0; i < size; i++) {
+            L leftElement = leftAt(i);
+            M middleElement = middleAt(i);
+            R rightElement = rightAt(i);
+            if (filter.execute(leftElement, middleElement, rightElement))
+                continue;
+            if (retained != i) {
+                setLeft(retained, leftElement);
+                setMiddle(retained, middleElement);
+                setRight(retained, rightElement);
+            }
+            retained++;
+        }
+        if (retained == size) return false;
+        size = retained;
+        indexes.rebuild(this);
+        return true;
+    }
+
+    @Override
+    public void transformValues(TripleFunction<L, M, R> function) {
+        ensureOpen();
+        for (int i = 0; i < size; i++) {
+            setLeft(i, function.executeLeft(leftAt(i)));
+            setMiddle(i, function.executeMiddle(middleAt(i)));
+            setRight(i, function.executeRight(rightAt(i)));
+        }
+        indexes.rebuild(this);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return off-heap copy of the range, it has to be closed separately
+     */
+    @Override
+    public TripleOffHeapList<L, M, R> subList(int begin, int end) {
+        ensureOpen();
+        if (begin < 0 || end > size || begin > end) throw new IndexOutOfBoundsException();
+        TripleOffHeapList<L, M, R> list = new TripleOffHeapList<L, M, R>(end - begin);
+        OffHeapMemory.copy(leftAddress(begin), list.left, (long) (end - begin) * leftWidth);
+        OffHeapMemory.copy(middleAddress(begin), list.middle, (long) (end - begin) * middleWidth);
+        OffHeapMemory.copy(rightAddress(begin), list.right, (long) (end - begin) * rightWidth);
+        list.size = end - begin;
+        return list;
+    }
+
+    @Override
+    public void attachLeftIndex(ColumnIndex<L> index) {
+        indexes.attachLeft(index, this);
+    }
+
+    @Override
+    public void attachMiddleIndex(ColumnIndex<M> index) {
+        indexes.attachMiddle(index, this);
+    }
+
+    @Override
+    public void attachRightIndex(ColumnIndex<R> index) {
+        indexes.attachRight(index, this);
+    }
+
+    @Override
+    public void detachIndexes() {
+        indexes.detach();
+    }
+
+    @Override
+    public int[] lookupLeft(L value) {
+        return indexes.lookupLeft(value, this);
+    }
+
+    @Override
+    public int[] lookupMiddle(M value) {
+        return indexes.lookupMiddle(value, this);
+    }
+
+    @Override
+    public int[] lookupRight(R value) {
+        return indexes.lookupRight(value, this);
+    }
+
+    /**
+     * Releases native memory, further calls fail with {@link IllegalStateException}.
+     */
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        OffHeapMemory.free(left);
+        OffHeapMemory.free(middle);
+        OffHeapMemory.free(right);
+        size = 0;
+    }
+
+    private L leftAt(int index) {
+        return (L) OffHeapMemory.get(leftAddress(index), (L) null);
+    }
+
+    private M middleAt(int index) {
+        return (M) OffHeapMemory.get(middleAddress(index), (M) null);
+    }
+
+    private R rightAt(int index) {
+        return (R) OffHeapMemory.get(rightAddress(index), (R) null);
+    }
+
+    private void setLeft(int index, L value) {
+        OffHeapMemory.put(leftAddress(index), value);
+    }
+
+    private void setMiddle(int index, M value) {
+        OffHeapMemory.put(middleAddress(index), value);
+    }
+
+    private void setRight(int index, R value) {
+        OffHeapMemory.put(rightAddress(index), value);
+    }
+
+    private long leftAddress(int index) {
+        return left + (long) index * leftWidth;
+    }
+
+    private long middleAddress(int index) {
+        return middle + (long) index * middleWidth;
+    }
+
+    private long rightAddress(int index) {
+        return right + (long) index * rightWidth;
+    }
+
+    private void extendBy(int offset) {
+        if (size + offset > capacity)
+            resize((int) Math.min(Integer.MAX_VALUE, Math.max((long) capacity << 1, (long) size + offset)));
+    }
+
+    private void resize(int newCapacity) {
+        newCapacity = Math.max(newCapacity, Math.max(1, size));
+        left = OffHeapMemory.reallocate(left, (long) newCapacity * leftWidth);
+        middle = OffHeapMemory.reallocate(middle, (long) newCapacity * middleWidth);
+        right = OffHeapMemory.reallocate(right, (long) newCapacity * rightWidth);
+        capacity = newCapacity;
+    }
+
+    private TripleHashSet<L, M, R> probe(TripleCollection<L, M, R> collection) {
+        if (collection instanceof TripleHashSet)
+            return (TripleHashSet<L, M, R>) collection;
+        return new TripleHashSet<L, M, R>(collection);
+    }
+
+    private void ensureOpen() {
+        if (closed) throw new IllegalStateException("List is closed");
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+    }
+
+    private void checkParameters(L[] left, M[] middle, R[] right) {
+        if (left == null || middle == null || right == null) throw new NullPointerException();
+        if (left.length != middle.length || middle.length != right.length) throw new IllegalArgumentException();
+    }
+
+    private class ProbeProcedure implements TripleProcedure<L, M, R> {
+
+        private final TripleHashSet<L, M, R> probe;
+
+        private final boolean removeContained;
+
+        private ProbeProcedure(TripleHashSet<L, M, R> probe, boolean removeContained) {
+            this.probe = probe;
+            this.removeContained = removeContained;
+        }
+
+        @Override
+        public boolean execute(L left, M middle, R right) {
+            return probe.contains(left, middle, right) == removeContained;
+        }
+    }
+
+    private class Iterator implements TripleIterator<L, M, R> {
+
+        private int current;
+
+        @Override
+        public boolean hasNext() {
+            return current < size;
+        }
+
+        @Override
+        public void iterate() {
+            current++;
+        }
+
+        @Override
+        public boolean remove() {
+            if (!TripleOffHeapList.this.remove(current)) return false;
+            current--;
+            return true;
+        }
+
+        @Override
+        public L nextLeft() {
+            return getLeft(current);
+        }
+
+        @Override
+        public M nextMiddle() {
+            return getMiddle(current);
+        }
+
+        @Override
+        public R nextRight() {
+            return getRight(current);
+        }
+    }
+}
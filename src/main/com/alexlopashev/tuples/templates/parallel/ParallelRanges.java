@@ -0,0 +1,89 @@
+package com.alexlopashev.tuples.templates.parallel;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Splits [0, size) into ranges processed in a {@link ForkJoinPool}. Ranges are halved until
+ * they are not longer than threshold, leaves run in blocks of {@link #BLOCK} indexes.
+ *
+ * Short-circuit is deterministic: when a range stops at some index, blocks past the lowest
+ * stop index found so far are skipped, while every index before the lowest stop index is
+ * always processed. So the result is the same as of a sequential loop, only indexes after
+ * the stop one may be processed as well.
+ */
+public final class ParallelRanges {
+
+    public static final int DEFAULT_THRESHOLD = 1 << 14;
+
+    public static final int BLOCK = 1 << 10;
+
+    private ParallelRanges() {
+    }
+
+    /**
+     * @return lowest index where procedure stopped, or -1 if all of [0, size) is processed
+     */
+    public static int execute(int size, RangeProcedure procedure, ForkJoinPool pool, int threshold) {
+        if (threshold < 1) throw new IllegalArgumentException("Threshold: " + threshold);
+        AtomicInteger stop = new AtomicInteger(Integer.MAX_VALUE);
+        Task task = new Task(procedure, stop, threshold, 0, size);
+        if (size <= threshold) task.compute();
+        else pool.invoke(task);
+        int index = stop.get();
+        return index == Integer.MAX_VALUE ? -1 : index;
+    }
+
+    public static int execute(int size, RangeProcedure procedure) {
+        return execute(size, procedure, ForkJoinPool.commonPool(), DEFAULT_THRESHOLD);
+    }
+
+    private static class Task extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final RangeProcedure procedure;
+
+        private final AtomicInteger stop;
+
+        private final int threshold;
+
+        private final int begin;
+
+        private final int end;
+
+        private Task(RangeProcedure procedure, AtomicInteger stop, int threshold, int begin, int end) {
+            this.procedure = procedure;
+            this.stop = stop;
+            this.threshold = threshold;
+            this.begin = begin;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - begin > threshold) {
+                int middle = (begin + end) >>> 1;
+                invokeAll(new Task(procedure, stop, threshold, begin, middle),
+                        new Task(procedure, stop, threshold, middle, end));
+                return;
+            }
+            for (int from = begin; from < end && from < stop.get(); ) {
+                int to = end - from > BLOCK ? from + BLOCK : end;
+                int index = procedure.execute(from, to);
+                if (index >= 0) {
+                    lower(index);
+                    return;
+                }
+                from = to;
+            }
+        }
+
+        private void lower(int index) {
+            int current = stop.get();
+            while (index < current && !stop.compareAndSet(current, index))
+                current = stop.get();
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.alexlopashev.tuples.templates.parallel;
+
+/**
+ * Processes a range of list indexes, see {@link ParallelRanges}.
+ */
+public interface RangeProcedure {
+
+    /**
+     * @return index in [begin, end) where processing stopped, or -1 if the whole range is done
+     */
+    int execute(int begin, int end);
+}
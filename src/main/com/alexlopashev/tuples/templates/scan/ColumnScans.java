@@ -0,0 +1,83 @@
+package com.alexlopashev.tuples.templates.scan;
+
+import com.alexlopashev.tuples.templates.Tuples;
+
+/**
+ * Column scan kernels working on blocks of up to {@link #BLOCK} rows. A block is compared
+ * without branches into a bit mask (bit i stands for row from + i), so masks of several
+ * columns are combined with {@code &} and a column is compared only while its block still has
+ * candidates. Callers find rows with {@link Long#numberOfTrailingZeros} and count them with
+ * {@link Long#bitCount}.
+ *
+ * Templates call {@code match} on their columns, after generation overload resolution picks
+ * the primitive kernel. Floating point values are matched by bits, as in {@link Tuples#equal}.
+ */
+public final class ColumnScans {
+
+    public static final int BLOCK = 64;
+
+    private ColumnScans() {
+    }
+
+    public static long match(byte[] column, int from, int to, byte value) {
+        long mask = 0;
+        for (int i = from; i < to; i++)
+            mask |= (column[i] == value ? 1L : 0L) << (i - from);
+        return mask;
+    }
+
+    public static long match(char[] column, int from, int to, char value) {
+        long mask = 0;
+        for (int i = from; i < to; i++)
+            mask |= (column[i] == value ? 1L : 0L) << (i - from);
+        return mask;
+    }
+
+    public static long match(short[] column, int from, int to, short value) {
+        long mask = 0;
+        for (int i = from; i < to; i++)
+            mask |= (column[i] == value ? 1L : 0L) << (i - from);
+        return mask;
+    }
+
+    public static long match(int[] column, int from, int to, int value) {
+        long mask = 0;
+        for (int i = from; i < to; i++)
+            mask |= (column[i] == value ? 1L : 0L) << (i - from);
+        return mask;
+    }
+
+    public static long match(long[] column, int from, int to, long value) {
+        long mask = 0;
+        for (int i = from; i < to; i++)
+            mask |= (column[i] == value ? 1L : 0L) << (i - from);
+        return mask;
+    }
+
+    public static long match(float[] column, int from, int to, float value) {
+        int valueBits = Float.floatToIntBits(value);
+        long mask = 0;
+        for (int i = from; i < to; i++)
+            mask |= (Float.floatToIntBits(column[i]) == valueBits ? 1L : 0L) << (i - from);
+        return mask;
+    }
+
+    public static long match(double[] column, int from, int to, double value) {
+        long valueBits = Double.doubleToLongBits(value);
+        long mask = 0;
+        for (int i = from; i < to; i++)
+            mask |= (Double.doubleToLongBits(column[i]) == valueBits ? 1L : 0L) << (i - from);
+        return mask;
+    }
+
+    /**
+     * Scalar fallback for generic columns.
+     */
+    public static long match(Object[] column, int from, int to, Object value) {
+        long mask = 0;
+        for (int i = from; i < to; i++)
+            if (Tuples.equal(column[i], value))
+                mask |= 1L << (i - from);
+        return mask;
+    }
+}
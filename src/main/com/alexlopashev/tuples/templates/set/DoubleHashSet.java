@@ -0,0 +1,360 @@
+package com.alexlopashev.tuples.templates.set;
+
+import com.alexlopashev.tuples.templates.DoubleCollection;
+import com.alexlopashev.tuples.templates.Tuples;
+import com.alexlopashev.tuples.templates.function.DoubleFunction;
+import com.alexlopashev.tuples.templates.iterator.DoubleIterator;
+import com.alexlopashev.tuples.templates.procedure.DoubleProcedure;
+
+/**
+ * Hash set of pairs with open addressing (linear probing) over parallel left/right
+ * columns, no entry objects are created. Template for primitive hash sets as well.
+ *
+ * Unlike lists {@link #getLeft()} and {@link #getRight()} return compacted copies,
+ * since the table has holes.
+ */
+public class DoubleHashSet<L, R> implements DoubleCollection<L, R> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private static final byte FREE = 0;
+    private static final byte FULL = 1;
+    private static final byte REMOVED = 2;
+
+    private L[] left;
+
+    private R[] right;
+
+    private byte[] states;
+
+    private int size;
+
+    private int removed;
+
+    public DoubleHashSet() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public DoubleHashSet(int expectedSize) {
+        initialize(tableSize(expectedSize));
+    }
+
+    public DoubleHashSet(L[] leftInit, R[] rightInit) {
+        this(leftInit.length);
+        addAll(leftInit, rightInit);
+    }
+
+    public DoubleHashSet(DoubleCollection<L, R> collection) {
+        this(collection.size());
+        addAll(collection);
+    }
+
+    @Override
+    public boolean add(L leftElement, R rightElement) {
+        int index = insertionIndex(leftElement, rightElement);
+        if (index < 0) return false;
+        if (states[index] == REMOVED) removed--;
+        left[index] = leftElement;
+        right[index] = rightElement;
+        states[index] = FULL;
+        size++;
+        if (size + removed > maxFill(states.length))
+            rehash(size + removed > size << 1 ? states.length : states.length << 1);
+        return true;
+    }
+
+    @Override
+    public boolean addAll(L[] leftAdd, R[] rightAdd) {
+        checkParameters(leftAdd, rightAdd);
+        boolean modified = false;
+        for (int i = 0; i < leftAdd.length; i++)
+            modified |= add(leftAdd[i], rightAdd[i]);
+        return modified;
+    }
+
+    @Override
+    public boolean addAll(DoubleCollection<L, R> collection) {
+        AddProcedure procedure = new AddProcedure();
+        collection.forEach(procedure);
+        return procedure.modified;
+    }
+
+    @Override
+    public void clear() {
+        initialize(DEFAULT_CAPACITY);
+    }
+
+    @Override
+    public boolean contains(L leftElement, R rightElement) {
+        return indexOf(leftElement, rightElement) >= 0;
+    }
+
+    @Override
+    public boolean containsAll(L[] leftElements, R[] rightElements) {
+        checkParameters(leftElements, rightElements);
+        for (int i = 0; i < leftElements.length; i++)
+            if (!contains(leftElements[i], rightElements[i]))
+                return false;
+        return true;
+    }
+
+    @Override
+    public boolean containsAll(DoubleCollection<L, R> collection) {
+        return collection.forEach(new DoubleProcedure<L, R>() {
+            @Override
+            public boolean execute(L leftElement, R rightElement) {
+                return contains(leftElement, rightElement);
+            }
+        });
+    }
+
+    @Override
+    public boolean forEach(DoubleProcedure<L, R> procedure) {
+        for (int i = 0; i < states.length; i++)
+            if (states[i] == FULL && !procedure.execute(left[i], right[i]))
+                return false;
+        return true;
+    }
+
+    @Override
+    public DoubleIterator<L, R> iterator() {
+        return new Iterator();
+    }
+
+    @Override
+    public L[] getLeft() {
+        L[] result = initLeft(size);
+        for (int i = 0, j = 0; i < states.length; i++)
+            if (states[i] == FULL)
+                result[j++] = left[i];
+        return result;
+    }
+
+    @Override
+    public R[] getRight() {
+        R[] result = initRight(size);
+        for (int i = 0, j = 0; i < states.length; i++)
+            if (states[i] == FULL)
+                result[j++] = right[i];
+        return result;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void transformValues(DoubleFunction<L, R> function) {
+        L[] oldLeft = left;
+        R[] oldRight = right;
+        byte[] oldStates = states;
+        initialize(states.length);
+        for (int i = 0; i < oldStates.length; i++)
+            if (oldStates[i] == FULL)
+                add(function.executeLeft(oldLeft[i]), function.executeRight(oldRight[i]));
+    }
+
+    @Override
+    public boolean remove(L leftElement, R rightElement) {
+        int index = indexOf(leftElement, rightElement);
+        if (index < 0) return false;
+        removeAt(index);
+        return true;
+    }
+
+    @Override
+    public boolean removeAll(L[] leftElements, R[] rightElements) {
+        checkParameters(leftElements, rightElements);
+        boolean modified = false;
+        for (int i = 0; i < leftElements.length; i++)
+            modified |= remove(leftElements[i], rightElements[i]);
+        return modified;
+    }
+
+    @Override
+    public boolean removeAll(DoubleCollection<L, R> collection) {
+        RemoveProcedure procedure = new RemoveProcedure();
+        collection.forEach(procedure);
+        return procedure.modified;
+    }
+
+    @Override
+    public boolean retainAll(L[] leftToRetain, R[] rightToRetain) {
+        return retainAll(new DoubleHashSet<L, R>(leftToRetain, rightToRetain));
+    }
+
+    @Override
+    public boolean retainAll(DoubleCollection<L, R> collection) {
+        boolean modified = false;
+        for (int i = 0; i < states.length; i++)
+            if (states[i] == FULL && !collection.contains(left[i], right[i])) {
+                removeAt(i);
+                modified = true;
+            }
+        return modified;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private int indexOf(L leftElement, R rightElement) {
+        int mask = states.length - 1;
+        int index = hash(leftElement, rightElement) & mask;
+        while (states[index] != FREE) {
+            if (states[index] == FULL && isSame(left[index], leftElement, right[index], rightElement))
+                return index;
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * @return slot for the new pair or -1 if the pair is already there
+     */
+    private int insertionIndex(L leftElement, R rightElement) {
+        int mask = states.length - 1;
+        int index = hash(leftElement, rightElement) & mask;
+        int firstRemoved = -1;
+        while (states[index] != FREE) {
+            if (states[index] == FULL) {
+                if (isSame(left[index], leftElement, right[index], rightElement))
+                    return -1;
+            } else if (firstRemoved < 0) {
+                firstRemoved = index;
+            }
+            index = (index + 1) & mask;
+        }
+        return firstRemoved >= 0 ? firstRemoved : index;
+    }
+
+    private void removeAt(int index) {
+        left[index] = (L) null;
+        right[index] = (R) null;
+        states[index] = REMOVED;
+        size--;
+        removed++;
+    }
+
+    private void rehash(int newCapacity) {
+        L[] oldLeft = left;
+        R[] oldRight = right;
+        byte[] oldStates = states;
+        initialize(newCapacity);
+        for (int i = 0; i < oldStates.length; i++)
+            if (oldStates[i] == FULL) {
+                int index = insertionIndex(oldLeft[i], oldRight[i]);
+                left[index] = oldLeft[i];
+                right[index] = oldRight[i];
+                states[index] = FULL;
+                size++;
+            }
+    }
+
+    private void initialize(int capacity) {
+        left = initLeft(capacity);
+        right = initRight(capacity);
+        states = new byte[capacity];
+        size = 0;
+        removed = 0;
+    }
+
+    private static int tableSize(int expectedSize) {
+        int capacity = DEFAULT_CAPACITY;
+        while (maxFill(capacity) < expectedSize && capacity < MAX_CAPACITY)
+            capacity <<= 1;
+        return capacity;
+    }
+
+    private static int maxFill(int capacity) {
+        return capacity - (capacity >> 2);
+    }
+
+    private int hash(L leftElement, R rightElement) {
+        return Tuples.mix(31 * Tuples.hash(leftElement) + Tuples.hash(rightElement));
+    }
+
+    private L[] initLeft(int capacity) {
+        return (L[]) new Object[capacity];
+    }
+
+    private R[] initRight(int capacity) {
+        return (R[]) new Object[capacity];
+    }
+
+    private boolean isSame(L l1, L l2, R r1, R r2) {
+        return Tuples.equal(l1, l2) && Tuples.equal(r1, r2);
+    }
+
+    private void checkParameters(L[] left, R[] right) {
+        if (left == null || right == null) throw new NullPointerException();
+        if (left.length != right.length) throw new IllegalArgumentException();
+    }
+
+    private class AddProcedure implements DoubleProcedure<L, R> {
+
+        private boolean modified;
+
+        @Override
+        public boolean execute(L leftElement, R rightElement) {
+            modified |= add(leftElement, rightElement);
+            return true;
+        }
+    }
+
+    private class RemoveProcedure implements DoubleProcedure<L, R> {
+
+        private boolean modified;
+
+        @Override
+        public boolean execute(L leftElement, R rightElement) {
+            modified |= remove(leftElement, rightElement);
+            return true;
+        }
+    }
+
+    private class Iterator implements DoubleIterator<L, R> {
+
+        private int current;
+
+        private Iterator() {
+            current = next(0);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return current < states.length;
+        }
+
+        @Override
+        public void iterate() {
+            current = next(current + 1);
+        }
+
+        @Override
+        public boolean remove() {
+            if (current >= states.length || states[current] != FULL) return false;
+            removeAt(current);
+            return true;
+        }
+
+        @Override
+        public L nextLeft() {
+            return left[current];
+        }
+
+        @Override
+        public R nextRight() {
+            return right[current];
+        }
+
+        private int next(int from) {
+            while (from < states.length && states[from] != FULL)
+                from++;
+            return from;
+        }
+    }
+}
@@ -0,0 +1,387 @@
+package com.alexlopashev.tuples.templates.set;
+
+import com.alexlopashev.tuples.templates.TripleCollection;
+import com.alexlopashev.tuples.templates.Tuples;
+import com.alexlopashev.tuples.templates.function.TripleFunction;
+import com.alexlopashev.tuples.templates.iterator.TripleIterator;
+import com.alexlopashev.tuples.templates.procedure.TripleProcedure;
+
+/**
+ * Hash set of triples with open addressing (linear probing) over parallel left/middle/right
+ * columns, no entry objects are created. Template for primitive hash sets as well.
+ *
+ * Unlike lists {@link #getLeft()}, {@link #getMiddle()} and {@link #getRight()} return compacted copies,
+ * since the table has holes.
+ */
+public class TripleHashSet<L, M, R> implements TripleCollection<L, M, R> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private static final byte FREE = 0;
+    private static final byte FULL = 1;
+    private static final byte REMOVED = 2;
+
+    private L[] left;
+
+    private M[] middle;
+
+    private R[] right;
+
+    private byte[] states;
+
+    private int size;
+
+    private int removed;
+
+    public TripleHashSet() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public TripleHashSet(int expectedSize) {
+        initialize(tableSize(expectedSize));
+    }
+
+    public TripleHashSet(L[] leftInit, M[] middleInit, R[] rightInit) {
+        this(leftInit.length);
+        addAll(leftInit, middleInit, rightInit);
+    }
+
+    public TripleHashSet(TripleCollection<L, M, R> collection) {
+        this(collection.size());
+        addAll(collection);
+    }
+
+    @Override
+    public boolean add(L leftElement, M middleElement, R rightElement) {
+        int index = insertionIndex(leftElement, middleElement, rightElement);
+        if (index < 0) return false;
+        if (states[index] == REMOVED) removed--;
+        left[index] = leftElement;
+        middle[index] = middleElement;
+        right[index] = rightElement;
+        states[index] = FULL;
+        size++;
+        if (size + removed > maxFill(states.length))
+            rehash(size + removed > size << 1 ? states.length : states.length << 1);
+        return true;
+    }
+
+    @Override
+    public boolean addAll(L[] leftAdd, M[] middleAdd, R[] rightAdd) {
+        checkParameters(leftAdd, middleAdd, rightAdd);
+        boolean modified = false;
+        for (int i = 0; i < leftAdd.length; i++)
+            modified |= add(leftAdd[i], middleAdd[i], rightAdd[i]);
+        return modified;
+    }
+
+    @Override
+    public boolean addAll(TripleCollection<L, M, R> collection) {
+        AddProcedure procedure = new AddProcedure();
+        collection.forEach(procedure);
+        return procedure.modified;
+    }
+
+    @Override
+    public void clear() {
+        initialize(DEFAULT_CAPACITY);
+    }
+
+    @Override
+    public boolean contains(L leftElement, M middleElement, R rightElement) {
+        return indexOf(leftElement, middleElement, rightElement) >= 0;
+    }
+
+    @Override
+    public boolean containsAll(L[] leftElements, M[] middleElements, R[] rightElements) {
+        checkParameters(leftElements, middleElements, rightElements);
+        for (int i = 0; i < leftElements.length; i++)
+            if (!contains(leftElements[i], middleElements[i], rightElements[i]))
+                return false;
+        return true;
+    }
+
+    @Override
+    public boolean containsAll(TripleCollection<L, M, R> collection) {
+        return collection.forEach(new TripleProcedure<L, M, R>() {
+            @Override
+            public boolean execute(L leftElement, M middleElement, R rightElement) {
+                return contains(leftElement, middleElement, rightElement);
+            }
+        });
+    }
+
+    @Override
+    public boolean forEach(TripleProcedure<L, M, R> procedure) {
+        for (int i = 0; i < states.length; i++)
+            if (states[i] == FULL && !procedure.execute(left[i], middle[i], right[i]))
+                return false;
+        return true;
+    }
+
+    @Override
+    public TripleIterator<L, M, R> iterator() {
+        return new Iterator();
+    }
+
+    @Override
+    public L[] getLeft() {
+        L[] result = initLeft(size);
+        for (int i = 0, j = 0; i < states.length; i++)
+            if (states[i] == FULL)
+                result[j++] = left[i];
+        return result;
+    }
+
+    @Override
+    public M[] getMiddle() {
+        M[] result = initMiddle(size);
+        for (int i = 0, j = 0; i < states.length; i++)
+            if (states[i] == FULL)
+                result[j++] = middle[i];
+        return result;
+    }
+
+    @Override
+    public R[] getRight() {
+        R[] result = initRight(size);
+        for (int i = 0, j = 0; i < states.length; i++)
+            if (states[i] == FULL)
+                result[j++] = right[i];
+        return result;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void transformValues(TripleFunction<L, M, R> function) {
+        L[] oldLeft = left;
+        M[] oldMiddle = middle;
+        R[] oldRight = right;
+        byte[] oldStates = states;
+        initialize(states.length);
+        for (int i = 0; i < oldStates.length; i++)
+            if (oldStates[i] == FULL)
+                add(function.executeLeft(oldLeft[i]), function.executeMiddle(oldMiddle[i]),
+                        function.executeRight(oldRight[i]));
+    }
+
+    @Override
+    public boolean remove(L leftElement, M middleElement, R rightElement) {
+        int index = indexOf(leftElement, middleElement, rightElement);
+        if (index < 0) return false;
+        removeAt(index);
+        return true;
+    }
+
+    @Override
+    public boolean removeAll(L[] leftElements, M[] middleElements, R[] rightElements) {
+        checkParameters(leftElements, middleElements, rightElements);
+        boolean modified = false;
+        for (int i = 0; i < leftElements.length; i++)
+            modified |= remove(leftElements[i], middleElements[i], rightElements[i]);
+        return modified;
+    }
+
+    @Override
+    public boolean removeAll(TripleCollection<L, M, R> collection) {
+        RemoveProcedure procedure = new RemoveProcedure();
+        collection.forEach(procedure);
+        return procedure.modified;
+    }
+
+    @Override
+    public boolean retainAll(L[] leftToRetain, M[] middleToRetain, R[] rightToRetain) {
+        return retainAll(new TripleHashSet<L, M, R>(leftToRetain, middleToRetain, rightToRetain));
+    }
+
+    @Override
+    public boolean retainAll(TripleCollection<L, M, R> collection) {
+        boolean modified = false;
+        for (int i = 0; i < states.length; i++)
+            if (states[i] == FULL && !collection.contains(left[i], middle[i], right[i])) {
+                removeAt(i);
+                modified = true;
+            }
+        return modified;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private int indexOf(L leftElement, M middleElement, R rightElement) {
+        int mask = states.length - 1;
+        int index = hash(leftElement, middleElement, rightElement) & mask;
+        while (states[index] != FREE) {
+            if (states[index] == FULL && isSame(left[index], leftElement, middle[index], middleElement, right[index], rightElement))
+                return index;
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * @return slot for the new pair or -1 if the pair is already there
+     */
+    private int insertionIndex(L leftElement, M middleElement, R rightElement) {
+        int mask = states.length - 1;
+        int index = hash(leftElement, middleElement, rightElement) & mask;
+        int firstRemoved = -1;
+        while (states[index] != FREE) {
+            if (states[index] == FULL) {
+                if (isSame(left[index], leftElement, middle[index], middleElement, right[index], rightElement))
+                    return -1;
+            } else if (firstRemoved < 0) {
+                firstRemoved = index;
+            }
+            index = (index + 1) & mask;
+        }
+        return firstRemoved >= 0 ? firstRemoved : index;
+    }
+
+    private void removeAt(int index) {
+        left[index] = (L) null;
+        middle[index] = (M) null;
+        right[index] = (R) null;
+        states[index] = REMOVED;
+        size--;
+        removed++;
+    }
+
+    private void rehash(int newCapacity) {
+        L[] oldLeft = left;
+        M[] oldMiddle = middle;
+        R[] oldRight = right;
+        byte[] oldStates = states;
+        initialize(newCapacity);
+        for (int i = 0; i < oldStates.length; i++)
+            if (oldStates[i] == FULL) {
+                int index = insertionIndex(oldLeft[i], oldMiddle[i], oldRight[i]);
+                left[index] = oldLeft[i];
+                middle[index] = oldMiddle[i];
+                right[index] = oldRight[i];
+                states[index] = FULL;
+                size++;
+            }
+    }
+
+    private void initialize(int capacity) {
+        left = initLeft(capacity);
+        middle = initMiddle(capacity);
+        right = initRight(capacity);
+        states = new byte[capacity];
+        size = 0;
+        removed = 0;
+    }
+
+    private static int tableSize(int expectedSize) {
+        int capacity = DEFAULT_CAPACITY;
+        while (maxFill(capacity) < expectedSize && capacity < MAX_CAPACITY)
+            capacity <<= 1;
+        return capacity;
+    }
+
+    private static int maxFill(int capacity) {
+        return capacity - (capacity >> 2);
+    }
+
+    private int hash(L leftElement, M middleElement, R rightElement) {
+        return Tuples.mix(31 * (31 * Tuples.hash(leftElement) + Tuples.hash(middleElement)) + Tuples.hash(rightElement));
+    }
+
+    private L[] initLeft(int capacity) {
+        return (L[]) new Object[capacity];
+    }
+
+    private M[] initMiddle(int capacity) {
+        return (M[]) new Object[capacity];
+    }
+
+    private R[] initRight(int capacity) {
+        return (R[]) new Object[capacity];
+    }
+
+    private boolean isSame(L l1, L l2, M m1, M m2, R r1, R r2) {
+        return Tuples.equal(l1, l2) && Tuples.equal(m1, m2) && Tuples.equal(r1, r2);
+    }
+
+    private void checkParameters(L[] left, M[] middle, R[] right) {
+        if (left == null || middle == null || right == null) throw new NullPointerException();
+        if (left.length != middle.length || middle.length != right.length) throw new IllegalArgumentException();
+    }
+
+    private class AddProcedure implements TripleProcedure<L, M, R> {
+
+        private boolean modified;
+
+        @Override
+        public boolean execute(L leftElement, M middleElement, R rightElement) {
+            modified |= add(leftElement, middleElement, rightElement);
+            return true;
+        }
+    }
+
+    private class RemoveProcedure implements TripleProcedure<L, M, R> {
+
+        private boolean modified;
+
+        @Override
+        public boolean execute(L leftElement, M middleElement, R rightElement) {
+            modified |= remove(leftElement, middleElement, rightElement);
+            return true;
+        }
+    }
+
+    private class Iterator implements TripleIterator<L, M, R> {
+
+        private int current;
+
+        private Iterator() {
+            current = next(0);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return current < states.length;
+        }
+
+        @Override
+        public void iterate() {
+            current = next(current + 1);
+        }
+
+        @Override
+        public boolean remove() {
+            if (current >= states.length || states[current] != FULL) return false;
+            removeAt(current);
+            return true;
+        }
+
+        @Override
+        public L nextLeft() {
+            return left[current];
+        }
+
+        @Override
+        public M nextMiddle() {
+            return middle[current];
+        }
+
+        @Override
+        public R nextRight() {
+            return right[current];
+        }
+
+        private int next(int from) {
+            while (from < states.length && states[from] != FULL)
+                from++;
+            return from;
+        }
+    }
+}
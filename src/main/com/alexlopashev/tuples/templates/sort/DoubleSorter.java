@@ -0,0 +1,143 @@
+package com.alexlopashev.tuples.templates.sort;
+
+import com.alexlopashev.tuples.templates.Tuples;
+import com.alexlopashev.tuples.templates.function.ColumnComparator;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Lexicographic order of pairs: by left value, then by right value. Each column is ordered
+ * by its comparator, or naturally ({@link Tuples#compare}) if comparator is null.
+ *
+ * Sorting permutes both columns together. Primitive columns in natural order are radix
+ * sorted, otherwise rows are merge sorted, in parallel for large lists.
+ */
+public class DoubleSorter<L, R> {
+
+    private final ColumnComparator<L> leftComparator;
+
+    private final ColumnComparator<R> rightComparator;
+
+    private final ForkJoinPool pool;
+
+    private final int threshold;
+
+    public DoubleSorter() {
+        this(null, null);
+    }
+
+    public DoubleSorter(ColumnComparator<L> leftComparator, ColumnComparator<R> rightComparator) {
+        this(leftComparator, rightComparator, ForkJoinPool.commonPool(), Sorting.DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * @param threshold number of rows below which merge sort runs in one thread
+     */
+    public DoubleSorter(ColumnComparator<L> leftComparator, ColumnComparator<R> rightComparator,
+                        ForkJoinPool pool, int threshold) {
+        this.leftComparator = leftComparator;
+        this.rightComparator = rightComparator;
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+
+    /**
+     * @return stable permutation of the first size rows, order[i] is the row which goes to i
+     */
+    public int[] order(L[] left, R[] right, int size) {
+        return order(left, right, 0, size);
+    }
+
+    /**
+     * Sorts the first size pairs of the columns in place.
+     */
+    public void sort(L[] left, R[] right, int size) {
+        permute(left, right, order(left, right, 0, size), 0);
+    }
+
+    /**
+     * Sorts pairs from sorted to size and merges them into the first sorted pairs, which have to
+     * be in order already. Rows of the prefix below the smallest added pair stay in place, the
+     * rest are merged in one linear pass, so adding m pairs to n costs O(n + m log m).
+     */
+    public void merge(L[] left, R[] right, int sorted, int size) {
+        if (sorted == size) return;
+        IndexComparator comparator = comparator(left, right);
+        int[] added = order(left, right, sorted, size);
+        int low = 0;
+        int high = sorted;
+        while (low < high) {
+            int pivot = (low + high) >>> 1;
+            if (comparator.compare(pivot, added[0]) <= 0) low = pivot + 1;
+            else high = pivot;
+        }
+        int[] rows = new int[size - low];
+        for (int row = low; row < sorted; row++)
+            rows[row - low] = row;
+        System.arraycopy(added, 0, rows, sorted - low, size - sorted);
+        int[] order = new int[rows.length];
+        Sorting.merge(rows, order, 0, sorted - low, rows.length, comparator);
+        permute(left, right, order, low);
+    }
+
+    private int[] order(L[] left, R[] right, int from, int to) {
+        int size = to - from;
+        int[] order = Sorting.identity(size);
+        int leftBytes = Sorting.radixBytes((L) null);
+        int rightBytes = Sorting.radixBytes((R) null);
+        if (leftComparator == null && rightComparator == null && leftBytes > 0 && rightBytes > 0) {
+            long[] keys = new long[size];
+            for (int i = 0; i < size; i++)
+                keys[i] = Sorting.radixKey(right[from + i]);
+            Sorting.radixSort(order, keys, rightBytes);
+            for (int i = 0; i < size; i++)
+                keys[i] = Sorting.radixKey(left[from + i]);
+            Sorting.radixSort(order, keys, leftBytes);
+            for (int i = 0; i < size; i++)
+                order[i] += from;
+            return order;
+        }
+        for (int i = 0; i < size; i++)
+            order[i] += from;
+        Sorting.mergeSort(order, comparator(left, right), pool, threshold);
+        return order;
+    }
+
+    private IndexComparator comparator(final L[] left, final R[] right) {
+        return new IndexComparator() {
+            @Override
+            public int compare(int firstRow, int secondRow) {
+                int result = compareLeft(left[firstRow], left[secondRow]);
+                return result != 0 ? result : compareRight(right[firstRow], right[secondRow]);
+            }
+        };
+    }
+
+    /**
+     * Moves rows listed by the order to positions from offset on.
+     */
+    private void permute(L[] left, R[] right, int[] order, int offset) {
+        int size = order.length;
+        L[] sortedLeft = (L[]) new Object[size];
+        R[] sortedRight = (R[]) new Object[size];
+        for (int i = 0; i < size; i++) {
+            sortedLeft[i] = left[order[i]];
+            sortedRight[i] = right[order[i]];
+        }
+        System.arraycopy(sortedLeft, 0, left, offset, size);
+        System.arraycopy(sortedRight, 0, right, offset, size);
+    }
+
+    public int compare(L firstLeft, R firstRight, L secondLeft, R secondRight) {
+        int result = compareLeft(firstLeft, secondLeft);
+        return result != 0 ? result : compareRight(firstRight, secondRight);
+    }
+
+    public int compareLeft(L first, L second) {
+        return leftComparator == null ? Tuples.compare(first, second) : leftComparator.compare(first, second);
+    }
+
+    public int compareRight(R first, R second) {
+        return rightComparator == null ? Tuples.compare(first, second) : rightComparator.compare(first, second);
+    }
+}
@@ -0,0 +1,10 @@
+package com.alexlopashev.tuples.templates.sort;
+
+/**
+ * Compares rows of a list by their positions, see {@link Sorting#mergeSort}.
+ */
+public interface IndexComparator {
+
+    int compare(int firstRow, int secondRow);
+
+}
@@ -0,0 +1,212 @@
+package com.alexlopashev.tuples.templates.sort;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Sorting of row permutations, shared by all sorters. Columns are never moved while sorting,
+ * rows are ordered through an {@code int[]} permutation which is applied to every column once.
+ *
+ * Radix keys are overloaded by element type: a key is an unsigned number ordered the same
+ * way as {@code Tuples.compare} orders values, {@link #radixBytes} returns how many low bytes
+ * of the key are significant, 0 for Object columns which can't be radix sorted.
+ */
+public final class Sorting {
+
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 1 << 13;
+
+    private static final int INSERTION_THRESHOLD = 32;
+
+    private Sorting() {
+    }
+
+    public static int[] identity(int size) {
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++)
+            order[i] = i;
+        return order;
+    }
+
+    public static int radixBytes(byte witness) {
+        return 1;
+    }
+
+    public static int radixBytes(char witness) {
+        return 2;
+    }
+
+    public static int radixBytes(short witness) {
+        return 2;
+    }
+
+    public static int radixBytes(int witness) {
+        return 4;
+    }
+
+    public static int radixBytes(long witness) {
+        return 8;
+    }
+
+    public static int radixBytes(float witness) {
+        return 4;
+    }
+
+    public static int radixBytes(double witness) {
+        return 8;
+    }
+
+    public static int radixBytes(Object witness) {
+        return 0;
+    }
+
+    public static long radixKey(byte value) {
+        return (value ^ 0x80) & 0xFF;
+    }
+
+    public static long radixKey(char value) {
+        return value;
+    }
+
+    public static long radixKey(short value) {
+        return (value ^ 0x8000) & 0xFFFF;
+    }
+
+    public static long radixKey(int value) {
+        return (value ^ Integer.MIN_VALUE) & 0xFFFFFFFFL;
+    }
+
+    public static long radixKey(long value) {
+        return value ^ Long.MIN_VALUE;
+    }
+
+    public static long radixKey(float value) {
+        int bits = Float.floatToIntBits(value);
+        return (bits ^ ((bits >> 31) | Integer.MIN_VALUE)) & 0xFFFFFFFFL;
+    }
+
+    public static long radixKey(double value) {
+        long bits = Double.doubleToLongBits(value);
+        return bits ^ ((bits >> 63) | Long.MIN_VALUE);
+    }
+
+    public static long radixKey(Object value) {
+        throw new UnsupportedOperationException("Object columns have no radix key");
+    }
+
+    /**
+     * Stable LSD radix sort of rows by keys, one counting pass per significant byte.
+     * Passes where all rows have the same byte are skipped.
+     *
+     * @param keys key of every row, indexed by row
+     */
+    public static void radixSort(int[] order, long[] keys, int bytes) {
+        int size = order.length;
+        int[] source = order;
+        int[] target = new int[size];
+        int[] counts = new int[257];
+        for (int shift = 0; shift < bytes << 3; shift += 8) {
+            Arrays.fill(counts, 0);
+            for (int i = 0; i < size; i++)
+                counts[(int) ((keys[source[i]] >>> shift) & 0xFF) + 1]++;
+            if (size == 0 || counts[(int) ((keys[source[0]] >>> shift) & 0xFF) + 1] == size)
+                continue;
+            for (int digit = 0; digit < 256; digit++)
+                counts[digit + 1] += counts[digit];
+            for (int i = 0; i < size; i++)
+                target[counts[(int) ((keys[source[i]] >>> shift) & 0xFF)]++] = source[i];
+            int[] swap = source;
+            source = target;
+            target = swap;
+        }
+        if (source != order)
+            System.arraycopy(source, 0, order, 0, size);
+    }
+
+    /**
+     * Stable merge sort of rows, halves longer than threshold are sorted in parallel.
+     */
+    public static void mergeSort(int[] order, IndexComparator comparator, ForkJoinPool pool, int threshold) {
+        MergeTask task = new MergeTask(order, order.clone(), 0, order.length, comparator, threshold);
+        if (order.length <= threshold) task.compute();
+        else pool.invoke(task);
+    }
+
+    /**
+     * Stable merge of sorted runs [from, middle) and [middle, to) of source into the same range
+     * of target, rows of the first run go first among equal ones.
+     */
+    public static void merge(int[] source, int[] target, int from, int middle, int to, IndexComparator comparator) {
+        if (from == middle || middle == to || comparator.compare(source[middle - 1], source[middle]) <= 0) {
+            System.arraycopy(source, from, target, from, to - from);
+            return;
+        }
+        int i = from;
+        int j = middle;
+        for (int k = from; k < to; k++) {
+            if (j >= to || (i < middle && comparator.compare(source[i], source[j]) <= 0))
+                target[k] = source[i++];
+            else
+                target[k] = source[j++];
+        }
+    }
+
+    /**
+     * Sorts a range of target, using source holding the same rows as scratch space.
+     */
+    private static class MergeTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int[] target;
+
+        private final int[] source;
+
+        private final int from;
+
+        private final int to;
+
+        private final IndexComparator comparator;
+
+        private final int threshold;
+
+        private MergeTask(int[] target, int[] source, int from, int to, IndexComparator comparator, int threshold) {
+            this.target = target;
+            this.source = source;
+            this.from = from;
+            this.to = to;
+            this.comparator = comparator;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= INSERTION_THRESHOLD) {
+                insertionSort();
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            MergeTask first = new MergeTask(source, target, from, middle, comparator, threshold);
+            MergeTask second = new MergeTask(source, target, middle, to, comparator, threshold);
+            if (to - from > threshold) {
+                invokeAll(first, second);
+            } else {
+                first.compute();
+                second.compute();
+            }
+            merge(source, target, from, middle, to, comparator);
+        }
+
+        private void insertionSort() {
+            for (int i = from + 1; i < to; i++) {
+                int row = target[i];
+                int j = i - 1;
+                while (j >= from && comparator.compare(target[j], row) > 0) {
+                    target[j + 1] = target[j];
+                    j--;
+                }
+                target[j + 1] = row;
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.alexlopashev.tuples.templates.stats;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+
+/**
+ * Rows of a list were moved by array copies without changing its capacity.
+ */
+@Label("Tuple List Copy")
+@Category("Tuples")
+@Description("Rows of a tuple list were moved by array copies")
+public class CopyEvent extends Event {
+
+    @Label("List Type")
+    String listType;
+
+    @Label("Operation")
+    @Description("shift, insert, append, copy or unshare")
+    String operation;
+
+    @Label("Copied")
+    @DataAmount
+    long bytes;
+}
@@ -0,0 +1,108 @@
+package com.alexlopashev.tuples.templates.stats;
+
+/**
+ * Counters of resizes, copies and scans of one list, each of them is also reported as a JFR
+ * event ({@link ResizeEvent}, {@link CopyEvent}, {@link ScanEvent}) when a recording enables it.
+ * Lists keep counters only when statistics are enabled for them or for all lists with
+ * {@code -Dcom.alexlopashev.tuples.stats=true}, otherwise instrumented paths cost a null check.
+ *
+ * Counters are not synchronized, a list read by several threads may lose counts.
+ */
+public final class ListCounters {
+
+    /**
+     * Whether new lists count from the start.
+     */
+    public static final boolean ENABLED = Boolean.getBoolean("com.alexlopashev.tuples.stats");
+
+    private final String listType;
+
+    private final int rowBytes;
+
+    private long resizes;
+
+    private long copies;
+
+    private long copiedBytes;
+
+    private long scans;
+
+    private long scannedRows;
+
+    private long scanNanos;
+
+    /**
+     * @param rowBytes bytes of a row in columns
+     */
+    public ListCounters(String listType, int rowBytes) {
+        this.listType = listType;
+        this.rowBytes = rowBytes;
+    }
+
+    public int rowBytes() {
+        return rowBytes;
+    }
+
+    /**
+     * Counts reallocation of columns holding size rows.
+     */
+    public void resized(int oldCapacity, int newCapacity, int size) {
+        long bytes = (long) size * rowBytes;
+        resizes++;
+        copies++;
+        copiedBytes += bytes;
+        ResizeEvent event = new ResizeEvent();
+        if (event.shouldCommit()) {
+            event.listType = listType;
+            event.oldCapacity = oldCapacity;
+            event.newCapacity = newCapacity;
+            event.size = size;
+            event.copiedBytes = bytes;
+            event.wastedBytes = (long) (newCapacity - size) * rowBytes;
+            event.commit();
+        }
+    }
+
+    /**
+     * Counts copy of the given number of bytes.
+     *
+     * @param operation shift, insert, append, copy or unshare
+     */
+    public void copied(String operation, long bytes) {
+        copies++;
+        copiedBytes += bytes;
+        CopyEvent event = new CopyEvent();
+        if (event.shouldCommit()) {
+            event.listType = listType;
+            event.operation = operation;
+            event.bytes = bytes;
+            event.commit();
+        }
+    }
+
+    /**
+     * Counts a search of rows which compared scannedRows of them.
+     *
+     * @param started {@link System#nanoTime()} before the search
+     */
+    public void scanned(int rows, int scannedRows, boolean found, long started) {
+        long nanos = System.nanoTime() - started;
+        scans++;
+        this.scannedRows += scannedRows;
+        scanNanos += nanos;
+        ScanEvent event = new ScanEvent();
+        if (event.shouldCommit()) {
+            event.listType = listType;
+            event.rows = rows;
+            event.scannedRows = scannedRows;
+            event.found = found;
+            event.scanTime = nanos;
+            event.commit();
+        }
+    }
+
+    public ListStatistics snapshot(int size, int capacity) {
+        return new ListStatistics(listType, resizes, copies, copiedBytes, scans, scannedRows, scanNanos,
+                size, capacity, rowBytes);
+    }
+}
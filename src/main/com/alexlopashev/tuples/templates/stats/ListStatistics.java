@@ -0,0 +1,116 @@
+package com.alexlopashev.tuples.templates.stats;
+
+/**
+ * Immutable copy of counters of a list together with its size and capacity at the time.
+ */
+public final class ListStatistics {
+
+    private final String listType;
+
+    private final long resizes;
+
+    private final long copies;
+
+    private final long copiedBytes;
+
+    private final long scans;
+
+    private final long scannedRows;
+
+    private final long scanNanos;
+
+    private final int size;
+
+    private final int capacity;
+
+    private final int rowBytes;
+
+    ListStatistics(String listType, long resizes, long copies, long copiedBytes, long scans, long scannedRows,
+                   long scanNanos, int size, int capacity, int rowBytes) {
+        this.listType = listType;
+        this.resizes = resizes;
+        this.copies = copies;
+        this.copiedBytes = copiedBytes;
+        this.scans = scans;
+        this.scannedRows = scannedRows;
+        this.scanNanos = scanNanos;
+        this.size = size;
+        this.capacity = capacity;
+        this.rowBytes = rowBytes;
+    }
+
+    public String getListType() {
+        return listType;
+    }
+
+    /**
+     * @return number of column reallocations with another capacity
+     */
+    public long getResizes() {
+        return resizes;
+    }
+
+    /**
+     * @return number of array copies of rows, resizes included
+     */
+    public long getCopies() {
+        return copies;
+    }
+
+    /**
+     * @return bytes moved by array copies, resizes included
+     */
+    public long getCopiedBytes() {
+        return copiedBytes;
+    }
+
+    /**
+     * @return number of linear searches
+     */
+    public long getScans() {
+        return scans;
+    }
+
+    /**
+     * @return rows compared by linear searches
+     */
+    public long getScannedRows() {
+        return scannedRows;
+    }
+
+    /**
+     * @return time spent in linear searches
+     */
+    public long getScanNanos() {
+        return scanNanos;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return bytes of a row in columns, a reference for object values
+     */
+    public int getRowBytes() {
+        return rowBytes;
+    }
+
+    /**
+     * @return bytes of allocated rows above size
+     */
+    public long getWastedBytes() {
+        return (long) (capacity - size) * rowBytes;
+    }
+
+    @Override
+    public String toString() {
+        return listType + "{size=" + size + ", capacity=" + capacity + ", wastedBytes=" + getWastedBytes()
+                + ", resizes=" + resizes + ", copies=" + copies + ", copiedBytes=" + copiedBytes
+                + ", scans=" + scans + ", scannedRows=" + scannedRows + ", scanNanos=" + scanNanos + '}';
+    }
+}
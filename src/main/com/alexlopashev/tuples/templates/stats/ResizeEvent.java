@@ -0,0 +1,37 @@
+package com.alexlopashev.tuples.templates.stats;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+
+/**
+ * Columns of a list were reallocated with another capacity.
+ */
+@Label("Tuple List Resize")
+@Category("Tuples")
+@Description("Columns of a tuple list were reallocated with another capacity")
+public class ResizeEvent extends Event {
+
+    @Label("List Type")
+    String listType;
+
+    @Label("Old Capacity")
+    int oldCapacity;
+
+    @Label("New Capacity")
+    int newCapacity;
+
+    @Label("Size")
+    int size;
+
+    @Label("Copied")
+    @DataAmount
+    long copiedBytes;
+
+    @Label("Wasted")
+    @Description("Bytes of allocated rows above size after the resize")
+    @DataAmount
+    long wastedBytes;
+}
@@ -0,0 +1,32 @@
+package com.alexlopashev.tuples.templates.stats;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Timespan;
+
+/**
+ * Linear search over rows of a list, like indexOf or count.
+ */
+@Label("Tuple List Scan")
+@Category("Tuples")
+@Description("Linear search over rows of a tuple list")
+public class ScanEvent extends Event {
+
+    @Label("List Type")
+    String listType;
+
+    @Label("Rows")
+    int rows;
+
+    @Label("Scanned Rows")
+    int scannedRows;
+
+    @Label("Found")
+    boolean found;
+
+    @Label("Scan Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long scanTime;
+}
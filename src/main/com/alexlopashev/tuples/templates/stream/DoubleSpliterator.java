@@ -0,0 +1,87 @@
+package com.alexlopashev.tuples.templates.stream;
+
+import com.alexlopashev.tuples.templates.list.DoubleList;
+import com.alexlopashev.tuples.templates.procedure.DoubleProcedure;
+
+import java.util.Spliterator;
+
+/**
+ * Splittable traversal over a range of a pair list, the counterpart of {@link Spliterator}
+ * which passes pairs to a {@link DoubleProcedure} instead of boxing them. Splits halve the
+ * index range, so sizes are always exact.
+ */
+public class DoubleSpliterator<L, R> {
+
+    public static final int CHARACTERISTICS = Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+
+    private final DoubleList<L, R> list;
+
+    private int index;
+
+    private final int fence;
+
+    public DoubleSpliterator(DoubleList<L, R> list) {
+        this(list, 0, list.size());
+    }
+
+    public DoubleSpliterator(DoubleList<L, R> list, int begin, int end) {
+        if (begin < 0 || end > list.size() || begin > end) throw new IndexOutOfBoundsException();
+        this.list = list;
+        this.index = begin;
+        this.fence = end;
+    }
+
+    /**
+     * Passes next pair to the action, the action's result is ignored.
+     *
+     * @return false if no pairs remain
+     */
+    public boolean tryAdvance(DoubleProcedure<L, R> action) {
+        if (index >= fence) return false;
+        action.execute(list.getLeft(index), list.getRight(index));
+        index++;
+        return true;
+    }
+
+    /**
+     * Passes remaining pairs to the procedure until it returns false.
+     *
+     * @return false if procedure stopped the traversal
+     */
+    public boolean forEachRemaining(DoubleProcedure<L, R> procedure) {
+        while (index < fence) {
+            int current = index++;
+            if (!procedure.execute(list.getLeft(current), list.getRight(current)))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return spliterator over the first half of remaining pairs, this one keeps the second half;
+     * null if there is nothing to split
+     */
+    public DoubleSpliterator<L, R> trySplit() {
+        int middle = (index + fence) >>> 1;
+        if (middle <= index) return null;
+        DoubleSpliterator<L, R> prefix = new DoubleSpliterator<L, R>(list, index, middle);
+        index = middle;
+        return prefix;
+    }
+
+    public long estimateSize() {
+        return fence - index;
+    }
+
+    public long getExactSizeIfKnown() {
+        return estimateSize();
+    }
+
+    public int characteristics() {
+        return CHARACTERISTICS;
+    }
+
+    public boolean hasCharacteristics(int characteristics) {
+        return (CHARACTERISTICS & characteristics) == characteristics;
+    }
+}
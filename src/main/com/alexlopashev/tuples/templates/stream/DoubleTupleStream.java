@@ -0,0 +1,359 @@
+package com.alexlopashev.tuples.templates.stream;
+
+import com.alexlopashev.tuples.templates.function.ColumnReducer;
+import com.alexlopashev.tuples.templates.function.DoubleFunction;
+import com.alexlopashev.tuples.templates.list.DoubleArrayList;
+import com.alexlopashev.tuples.templates.list.DoubleList;
+import com.alexlopashev.tuples.templates.parallel.ParallelRanges;
+import com.alexlopashev.tuples.templates.procedure.DoubleProcedure;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Lazy pipeline over pairs of a {@link DoubleSpliterator}. Intermediate operations only
+ * chain stages, a terminal operation pushes pairs through all of them at once, so no pair
+ * objects and no intermediate lists are created. Like java.util.stream, a stream is
+ * consumed by its terminal operation and cannot be reused.
+ *
+ * Parallel streams split the spliterator in a {@link ForkJoinPool} down to threshold
+ * pairs, partial results are combined in encounter order.
+ */
+public class DoubleTupleStream<L, R> {
+
+    private final DoubleSpliterator<L, R> source;
+
+    private final DoubleTupleStream<L, R> upstream;
+
+    private final DoubleProcedure<L, R> predicate;
+
+    private final DoubleFunction<L, R> function;
+
+    private final ForkJoinPool pool;
+
+    private final int threshold;
+
+    public DoubleTupleStream(DoubleList<L, R> list) {
+        this(new DoubleSpliterator<L, R>(list));
+    }
+
+    public DoubleTupleStream(DoubleSpliterator<L, R> source) {
+        this(source, null, null, null, null, 0);
+    }
+
+    private DoubleTupleStream(DoubleSpliterator<L, R> source, DoubleTupleStream<L, R> upstream,
+                              DoubleProcedure<L, R> predicate, DoubleFunction<L, R> function,
+                              ForkJoinPool pool, int threshold) {
+        this.source = source;
+        this.upstream = upstream;
+        this.predicate = predicate;
+        this.function = function;
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+
+    /**
+     * @return stream of pairs the predicate returns true for
+     */
+    public DoubleTupleStream<L, R> filter(DoubleProcedure<L, R> predicate) {
+        return new DoubleTupleStream<L, R>(source, this, predicate, null, pool, threshold);
+    }
+
+    /**
+     * @return stream of pairs with both values mapped by the function
+     */
+    public DoubleTupleStream<L, R> map(DoubleFunction<L, R> function) {
+        return new DoubleTupleStream<L, R>(source, this, null, function, pool, threshold);
+    }
+
+    public DoubleTupleStream<L, R> parallel() {
+        return parallel(ForkJoinPool.commonPool(), ParallelRanges.DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * @param threshold number of pairs below which a split is processed by one task
+     */
+    public DoubleTupleStream<L, R> parallel(ForkJoinPool pool, int threshold) {
+        if (threshold < 1) throw new IllegalArgumentException("Threshold: " + threshold);
+        return new DoubleTupleStream<L, R>(source, this, null, null, pool, threshold);
+    }
+
+    public DoubleTupleStream<L, R> sequential() {
+        return new DoubleTupleStream<L, R>(source, this, null, null, null, 0);
+    }
+
+    public boolean isParallel() {
+        return pool != null;
+    }
+
+    /**
+     * Passes pairs to the procedure until it returns false. Parallel streams call the procedure
+     * concurrently and not in encounter order, pairs already in flight are still passed after
+     * one of calls returns false.
+     *
+     * @return false if procedure stopped the traversal
+     */
+    public boolean forEach(DoubleProcedure<L, R> procedure) {
+        if (pool == null) return source.forEachRemaining(sink(procedure));
+        ForEachAccumulator accumulator = new ForEachAccumulator(procedure);
+        evaluate(accumulator);
+        return !accumulator.stopped.get();
+    }
+
+    public long count() {
+        return ((CountAccumulator) evaluate(new CountAccumulator())).count;
+    }
+
+    /**
+     * @param identity value which the reducer leaves unchanged, every parallel split starts from it
+     */
+    public L reduceLeft(L identity, ColumnReducer<L> reducer) {
+        return ((LeftAccumulator) evaluate(new LeftAccumulator(identity, reducer))).value;
+    }
+
+    /**
+     * @param identity value which the reducer leaves unchanged, every parallel split starts from it
+     */
+    public R reduceRight(R identity, ColumnReducer<R> reducer) {
+        return ((RightAccumulator) evaluate(new RightAccumulator(identity, reducer))).value;
+    }
+
+    /**
+     * @return new list with pairs in encounter order
+     */
+    public DoubleArrayList<L, R> collect() {
+        return ((CollectAccumulator) evaluate(new CollectAccumulator())).list;
+    }
+
+    /**
+     * Appends pairs to the target in encounter order.
+     *
+     * @return the target
+     */
+    public DoubleList<L, R> collect(DoubleList<L, R> target) {
+        DoubleArrayList<L, R> list = collect();
+        for (int i = 0; i < list.size(); i++)
+            target.add(list.getLeft(i), list.getRight(i));
+        return target;
+    }
+
+    private Accumulator evaluate(Accumulator accumulator) {
+        if (pool == null || source.estimateSize() <= threshold) {
+            source.forEachRemaining(sink(accumulator));
+            return accumulator;
+        }
+        return pool.invoke(new Task(source, accumulator));
+    }
+
+    private DoubleProcedure<L, R> sink(DoubleProcedure<L, R> downstream) {
+        DoubleProcedure<L, R> procedure = downstream;
+        if (predicate != null) procedure = new FilterSink(procedure);
+        else if (function != null) procedure = new MapSink(procedure);
+        return upstream == null ? procedure : upstream.sink(procedure);
+    }
+
+    private class FilterSink implements DoubleProcedure<L, R> {
+
+        private final DoubleProcedure<L, R> downstream;
+
+        private FilterSink(DoubleProcedure<L, R> downstream) {
+            this.downstream = downstream;
+        }
+
+        @Override
+        public boolean execute(L left, R right) {
+            return !predicate.execute(left, right) || downstream.execute(left, right);
+        }
+    }
+
+    private class MapSink implements DoubleProcedure<L, R> {
+
+        private final DoubleProcedure<L, R> downstream;
+
+        private MapSink(DoubleProcedure<L, R> downstream) {
+            this.downstream = downstream;
+        }
+
+        @Override
+        public boolean execute(L left, R right) {
+            return downstream.execute(function.executeLeft(left), function.executeRight(right));
+        }
+    }
+
+    /**
+     * Terminal operation state, every parallel split gets its own one from {@link #create()}.
+     */
+    private abstract class Accumulator implements DoubleProcedure<L, R> {
+
+        abstract Accumulator create();
+
+        /**
+         * Merges state of the split which follows this one in encounter order.
+         */
+        abstract void combine(Accumulator next);
+    }
+
+    private class ForEachAccumulator extends Accumulator {
+
+        private final DoubleProcedure<L, R> procedure;
+
+        private final AtomicBoolean stopped = new AtomicBoolean();
+
+        private ForEachAccumulator(DoubleProcedure<L, R> procedure) {
+            this.procedure = procedure;
+        }
+
+        @Override
+        public boolean execute(L left, R right) {
+            if (stopped.get()) return false;
+            if (procedure.execute(left, right)) return true;
+            stopped.set(true);
+            return false;
+        }
+
+        @Override
+        Accumulator create() {
+            return this;
+        }
+
+        @Override
+        void combine(Accumulator next) {
+        }
+    }
+
+    private class CountAccumulator extends Accumulator {
+
+        private long count;
+
+        @Override
+        public boolean execute(L left, R right) {
+            count++;
+            return true;
+        }
+
+        @Override
+        Accumulator create() {
+            return new CountAccumulator();
+        }
+
+        @Override
+        void combine(Accumulator next) {
+            count += ((CountAccumulator) next).count;
+        }
+    }
+
+    private class LeftAccumulator extends Accumulator {
+
+        private final L identity;
+
+        private final ColumnReducer<L> reducer;
+
+        private L value;
+
+        private LeftAccumulator(L identity, ColumnReducer<L> reducer) {
+            this.identity = identity;
+            this.reducer = reducer;
+            this.value = identity;
+        }
+
+        @Override
+        public boolean execute(L left, R right) {
+            value = reducer.reduce(value, left);
+            return true;
+        }
+
+        @Override
+        Accumulator create() {
+            return new LeftAccumulator(identity, reducer);
+        }
+
+        @Override
+        void combine(Accumulator next) {
+            value = reducer.reduce(value, ((LeftAccumulator) next).value);
+        }
+    }
+
+    private class RightAccumulator extends Accumulator {
+
+        private final R identity;
+
+        private final ColumnReducer<R> reducer;
+
+        private R value;
+
+        private RightAccumulator(R identity, ColumnReducer<R> reducer) {
+            this.identity = identity;
+            this.reducer = reducer;
+            this.value = identity;
+        }
+
+        @Override
+        public boolean execute(L left, R right) {
+            value = reducer.reduce(value, right);
+            return true;
+        }
+
+        @Override
+        Accumulator create() {
+            return new RightAccumulator(identity, reducer);
+        }
+
+        @Override
+        void combine(Accumulator next) {
+            value = reducer.reduce(value, ((RightAccumulator) next).value);
+        }
+    }
+
+    private class CollectAccumulator extends Accumulator {
+
+        private final DoubleArrayList<L, R> list = new DoubleArrayList<L, R>();
+
+        @Override
+        public boolean execute(L left, R right) {
+            return list.add(left, right);
+        }
+
+        @Override
+        Accumulator create() {
+            return new CollectAccumulator();
+        }
+
+        @Override
+        void combine(Accumulator next) {
+            DoubleArrayList<L, R> nextList = ((CollectAccumulator) next).list;
+            for (int i = 0; i < nextList.size(); i++)
+                list.add(nextList.getLeft(i), nextList.getRight(i));
+        }
+    }
+
+    private class Task extends RecursiveTask<Accumulator> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final DoubleSpliterator<L, R> spliterator;
+
+        private final Accumulator prototype;
+
+        private Task(DoubleSpliterator<L, R> spliterator, Accumulator prototype) {
+            this.spliterator = spliterator;
+            this.prototype = prototype;
+        }
+
+        @Override
+        protected Accumulator compute() {
+            DoubleSpliterator<L, R> prefix = spliterator.estimateSize() > threshold ? spliterator.trySplit() : null;
+            if (prefix == null) {
+                Accumulator accumulator = prototype.create();
+                spliterator.forEachRemaining(sink(accumulator));
+                return accumulator;
+            }
+            Task first = new Task(prefix, prototype);
+            first.fork();
+            Accumulator second = new Task(spliterator, prototype).compute();
+            Accumulator result = first.join();
+            result.combine(second);
+            return result;
+        }
+    }
+}
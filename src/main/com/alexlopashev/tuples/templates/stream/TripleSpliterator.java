@@ -0,0 +1,87 @@
+package com.alexlopashev.tuples.templates.stream;
+
+import com.alexlopashev.tuples.templates.list.TripleList;
+import com.alexlopashev.tuples.templates.procedure.TripleProcedure;
+
+import java.util.Spliterator;
+
+/**
+ * Splittable traversal over a range of a triple list, the counterpart of {@link Spliterator}
+ * which passes triples to a {@link TripleProcedure} instead of boxing them. Splits halve the
+ * index range, so sizes are always exact.
+ */
+public class TripleSpliterator<L, M, R> {
+
+    public static final int CHARACTERISTICS = Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+
+    private final TripleList<L, M, R> list;
+
+    private int index;
+
+    private final int fence;
+
+    public TripleSpliterator(TripleList<L, M, R> list) {
+        this(list, 0, list.size());
+    }
+
+    public TripleSpliterator(TripleList<L, M, R> list, int begin, int end) {
+        if (begin < 0 || end > list.size() || begin > end) throw new IndexOutOfBoundsException();
+        this.list = list;
+        this.index = begin;
+        this.fence = end;
+    }
+
+    /**
+     * Passes next triple to the action, the action's result is ignored.
+     *
+     * @return false if no triples remain
+     */
+    public boolean tryAdvance(TripleProcedure<L, M, R> action) {
+        if (index >= fence) return false;
+        action.execute(list.getLeft(index), list.getMiddle(index), list.getRight(index));
+        index++;
+        return true;
+    }
+
+    /**
+     * Passes remaining triples to the procedure until it returns false.
+     *
+     * @return false if procedure stopped the traversal
+     */
+    public boolean forEachRemaining(TripleProcedure<L, M, R> procedure) {
+        while (index < fence) {
+            int current = index++;
+            if (!procedure.execute(list.getLeft(current), list.getMiddle(current), list.getRight(current)))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return spliterator over the first half of remaining triples, this one keeps the second half;
+     * null if there is nothing to split
+     */
+    public TripleSpliterator<L, M, R> trySplit() {
+        int middle = (index + fence) >>> 1;
+        if (middle <= index) return null;
+        TripleSpliterator<L, M, R> prefix = new TripleSpliterator<L, M, R>(list, index, middle);
+        index = middle;
+        return prefix;
+    }
+
+    public long estimateSize() {
+        return fence - index;
+    }
+
+    public long getExactSizeIfKnown() {
+        return estimateSize();
+    }
+
+    public int characteristics() {
+        return CHARACTERISTICS;
+    }
+
+    public boolean hasCharacteristics(int characteristics) {
+        return (CHARACTERISTICS & characteristics) == characteristics;
+    }
+}
@@ -0,0 +1,397 @@
+package com.alexlopashev.tuples.templates.stream;
+
+import com.alexlopashev.tuples.templates.function.ColumnReducer;
+import com.alexlopashev.tuples.templates.function.TripleFunction;
+import com.alexlopashev.tuples.templates.list.TripleArrayList;
+import com.alexlopashev.tuples.templates.list.TripleList;
+import com.alexlopashev.tuples.templates.parallel.ParallelRanges;
+import com.alexlopashev.tuples.templates.procedure.TripleProcedure;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Lazy pipeline over triples of a {@link TripleSpliterator}. Intermediate operations only
+ * chain stages, a terminal operation pushes triples through all of them at once, so no triple
+ * objects and no intermediate lists are created. Like java.util.stream, a stream is
+ * consumed by its terminal operation and cannot be reused.
+ *
+ * Parallel streams split the spliterator in a {@link ForkJoinPool} down to threshold
+ * triples, partial results are combined in encounter order.
+ */
+public class TripleTupleStream<L, M, R> {
+
+    private final TripleSpliterator<L, M, R> source;
+
+    private final TripleTupleStream<L, M, R> upstream;
+
+    private final TripleProcedure<L, M, R> predicate;
+
+    private final TripleFunction<L, M, R> function;
+
+    private final ForkJoinPool pool;
+
+    private final int threshold;
+
+    public TripleTupleStream(TripleList<L, M, R> list) {
+        this(new TripleSpliterator<L, M, R>(list));
+    }
+
+    public TripleTupleStream(TripleSpliterator<L, M, R> source) {
+        this(source, null, null, null, null, 0);
+    }
+
+    private TripleTupleStream(TripleSpliterator<L, M, R> source, TripleTupleStream<L, M, R> upstream,
+                              TripleProcedure<L, M, R> predicate, TripleFunction<L, M, R> function,
+                              ForkJoinPool pool, int threshold) {
+        this.source = source;
+        this.upstream = upstream;
+        this.predicate = predicate;
+        this.function = function;
+        this.pool = pool;
+        this.threshold = threshold;
+    }
+
+    /**
+     * @return stream of triples the predicate returns true for
+     */
+    public TripleTupleStream<L, M, R> filter(TripleProcedure<L, M, R> predicate) {
+        return new TripleTupleStream<L, M, R>(source, this, predicate, null, pool, threshold);
+    }
+
+    /**
+     * @return stream of triples with all values mapped by the function
+     */
+    public TripleTupleStream<L, M, R> map(TripleFunction<L, M, R> function) {
+        return new TripleTupleStream<L, M, R>(source, this, null, function, pool, threshold);
+    }
+
+    public TripleTupleStream<L, M, R> parallel() {
+        return parallel(ForkJoinPool.commonPool(), ParallelRanges.DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * @param threshold number of triples below which a split is processed by one task
+     */
+    public TripleTupleStream<L, M, R> parallel(ForkJoinPool pool, int threshold) {
+        if (threshold < 1) throw new IllegalArgumentException("Threshold: " + threshold);
+        return new TripleTupleStream<L, M, R>(source, this, null, null, pool, threshold);
+    }
+
+    public TripleTupleStream<L, M, R> sequential() {
+        return new TripleTupleStream<L, M, R>(source, this, null, null, null, 0);
+    }
+
+    public boolean isParallel() {
+        return pool != null;
+    }
+
+    /**
+     * Passes triples to the procedure until it returns false. Parallel streams call the procedure
+     * concurrently and not in encounter order, triples already in flight are still passed after
+     * one of calls returns false.
+     *
+     * @return false if procedure stopped the traversal
+     */
+    public boolean forEach(TripleProcedure<L, M, R> procedure) {
+        if (pool == null) return source.forEachRemaining(sink(procedure));
+        ForEachAccumulator accumulator = new ForEachAccumulator(procedure);
+        evaluate(accumulator);
+        return !accumulator.stopped.get();
+    }
+
+    public long count() {
+        return ((CountAccumulator) evaluate(new CountAccumulator())).count;
+    }
+
+    /**
+     * @param identity value which the reducer leaves unchanged, every parallel split starts from it
+     */
+    public L reduceLeft(L identity, ColumnReducer<L> reducer) {
+        return ((LeftAccumulator) evaluate(new LeftAccumulator(identity, reducer))).value;
+    }
+
+    /**
+     * @param identity value which the reducer leaves unchanged, every parallel split starts from it
+     */
+    public M reduceMiddle(M identity, ColumnReducer<M> reducer) {
+        return ((MiddleAccumulator) evaluate(new MiddleAccumulator(identity, reducer))).value;
+    }
+
+    /**
+     * @param identity value which the reducer leaves unchanged, every parallel split starts from it
+     */
+    public R reduceRight(R identity, ColumnReducer<R> reducer) {
+        return ((RightAccumulator) evaluate(new RightAccumulator(identity, reducer))).value;
+    }
+
+    /**
+     * @return new list with triples in encounter order
+     */
+    public TripleArrayList<L, M, R> collect() {
+        return ((CollectAccumulator) evaluate(new CollectAccumulator())).list;
+    }
+
+    /**
+     * Appends triples to the target in encounter order.
+     *
+     * @return the target
+     */
+    public TripleList<L, M, R> collect(TripleList<L, M, R> target) {
+        TripleArrayList<L, M, R> list = collect();
+        for (int i = 0; i < list.size(); i++)
+            target.add(list.getLeft(i), list.getMiddle(i), list.getRight(i));
+        return target;
+    }
+
+    private Accumulator evaluate(Accumulator accumulator) {
+        if (pool == null || source.estimateSize() <= threshold) {
+            source.forEachRemaining(sink(accumulator));
+            return accumulator;
+        }
+        return pool.invoke(new Task(source, accumulator));
+    }
+
+    private TripleProcedure<L, M, R> sink(TripleProcedure<L, M, R> downstream) {
+        TripleProcedure<L, M, R> procedure = downstream;
+        if (predicate != null) procedure = new FilterSink(procedure);
+        else if (function != null) procedure = new MapSink(procedure);
+        return upstream == null ? procedure : upstream.sink(procedure);
+    }
+
+    private class FilterSink implements TripleProcedure<L, M, R> {
+
+        private final TripleProcedure<L, M, R> downstream;
+
+        private FilterSink(TripleProcedure<L, M, R> downstream) {
+            this.downstream = downstream;
+        }
+
+        @Override
+        public boolean execute(L left, M middle, R right) {
+            return !predicate.execute(left, middle, right) || downstream.execute(left, middle, right);
+        }
+    }
+
+    private class MapSink implements TripleProcedure<L, M, R> {
+
+        private final TripleProcedure<L, M, R> downstream;
+
+        private MapSink(TripleProcedure<L, M, R> downstream) {
+            this.downstream = downstream;
+        }
+
+        @Override
+        public boolean execute(L left, M middle, R right) {
+            return downstream.execute(function.executeLeft(left), function.executeMiddle(middle), function.executeRight(right));
+        }
+    }
+
+    /**
+     * Terminal operation state, every parallel split gets its own one from {@link #create()}.
+     */
+    private abstract class Accumulator implements TripleProcedure<L, M, R> {
+
+        abstract Accumulator create();
+
+        /**
+         * Merges state of the split which follows this one in encounter order.
+         */
+        abstract void combine(Accumulator next);
+    }
+
+    private class ForEachAccumulator extends Accumulator {
+
+        private final TripleProcedure<L, M, R> procedure;
+
+        private final AtomicBoolean stopped = new AtomicBoolean();
+
+        private ForEachAccumulator(TripleProcedure<L, M, R> procedure) {
+            this.procedure = procedure;
+        }
+
+        @Override
+        public boolean execute(L left, M middle, R right) {
+            if (stopped.get()) return false;
+            if (procedure.execute(left, middle, right)) return true;
+            stopped.set(true);
+            return false;
+        }
+
+        @Override
+        Accumulator create() {
+            return this;
+        }
+
+        @Override
+        void combine(Accumulator next) {
+        }
+    }
+
+    private class CountAccumulator extends Accumulator {
+
+        private long count;
+
+        @Override
+        public boolean execute(L left, M middle, R right) {
+            count++;
+            return true;
+        }
+
+        @Override
+        Accumulator create() {
+            return new CountAccumulator();
+        }
+
+        @Override
+        void combine(Accumulator next) {
+            count += ((CountAccumulator) next).count;
+        }
+    }
+
+    private class LeftAccumulator extends Accumulator {
+
+        private final L identity;
+
+        private final ColumnReducer<L> reducer;
+
+        private L value;
+
+        private LeftAccumulator(L identity, ColumnReducer<L> reducer) {
+            this.identity = identity;
+            this.reducer = reducer;
+            this.value = identity;
+        }
+
+        @Override
+        public boolean execute(L left, M middle, R right) {
+            value = reducer.reduce(value, left);
+            return true;
+        }
+
+        @Override
+        Accumulator create() {
+            return new LeftAccumulator(identity, reducer);
+        }
+
+        @Override
+        void combine(Accumulator next) {
+            value = reducer.reduce(value, ((LeftAccumulator) next).value);
+        }
+    }
+
+    private class MiddleAccumulator extends Accumulator {
+
+        private final M identity;
+
+        private final ColumnReducer<M> reducer;
+
+        private M value;
+
+        private MiddleAccumulator(M identity, ColumnReducer<M> reducer) {
+            this.identity = identity;
+            this.reducer = reducer;
+            this.value = identity;
+        }
+
+        @Override
+        public boolean execute(L left, M middle, R right) {
+            value = reducer.reduce(value, middle);
+            return true;
+        }
+
+        @Override
+        Accumulator create() {
+            return new MiddleAccumulator(identity, reducer);
+        }
+
+        @Override
+        void combine(Accumulator next) {
+            value = reducer.reduce(value, ((MiddleAccumulator) next).value);
+        }
+    }
+
+    private class RightAccumulator extends Accumulator {
+
+        private final R identity;
+
+        private final ColumnReducer<R> reducer;
+
+        private R value;
+
+        private RightAccumulator(R identity, ColumnReducer<R> reducer) {
+            this.identity = identity;
+            this.reducer = reducer;
+            this.value = identity;
+        }
+
+        @Override
+        public boolean execute(L left, M middle, R right) {
+            value = reducer.reduce(value, right);
+            return true;
+        }
+
+        @Override
+        Accumulator create() {
+            return new RightAccumulator(identity, reducer);
+        }
+
+        @Override
+        void combine(Accumulator next) {
+            value = reducer.reduce(value, ((RightAccumulator) next).value);
+        }
+    }
+
+    private class CollectAccumulator extends Accumulator {
+
+        private final TripleArrayList<L, M, R> list = new TripleArrayList<L, M, R>();
+
+        @Override
+        public boolean execute(L left, M middle, R right) {
+            return list.add(left, middle, right);
+        }
+
+        @Override
+        Accumulator create() {
+            return new CollectAccumulator();
+        }
+
+        @Override
+        void combine(Accumulator next) {
+            TripleArrayList<L, M, R> nextList = ((CollectAccumulator) next).list;
+            for (int i = 0; i < nextList.size(); i++)
+                list.add(nextList.getLeft(i), nextList.getMiddle(i), nextList.getRight(i));
+        }
+    }
+
+    private class Task extends RecursiveTask<Accumulator> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final TripleSpliterator<L, M, R> spliterator;
+
+        private final Accumulator prototype;
+
+        private Task(TripleSpliterator<L, M, R> spliterator, Accumulator prototype) {
+            this.spliterator = spliterator;
+            this.prototype = prototype;
+        }
+
+        @Override
+        protected Accumulator compute() {
+            TripleSpliterator<L, M, R> prefix = spliterator.estimateSize() > threshold ? spliterator.trySplit() : null;
+            if (prefix == null) {
+                Accumulator accumulator = prototype.create();
+                spliterator.forEachRemaining(sink(accumulator));
+                return accumulator;
+            }
+            Task first = new Task(prefix, prototype);
+            first.fork();
+            Accumulator second = new Task(spliterator, prototype).compute();
+            Accumulator result = first.join();
+            result.combine(second);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.alexlopashev.tuples.generator;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TemplateGeneratorTest {
+
+    private static final String TEMPLATES = "com/alexlopashev/tuples/templates/";
+
+    private static final String GENERATED = "com/alexlopashev/tuples/";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void specializesTemplatesForEveryCombinationOfTypes() throws IOException {
+        File source = folder.newFolder("source");
+        File output = folder.newFolder("output");
+        template(source, "pair/DoubleBox.java",
+                "package com.alexlopashev.tuples.templates.pair;\n"
+                        + "\n"
+                        + "public class DoubleBox<L, R> {\n"
+                        + "    private L[] left = (L[]) new Object[4];\n"
+                        + "    private R right = (R) null;\n"
+                        + "    public L first() { return left[0]; }\n"
+                        + "}\n");
+
+        int generated = new TemplateGenerator(source, output, new String[]{"int", "long"}).generate();
+
+        assertEquals(4, generated);
+        String intLong = generated(output, "pair/IntLongBox.java");
+        assertTrue(intLong.startsWith("// Generated by TemplateGenerator"));
+        assertTrue(intLong.contains("package com.alexlopashev.tuples.pair;"));
+        assertTrue(intLong.contains("public class IntLongBox {"));
+        assertTrue(intLong.contains("private int[] left = new int[4];"));
+        assertTrue(intLong.contains("private long right = (long) 0;"));
+        assertTrue(intLong.contains("public int first()"));
+        assertTrue(new File(output, GENERATED + "pair/IntIntBox.java").isFile());
+        assertTrue(new File(output, GENERATED + "pair/LongIntBox.java").isFile());
+        assertTrue(new File(output, GENERATED + "pair/LongLongBox.java").isFile());
+    }
+
+    @Test
+    public void resolvesReferencesAndImportsOfOtherTemplates() throws IOException {
+        File source = folder.newFolder("source");
+        File output = folder.newFolder("output");
+        template(source, "pair/DoubleBox.java",
+                "package com.alexlopashev.tuples.templates.pair;\n"
+                        + "\n"
+                        + "public class DoubleBox<L, R> {\n"
+                        + "    public L left;\n"
+                        + "    public R right;\n"
+                        + "}\n");
+        template(source, "column/ColumnBox.java",
+                "package com.alexlopashev.tuples.templates.column;\n"
+                        + "\n"
+                        + "public class ColumnBox<T> {\n"
+                        + "    public T value;\n"
+                        + "}\n");
+        template(source, "user/DoubleUser.java",
+                "package com.alexlopashev.tuples.templates.user;\n"
+                        + "\n"
+                        + "import com.alexlopashev.tuples.templates.column.ColumnBox;\n"
+                        + "import com.alexlopashev.tuples.templates.pair.DoubleBox;\n"
+                        + "\n"
+                        + "public class DoubleUser<L, R> {\n"
+                        + "    public DoubleBox<L, R> pair = new DoubleBox<L, R>();\n"
+                        + "    public DoubleBox<R, L> swapped = new DoubleBox<R, L>();\n"
+                        + "    public ColumnBox<R> rights = new ColumnBox<R>();\n"
+                        + "    public DoubleUser<L, R> self() { return this; }\n"
+                        + "}\n");
+
+        new TemplateGenerator(source, output, new String[]{"int", "double"}).generate();
+
+        String user = generated(output, "user/IntDoubleUser.java");
+        assertTrue(user.contains("import com.alexlopashev.tuples.column.DoubleColumnBox;"));
+        assertTrue(user.contains("import com.alexlopashev.tuples.pair.IntDoubleBox;"));
+        assertTrue(user.contains("import com.alexlopashev.tuples.pair.DoubleIntBox;"));
+        assertTrue(user.contains("public IntDoubleBox pair = new IntDoubleBox();"));
+        assertTrue(user.contains("public DoubleIntBox swapped = new DoubleIntBox();"));
+        assertTrue(user.contains("public DoubleColumnBox rights = new DoubleColumnBox();"));
+        assertTrue(user.contains("public IntDoubleUser self()"));
+        assertFalse(user.contains("templates"));
+        assertCompiles(output);
+    }
+
+    @Test
+    public void copiesTypesWithoutParametersToTargetPackage() throws IOException {
+        File source = folder.newFolder("source");
+        File output = folder.newFolder("output");
+        template(source, "Helpers.java",
+                "package com.alexlopashev.tuples.templates;\n"
+                        + "\n"
+                        + "public final class Helpers {\n"
+                        + "    public static int hash(int value) { return value; }\n"
+                        + "}\n");
+
+        assertEquals(1, new TemplateGenerator(source, output, new String[]{"int"}).generate());
+        String helpers = generated(output, "Helpers.java");
+        assertTrue(helpers.contains("package com.alexlopashev.tuples;"));
+        assertTrue(helpers.contains("public static int hash(int value)"));
+    }
+
+    @Test
+    public void generatedLibraryTemplatesCompile() throws IOException {
+        File output = folder.newFolder("output");
+        int generated = new TemplateGenerator(new File("src/main"), output, new String[]{"int"}).generate();
+        assertTrue(generated > 0);
+        assertCompiles(output);
+    }
+
+    @Test(expected = IOException.class)
+    public void failsWithoutTemplates() throws IOException {
+        new TemplateGenerator(folder.newFolder("empty"), folder.newFolder("output"), new String[]{"int"}).generate();
+    }
+
+    private static void template(File sourceRoot, String path, String content) throws IOException {
+        File file = new File(sourceRoot, TEMPLATES + path);
+        assertTrue(file.getParentFile().isDirectory() || file.getParentFile().mkdirs());
+        OutputStream out = new FileOutputStream(file);
+        try {
+            out.write(content.getBytes("UTF-8"));
+        } finally {
+            out.close();
+        }
+    }
+
+    private static String generated(File outputRoot, String path) throws IOException {
+        InputStream in = new FileInputStream(new File(outputRoot, GENERATED + path));
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) > 0)
+                out.write(buffer, 0, read);
+            return new String(out.toByteArray(), "UTF-8");
+        } finally {
+            in.close();
+        }
+    }
+
+    private void assertCompiles(File outputRoot) throws IOException {
+        List<String> arguments = new ArrayList<String>();
+        arguments.add("-nowarn");
+        arguments.add("-d");
+        arguments.add(folder.newFolder("classes").getPath());
+        arguments.add("-cp");
+        arguments.add(System.getProperty("java.class.path"));
+        collect(outputRoot, arguments);
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        ByteArrayOutputStream errors = new ByteArrayOutputStream();
+        int result = compiler.run(null, null, errors, arguments.toArray(new String[arguments.size()]));
+        assertEquals(errors.toString(), 0, result);
+    }
+
+    private static void collect(File directory, List<String> files) {
+        File[] children = directory.listFiles();
+        if (children == null) return;
+        for (File child : children) {
+            if (child.isDirectory())
+                collect(child, files);
+            else if (child.getName().endsWith(".java"))
+                files.add(child.getPath());
+        }
+    }
+}
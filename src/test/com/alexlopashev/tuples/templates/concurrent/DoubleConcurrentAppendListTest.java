@@ -0,0 +1,150 @@
+package com.alexlopashev.tuples.templates.concurrent;
+
+import com.alexlopashev.tuples.templates.list.DoubleArrayList;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class DoubleConcurrentAppendListTest {
+
+    private static final int PRODUCERS = 4;
+
+    private static final int ROWS_PER_PRODUCER = 3 * DoubleConcurrentAppendList.SEGMENT_SIZE;
+
+    private static final int BATCH = 100;
+
+    @Test
+    public void publishedPrefixIsGapFreeWithManyProducers() throws Exception {
+        final DoubleConcurrentAppendList<Integer, Integer> list = new DoubleConcurrentAppendList<Integer, Integer>();
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicBoolean producing = new AtomicBoolean(true);
+        final AtomicReference<String> gap = new AtomicReference<String>();
+        List<Thread> producers = new ArrayList<Thread>();
+        for (int p = 0; p < PRODUCERS; p++) {
+            final int producer = p;
+            producers.add(new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    await(start);
+                    for (int sequence = 0; sequence < ROWS_PER_PRODUCER; ) {
+                        if (sequence % (2 * BATCH) == 0) {
+                            Integer[] left = new Integer[BATCH];
+                            Integer[] right = new Integer[BATCH];
+                            for (int i = 0; i < BATCH; i++) {
+                                left[i] = producer;
+                                right[i] = sequence++;
+                            }
+                            list.addAll(left, right);
+                        } else {
+                            list.add(producer, sequence++);
+                        }
+                    }
+                }
+            }));
+        }
+        Thread reader = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                await(start);
+                while (producing.get() && gap.get() == null) {
+                    int size = list.size();
+                    for (int i = size - 1; i >= Math.max(0, size - 1000); i--)
+                        if (list.getLeft(i) == null || list.getRight(i) == null)
+                            gap.compareAndSet(null, "row " + i + " of " + size + " is not written");
+                }
+            }
+        });
+        for (Thread producer : producers)
+            producer.start();
+        reader.start();
+        start.countDown();
+        for (Thread producer : producers)
+            producer.join();
+        producing.set(false);
+        reader.join();
+
+        assertNull(gap.get());
+        assertEquals(PRODUCERS * ROWS_PER_PRODUCER, list.size());
+        int[] next = new int[PRODUCERS];
+        for (int i = 0; i < list.size(); i++) {
+            int producer = list.getLeft(i);
+            assertEquals("order of producer " + producer, next[producer]++, (int) list.getRight(i));
+        }
+        for (int producer = 0; producer < PRODUCERS; producer++)
+            assertEquals(ROWS_PER_PRODUCER, next[producer]);
+    }
+
+    @Test
+    public void sourceGrowingDuringAddAllDoesNotStopPublishing() {
+        DoubleConcurrentAppendList<Integer, Integer> list = new DoubleConcurrentAppendList<Integer, Integer>();
+        list.add(1, 1);
+        GrowingList<Integer, Integer> source = new GrowingList<Integer, Integer>(9, 9);
+        source.add(2, 2);
+        source.add(3, 3);
+        try {
+            list.addAll(source);
+            fail("Columns of different length must be rejected");
+        } catch (IllegalArgumentException expected) {
+        }
+        assertEquals(1, list.size());
+        list.add(4, 4);
+        list.addAll(new DoubleArrayList<Integer, Integer>(new Integer[]{5, 6}, new Integer[]{5, 6}));
+        assertEquals(4, list.size());
+        assertEquals(6, (int) list.getLeft(3));
+    }
+
+    @Test
+    public void addAllOfItselfAppendsPublishedRowsOnce() {
+        DoubleConcurrentAppendList<Integer, Integer> list = new DoubleConcurrentAppendList<Integer, Integer>();
+        for (int i = 0; i < 10; i++)
+            list.add(i, -i);
+        list.addAll(list);
+        assertEquals(20, list.size());
+        for (int i = 0; i < 20; i++) {
+            assertNotNull(list.getLeft(i));
+            assertEquals(i % 10, (int) list.getLeft(i));
+        }
+        assertTrue(list.contains(9, -9));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * List which gets one more pair right after its left column is read, as a source filled
+     * by another thread would.
+     */
+    private static class GrowingList<L, R> extends DoubleArrayList<L, R> {
+
+        private final L extraLeft;
+
+        private final R extraRight;
+
+        private GrowingList(L extraLeft, R extraRight) {
+            this.extraLeft = extraLeft;
+            this.extraRight = extraRight;
+        }
+
+        @Override
+        public L[] getLeft() {
+            L[] left = super.getLeft();
+            add(extraLeft, extraRight);
+            return left;
+        }
+    }
+}
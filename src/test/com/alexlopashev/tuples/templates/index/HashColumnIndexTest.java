@@ -0,0 +1,56 @@
+package com.alexlopashev.tuples.templates.index;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class HashColumnIndexTest {
+
+    @Test
+    public void looksUpRowsInAscendingOrder() {
+        HashColumnIndex<String> index = new HashColumnIndex<String>();
+        index.added(0, "a");
+        index.added(1, "b");
+        index.added(2, "a");
+        index.added(3, null);
+        assertArrayEquals(new int[]{0, 2}, index.lookup("a"));
+        assertArrayEquals(new int[]{3}, index.lookup(null));
+        assertArrayEquals(new int[0], index.lookup("c"));
+        assertEquals(2, index.count("a"));
+        assertEquals(0, index.count("c"));
+    }
+
+    @Test
+    public void shiftsRowsAfterRemovedOne() {
+        HashColumnIndex<Integer> index = new HashColumnIndex<Integer>();
+        for (int row = 0; row < 1000; row++)
+            index.added(row, row % 10);
+        index.removed(5, 5);
+        index.removed(0, 0);
+        int[] zeros = index.lookup(0);
+        assertEquals(99, zeros.length);
+        assertEquals(8, zeros[0]);
+        assertEquals(18, zeros[1]);
+        int[] fives = index.lookup(5);
+        assertEquals(99, fives.length);
+        assertEquals(13, fives[0]);
+        assertArrayEquals(new int[]{0, 9}, Arrays.copyOf(index.lookup(1), 2));
+    }
+
+    @Test
+    public void forgetsValueWithoutRows() {
+        HashColumnIndex<Integer> index = new HashColumnIndex<Integer>();
+        index.added(0, 1);
+        index.added(1, 2);
+        index.removed(0, 1);
+        assertEquals(0, index.count(1));
+        assertArrayEquals(new int[]{0}, index.lookup(2));
+        index.added(1, 1);
+        assertArrayEquals(new int[]{1}, index.lookup(1));
+        index.cleared();
+        assertEquals(0, index.count(2));
+    }
+}
@@ -0,0 +1,57 @@
+package com.alexlopashev.tuples.templates.index;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class SortedColumnIndexTest {
+
+    @Test
+    public void looksUpRowsInAscendingOrder() {
+        SortedColumnIndex<Integer> index = new SortedColumnIndex<Integer>();
+        int[] values = {5, 3, 5, 1, 3, 5};
+        for (int row = 0; row < values.length; row++)
+            index.added(row, values[row]);
+        assertArrayEquals(new int[]{0, 2, 5}, index.lookup(5));
+        assertArrayEquals(new int[]{1, 4}, index.lookup(3));
+        assertArrayEquals(new int[0], index.lookup(4));
+        assertEquals(3, index.count(5));
+    }
+
+    @Test
+    public void answersHalfOpenRanges() {
+        SortedColumnIndex<Integer> index = new SortedColumnIndex<Integer>();
+        int[] values = {5, 3, 5, 1, 3, 5, 7};
+        for (int row = 0; row < values.length; row++)
+            index.added(row, values[row]);
+        assertArrayEquals(new int[]{1, 4, 0, 2, 5}, index.range(2, 7));
+        assertArrayEquals(new int[]{3}, index.range(0, 3));
+        assertArrayEquals(new int[0], index.range(6, 7));
+        assertArrayEquals(new int[0], index.range(7, 1));
+    }
+
+    @Test
+    public void shiftsRowsAfterRemovedOne() {
+        SortedColumnIndex<Integer> index = new SortedColumnIndex<Integer>();
+        for (int row = 0; row < 100; row++)
+            index.added(row, row % 10);
+        index.removed(5, 5);
+        index.removed(0, 0);
+        assertEquals(9, index.count(0));
+        assertEquals(8, index.lookup(0)[0]);
+        assertEquals(13, index.lookup(5)[0]);
+        assertArrayEquals(new int[]{0, 9}, Arrays.copyOf(index.lookup(1), 2));
+        index.cleared();
+        assertEquals(0, index.count(1));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void rejectsRemovalOfUnknownRow() {
+        SortedColumnIndex<Integer> index = new SortedColumnIndex<Integer>();
+        index.added(0, 1);
+        index.removed(0, 2);
+    }
+}
@@ -0,0 +1,82 @@
+package com.alexlopashev.tuples.templates.index;
+
+import com.alexlopashev.tuples.templates.list.TripleArrayList;
+import com.alexlopashev.tuples.templates.procedure.TripleProcedure;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+
+public class TripleIndexesTest {
+
+    private static final int ROWS = 1000;
+
+    private static final int VALUES = 7;
+
+    @Test
+    public void attachedIndexesFollowListChanges() {
+        TripleArrayList<Integer, Integer, Integer> list = new TripleArrayList<Integer, Integer, Integer>();
+        for (int i = 0; i < ROWS / 2; i++)
+            list.add(i % VALUES, i % 3, -i);
+        list.attachLeftIndex(new HashColumnIndex<Integer>());
+        list.attachMiddleIndex(new SortedColumnIndex<Integer>());
+        for (int i = ROWS / 2; i < ROWS; i++)
+            list.add(i % VALUES, i % 3, -i);
+        assertSameAsScan(list);
+        list.remove(0);
+        list.remove(list.size() - 1);
+        list.remove(ROWS / 3);
+        assertSameAsScan(list);
+        list.removeIf(new TripleProcedure<Integer, Integer, Integer>() {
+            @Override
+            public boolean execute(Integer left, Integer middle, Integer right) {
+                return right % 5 == 0;
+            }
+        });
+        assertSameAsScan(list);
+        list.sort();
+        assertSameAsScan(list);
+        list.clear();
+        assertArrayEquals(new int[0], list.lookupLeft(1));
+        list.add(1, 1, 1);
+        assertArrayEquals(new int[]{0}, list.lookupLeft(1));
+        assertArrayEquals(new int[]{0}, list.lookupMiddle(1));
+    }
+
+    @Test
+    public void detachedIndexesAreNotUpdated() {
+        TripleArrayList<Integer, Integer, Integer> list = new TripleArrayList<Integer, Integer, Integer>();
+        HashColumnIndex<Integer> index = new HashColumnIndex<Integer>();
+        list.add(1, 2, 3);
+        list.attachRightIndex(index);
+        assertArrayEquals(new int[]{0}, index.lookup(3));
+        list.detachIndexes();
+        list.add(4, 5, 3);
+        assertArrayEquals(new int[]{0}, index.lookup(3));
+        assertArrayEquals(new int[]{0, 1}, list.lookupRight(3));
+    }
+
+    private static void assertSameAsScan(TripleArrayList<Integer, Integer, Integer> list) {
+        for (int value = 0; value < VALUES; value++) {
+            assertArrayEquals(scanLeft(list, value), list.lookupLeft(value));
+            assertArrayEquals(scanMiddle(list, value), list.lookupMiddle(value));
+        }
+    }
+
+    private static int[] scanLeft(TripleArrayList<Integer, Integer, Integer> list, int value) {
+        int[] rows = new int[list.size()];
+        int count = 0;
+        for (int i = 0; i < list.size(); i++)
+            if (list.getLeft(i) == value) rows[count++] = i;
+        return Arrays.copyOf(rows, count);
+    }
+
+    private static int[] scanMiddle(TripleArrayList<Integer, Integer, Integer> list, int value) {
+        int[] rows = new int[list.size()];
+        int count = 0;
+        for (int i = 0; i < list.size(); i++)
+            if (list.getMiddle(i) == value) rows[count++] = i;
+        return Arrays.copyOf(rows, count);
+    }
+}
@@ -0,0 +1,128 @@
+package com.alexlopashev.tuples.templates.list;
+
+import com.alexlopashev.tuples.templates.function.DoubleFunction;
+import com.alexlopashev.tuples.templates.iterator.DoubleIterator;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DoubleArrayListSubListTest {
+
+    private static final int ROWS = 20;
+
+    @Test
+    public void viewReadsListColumns() {
+        DoubleArrayList<Integer, Integer> list = newList();
+        DoubleArrayList<Integer, Integer>.SubList view = list.subList(5, 10);
+        assertEquals(5, view.size());
+        assertEquals(5, view.getLeft(0).intValue());
+        assertEquals(90, view.getRight(4).intValue());
+        assertEquals(2, view.indexOf(7, 70));
+        assertEquals(-1, view.indexOf(10, 100));
+        list.transformValues(negate());
+        assertEquals(-5, view.getLeft(0).intValue());
+    }
+
+    @Test
+    public void writesThroughViewChangeOnlyItsRange() {
+        DoubleArrayList<Integer, Integer> list = newList();
+        DoubleArrayList<Integer, Integer>.SubList view = list.subList(5, 10);
+        view.transformValues(negate());
+        for (int i = 0; i < ROWS; i++)
+            assertEquals(i >= 5 && i < 10 ? -i : i, list.getLeft(i).intValue());
+    }
+
+    @Test
+    public void structuralChangesThroughViewShiftList() {
+        DoubleArrayList<Integer, Integer> list = newList();
+        DoubleArrayList<Integer, Integer>.SubList view = list.subList(5, 10);
+        assertTrue(view.add(-1, -10));
+        assertEquals(6, view.size());
+        assertEquals(ROWS + 1, list.size());
+        assertEquals(-1, list.getLeft(10).intValue());
+        assertEquals(10, list.getLeft(11).intValue());
+        assertTrue(view.remove(0));
+        assertEquals(6, list.getLeft(5).intValue());
+        assertEquals(ROWS, list.size());
+        view.clear();
+        assertEquals(0, view.size());
+        assertEquals(ROWS - 5, list.size());
+        assertEquals(4, list.getLeft(4).intValue());
+        assertEquals(10, list.getLeft(5).intValue());
+    }
+
+    @Test
+    public void nestedViewResizesItsParents() {
+        DoubleArrayList<Integer, Integer> list = newList();
+        DoubleArrayList<Integer, Integer>.SubList outer = list.subList(2, 12);
+        DoubleArrayList<Integer, Integer>.SubList inner = outer.subList(3, 6);
+        assertEquals(5, inner.getLeft(0).intValue());
+        inner.add(-1, -10);
+        assertEquals(4, inner.size());
+        assertEquals(11, outer.size());
+        assertEquals(-1, outer.getLeft(6).intValue());
+        inner.clear();
+        assertEquals(7, outer.size());
+        assertEquals(ROWS - 3, list.size());
+    }
+
+    @Test
+    public void iteratorRemovesFromList() {
+        DoubleArrayList<Integer, Integer> list = newList();
+        DoubleArrayList<Integer, Integer>.SubList view = list.subList(5, 10);
+        int visited = 0;
+        for (DoubleIterator<Integer, Integer> iterator = view.iterator(); iterator.hasNext(); iterator.iterate()) {
+            assertEquals(iterator.nextLeft() * 10, iterator.nextRight().intValue());
+            if (iterator.nextLeft() % 2 == 0) assertTrue(iterator.remove());
+            visited++;
+        }
+        assertEquals(5, visited);
+        assertEquals(3, view.size());
+        assertEquals(ROWS - 2, list.size());
+        assertEquals(5, list.getLeft(5).intValue());
+        assertEquals(7, list.getLeft(6).intValue());
+    }
+
+    @Test
+    public void copyIsDetached() {
+        DoubleArrayList<Integer, Integer> list = newList();
+        DoubleArrayList<Integer, Integer> copy = list.subList(5, 10).copy();
+        list.transformValues(negate());
+        copy.add(-1, -1);
+        assertEquals(6, copy.size());
+        assertEquals(5, copy.getLeft(0).intValue());
+        assertEquals(ROWS, list.size());
+        assertEquals(-5, list.getLeft(5).intValue());
+    }
+
+    @Test
+    public void writesThroughViewLeaveSnapshotIntact() {
+        DoubleArrayList<Integer, Integer> list = newList();
+        DoubleSnapshotList<Integer, Integer> snapshot = list.snapshot();
+        list.subList(5, 10).transformValues(negate());
+        assertEquals(5, snapshot.getLeft(5).intValue());
+        assertEquals(-5, list.getLeft(5).intValue());
+    }
+
+    private static DoubleArrayList<Integer, Integer> newList() {
+        DoubleArrayList<Integer, Integer> list = new DoubleArrayList<Integer, Integer>();
+        for (int i = 0; i < ROWS; i++)
+            list.add(i, i * 10);
+        return list;
+    }
+
+    private static DoubleFunction<Integer, Integer> negate() {
+        return new DoubleFunction<Integer, Integer>() {
+            @Override
+            public Integer executeLeft(Integer value) {
+                return -value;
+            }
+
+            @Override
+            public Integer executeRight(Integer value) {
+                return -value;
+            }
+        };
+    }
+}
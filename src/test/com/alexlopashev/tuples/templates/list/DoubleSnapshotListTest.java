@@ -0,0 +1,110 @@
+package com.alexlopashev.tuples.templates.list;
+
+import com.alexlopashev.tuples.templates.function.DoubleFunction;
+import com.alexlopashev.tuples.templates.procedure.DoubleProcedure;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DoubleSnapshotListTest {
+
+    private static final int ROWS = 100;
+
+    @Test
+    public void arrayListSnapshotKeepsPairsOfItsTime() {
+        DoubleArrayList<Integer, Integer> list = new DoubleArrayList<Integer, Integer>(4 * ROWS);
+        fill(list, ROWS);
+        DoubleSnapshotList<Integer, Integer> snapshot = list.snapshot();
+        list.add(-1, -1);
+        list.remove(0);
+        list.transformValues(negate());
+        assertRows(snapshot, 0, ROWS);
+        assertEquals(ROWS, list.size());
+        assertEquals(-1, list.getLeft(0).intValue());
+        DoubleSnapshotList<Integer, Integer> second = list.snapshot();
+        list.clear();
+        assertRows(snapshot, 0, ROWS);
+        assertEquals(ROWS, second.size());
+        assertEquals(-1, second.getLeft(0).intValue());
+    }
+
+    @Test
+    public void resetLeavesSnapshotColumnsIntact() {
+        DoubleArrayList<Integer, Integer> list = new DoubleArrayList<Integer, Integer>();
+        fill(list, ROWS);
+        DoubleSnapshotList<Integer, Integer> snapshot = list.snapshot();
+        list.reset();
+        fill(list, 10);
+        assertRows(snapshot, 0, ROWS);
+    }
+
+    @Test
+    public void chunkedListSnapshotKeepsPairsOfItsTime() {
+        DoubleChunkedList<Integer, Integer> list = new DoubleChunkedList<Integer, Integer>(16);
+        fill(list, ROWS);
+        DoubleSnapshotList<Integer, Integer> snapshot = list.snapshot();
+        list.add(-1, -1);
+        list.remove(ROWS / 2);
+        list.transformValues(negate());
+        list.removeIf(new DoubleProcedure<Integer, Integer>() {
+            @Override
+            public boolean execute(Integer left, Integer right) {
+                return left % 3 == 0;
+            }
+        });
+        assertRows(snapshot, 0, ROWS);
+        list.clear();
+        assertRows(snapshot, 0, ROWS);
+    }
+
+    @Test
+    public void subListAndCopyOfSnapshot() {
+        DoubleChunkedList<Integer, Integer> list = new DoubleChunkedList<Integer, Integer>(16);
+        fill(list, ROWS);
+        DoubleSnapshotList<Integer, Integer> snapshot = list.snapshot();
+        DoubleSnapshotList<Integer, Integer> range = snapshot.subList(10, 50);
+        assertRows(range, 10, 40);
+        assertEquals(5, range.indexOf(15, 150));
+        assertFalse(range.contains(5, 50));
+        DoubleArrayList<Integer, Integer> copy = snapshot.toArrayList();
+        copy.remove(0);
+        assertRows(snapshot, 0, ROWS);
+        assertEquals(ROWS - 1, copy.size());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void rejectsChanges() {
+        DoubleArrayList<Integer, Integer> list = new DoubleArrayList<Integer, Integer>();
+        fill(list, ROWS);
+        list.snapshot().remove(0);
+    }
+
+    private static void fill(DoubleList<Integer, Integer> list, int rows) {
+        for (int i = 0; i < rows; i++)
+            assertTrue(list.add(i, i * 10));
+    }
+
+    private static void assertRows(DoubleList<Integer, Integer> list, int first, int rows) {
+        assertEquals(rows, list.size());
+        for (int i = 0; i < rows; i++) {
+            assertEquals(first + i, list.getLeft(i).intValue());
+            assertEquals((first + i) * 10, list.getRight(i).intValue());
+        }
+    }
+
+    private static DoubleFunction<Integer, Integer> negate() {
+        return new DoubleFunction<Integer, Integer>() {
+            @Override
+            public Integer executeLeft(Integer value) {
+                return -value;
+            }
+
+            @Override
+            public Integer executeRight(Integer value) {
+                return -value;
+            }
+        };
+    }
+}
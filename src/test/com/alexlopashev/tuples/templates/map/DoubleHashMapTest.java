@@ -0,0 +1,73 @@
+package com.alexlopashev.tuples.templates.map;
+
+import com.alexlopashev.tuples.templates.procedure.TripleProcedure;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class DoubleHashMapTest {
+
+    private static final int ROWS = 10000;
+
+    @Test
+    public void putReturnsPreviousValue() {
+        DoubleHashMap<Integer, String, Long> map = new DoubleHashMap<Integer, String, Long>(0, -1L);
+        assertEquals(-1L, map.put(1, "a", 10L).longValue());
+        assertEquals(10L, map.put(1, "a", 20L).longValue());
+        assertEquals(-1L, map.put(1, "b", 30L).longValue());
+        assertEquals(2, map.size());
+        assertEquals(20L, map.get(1, "a").longValue());
+        assertEquals(-1L, map.get(2, "a").longValue());
+        assertEquals(-1L, map.getNoEntryValue().longValue());
+    }
+
+    @Test
+    public void putIfAbsentKeepsCurrentValue() {
+        DoubleHashMap<Integer, Integer, String> map = new DoubleHashMap<Integer, Integer, String>();
+        assertNull(map.putIfAbsent(1, 2, "a"));
+        assertEquals("a", map.putIfAbsent(1, 2, "b"));
+        assertEquals("a", map.get(1, 2));
+        assertTrue(map.containsKey(1, 2));
+        assertFalse(map.containsKey(2, 1));
+    }
+
+    @Test
+    public void growsAndRemoves() {
+        DoubleHashMap<Integer, Integer, Integer> map = new DoubleHashMap<Integer, Integer, Integer>();
+        for (int i = 0; i < ROWS; i++)
+            map.put(i, -i, i * 2);
+        assertEquals(ROWS, map.size());
+        for (int i = 0; i < ROWS; i += 2)
+            assertEquals(i * 2, map.remove(i, -i).intValue());
+        assertNull(map.remove(0, 0));
+        assertEquals(ROWS / 2, map.size());
+        for (int i = 0; i < ROWS; i++) {
+            assertEquals(i % 2 == 1, map.containsKey(i, -i));
+            assertEquals(i % 2 == 1 ? Integer.valueOf(i * 2) : null, map.get(i, -i));
+        }
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertFalse(map.containsKey(1, -1));
+    }
+
+    @Test
+    public void visitsEveryEntry() {
+        DoubleHashMap<Integer, Integer, Integer> map = new DoubleHashMap<Integer, Integer, Integer>();
+        for (int i = 0; i < 100; i++)
+            map.put(i, i + 1, i + 2);
+        final int[] visited = new int[1];
+        assertTrue(map.forEachEntry(new TripleProcedure<Integer, Integer, Integer>() {
+            @Override
+            public boolean execute(Integer left, Integer right, Integer value) {
+                assertEquals(left + 1, right.intValue());
+                assertEquals(left + 2, value.intValue());
+                visited[0]++;
+                return true;
+            }
+        }));
+        assertEquals(100, visited[0]);
+    }
+}
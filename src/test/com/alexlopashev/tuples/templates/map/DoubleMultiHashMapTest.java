@@ -0,0 +1,94 @@
+package com.alexlopashev.tuples.templates.map;
+
+import com.alexlopashev.tuples.templates.procedure.DoubleProcedure;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DoubleMultiHashMapTest {
+
+    private static final int KEYS = 1000;
+
+    private static final int VALUES_PER_KEY = 10;
+
+    @Test
+    public void keepsValuesInInsertionOrder() {
+        DoubleMultiHashMap<String, Integer> map = new DoubleMultiHashMap<String, Integer>();
+        map.put("a", 1);
+        map.put("b", 2);
+        map.put("a", 3);
+        map.put("a", 1);
+        assertEquals(2, map.keyCount());
+        assertEquals(4, map.size());
+        assertEquals(3, map.count("a"));
+        assertEquals(0, map.count("c"));
+        Object[] values = map.get("a");
+        assertArrayEquals(new Object[]{1, 3, 1}, values);
+        values = map.get("c");
+        assertEquals(0, values.length);
+    }
+
+    @Test
+    public void growsWithManyKeysAndValues() {
+        DoubleMultiHashMap<Integer, Integer> map = new DoubleMultiHashMap<Integer, Integer>();
+        for (int value = 0; value < VALUES_PER_KEY; value++)
+            for (int key = 0; key < KEYS; key++)
+                map.put(key, key * VALUES_PER_KEY + value);
+        assertEquals(KEYS, map.keyCount());
+        assertEquals(KEYS * VALUES_PER_KEY, map.size());
+        for (int key = 0; key < KEYS; key++) {
+            Object[] values = map.get(key);
+            assertEquals(VALUES_PER_KEY, values.length);
+            for (int value = 0; value < VALUES_PER_KEY; value++)
+                assertEquals(key * VALUES_PER_KEY + value, values[value]);
+        }
+    }
+
+    @Test
+    public void removedKeysLeaveOtherValuesIntact() {
+        DoubleMultiHashMap<Integer, Integer> map = new DoubleMultiHashMap<Integer, Integer>();
+        for (int value = 0; value < VALUES_PER_KEY; value++)
+            for (int key = 0; key < KEYS; key++)
+                map.put(key, value);
+        for (int key = 0; key < KEYS; key += 2)
+            assertEquals(VALUES_PER_KEY, map.removeKey(key));
+        assertEquals(0, map.removeKey(0));
+        assertEquals(KEYS / 2, map.keyCount());
+        assertEquals(KEYS / 2 * VALUES_PER_KEY, map.size());
+        for (int key = 0; key < KEYS; key++) {
+            assertEquals(key % 2 == 1, map.containsKey(key));
+            assertEquals(key % 2 == 1 ? VALUES_PER_KEY : 0, map.count(key));
+        }
+        map.put(0, 42);
+        Object[] values = map.get(0);
+        assertArrayEquals(new Object[]{42}, values);
+        values = map.get(1);
+        assertEquals(VALUES_PER_KEY, values.length);
+        assertEquals(VALUES_PER_KEY - 1, values[VALUES_PER_KEY - 1]);
+    }
+
+    @Test
+    public void visitsValuesOfKeyAndStopsEarly() {
+        DoubleMultiHashMap<Integer, Integer> map = new DoubleMultiHashMap<Integer, Integer>();
+        for (int value = 0; value < VALUES_PER_KEY; value++)
+            map.put(7, value);
+        map.put(8, -1);
+        final int[] visited = new int[1];
+        assertFalse(map.forEachValue(7, new DoubleProcedure<Integer, Integer>() {
+            @Override
+            public boolean execute(Integer key, Integer value) {
+                assertEquals(7, key.intValue());
+                assertEquals(visited[0]++, value.intValue());
+                return value < 4;
+            }
+        }));
+        assertEquals(5, visited[0]);
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertEquals(0, map.keyCount());
+        assertFalse(map.containsKey(7));
+    }
+}
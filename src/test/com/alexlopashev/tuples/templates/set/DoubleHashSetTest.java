@@ -0,0 +1,104 @@
+package com.alexlopashev.tuples.templates.set;
+
+import com.alexlopashev.tuples.templates.iterator.DoubleIterator;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DoubleHashSetTest {
+
+    private static final int ROWS = 10000;
+
+    @Test
+    public void addsEveryPairOnce() {
+        DoubleHashSet<Integer, String> set = new DoubleHashSet<Integer, String>();
+        assertTrue(set.isEmpty());
+        assertTrue(set.add(1, "a"));
+        assertTrue(set.add(1, "b"));
+        assertTrue(set.add(2, "a"));
+        assertFalse(set.add(1, "a"));
+        assertEquals(3, set.size());
+        assertTrue(set.contains(1, "b"));
+        assertFalse(set.contains(2, "b"));
+    }
+
+    @Test
+    public void keepsNullElements() {
+        DoubleHashSet<Integer, String> set = new DoubleHashSet<Integer, String>();
+        assertTrue(set.add(null, "a"));
+        assertTrue(set.add(1, null));
+        assertFalse(set.add(null, "a"));
+        assertTrue(set.contains(null, "a"));
+        assertTrue(set.contains(1, null));
+        assertFalse(set.contains(null, null));
+    }
+
+    @Test
+    public void growsAndFindsAllPairs() {
+        DoubleHashSet<Integer, Integer> set = new DoubleHashSet<Integer, Integer>();
+        for (int i = 0; i < ROWS; i++)
+            assertTrue(set.add(i, -i));
+        assertEquals(ROWS, set.size());
+        for (int i = 0; i < ROWS; i++) {
+            assertTrue(set.contains(i, -i));
+            assertFalse(set.contains(i, i + 1));
+        }
+        Object[] left = set.getLeft();
+        Object[] right = set.getRight();
+        assertEquals(ROWS, left.length);
+        assertEquals(ROWS, right.length);
+        for (int i = 0; i < ROWS; i++)
+            assertEquals(-(Integer) left[i], ((Integer) right[i]).intValue());
+    }
+
+    @Test
+    public void removedPairsDoNotHideOthers() {
+        DoubleHashSet<Integer, Integer> set = new DoubleHashSet<Integer, Integer>();
+        for (int i = 0; i < ROWS; i++)
+            set.add(i, i);
+        for (int i = 0; i < ROWS; i += 2)
+            assertTrue(set.remove(i, i));
+        assertFalse(set.remove(0, 0));
+        assertEquals(ROWS / 2, set.size());
+        for (int i = 0; i < ROWS; i++)
+            assertEquals(i % 2 == 1, set.contains(i, i));
+        for (int i = 0; i < ROWS; i += 2)
+            assertTrue(set.add(i, i));
+        assertEquals(ROWS, set.size());
+    }
+
+    @Test
+    public void removesAndRetainsCollections() {
+        DoubleHashSet<Integer, Integer> set = new DoubleHashSet<Integer, Integer>(
+                new Integer[]{1, 2, 3, 4}, new Integer[]{10, 20, 30, 40});
+        assertTrue(set.removeAll(new Integer[]{1, 5}, new Integer[]{10, 50}));
+        assertFalse(set.removeAll(new Integer[]{1}, new Integer[]{10}));
+        assertTrue(set.retainAll(new Integer[]{2, 3, 4}, new Integer[]{20, 30, 0}));
+        assertEquals(2, set.size());
+        assertTrue(set.containsAll(new Integer[]{2, 3}, new Integer[]{20, 30}));
+        assertFalse(set.contains(4, 40));
+        set.clear();
+        assertTrue(set.isEmpty());
+        assertFalse(set.contains(2, 20));
+    }
+
+    @Test
+    public void iteratorVisitsAndRemovesEveryPair() {
+        DoubleHashSet<Integer, Integer> set = new DoubleHashSet<Integer, Integer>();
+        for (int i = 0; i < 100; i++)
+            set.add(i, i * i);
+        int visited = 0;
+        for (DoubleIterator<Integer, Integer> iterator = set.iterator(); iterator.hasNext(); iterator.iterate()) {
+            int left = iterator.nextLeft();
+            assertEquals(left * left, iterator.nextRight().intValue());
+            if (left % 2 == 0) assertTrue(iterator.remove());
+            visited++;
+        }
+        assertEquals(100, visited);
+        assertEquals(50, set.size());
+        assertFalse(set.contains(0, 0));
+        assertTrue(set.contains(1, 1));
+    }
+}
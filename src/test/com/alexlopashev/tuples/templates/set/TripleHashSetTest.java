@@ -0,0 +1,54 @@
+package com.alexlopashev.tuples.templates.set;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TripleHashSetTest {
+
+    private static final int ROWS = 10000;
+
+    @Test
+    public void addsEveryTripleOnce() {
+        TripleHashSet<Integer, String, Long> set = new TripleHashSet<Integer, String, Long>();
+        assertTrue(set.add(1, "a", 1L));
+        assertTrue(set.add(1, "a", 2L));
+        assertTrue(set.add(1, null, 1L));
+        assertFalse(set.add(1, "a", 1L));
+        assertEquals(3, set.size());
+        assertTrue(set.contains(1, null, 1L));
+        assertFalse(set.contains(2, "a", 1L));
+    }
+
+    @Test
+    public void growsAndRemoves() {
+        TripleHashSet<Integer, Integer, Integer> set = new TripleHashSet<Integer, Integer, Integer>();
+        for (int i = 0; i < ROWS; i++)
+            assertTrue(set.add(i, i + 1, i + 2));
+        assertEquals(ROWS, set.size());
+        for (int i = 0; i < ROWS; i += 2)
+            assertTrue(set.remove(i, i + 1, i + 2));
+        assertEquals(ROWS / 2, set.size());
+        for (int i = 0; i < ROWS; i++)
+            assertEquals(i % 2 == 1, set.contains(i, i + 1, i + 2));
+        Object[] left = set.getLeft();
+        Object[] middle = set.getMiddle();
+        Object[] right = set.getRight();
+        assertEquals(ROWS / 2, left.length);
+        assertEquals(ROWS / 2, middle.length);
+        assertEquals(ROWS / 2, right.length);
+    }
+
+    @Test
+    public void retainsCollection() {
+        TripleHashSet<Integer, Integer, Integer> set = new TripleHashSet<Integer, Integer, Integer>(
+                new Integer[]{1, 2, 3}, new Integer[]{1, 2, 3}, new Integer[]{1, 2, 3});
+        TripleHashSet<Integer, Integer, Integer> other = new TripleHashSet<Integer, Integer, Integer>(
+                new Integer[]{2, 3, 4}, new Integer[]{2, 3, 4}, new Integer[]{2, 0, 4});
+        assertTrue(set.retainAll(other));
+        assertEquals(1, set.size());
+        assertTrue(set.contains(2, 2, 2));
+    }
+}
@@ -0,0 +1,64 @@
+package com.alexlopashev.tuples.templates.sort;
+
+import com.alexlopashev.tuples.templates.function.ColumnComparator;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class DoubleSorterTest {
+
+    private static final int ROWS = 2000;
+
+    private static final int BATCH = 37;
+
+    @Test
+    public void mergeOfBatchesEqualsSortOfAll() {
+        assertMergeEqualsSort(new DoubleSorter<Integer, Integer>());
+    }
+
+    @Test
+    public void mergeFollowsComparators() {
+        assertMergeEqualsSort(new DoubleSorter<Integer, Integer>(new ColumnComparator<Integer>() {
+            @Override
+            public int compare(Integer first, Integer second) {
+                return second.compareTo(first);
+            }
+        }, null));
+    }
+
+    @Test
+    public void mergeKeepsPrefixBelowAddedRows() {
+        DoubleSorter<Integer, Integer> sorter = new DoubleSorter<Integer, Integer>();
+        Integer[] left = {1, 2, 3, 4, 9, 0, 5};
+        Integer[] right = {0, 0, 0, 0, 0, 0, 0};
+        sorter.merge(left, right, 5, 6);
+        assertEquals(Integer.valueOf(5), left[6]);
+        assertEquals("[0, 1, 2, 3, 4, 9]", Arrays.toString(Arrays.copyOf(left, 6)));
+        sorter.merge(left, right, 6, 7);
+        assertEquals("[0, 1, 2, 3, 4, 5, 9]", Arrays.toString(left));
+        sorter.merge(left, right, 7, 7);
+        assertEquals("[0, 1, 2, 3, 4, 5, 9]", Arrays.toString(left));
+    }
+
+    private static void assertMergeEqualsSort(DoubleSorter<Integer, Integer> sorter) {
+        Random random = new Random(42);
+        Integer[] left = new Integer[ROWS];
+        Integer[] right = new Integer[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            left[i] = random.nextInt(100);
+            right[i] = random.nextInt(10);
+        }
+        Integer[] expectedLeft = left.clone();
+        Integer[] expectedRight = right.clone();
+        sorter.sort(expectedLeft, expectedRight, ROWS);
+        for (int sorted = 0; sorted < ROWS; sorted += BATCH)
+            sorter.merge(left, right, sorted, Math.min(ROWS, sorted + BATCH));
+        for (int i = 0; i < ROWS; i++) {
+            assertEquals(expectedLeft[i], left[i]);
+            assertEquals(expectedRight[i], right[i]);
+        }
+    }
+}